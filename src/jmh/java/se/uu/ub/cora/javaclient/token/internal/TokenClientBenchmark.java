@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.token.internal;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import se.uu.ub.cora.clientdata.ClientDataAuthentication;
+import se.uu.ub.cora.clientdata.converter.JsonToClientDataConverterProvider;
+import se.uu.ub.cora.clientdata.spies.ClientActionLinkSpy;
+import se.uu.ub.cora.clientdata.spies.JsonToClientDataConverterFactorySpy;
+import se.uu.ub.cora.clientdata.spies.JsonToClientDataConverterSpy;
+import se.uu.ub.cora.httphandler.spies.HttpHandlerFactorySpy;
+import se.uu.ub.cora.httphandler.spies.HttpHandlerSpy;
+import se.uu.ub.cora.javaclient.AppTokenCredentials;
+
+/**
+ * TokenClientBenchmark measures the throughput of {@link TokenClientImp#getAuthToken()} once the
+ * client is logged in, as every request sent by a rest client reads the authToken.
+ * <p>
+ * lockFreeRead reads the authToken the way TokenClientImp does it. synchronizedRead reads it
+ * holding one monitor shared by all threads, as getAuthToken did when it was synchronized, and
+ * is the baseline to compare with.
+ * <p>
+ * Run it using the jmh profile, which runs {@link #main(String[])}, measuring both reads using 1,
+ * 2, 4, 8, 16, 32 and 64 threads:
+ * 
+ * <pre>
+ * mvn -P jmh test-compile exec:exec
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenClientBenchmark {
+	private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16, 32, 64 };
+	private static final String LOGIN_URL = "http://localhost:8080/login/rest/";
+	private static final String SOME_TOKEN = "someToken";
+	private final Object monitor = new Object();
+	private TokenClientImp tokenClient;
+
+	public static void main(String[] args) throws RunnerException {
+		for (int threads : THREAD_COUNTS) {
+			new Runner(new OptionsBuilder().include(TokenClientBenchmark.class.getSimpleName())
+					.threads(threads).build()).run();
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		setUpConverterFactoryReturningAuthentication();
+		HttpHandlerSpy httpHandler = new HttpHandlerSpy();
+		httpHandler.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 201);
+		httpHandler.MRV.setDefaultReturnValuesSupplier("getResponseText", () -> "{}");
+		HttpHandlerFactorySpy httpHandlerFactory = new HttpHandlerFactorySpy();
+		httpHandlerFactory.MRV.setDefaultReturnValuesSupplier("factor", () -> httpHandler);
+		tokenClient = TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAppToken(
+				httpHandlerFactory, (_, _) -> {
+				}, new AppTokenCredentials(LOGIN_URL, "someLoginId", "someAppToken"));
+		tokenClient.getAuthToken();
+	}
+
+	private void setUpConverterFactoryReturningAuthentication() {
+		JsonToClientDataConverterSpy converter = new JsonToClientDataConverterSpy();
+		converter.MRV.setDefaultReturnValuesSupplier("toInstance",
+				TokenClientBenchmark::createAuthentication);
+		JsonToClientDataConverterFactorySpy factory = new JsonToClientDataConverterFactorySpy();
+		factory.MRV.setDefaultReturnValuesSupplier("factorUsingString", () -> converter);
+		JsonToClientDataConverterProvider.setJsonToDataConverterFactory(factory);
+	}
+
+	/**
+	 * createAuthentication creates an authentication that is valid for a day. Unlike the spies it
+	 * does not record the calls reading the token, which would slow down the measured reads.
+	 */
+	private static ClientDataAuthentication createAuthentication() {
+		String validUntil = String.valueOf(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+		ClientActionLinkSpy renewAction = new ClientActionLinkSpy();
+		return (ClientDataAuthentication) Proxy.newProxyInstance(
+				ClientDataAuthentication.class.getClassLoader(),
+				new Class<?>[] { ClientDataAuthentication.class },
+				(_, method, _) -> switch (method.getName()) {
+					case "getToken" -> SOME_TOKEN;
+					case "getValidUntil", "getRenewUntil" -> validUntil;
+					case "getActionLink" -> Optional.of(renewAction);
+					default -> null;
+				});
+	}
+
+	@Benchmark
+	public String lockFreeRead() {
+		return tokenClient.getAuthToken();
+	}
+
+	@Benchmark
+	public String synchronizedRead() {
+		synchronized (monitor) {
+			return tokenClient.getAuthToken();
+		}
+	}
+}
@@ -1,4 +1,5 @@
 module se.uu.ub.cora.javaclient {
+	requires transitive java.net.http;
 	requires transitive se.uu.ub.cora.httphandler;
 	requires transitive se.uu.ub.cora.clientdata;
 
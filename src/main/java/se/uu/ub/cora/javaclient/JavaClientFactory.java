@@ -19,9 +19,16 @@
  */
 package se.uu.ub.cora.javaclient;
 
+import java.util.concurrent.Executor;
+
+import se.uu.ub.cora.javaclient.data.AsyncDataClient;
+import se.uu.ub.cora.javaclient.data.BulkWriter;
+import se.uu.ub.cora.javaclient.data.BulkWriterSettings;
 import se.uu.ub.cora.javaclient.data.DataClient;
+import se.uu.ub.cora.javaclient.rest.AsyncRestClient;
 import se.uu.ub.cora.javaclient.rest.RestClient;
 import se.uu.ub.cora.javaclient.token.TokenClient;
+import se.uu.ub.cora.javaclient.token.TokenRenewalSettings;
 
 /**
  * JavaClientFactory factors java clients.
@@ -54,6 +61,34 @@ public interface JavaClientFactory {
 	RestClient factorRestClientUsingJavaClientAppTokenCredentials(
 			JavaClientAppTokenCredentials javaClientAppTokenCredentials);
 
+	/**
+	 * factorAsyncRestClientUsingJavaClientAuthTokenCredentials factors a new AsyncRestClient using
+	 * the provided {@link JavaClientAuthTokenCredentials}
+	 * 
+	 * @param javaClientAuthTokenCredentials
+	 *            A {@link JavaClientAuthTokenCredentials} with information about the server and
+	 *            user to use
+	 * @return An {@link AsyncRestClient} set up according to the
+	 *         {@link JavaClientAuthTokenCredentials}
+	 * 
+	 */
+	AsyncRestClient factorAsyncRestClientUsingJavaClientAuthTokenCredentials(
+			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials);
+
+	/**
+	 * factorAsyncRestClientUsingJavaClientAppTokenCredentials factors a new AsyncRestClient using
+	 * the provided {@link JavaClientAppTokenCredentials}
+	 * 
+	 * @param javaClientAppTokenCredentials
+	 *            A {@link JavaClientAppTokenCredentials} with information about the server and user
+	 *            to use
+	 * @return An {@link AsyncRestClient} set up according to the
+	 *         {@link JavaClientAppTokenCredentials}
+	 * 
+	 */
+	AsyncRestClient factorAsyncRestClientUsingJavaClientAppTokenCredentials(
+			JavaClientAppTokenCredentials javaClientAppTokenCredentials);
+
 	/**
 	 * factorDataClientUsingAuthTokenCredentials factors a new DataClient using the provided
 	 * {@link JavaClientAuthTokenCredentials}
@@ -80,9 +115,83 @@ public interface JavaClientFactory {
 	DataClient factorDataClientUsingJavaClientAppTokenCredentials(
 			JavaClientAppTokenCredentials javaClientAppTokenCredentials);
 
+	/**
+	 * factorAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor factors a new
+	 * AsyncDataClient using the provided {@link JavaClientAuthTokenCredentials}. Conversion between
+	 * ClientData and json is done using the provided conversionExecutor.
+	 * 
+	 * @param javaClientAuthTokenCredentials
+	 *            A {@link JavaClientAuthTokenCredentials} with information about the server and
+	 *            user to use
+	 * @param conversionExecutor
+	 *            An {@link Executor} to run conversion between ClientData and json on
+	 * @return An {@link AsyncDataClient} set up according to the
+	 *         {@link JavaClientAuthTokenCredentials}
+	 * 
+	 */
+	AsyncDataClient factorAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor(
+			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials,
+			Executor conversionExecutor);
+
+	/**
+	 * factorAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor factors a new
+	 * AsyncDataClient using the provided {@link JavaClientAppTokenCredentials}. Conversion between
+	 * ClientData and json is done using the provided conversionExecutor.
+	 * 
+	 * @param javaClientAppTokenCredentials
+	 *            A {@link JavaClientAppTokenCredentials} with information about the server and user
+	 *            to use
+	 * @param conversionExecutor
+	 *            An {@link Executor} to run conversion between ClientData and json on
+	 * @return An {@link AsyncDataClient} set up according to the
+	 *         {@link JavaClientAppTokenCredentials}
+	 * 
+	 */
+	AsyncDataClient factorAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor(
+			JavaClientAppTokenCredentials javaClientAppTokenCredentials,
+			Executor conversionExecutor);
+
+	/**
+	 * factorBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings factors a new BulkWriter using
+	 * the provided {@link JavaClientAuthTokenCredentials} and {@link BulkWriterSettings}
+	 * 
+	 * @param javaClientAuthTokenCredentials
+	 *            A {@link JavaClientAuthTokenCredentials} with information about the server and
+	 *            user to use
+	 * @param settings
+	 *            A {@link BulkWriterSettings} with settings for concurrency and backpressure
+	 * @return A {@link BulkWriter} set up according to the {@link JavaClientAuthTokenCredentials}
+	 *         and {@link BulkWriterSettings}
+	 * 
+	 */
+	BulkWriter factorBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings(
+			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials,
+			BulkWriterSettings settings);
+
+	/**
+	 * factorBulkWriterUsingJavaClientAppTokenCredentialsAndSettings factors a new BulkWriter using
+	 * the provided {@link JavaClientAppTokenCredentials} and {@link BulkWriterSettings}
+	 * 
+	 * @param javaClientAppTokenCredentials
+	 *            A {@link JavaClientAppTokenCredentials} with information about the server and user
+	 *            to use
+	 * @param settings
+	 *            A {@link BulkWriterSettings} with settings for concurrency and backpressure
+	 * @return A {@link BulkWriter} set up according to the {@link JavaClientAppTokenCredentials}
+	 *         and {@link BulkWriterSettings}
+	 * 
+	 */
+	BulkWriter factorBulkWriterUsingJavaClientAppTokenCredentialsAndSettings(
+			JavaClientAppTokenCredentials javaClientAppTokenCredentials,
+			BulkWriterSettings settings);
+
 	/**
 	 * factorTokenClientUsingAppTokenCredentials factors a new TokenClient using the provided
 	 * {@link AppTokenCredentials}
+	 * <p>
+	 * A TokenClient is shared between all calls using equal credentials, as long as something
+	 * still uses it. This also applies to the TokenClients used by clients factored using
+	 * {@link JavaClientAppTokenCredentials}.
 	 * 
 	 * @param appTokenCredentials
 	 *            A {@link AppTokenCredentials} with information about the server and user to use
@@ -94,6 +203,10 @@ public interface JavaClientFactory {
 	/**
 	 * factorTokenClientUsingAuthTokenCredentials factors a new TokenClient using the provided
 	 * {@link AuthTokenCredentials}
+	 * <p>
+	 * A TokenClient is shared between all calls using equal credentials, as long as something
+	 * still uses it. This also applies to the TokenClients used by clients factored using
+	 * {@link JavaClientAuthTokenCredentials}.
 	 * 
 	 * @param authTokenCredentials
 	 *            A {@link AuthTokenCredentials} with information about the server and user to use
@@ -103,4 +216,32 @@ public interface JavaClientFactory {
 	TokenClient factorTokenClientUsingAuthTokenCredentials(
 			AuthTokenCredentials authTokenCredentials);
 
-}
\ No newline at end of file
+	/**
+	 * factorTokenClientUsingAppTokenCredentialsAndRenewalSettings factors a new TokenClient using
+	 * the provided {@link AppTokenCredentials}, that renews its authToken in the background
+	 * according to the provided {@link TokenRenewalSettings}
+	 * 
+	 * @param appTokenCredentials
+	 *            A {@link AppTokenCredentials} with information about the server and user to use
+	 * @param renewalSettings
+	 *            A {@link TokenRenewalSettings} with the margin and jitter to use when renewing
+	 * @return A {@link TokenClient} set up according to the {@link AppTokenCredentials}
+	 */
+	TokenClient factorTokenClientUsingAppTokenCredentialsAndRenewalSettings(
+			AppTokenCredentials appTokenCredentials, TokenRenewalSettings renewalSettings);
+
+	/**
+	 * factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings factors a new TokenClient using
+	 * the provided {@link AuthTokenCredentials}, that renews its authToken in the background
+	 * according to the provided {@link TokenRenewalSettings}
+	 * 
+	 * @param authTokenCredentials
+	 *            A {@link AuthTokenCredentials} with information about the server and user to use
+	 * @param renewalSettings
+	 *            A {@link TokenRenewalSettings} with the margin and jitter to use when renewing
+	 * @return A {@link TokenClient} set up according to the {@link AuthTokenCredentials}
+	 */
+	TokenClient factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings(
+			AuthTokenCredentials authTokenCredentials, TokenRenewalSettings renewalSettings);
+
+}
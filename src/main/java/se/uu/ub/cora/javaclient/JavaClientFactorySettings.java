@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient;
+
+import se.uu.ub.cora.httphandler.HttpHandlerFactory;
+import se.uu.ub.cora.httphandler.HttpHandlerFactoryImp;
+import se.uu.ub.cora.javaclient.rest.AdaptiveConcurrencySettings;
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerSettings;
+import se.uu.ub.cora.javaclient.rest.ConditionalReadSettings;
+import se.uu.ub.cora.javaclient.rest.HedgingSettings;
+import se.uu.ub.cora.javaclient.rest.HttpClientSettings;
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+import se.uu.ub.cora.javaclient.rest.OperationTimeouts;
+import se.uu.ub.cora.javaclient.rest.RateLimitSettings;
+import se.uu.ub.cora.javaclient.rest.ReadCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RequestCoalescingSettings;
+import se.uu.ub.cora.javaclient.rest.RetryPolicy;
+import se.uu.ub.cora.javaclient.rest.internal.HttpClientHandlerFactory;
+
+/**
+ * JavaClientFactorySettings holds the settings for a {@link JavaClientFactory}. All clients
+ * factored by one factory, including their token clients, use the same {@link HttpHandlerFactory},
+ * making it the single place to apply connection level settings.
+ * 
+ * @param httpHandlerFactory
+ *            A {@link HttpHandlerFactory} used by all clients factored by the factory
+ * @param operationTimeouts
+ *            An {@link OperationTimeouts} with the timeouts for each type of operation, used by all
+ *            rest clients factored by the factory. The timeouts are only applied if the
+ *            httpHandlerFactory supports timeouts, as the one created from
+ *            {@link HttpClientSettings} does, {@link HttpHandlerFactoryImp} does not
+ * @param retryPolicy
+ *            A {@link RetryPolicy} deciding how calls failing with a transient error are retried,
+ *            used by all rest clients factored by the factory
+ * @param circuitBreakerSettings
+ *            A {@link CircuitBreakerSettings} deciding when calls to a failing server fail fast,
+ *            the circuit breakers are shared by all rest clients factored by the factory
+ * @param rateLimitSettings
+ *            A {@link RateLimitSettings} with the limits of rate and concurrency of requests, the
+ *            limits are shared by all rest clients factored by the factory
+ * @param adaptiveConcurrencySettings
+ *            An {@link AdaptiveConcurrencySettings} for the adaptive limit of requests in flight,
+ *            the limit is shared by all rest clients factored by the factory
+ * @param hedgingSettings
+ *            A {@link HedgingSettings} for hedging of reads, the latencies and the share of hedged
+ *            reads are shared by all rest clients factored by the factory
+ * @param loadBalancingSettings
+ *            A {@link LoadBalancingSettings} for load balancing of requests over several nodes,
+ *            the state of the nodes is shared by all rest clients factored by the factory
+ * @param readCacheSettings
+ *            A {@link ReadCacheSettings} for caching of read records, each rest client factored by
+ *            the factory gets its own cache
+ * @param conditionalReadSettings
+ *            A {@link ConditionalReadSettings} for revalidation of read records using ETag and
+ *            Last-Modified, each rest client factored by the factory keeps its own responses in
+ *            memory while a disk cache, if any, is shared by them
+ * @param requestCoalescingSettings
+ *            A {@link RequestCoalescingSettings} for coalescing of concurrent identical reads,
+ *            each rest client factored by the factory coalesces only its own reads
+ */
+public record JavaClientFactorySettings(HttpHandlerFactory httpHandlerFactory,
+		OperationTimeouts operationTimeouts, RetryPolicy retryPolicy,
+		CircuitBreakerSettings circuitBreakerSettings, RateLimitSettings rateLimitSettings,
+		AdaptiveConcurrencySettings adaptiveConcurrencySettings, HedgingSettings hedgingSettings,
+		LoadBalancingSettings loadBalancingSettings, ReadCacheSettings readCacheSettings,
+		ConditionalReadSettings conditionalReadSettings,
+		RequestCoalescingSettings requestCoalescingSettings) {
+
+	/**
+	 * createDefaultSettings creates settings using a new {@link HttpHandlerFactoryImp}, no
+	 * operation timeouts, no retries, no circuit breaker, no rate limits, no adaptive
+	 * concurrency limit, no hedging, no load balancing, no read cache, no conditional reads and
+	 * no coalescing of reads. The HttpHandlerFactoryImp does not support timeouts, so neither
+	 * operation timeouts nor the timeouts of a deadline are applied to its requests.
+	 * 
+	 * @return A JavaClientFactorySettings with the default settings
+	 */
+	public static JavaClientFactorySettings createDefaultSettings() {
+		return new JavaClientFactorySettings(new HttpHandlerFactoryImp(), OperationTimeouts.NONE,
+				RetryPolicy.NONE, CircuitBreakerSettings.DISABLED, RateLimitSettings.NONE,
+				AdaptiveConcurrencySettings.DISABLED, HedgingSettings.DISABLED,
+				LoadBalancingSettings.NONE, ReadCacheSettings.DISABLED,
+				ConditionalReadSettings.DISABLED, RequestCoalescingSettings.DISABLED);
+	}
+
+	/**
+	 * createUsingHttpClientSettings creates settings where all requests are sent using one shared
+	 * {@link java.net.http.HttpClient HttpClient}, set up according to the provided
+	 * {@link HttpClientSettings}. Connections are pooled and reused, and with HTTP/2 are
+	 * concurrent requests multiplexed over one connection.
+	 * 
+	 * @param httpClientSettings
+	 *            A {@link HttpClientSettings} with the HTTP version and timeouts to use
+	 * @param operationTimeouts
+	 *            An {@link OperationTimeouts} with the timeouts for each type of operation
+	 * @return A JavaClientFactorySettings using a shared HttpClient
+	 */
+	public static JavaClientFactorySettings createUsingHttpClientSettingsAndOperationTimeouts(
+			HttpClientSettings httpClientSettings, OperationTimeouts operationTimeouts) {
+		return new JavaClientFactorySettings(
+				HttpClientHandlerFactory.usingSettings(httpClientSettings), operationTimeouts,
+				RetryPolicy.NONE, CircuitBreakerSettings.DISABLED, RateLimitSettings.NONE,
+				AdaptiveConcurrencySettings.DISABLED, HedgingSettings.DISABLED,
+				LoadBalancingSettings.NONE, ReadCacheSettings.DISABLED,
+				ConditionalReadSettings.DISABLED, RequestCoalescingSettings.DISABLED);
+	}
+
+	/**
+	 * withRetryPolicy returns a copy of these settings using the provided {@link RetryPolicy}
+	 * 
+	 * @param retryPolicy
+	 *            A {@link RetryPolicy} to use for all rest clients factored by the factory
+	 * @return A JavaClientFactorySettings using the retry policy
+	 */
+	public JavaClientFactorySettings withRetryPolicy(RetryPolicy retryPolicy) {
+		return new JavaClientFactorySettings(httpHandlerFactory, operationTimeouts, retryPolicy,
+				circuitBreakerSettings, rateLimitSettings, adaptiveConcurrencySettings,
+				hedgingSettings, loadBalancingSettings, readCacheSettings,
+				conditionalReadSettings, requestCoalescingSettings);
+	}
+
+	/**
+	 * withCircuitBreakerSettings returns a copy of these settings using the provided
+	 * {@link CircuitBreakerSettings}
+	 * 
+	 * @param circuitBreakerSettings
+	 *            A {@link CircuitBreakerSettings} to use for the circuit breakers of the factory
+	 * @return A JavaClientFactorySettings using the circuit breaker settings
+	 */
+	public JavaClientFactorySettings withCircuitBreakerSettings(
+			CircuitBreakerSettings circuitBreakerSettings) {
+		return new JavaClientFactorySettings(httpHandlerFactory, operationTimeouts, retryPolicy,
+				circuitBreakerSettings, rateLimitSettings, adaptiveConcurrencySettings,
+				hedgingSettings, loadBalancingSettings, readCacheSettings,
+				conditionalReadSettings, requestCoalescingSettings);
+	}
+
+	/**
+	 * withRateLimitSettings returns a copy of these settings using the provided
+	 * {@link RateLimitSettings}
+	 * 
+	 * @param rateLimitSettings
+	 *            A {@link RateLimitSettings} to use for the rate limits of the factory
+	 * @return A JavaClientFactorySettings using the rate limit settings
+	 */
+	public JavaClientFactorySettings withRateLimitSettings(RateLimitSettings rateLimitSettings) {
+		return new JavaClientFactorySettings(httpHandlerFactory, operationTimeouts, retryPolicy,
+				circuitBreakerSettings, rateLimitSettings, adaptiveConcurrencySettings,
+				hedgingSettings, loadBalancingSettings, readCacheSettings,
+				conditionalReadSettings, requestCoalescingSettings);
+	}
+
+	/**
+	 * withAdaptiveConcurrencySettings returns a copy of these settings using the provided
+	 * {@link AdaptiveConcurrencySettings}
+	 * 
+	 * @param adaptiveConcurrencySettings
+	 *            An {@link AdaptiveConcurrencySettings} to use for the adaptive concurrency limit
+	 *            of the factory
+	 * @return A JavaClientFactorySettings using the adaptive concurrency settings
+	 */
+	public JavaClientFactorySettings withAdaptiveConcurrencySettings(
+			AdaptiveConcurrencySettings adaptiveConcurrencySettings) {
+		return new JavaClientFactorySettings(httpHandlerFactory, operationTimeouts, retryPolicy,
+				circuitBreakerSettings, rateLimitSettings, adaptiveConcurrencySettings,
+				hedgingSettings, loadBalancingSettings, readCacheSettings,
+				conditionalReadSettings, requestCoalescingSettings);
+	}
+
+	/**
+	 * withHedgingSettings returns a copy of these settings using the provided
+	 * {@link HedgingSettings}
+	 * 
+	 * @param hedgingSettings
+	 *            A {@link HedgingSettings} to use for hedging of reads by the factory
+	 * @return A JavaClientFactorySettings using the hedging settings
+	 */
+	public JavaClientFactorySettings withHedgingSettings(HedgingSettings hedgingSettings) {
+		return new JavaClientFactorySettings(httpHandlerFactory, operationTimeouts, retryPolicy,
+				circuitBreakerSettings, rateLimitSettings, adaptiveConcurrencySettings,
+				hedgingSettings, loadBalancingSettings, readCacheSettings,
+				conditionalReadSettings, requestCoalescingSettings);
+	}
+
+	/**
+	 * withLoadBalancingSettings returns a copy of these settings using the provided
+	 * {@link LoadBalancingSettings}
+	 * 
+	 * @param loadBalancingSettings
+	 *            A {@link LoadBalancingSettings} to use for load balancing by the factory
+	 * @return A JavaClientFactorySettings using the load balancing settings
+	 */
+	public JavaClientFactorySettings withLoadBalancingSettings(
+			LoadBalancingSettings loadBalancingSettings) {
+		return new JavaClientFactorySettings(httpHandlerFactory, operationTimeouts, retryPolicy,
+				circuitBreakerSettings, rateLimitSettings, adaptiveConcurrencySettings,
+				hedgingSettings, loadBalancingSettings, readCacheSettings,
+				conditionalReadSettings, requestCoalescingSettings);
+	}
+
+	/**
+	 * withReadCacheSettings returns a copy of these settings using the provided
+	 * {@link ReadCacheSettings}
+	 * 
+	 * @param readCacheSettings
+	 *            A {@link ReadCacheSettings} to use for the read caches of the factory
+	 * @return A JavaClientFactorySettings using the read cache settings
+	 */
+	public JavaClientFactorySettings withReadCacheSettings(ReadCacheSettings readCacheSettings) {
+		return new JavaClientFactorySettings(httpHandlerFactory, operationTimeouts, retryPolicy,
+				circuitBreakerSettings, rateLimitSettings, adaptiveConcurrencySettings,
+				hedgingSettings, loadBalancingSettings, readCacheSettings,
+				conditionalReadSettings, requestCoalescingSettings);
+	}
+
+	/**
+	 * withConditionalReadSettings returns a copy of these settings using the provided
+	 * {@link ConditionalReadSettings}
+	 * 
+	 * @param conditionalReadSettings
+	 *            A {@link ConditionalReadSettings} to use for the rest clients of the factory
+	 * @return A JavaClientFactorySettings using the conditional read settings
+	 */
+	public JavaClientFactorySettings withConditionalReadSettings(
+			ConditionalReadSettings conditionalReadSettings) {
+		return new JavaClientFactorySettings(httpHandlerFactory, operationTimeouts, retryPolicy,
+				circuitBreakerSettings, rateLimitSettings, adaptiveConcurrencySettings,
+				hedgingSettings, loadBalancingSettings, readCacheSettings,
+				conditionalReadSettings, requestCoalescingSettings);
+	}
+
+	/**
+	 * withRequestCoalescingSettings returns a copy of these settings using the provided
+	 * {@link RequestCoalescingSettings}
+	 * 
+	 * @param requestCoalescingSettings
+	 *            A {@link RequestCoalescingSettings} to use for the rest clients of the factory
+	 * @return A JavaClientFactorySettings using the request coalescing settings
+	 */
+	public JavaClientFactorySettings withRequestCoalescingSettings(
+			RequestCoalescingSettings requestCoalescingSettings) {
+		return new JavaClientFactorySettings(httpHandlerFactory, operationTimeouts, retryPolicy,
+				circuitBreakerSettings, rateLimitSettings, adaptiveConcurrencySettings,
+				hedgingSettings, loadBalancingSettings, readCacheSettings,
+				conditionalReadSettings, requestCoalescingSettings);
+	}
+}
@@ -19,10 +19,18 @@
  */
 package se.uu.ub.cora.javaclient;
 
+import java.util.concurrent.Executor;
+
+import se.uu.ub.cora.javaclient.data.AsyncDataClient;
+import se.uu.ub.cora.javaclient.data.BulkWriter;
+import se.uu.ub.cora.javaclient.data.BulkWriterSettings;
 import se.uu.ub.cora.javaclient.data.DataClient;
 import se.uu.ub.cora.javaclient.internal.JavaClientFactoryImp;
+import se.uu.ub.cora.javaclient.rest.AsyncRestClient;
 import se.uu.ub.cora.javaclient.rest.RestClient;
 import se.uu.ub.cora.javaclient.token.TokenClient;
+import se.uu.ub.cora.javaclient.token.TokenRenewalSettings;
+import se.uu.ub.cora.javaclient.token.internal.TokenClientRegistry;
 
 /**
  * JavaClientProvider provides a means for other classes in the system to create instances of
@@ -42,7 +50,10 @@ public class JavaClientProvider {
 		throw new UnsupportedOperationException();
 	}
 
-	private static JavaClientFactory javaClientFactory = new JavaClientFactoryImp();
+	private static final TokenClientRegistry tokenClientRegistry = new TokenClientRegistry();
+	private static volatile JavaClientFactory javaClientFactory = JavaClientFactoryImp
+			.usingSettingsAndTokenClientRegistry(JavaClientFactorySettings.createDefaultSettings(),
+					tokenClientRegistry);
 	private static JavaClientFactory onlyForTestJavaClientFactory;
 
 	/**
@@ -123,6 +134,114 @@ public class JavaClientProvider {
 				.factorRestClientUsingJavaClientAppTokenCredentials(appTokenCredentials);
 	}
 
+	/**
+	 * createAsyncRestClientUsingJavaClientAuthTokenCredentials creates an {@link AsyncRestClient}
+	 * from a {@link JavaClientAuthTokenCredentials}
+	 * <p>
+	 * The authToken that is part of the {@link JavaClientAuthTokenCredentials} will be
+	 * automatically renewed by the client after first interaction with the server, make sure that
+	 * interaction is done before the authToken has expired.
+	 * 
+	 * @param authTokenCredentials
+	 *            A {@link JavaClientAuthTokenCredentials} to use for setting up the created client
+	 * @return An {@link AsyncRestClient} set up with the information from the provided
+	 *         {@link JavaClientAuthTokenCredentials}
+	 */
+	public static AsyncRestClient createAsyncRestClientUsingJavaClientAuthTokenCredentials(
+			JavaClientAuthTokenCredentials authTokenCredentials) {
+		return getJavaClientFactory()
+				.factorAsyncRestClientUsingJavaClientAuthTokenCredentials(authTokenCredentials);
+	}
+
+	/**
+	 * createAsyncRestClientUsingJavaClientAppTokenCredentials creates an {@link AsyncRestClient}
+	 * from a {@link JavaClientAppTokenCredentials}
+	 * 
+	 * @param appTokenCredentials
+	 *            A {@link JavaClientAppTokenCredentials} to use for setting up the created client
+	 * @return An {@link AsyncRestClient} set up with the information from the provided
+	 *         {@link JavaClientAppTokenCredentials}
+	 */
+	public static AsyncRestClient createAsyncRestClientUsingJavaClientAppTokenCredentials(
+			JavaClientAppTokenCredentials appTokenCredentials) {
+		return getJavaClientFactory()
+				.factorAsyncRestClientUsingJavaClientAppTokenCredentials(appTokenCredentials);
+	}
+
+	/**
+	 * createAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor creates an
+	 * {@link AsyncDataClient} from a {@link JavaClientAuthTokenCredentials}
+	 * <p>
+	 * The authToken that is part of the {@link JavaClientAuthTokenCredentials} will be
+	 * automatically renewed by the client after first interaction with the server, make sure that
+	 * interaction is done before the authToken has expired.
+	 * 
+	 * @param authTokenCredentials
+	 *            A {@link JavaClientAuthTokenCredentials} to use for setting up the created client
+	 * @param conversionExecutor
+	 *            An {@link Executor} to run conversion between ClientData and json on
+	 * @return An {@link AsyncDataClient} set up with the information from the provided
+	 *         {@link JavaClientAuthTokenCredentials}
+	 */
+	public static AsyncDataClient createAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor(
+			JavaClientAuthTokenCredentials authTokenCredentials, Executor conversionExecutor) {
+		return getJavaClientFactory()
+				.factorAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor(
+						authTokenCredentials, conversionExecutor);
+	}
+
+	/**
+	 * createAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor creates an
+	 * {@link AsyncDataClient} from a {@link JavaClientAppTokenCredentials}
+	 * 
+	 * @param appTokenCredentials
+	 *            A {@link JavaClientAppTokenCredentials} to use for setting up the created client
+	 * @param conversionExecutor
+	 *            An {@link Executor} to run conversion between ClientData and json on
+	 * @return An {@link AsyncDataClient} set up with the information from the provided
+	 *         {@link JavaClientAppTokenCredentials}
+	 */
+	public static AsyncDataClient createAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor(
+			JavaClientAppTokenCredentials appTokenCredentials, Executor conversionExecutor) {
+		return getJavaClientFactory()
+				.factorAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor(
+						appTokenCredentials, conversionExecutor);
+	}
+
+	/**
+	 * createBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings creates a {@link BulkWriter}
+	 * from a {@link JavaClientAuthTokenCredentials} and {@link BulkWriterSettings}
+	 * 
+	 * @param authTokenCredentials
+	 *            A {@link JavaClientAuthTokenCredentials} to use for setting up the created writer
+	 * @param settings
+	 *            A {@link BulkWriterSettings} with settings for concurrency and backpressure
+	 * @return A {@link BulkWriter} set up with the information from the provided
+	 *         {@link JavaClientAuthTokenCredentials} and {@link BulkWriterSettings}
+	 */
+	public static BulkWriter createBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings(
+			JavaClientAuthTokenCredentials authTokenCredentials, BulkWriterSettings settings) {
+		return getJavaClientFactory().factorBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings(
+				authTokenCredentials, settings);
+	}
+
+	/**
+	 * createBulkWriterUsingJavaClientAppTokenCredentialsAndSettings creates a {@link BulkWriter}
+	 * from a {@link JavaClientAppTokenCredentials} and {@link BulkWriterSettings}
+	 * 
+	 * @param appTokenCredentials
+	 *            A {@link JavaClientAppTokenCredentials} to use for setting up the created writer
+	 * @param settings
+	 *            A {@link BulkWriterSettings} with settings for concurrency and backpressure
+	 * @return A {@link BulkWriter} set up with the information from the provided
+	 *         {@link JavaClientAppTokenCredentials} and {@link BulkWriterSettings}
+	 */
+	public static BulkWriter createBulkWriterUsingJavaClientAppTokenCredentialsAndSettings(
+			JavaClientAppTokenCredentials appTokenCredentials, BulkWriterSettings settings) {
+		return getJavaClientFactory().factorBulkWriterUsingJavaClientAppTokenCredentialsAndSettings(
+				appTokenCredentials, settings);
+	}
+
 	/**
 	 * createTokenClientUsingAuthTokenCredentials creates a {@link TokenClient} from a
 	 * {@link AuthTokenCredentials}
@@ -158,6 +277,60 @@ public class JavaClientProvider {
 				.factorTokenClientUsingAppTokenCredentials(appTokenCredentials);
 	}
 
+	/**
+	 * createTokenClientUsingAuthTokenCredentialsAndRenewalSettings creates a {@link TokenClient}
+	 * from a {@link AuthTokenCredentials}, that renews its authToken in the background according to
+	 * the provided {@link TokenRenewalSettings}
+	 * 
+	 * @param authTokenCredentials
+	 *            A {@link AuthTokenCredentials} to use for setting up the created client
+	 * @param renewalSettings
+	 *            A {@link TokenRenewalSettings} with the margin and jitter to use when renewing
+	 * @return A {@link TokenClient} set up with the information from the provided
+	 *         {@link AuthTokenCredentials}
+	 */
+	public static TokenClient createTokenClientUsingAuthTokenCredentialsAndRenewalSettings(
+			AuthTokenCredentials authTokenCredentials, TokenRenewalSettings renewalSettings) {
+		return getJavaClientFactory().factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings(
+				authTokenCredentials, renewalSettings);
+	}
+
+	/**
+	 * createTokenClientUsingAppTokenCredentialsAndRenewalSettings creates a {@link TokenClient}
+	 * from a {@link AppTokenCredentials}, that renews its authToken in the background according to
+	 * the provided {@link TokenRenewalSettings}
+	 * 
+	 * @param appTokenCredentials
+	 *            A {@link AppTokenCredentials} to use for setting up the created client
+	 * @param renewalSettings
+	 *            A {@link TokenRenewalSettings} with the margin and jitter to use when renewing
+	 * @return A {@link TokenClient} set up with the information from the provided
+	 *         {@link AppTokenCredentials}
+	 */
+	public static TokenClient createTokenClientUsingAppTokenCredentialsAndRenewalSettings(
+			AppTokenCredentials appTokenCredentials, TokenRenewalSettings renewalSettings) {
+		return getJavaClientFactory().factorTokenClientUsingAppTokenCredentialsAndRenewalSettings(
+				appTokenCredentials, renewalSettings);
+	}
+
+	/**
+	 * setJavaClientFactorySettings replaces the JavaClientFactory used by this provider with one
+	 * using the provided {@link JavaClientFactorySettings}. Clients created after this call use the
+	 * {@link se.uu.ub.cora.httphandler.HttpHandlerFactory HttpHandlerFactory} from the settings,
+	 * clients created before keep using the previous one.
+	 * <p>
+	 * The registry of token clients is carried over to the new factory, so clients created before
+	 * and after this call using equal credentials still share one {@link TokenClient}. A token
+	 * client that is shared this way keeps using the HttpHandlerFactory it was created with.
+	 * 
+	 * @param settings
+	 *            A {@link JavaClientFactorySettings} to use for all clients created from now on
+	 */
+	public static void setJavaClientFactorySettings(JavaClientFactorySettings settings) {
+		javaClientFactory = JavaClientFactoryImp.usingSettingsAndTokenClientRegistry(settings,
+				tokenClientRegistry);
+	}
+
 	/**
 	 * onlyForTestSetJavaClientFactory sets a JavaClientFactory that will be used to factor java
 	 * clients when other classes needs to create new instances. This possibility to set a
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data;
+
+import java.util.concurrent.CompletableFuture;
+
+import se.uu.ub.cora.clientdata.ClientDataList;
+import se.uu.ub.cora.clientdata.ClientDataRecord;
+import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
+
+/**
+ * AsyncDataClient is the asynchronous variant of {@link DataClient}. It has the same operations as
+ * {@link DataClient}, but each method returns a {@link CompletableFuture} instead of blocking the
+ * calling thread until the server has answered and the answer has been converted to ClientData.
+ * <p>
+ * If an operation fails MUST the returned future be completed exceptionally with a
+ * {@link DataClientException}, with the same message as the corresponding method in
+ * {@link DataClient} would have thrown.
+ */
+public interface AsyncDataClient {
+
+	/**
+	 * Creates a record using recordType and a {@link ClientDataRecordGroup} to create from.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the record to be created
+	 * @param dataRecordGroup
+	 *            A {@link ClientDataRecordGroup}, the data to create the record from
+	 * @return A {@link CompletableFuture} completed with the created {@link ClientDataRecord}
+	 */
+	CompletableFuture<ClientDataRecord> create(String recordType,
+			ClientDataRecordGroup dataRecordGroup);
+
+	/**
+	 * Reads a record using recordType and recordId.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the record to read
+	 * @param recordId
+	 *            A String, the id of the record to be read
+	 * @return A {@link CompletableFuture} completed with the read {@link ClientDataRecord}
+	 */
+	CompletableFuture<ClientDataRecord> read(String recordType, String recordId);
+
+	/**
+	 * Reads records as a list using recordType.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the records to read as list
+	 * @return A {@link CompletableFuture} completed with a {@link ClientDataList} containing the
+	 *         records of the requested type
+	 */
+	CompletableFuture<ClientDataList> readList(String recordType);
+
+	/**
+	 * Updates a record using recordType, recordId and a {@link ClientDataRecordGroup} to update
+	 * from.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the record to be updated
+	 * @param recordId
+	 *            A String, the id of the record to be updated
+	 * @param dataRecordGroup
+	 *            The ClientDataRecordGroup to be updated to
+	 * @return A {@link CompletableFuture} completed with the updated {@link ClientDataRecord}
+	 */
+	CompletableFuture<ClientDataRecord> update(String recordType, String recordId,
+			ClientDataRecordGroup dataRecordGroup);
+
+	/**
+	 * Deletes a record using recordType and recordId.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the record to delete
+	 * @param recordId
+	 *            A String, the id of the record to be deleted
+	 * @return A {@link CompletableFuture} completed when the record is deleted
+	 */
+	CompletableFuture<Void> delete(String recordType, String recordId);
+
+	/**
+	 * Reads incoming links for a record using recordType and recordId.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the record to read the incoming links for
+	 * @param recordId
+	 *            A String, the id of the record to read the incoming links for
+	 * @return A {@link CompletableFuture} completed with a {@link ClientDataList} containing the
+	 *         incoming links
+	 */
+	CompletableFuture<ClientDataList> readIncomingLinks(String recordType, String recordId);
+}
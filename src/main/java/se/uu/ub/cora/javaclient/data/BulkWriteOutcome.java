@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data;
+
+import java.util.Optional;
+
+/**
+ * BulkWriteOutcome is the outcome of one record written using a {@link BulkWriter}.
+ * 
+ * @param recordType
+ *            A String, the type of the written record
+ * @param recordId
+ *            An Optional String, the id of the record. For a create is this the id created by the
+ *            server, and it is empty if the create failed
+ * @param error
+ *            An Optional {@link DataClientException}, present if the write failed. If the server
+ *            answered with an error is the response code available from the exception
+ */
+public record BulkWriteOutcome(String recordType, Optional<String> recordId,
+		Optional<DataClientException> error) {
+
+	public boolean succeeded() {
+		return error.isEmpty();
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data;
+
+import java.util.List;
+
+import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
+
+/**
+ * BulkWriter writes a large number of records to the server as a pipeline. Records accepted from
+ * the producer are converted to json on the conversion executor and then sent to the server with
+ * a bounded number of requests in flight, as set in {@link BulkWriterSettings}.
+ * <p>
+ * When the number of accepted but not yet finished records reaches the queueDepth, is the
+ * producer either blocked until there is room or rejected with a {@link DataClientException},
+ * depending on the settings.
+ * <p>
+ * A failed write does not stop the writer, the failure is reported in the
+ * {@link BulkWriteOutcome} for that record when {@link #finish()} is called.
+ */
+public interface BulkWriter {
+
+	/**
+	 * Accepts a record to be created.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the record to create
+	 * @param dataRecordGroup
+	 *            A {@link ClientDataRecordGroup}, the data to create the record from
+	 */
+	void create(String recordType, ClientDataRecordGroup dataRecordGroup);
+
+	/**
+	 * Accepts a record to be updated.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the record to update
+	 * @param recordId
+	 *            A String, the id of the record to update
+	 * @param dataRecordGroup
+	 *            A {@link ClientDataRecordGroup}, the data to update the record to
+	 */
+	void update(String recordType, String recordId, ClientDataRecordGroup dataRecordGroup);
+
+	/**
+	 * Accepts a record to be deleted.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the record to delete
+	 * @param recordId
+	 *            A String, the id of the record to delete
+	 */
+	void delete(String recordType, String recordId);
+
+	/**
+	 * Waits for all accepted records to be written and returns the outcome for each of them, in
+	 * the order they were accepted. No more records can be accepted after finish has been called.
+	 * 
+	 * @return A List of {@link BulkWriteOutcome}, one for each accepted record
+	 */
+	List<BulkWriteOutcome> finish();
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data;
+
+import java.util.concurrent.Executor;
+
+/**
+ * BulkWriterSettings holds the settings for a {@link BulkWriter}.
+ * 
+ * @param maxInFlight
+ *            An int, the maximum number of requests sent to the server at the same time
+ * @param queueDepth
+ *            An int, the maximum number of records accepted by the writer but not yet finished,
+ *            when reached the writer applies backpressure to the producer
+ * @param rejectWhenFull
+ *            A boolean, if true is a {@link DataClientException} thrown to the producer when the
+ *            queue is full, if false is the producer blocked until there is room in the queue
+ * @param conversionExecutor
+ *            An {@link Executor} to run conversion from ClientData to json on
+ */
+public record BulkWriterSettings(int maxInFlight, int queueDepth, boolean rejectWhenFull,
+		Executor conversionExecutor) {
+}
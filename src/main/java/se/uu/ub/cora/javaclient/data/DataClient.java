@@ -18,10 +18,16 @@
  */
 package se.uu.ub.cora.javaclient.data;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.stream.Stream;
+
 import se.uu.ub.cora.clientdata.ClientDataGroup;
 import se.uu.ub.cora.clientdata.ClientDataList;
 import se.uu.ub.cora.clientdata.ClientDataRecord;
 import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.internal.BoundedFanOut;
 import se.uu.ub.cora.javaclient.rest.RestClient;
 
 /**
@@ -58,6 +64,32 @@ public interface DataClient {
 	 */
 	ClientDataRecord read(String recordType, String recordId);
 
+	/**
+	 * Reads many records of the same recordType by id. The reads are done in parallel with at
+	 * most maxInFlight reads running at the same time.
+	 * <p>
+	 * A read that fails does not stop the other reads. The {@link DataClientException} that
+	 * {@link #read(String, String)} would have thrown for that id is collected in the failures of
+	 * the result instead.
+	 * <p>
+	 * The default implementation reads each id using {@link #read(String, String)}, so that
+	 * existing implementations keep working.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the records to read
+	 * @param ids
+	 *            A Collection of Strings, the ids of the records to read
+	 * @param maxInFlight
+	 *            An int, the maximum number of reads to run at the same time, must be at least 1
+	 * @return A {@link ReadManyResult} with the read record for each id that could be read and a
+	 *         {@link DataClientException} for each id that could not be read, both keyed by id
+	 */
+	default ReadManyResult<ClientDataRecord> readMany(String recordType, Collection<String> ids,
+			int maxInFlight) {
+		return BoundedFanOut.readAllUsingMaxInFlight(ids, maxInFlight,
+				recordId -> read(recordType, recordId));
+	}
+
 	/**
 	 * Reads records as a list using recordType. The result is returned as a List of
 	 * {@link ClientDataRecord}. A {@link DataClientException} MUST be thrown if records could not
@@ -69,6 +101,93 @@ public interface DataClient {
 	 */
 	ClientDataList readList(String recordType);
 
+	/**
+	 * Reads all records of a recordType as a lazy {@link Stream}, reading the list from the server
+	 * one page at a time. The next page is read while the records in the current page are
+	 * consumed. The stream should be closed if it is not consumed to the end.
+	 * <p>
+	 * A {@link DataClientException} MUST be thrown when the stream is consumed if a page could not
+	 * be read.
+	 * <p>
+	 * The default implementation reads the whole list in one request using
+	 * {@link #readList(String)}, so that existing implementations keep working.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the records to read
+	 * @param pageSize
+	 *            An int, the number of records to read in each page, must be at least 1
+	 * @return A {@link Stream} of {@link ClientDataRecord}, with all records of the requested type
+	 */
+	default Stream<ClientDataRecord> readListAsStream(String recordType, int pageSize) {
+		return readList(recordType).getDataList().stream().map(ClientDataRecord.class::cast);
+	}
+
+	/**
+	 * Reads all records of a recordType matching a filter as a lazy {@link Stream}, in the same way
+	 * as {@link #readListAsStream(String, int)}. The fromNo and toNo of the filter are set for each
+	 * page and should not be part of the provided filter.
+	 * <p>
+	 * DataClient has no other method reading a list with a filter to build on, so the default
+	 * implementation throws a {@link DataClientException}, existing implementations keep compiling
+	 * but must override this method to support it.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the records to read
+	 * @param filter
+	 *            A {@link ClientDataGroup}, the filter to limit the result with
+	 * @param pageSize
+	 *            An int, the number of records to read in each page, must be at least 1
+	 * @return A {@link Stream} of {@link ClientDataRecord}, with all records matching the filter
+	 */
+	default Stream<ClientDataRecord> readListWithFilterAsStream(String recordType,
+			ClientDataGroup filter, int pageSize) {
+		throw DataClientException.withMessage(
+				"Reading a list with a filter is not supported by: " + getClass().getName());
+	}
+
+	/**
+	 * Reads all records of a recordType as a lazy {@link Stream}, using one request. The response
+	 * is parsed incrementally while the stream is consumed, so that only one record at a time is
+	 * held in memory, not the whole list.
+	 * <p>
+	 * The stream holds the response open until it is fully consumed and SHOULD be closed by the
+	 * caller, preferably using try-with-resources.
+	 * <p>
+	 * A {@link DataClientException} MUST be thrown if the list could not be read, either when this
+	 * method is called or when the stream is consumed.
+	 * <p>
+	 * The default implementation reads the whole list using {@link #readList(String)} before
+	 * streaming it, so that existing implementations keep working.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the records to read
+	 * @return A {@link Stream} of {@link ClientDataRecord}, with all records of the requested type
+	 */
+	default Stream<ClientDataRecord> readListIncrementally(String recordType) {
+		return readList(recordType).getDataList().stream().map(ClientDataRecord.class::cast);
+	}
+
+	/**
+	 * Searches for records using a searchId and a {@link ClientDataGroup} defining the search. The
+	 * result is returned as a lazy {@link Stream} parsed incrementally, in the same way as
+	 * {@link #readListIncrementally(String)}.
+	 * <p>
+	 * DataClient has no other method searching to build on, so the default implementation throws
+	 * a {@link DataClientException}, existing implementations keep compiling but must override
+	 * this method to support it.
+	 * 
+	 * @param searchId
+	 *            A String, the id of the search to use
+	 * @param searchData
+	 *            A {@link ClientDataGroup}, the search data to search with
+	 * @return A {@link Stream} of {@link ClientDataRecord}, with all records found by the search
+	 */
+	default Stream<ClientDataRecord> searchIncrementally(String searchId,
+			ClientDataGroup searchData) {
+		throw DataClientException
+				.withMessage("Searching is not supported by: " + getClass().getName());
+	}
+
 	/**
 	 * Updates a record using recordType,recordId and a {@link ClientDataGroup} to update from. The
 	 * result is returned as a String. A {@link DataClientException} MUST be thrown if the record
@@ -109,6 +228,22 @@ public interface DataClient {
 	 */
 	ClientDataList readIncomingLinks(String recordType, String recordId);
 
+	/**
+	 * withDeadline returns a DataClient that uses the same connection and authToken as this one,
+	 * but where each call must be done within the provided deadline, see
+	 * {@link RestClient#withDeadline(Duration)}.
+	 * <p>
+	 * The default implementation returns this DataClient, without a deadline, so that existing
+	 * implementations keep working.
+	 * 
+	 * @param deadline
+	 *            A {@link Duration}, the maximum time each call may take
+	 * @return A DataClient using the deadline for each call
+	 */
+	default DataClient withDeadline(Duration deadline) {
+		return this;
+	}
+
 	// /**
 	// * Indexes a {@link ClientDataRecord}, by sending an index order for the record.
 	// *
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018, 2024 Uppsala University Library
+ * Copyright 2018, 2024, 2026 Uppsala University Library
  *
  * This file is part of Cora.
  *
@@ -24,7 +24,7 @@ public class DataClientException extends RuntimeException {
 	private static final long serialVersionUID = -3141384493591308355L;
 	private final Integer responseCode;
 
-	private DataClientException(String message) {
+	protected DataClientException(String message) {
 		super(message);
 		this.responseCode = null;
 	}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data.internal;
+
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.ERROR_MESSAGE_CREATE;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.ERROR_MESSAGE_DELETE;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.ERROR_MESSAGE_READ;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.ERROR_MESSAGE_READ_INCOMMING_LINKS;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.ERROR_MESSAGE_READ_LIST;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.ERROR_MESSAGE_UPDATE;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.RESPONSE_CODE_CREATED;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.RESPONSE_CODE_OK;
+
+import java.text.MessageFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import se.uu.ub.cora.clientdata.ClientConvertible;
+import se.uu.ub.cora.clientdata.ClientDataList;
+import se.uu.ub.cora.clientdata.ClientDataRecord;
+import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
+import se.uu.ub.cora.clientdata.converter.ClientDataToJsonConverterFactory;
+import se.uu.ub.cora.clientdata.converter.ClientDataToJsonConverterProvider;
+import se.uu.ub.cora.clientdata.converter.JsonToClientDataConverter;
+import se.uu.ub.cora.clientdata.converter.JsonToClientDataConverterProvider;
+import se.uu.ub.cora.javaclient.data.AsyncDataClient;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.AsyncRestClient;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * AsyncDataClientImp uses an {@link AsyncRestClient} for the http calls and does all conversion
+ * between ClientData and json on the provided conversion executor, so that no conversion work is
+ * done on the threads doing the I/O.
+ */
+public final class AsyncDataClientImp implements AsyncDataClient {
+	private AsyncRestClient asyncRestClient;
+	private Executor conversionExecutor;
+	private ClientDataToJsonConverterFactory dataToJsonConverterFactory;
+
+	public static AsyncDataClientImp usingAsyncRestClientAndConversionExecutor(
+			AsyncRestClient asyncRestClient, Executor conversionExecutor) {
+		return new AsyncDataClientImp(asyncRestClient, conversionExecutor);
+	}
+
+	private AsyncDataClientImp(AsyncRestClient asyncRestClient, Executor conversionExecutor) {
+		this.asyncRestClient = asyncRestClient;
+		this.conversionExecutor = conversionExecutor;
+		dataToJsonConverterFactory = ClientDataToJsonConverterProvider.createImplementingFactory();
+	}
+
+	@Override
+	public CompletableFuture<ClientDataRecord> create(String recordType,
+			ClientDataRecordGroup dataRecordGroup) {
+		Function<String, DataClientException> errorCreator = message -> DataClientException
+				.withMessage(MessageFormat.format(ERROR_MESSAGE_CREATE, recordType, message));
+		CompletableFuture<RestResponse> call = convertToJsonAsync(dataRecordGroup)
+				.thenCompose(json -> asyncRestClient.createRecordFromJson(recordType, json));
+		return handleResponseAsync(call, errorCreator, response -> {
+			throwErrorIfNotExpectedResponseCode(response, RESPONSE_CODE_CREATED, errorCreator);
+			return (ClientDataRecord) convertToData(response);
+		});
+	}
+
+	private CompletableFuture<String> convertToJsonAsync(ClientDataRecordGroup dataRecordGroup) {
+		return CompletableFuture.supplyAsync(() -> dataToJsonConverterFactory
+				.factorUsingConvertible(dataRecordGroup).toJson(), conversionExecutor);
+	}
+
+	private <T> CompletableFuture<T> handleResponseAsync(CompletableFuture<RestResponse> call,
+			Function<String, DataClientException> errorCreator,
+			Function<RestResponse, T> responseHandler) {
+		return call.handleAsync((response, throwable) -> {
+			try {
+				throwIfCallFailed(throwable);
+				return responseHandler.apply(response);
+			} catch (Exception e) {
+				rethrowIfClientException(e);
+				throw errorCreator.apply(e.getMessage());
+			}
+		}, conversionExecutor);
+	}
+
+	private void throwIfCallFailed(Throwable throwable) throws Exception {
+		if (throwable instanceof CompletionException completionException
+				&& completionException.getCause() instanceof Exception cause) {
+			throw cause;
+		}
+		if (throwable instanceof Exception exception) {
+			throw exception;
+		}
+	}
+
+	private void rethrowIfClientException(Exception e) {
+		if (e instanceof DataClientException knownException) {
+			throw knownException;
+		}
+	}
+
+	private void throwErrorIfNotExpectedResponseCode(RestResponse response,
+			int expectedResponseCode, Function<String, DataClientException> errorCreator) {
+		if (response.responseCode() != expectedResponseCode) {
+			throw errorCreator.apply(response.responseText());
+		}
+	}
+
+	private ClientConvertible convertToData(RestResponse response) {
+		JsonToClientDataConverter converterToData = JsonToClientDataConverterProvider
+				.getConverterUsingJsonString(response.responseText());
+		return converterToData.toInstance();
+	}
+
+	@Override
+	public CompletableFuture<ClientDataRecord> read(String recordType, String recordId) {
+		Function<String, DataClientException> errorCreator = message -> DataClientException
+				.withMessage(MessageFormat.format(ERROR_MESSAGE_READ, recordType, recordId,
+						message));
+		return handleResponseAsync(asyncRestClient.readRecordAsJson(recordType, recordId),
+				errorCreator, response -> {
+					throwReadErrorWithResponseCodeIfNotOk(recordType, recordId, response);
+					return (ClientDataRecord) convertToData(response);
+				});
+	}
+
+	private void throwReadErrorWithResponseCodeIfNotOk(String recordType, String recordId,
+			RestResponse response) {
+		if (response.responseCode() != RESPONSE_CODE_OK) {
+			throw DataClientException.withMessageAndResponseCode(MessageFormat
+					.format(ERROR_MESSAGE_READ, recordType, recordId, response.responseText()),
+					response.responseCode());
+		}
+	}
+
+	@Override
+	public CompletableFuture<ClientDataList> readList(String recordType) {
+		Function<String, DataClientException> errorCreator = message -> DataClientException
+				.withMessage(MessageFormat.format(ERROR_MESSAGE_READ_LIST, recordType, message));
+		return handleResponseAsync(asyncRestClient.readRecordListAsJson(recordType),
+				errorCreator, response -> {
+					throwErrorIfNotExpectedResponseCode(response, RESPONSE_CODE_OK, errorCreator);
+					return (ClientDataList) convertToData(response);
+				});
+	}
+
+	@Override
+	public CompletableFuture<ClientDataRecord> update(String recordType, String recordId,
+			ClientDataRecordGroup dataRecordGroup) {
+		Function<String, DataClientException> errorCreator = message -> DataClientException
+				.withMessage(MessageFormat.format(ERROR_MESSAGE_UPDATE, recordType, recordId,
+						message));
+		CompletableFuture<RestResponse> call = convertToJsonAsync(dataRecordGroup).thenCompose(
+				json -> asyncRestClient.updateRecordFromJson(recordType, recordId, json));
+		return handleResponseAsync(call, errorCreator, response -> {
+			throwUpdateErrorWithResponseCodeIfNotOk(recordType, recordId, response);
+			return (ClientDataRecord) convertToData(response);
+		});
+	}
+
+	private void throwUpdateErrorWithResponseCodeIfNotOk(String recordType, String recordId,
+			RestResponse response) {
+		if (response.responseCode() != RESPONSE_CODE_OK) {
+			throw DataClientException.withMessageAndResponseCode(MessageFormat
+					.format(ERROR_MESSAGE_UPDATE, recordType, recordId, response.responseText()),
+					response.responseCode());
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> delete(String recordType, String recordId) {
+		Function<String, DataClientException> errorCreator = message -> DataClientException
+				.withMessage(MessageFormat.format(ERROR_MESSAGE_DELETE, recordType, recordId,
+						message));
+		return handleResponseAsync(asyncRestClient.deleteRecord(recordType, recordId),
+				errorCreator, response -> {
+					throwErrorIfNotExpectedResponseCode(response, RESPONSE_CODE_OK, errorCreator);
+					return null;
+				});
+	}
+
+	@Override
+	public CompletableFuture<ClientDataList> readIncomingLinks(String recordType,
+			String recordId) {
+		Function<String, DataClientException> errorCreator = message -> DataClientException
+				.withMessage(MessageFormat.format(ERROR_MESSAGE_READ_INCOMMING_LINKS, recordType,
+						recordId, message));
+		return handleResponseAsync(asyncRestClient.readIncomingLinksAsJson(recordType, recordId),
+				errorCreator, response -> {
+					throwErrorIfNotExpectedResponseCode(response, RESPONSE_CODE_OK, errorCreator);
+					return (ClientDataList) convertToData(response);
+				});
+	}
+
+	public AsyncRestClient onlyForTestGetAsyncRestClient() {
+		return asyncRestClient;
+	}
+
+	public Executor onlyForTestGetConversionExecutor() {
+		return conversionExecutor;
+	}
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data.internal;
+
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.ERROR_MESSAGE_CREATE;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.ERROR_MESSAGE_DELETE;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.ERROR_MESSAGE_UPDATE;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.RESPONSE_CODE_CREATED;
+import static se.uu.ub.cora.javaclient.data.internal.DataClientImp.RESPONSE_CODE_OK;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
+import se.uu.ub.cora.clientdata.converter.ClientDataToJsonConverterFactory;
+import se.uu.ub.cora.clientdata.converter.ClientDataToJsonConverterProvider;
+import se.uu.ub.cora.javaclient.data.BulkWriteOutcome;
+import se.uu.ub.cora.javaclient.data.BulkWriter;
+import se.uu.ub.cora.javaclient.data.BulkWriterSettings;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * BulkWriterImp converts accepted records to json on the conversion executor from the settings
+ * and sends them using a {@link RestClient}, each send on its own virtual thread. Two semaphores
+ * are used, one limiting the number of accepted but not finished records (the queue) and one
+ * limiting the number of requests in flight.
+ */
+public final class BulkWriterImp implements BulkWriter {
+	private static final String ERROR_MESSAGE_QUEUE_FULL = "Could not accept record of type: {0}. "
+			+ "The queue of {1} records is full.";
+	private static final String ERROR_MESSAGE_INTERRUPTED = "Interrupted while waiting for room "
+			+ "in the queue.";
+	private static final String ERROR_MESSAGE_FINISHED = "Could not accept record of type: {0}. "
+			+ "The writer is finished.";
+	private RestClient restClient;
+	private BulkWriterSettings settings;
+	private ClientDataToJsonConverterFactory dataToJsonConverterFactory;
+	private ExecutorService sendExecutor;
+	private Semaphore queue;
+	private Semaphore inFlight;
+	private List<CompletableFuture<BulkWriteOutcome>> outcomes = new ArrayList<>();
+	private boolean finished = false;
+
+	public static BulkWriterImp usingRestClientAndSettings(RestClient restClient,
+			BulkWriterSettings settings) {
+		return new BulkWriterImp(restClient, settings);
+	}
+
+	private BulkWriterImp(RestClient restClient, BulkWriterSettings settings) {
+		this.restClient = restClient;
+		this.settings = settings;
+		dataToJsonConverterFactory = ClientDataToJsonConverterProvider.createImplementingFactory();
+		sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+		queue = new Semaphore(settings.queueDepth());
+		inFlight = new Semaphore(settings.maxInFlight());
+	}
+
+	@Override
+	public void create(String recordType, ClientDataRecordGroup dataRecordGroup) {
+		WriteSpec spec = new WriteSpec(recordType, Optional.empty(), RESPONSE_CODE_CREATED,
+				message -> MessageFormat.format(ERROR_MESSAGE_CREATE, recordType, message));
+		startWrite(spec, () -> convertToJsonAsync(dataRecordGroup).thenApplyAsync(
+				json -> sendLimited(() -> restClient.createRecordFromJson(recordType, json)),
+				sendExecutor));
+	}
+
+	private record WriteSpec(String recordType, Optional<String> recordId,
+			int expectedResponseCode, UnaryOperator<String> messageFormatter) {
+	}
+
+	private void startWrite(WriteSpec spec, Supplier<CompletableFuture<RestResponse>> write) {
+		reserveRoomInQueue(spec.recordType());
+		startWriteInReservedRoom(spec, write);
+	}
+
+	private void reserveRoomInQueue(String recordType) {
+		throwErrorIfFinished(recordType);
+		if (settings.rejectWhenFull()) {
+			tryToReserveRoomOrReject(recordType);
+		} else {
+			waitForRoomInQueue();
+		}
+	}
+
+	private synchronized void throwErrorIfFinished(String recordType) {
+		if (finished) {
+			throw createFinishedError(recordType);
+		}
+	}
+
+	private DataClientException createFinishedError(String recordType) {
+		return DataClientException
+				.withMessage(MessageFormat.format(ERROR_MESSAGE_FINISHED, recordType));
+	}
+
+	private void tryToReserveRoomOrReject(String recordType) {
+		if (!queue.tryAcquire()) {
+			throw DataClientException.withMessage(MessageFormat.format(ERROR_MESSAGE_QUEUE_FULL,
+					recordType, String.valueOf(settings.queueDepth())));
+		}
+	}
+
+	private void waitForRoomInQueue() {
+		try {
+			queue.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw DataClientException.withMessageAndException(ERROR_MESSAGE_INTERRUPTED, e);
+		}
+	}
+
+	private CompletableFuture<String> convertToJsonAsync(ClientDataRecordGroup dataRecordGroup) {
+		return CompletableFuture.supplyAsync(() -> dataToJsonConverterFactory
+				.factorUsingConvertible(dataRecordGroup).toJson(), settings.conversionExecutor());
+	}
+
+	private RestResponse sendLimited(Supplier<RestResponse> send) {
+		inFlight.acquireUninterruptibly();
+		try {
+			return send.get();
+		} finally {
+			inFlight.release();
+		}
+	}
+
+	/**
+	 * startWriteInReservedRoom starts the write and adds its outcome while holding the same lock as
+	 * {@link #finish()} uses to take its snapshot of the outcomes. A producer that waited for room
+	 * in the queue while the writer was finished gives its room back and is rejected, so an
+	 * accepted write is always in the outcomes returned by finish and never started on a closed
+	 * executor.
+	 */
+	private synchronized void startWriteInReservedRoom(WriteSpec spec,
+			Supplier<CompletableFuture<RestResponse>> write) {
+		if (finished) {
+			queue.release();
+			throw createFinishedError(spec.recordType());
+		}
+		addOutcome(spec, write.get());
+	}
+
+	private void addOutcome(WriteSpec spec, CompletableFuture<RestResponse> response) {
+		CompletableFuture<BulkWriteOutcome> outcome = response
+				.thenApply(restResponse -> createOutcomeFromResponse(spec, restResponse))
+				.exceptionally(throwable -> createErrorOutcome(spec, throwable));
+		outcome.whenComplete((_, _) -> queue.release());
+		outcomes.add(outcome);
+	}
+
+	private BulkWriteOutcome createOutcomeFromResponse(WriteSpec spec, RestResponse response) {
+		if (response.responseCode() != spec.expectedResponseCode()) {
+			DataClientException error = DataClientException.withMessageAndResponseCode(
+					spec.messageFormatter().apply(response.responseText()),
+					response.responseCode());
+			return new BulkWriteOutcome(spec.recordType(), spec.recordId(), Optional.of(error));
+		}
+		Optional<String> recordId = spec.recordId().or(response::createdId);
+		return new BulkWriteOutcome(spec.recordType(), recordId, Optional.empty());
+	}
+
+	private BulkWriteOutcome createErrorOutcome(WriteSpec spec, Throwable throwable) {
+		Throwable cause = unwrap(throwable);
+		DataClientException error = toDataClientException(spec, cause);
+		return new BulkWriteOutcome(spec.recordType(), spec.recordId(), Optional.of(error));
+	}
+
+	private Throwable unwrap(Throwable throwable) {
+		if (throwable instanceof CompletionException && throwable.getCause() != null) {
+			return throwable.getCause();
+		}
+		return throwable;
+	}
+
+	private DataClientException toDataClientException(WriteSpec spec, Throwable cause) {
+		if (cause instanceof DataClientException dataClientException) {
+			return dataClientException;
+		}
+		return DataClientException.withMessageAndException(
+				spec.messageFormatter().apply(cause.getMessage()), (Exception) cause);
+	}
+
+	@Override
+	public void update(String recordType, String recordId, ClientDataRecordGroup dataRecordGroup) {
+		WriteSpec spec = new WriteSpec(recordType, Optional.of(recordId), RESPONSE_CODE_OK,
+				message -> MessageFormat.format(ERROR_MESSAGE_UPDATE, recordType, recordId,
+						message));
+		startWrite(spec, () -> convertToJsonAsync(dataRecordGroup).thenApplyAsync(
+				json -> sendLimited(
+						() -> restClient.updateRecordFromJson(recordType, recordId, json)),
+				sendExecutor));
+	}
+
+	@Override
+	public void delete(String recordType, String recordId) {
+		WriteSpec spec = new WriteSpec(recordType, Optional.of(recordId), RESPONSE_CODE_OK,
+				message -> MessageFormat.format(ERROR_MESSAGE_DELETE, recordType, recordId,
+						message));
+		startWrite(spec, () -> CompletableFuture.supplyAsync(
+				() -> sendLimited(() -> restClient.deleteRecord(recordType, recordId)),
+				sendExecutor));
+	}
+
+	@Override
+	public List<BulkWriteOutcome> finish() {
+		List<CompletableFuture<BulkWriteOutcome>> accepted = markFinished();
+		List<BulkWriteOutcome> result = new ArrayList<>(accepted.size());
+		for (CompletableFuture<BulkWriteOutcome> outcome : accepted) {
+			result.add(outcome.join());
+		}
+		sendExecutor.close();
+		return result;
+	}
+
+	private synchronized List<CompletableFuture<BulkWriteOutcome>> markFinished() {
+		finished = true;
+		return new ArrayList<>(outcomes);
+	}
+
+	public RestClient onlyForTestGetRestClient() {
+		return restClient;
+	}
+
+	public BulkWriterSettings onlyForTestGetSettings() {
+		return settings;
+	}
+}
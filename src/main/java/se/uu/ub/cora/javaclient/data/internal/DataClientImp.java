@@ -20,9 +20,19 @@
 package se.uu.ub.cora.javaclient.data.internal;
 
 import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import se.uu.ub.cora.clientdata.ClientConvertible;
+import se.uu.ub.cora.clientdata.ClientDataChild;
+import se.uu.ub.cora.clientdata.ClientDataGroup;
 import se.uu.ub.cora.clientdata.ClientDataList;
+import se.uu.ub.cora.clientdata.ClientDataProvider;
 import se.uu.ub.cora.clientdata.ClientDataRecord;
 import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
 import se.uu.ub.cora.clientdata.converter.ClientDataToJsonConverter;
@@ -37,20 +47,25 @@ import se.uu.ub.cora.javaclient.rest.RestResponse;
 
 public class DataClientImp implements DataClient {
 
-	private static final int RESPONSE_CODE_OK = 200;
-	private static final int RESPONSE_CODE_CREATED = 201;
-	private static final String ERROR_MESSAGE_CREATE = "Could not create record of type: {0}. "
+	static final int RESPONSE_CODE_OK = 200;
+	static final int RESPONSE_CODE_CREATED = 201;
+	static final String ERROR_MESSAGE_CREATE = "Could not create record of type: {0}. "
 			+ "Returned error was: {1}";
-	private static final String ERROR_MESSAGE_READ = "Could not read record of type: {0} and "
+	static final String ERROR_MESSAGE_READ = "Could not read record of type: {0} and "
 			+ "id: {1}. Returned error was: {2}";
-	private static final String ERROR_MESSAGE_READ_LIST = "Could not list records of type: {0}. "
+	static final String ERROR_MESSAGE_READ_LIST = "Could not list records of type: {0}. "
 			+ "Returned error was: {1}";
-	private static final String ERROR_MESSAGE_READ_INCOMMING_LINKS = "Could not read incomming "
+	static final String ERROR_MESSAGE_READ_INCOMMING_LINKS = "Could not read incomming "
 			+ "links for type: {0} and id: {1}. " + "Returned error was: {2}";
-	private static final String ERROR_MESSAGE_UPDATE = "Could not update record of type: {0} and "
+	static final String ERROR_MESSAGE_UPDATE = "Could not update record of type: {0} and "
 			+ "id: {1}. Returned error was: {2}";
-	private static final String ERROR_MESSAGE_DELETE = "Could not delete record of type: {0} and "
+	static final String ERROR_MESSAGE_DELETE = "Could not delete record of type: {0} and "
 			+ "id: {1}. Returned error was: {2}";
+	static final String ERROR_MESSAGE_SEARCH = "Could not search using searchId: {0}. "
+			+ "Returned error was: {1}";
+	private static final String FILTER = "filter";
+	private static final String FROM_NO = "fromNo";
+	private static final String TO_NO = "toNo";
 	protected ClientDataToJsonConverterFactory dataToJsonConverterFactory;
 	private RestClient restClient;
 
@@ -128,7 +143,7 @@ public class DataClientImp implements DataClient {
 
 	private void throwErrorIfNotRead(String recordType, String recordId, RestResponse response) {
 		if (response.responseCode() != RESPONSE_CODE_OK) {
-			throw readErrorUsingRecordTypeAndMessage(recordType, recordId, response.responseText());
+			throw readErrorUsingRecordTypeAndResponse(recordType, recordId, response);
 		}
 	}
 
@@ -138,6 +153,13 @@ public class DataClientImp implements DataClient {
 				MessageFormat.format(ERROR_MESSAGE_READ, recordType, recordId, message));
 	}
 
+	private DataClientException readErrorUsingRecordTypeAndResponse(String recordType,
+			String recordId, RestResponse response) {
+		return DataClientException.withMessageAndResponseCode(MessageFormat
+				.format(ERROR_MESSAGE_READ, recordType, recordId, response.responseText()),
+				response.responseCode());
+	}
+
 	@Override
 	public ClientDataList readList(String recordType) {
 		try {
@@ -166,6 +188,130 @@ public class DataClientImp implements DataClient {
 				.withMessage(MessageFormat.format(ERROR_MESSAGE_READ_LIST, recordType, message));
 	}
 
+	@Override
+	public Stream<ClientDataRecord> readListAsStream(String recordType, int pageSize) {
+		return readPagesAsStream(recordType, Optional.empty(), pageSize);
+	}
+
+	@Override
+	public Stream<ClientDataRecord> readListWithFilterAsStream(String recordType,
+			ClientDataGroup filter, int pageSize) {
+		return readPagesAsStream(recordType, Optional.of(filter), pageSize);
+	}
+
+	private Stream<ClientDataRecord> readPagesAsStream(String recordType,
+			Optional<ClientDataGroup> filter, int pageSize) {
+		PagedRecordIterator iterator = PagedRecordIterator
+				.usingPageReaderAndPageSizeAndPrefetchExecutor(
+						(fromNo, toNo) -> readListPage(recordType, filter, fromNo, toNo),
+						pageSize, task -> Thread.ofVirtual().start(task));
+		Spliterator<ClientDataRecord> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+				Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+	}
+
+	private ClientDataList readListPage(String recordType, Optional<ClientDataGroup> filter,
+			long fromNo, long toNo) {
+		try {
+			ClientDataGroup pageFilter = createFilterForPage(filter, fromNo, toNo);
+			String pageFilterJson = dataToJsonConverterFactory.factorUsingConvertible(pageFilter)
+					.toJson();
+			RestResponse response = restClient.readRecordListWithFilterAsJson(recordType,
+					pageFilterJson);
+			throwErrorIfNotReadList(recordType, response);
+			return (ClientDataList) convertToData(response);
+		} catch (Exception e) {
+			rethrowIfClientException(e);
+			throw readListErrorUsingRecordTypeAndMessage(recordType, e.getMessage());
+		}
+	}
+
+	private ClientDataGroup createFilterForPage(Optional<ClientDataGroup> filter, long fromNo,
+			long toNo) {
+		ClientDataGroup pageFilter = ClientDataProvider.createGroupUsingNameInData(FILTER);
+		pageFilter.addChild(ClientDataProvider.createAtomicUsingNameInDataAndValue(FROM_NO,
+				String.valueOf(fromNo)));
+		pageFilter.addChild(
+				ClientDataProvider.createAtomicUsingNameInDataAndValue(TO_NO, String.valueOf(toNo)));
+		filter.ifPresent(filterGroup -> addChildrenExceptPaging(filterGroup, pageFilter));
+		return pageFilter;
+	}
+
+	private void addChildrenExceptPaging(ClientDataGroup filter, ClientDataGroup pageFilter) {
+		for (ClientDataChild child : filter.getChildren()) {
+			if (!isPagingChild(child)) {
+				pageFilter.addChild(child);
+			}
+		}
+	}
+
+	private boolean isPagingChild(ClientDataChild child) {
+		String nameInData = child.getNameInData();
+		return FROM_NO.equals(nameInData) || TO_NO.equals(nameInData);
+	}
+
+	@Override
+	public Stream<ClientDataRecord> readListIncrementally(String recordType) {
+		try {
+			RestResponse response = restClient.readRecordListAsJsonStream(recordType);
+			throwErrorIfNotReadList(recordType, response);
+			return readRecordsIncrementally(response,
+					message -> readListErrorUsingRecordTypeAndMessage(recordType, message));
+		} catch (Exception e) {
+			rethrowIfClientException(e);
+			throw readListErrorUsingRecordTypeAndMessage(recordType, e.getMessage());
+		}
+	}
+
+	private Stream<ClientDataRecord> readRecordsIncrementally(RestResponse response,
+			Function<String, DataClientException> errorCreator) {
+		RecordListJsonReader reader = RecordListJsonReader
+				.usingInputStream(response.responseBinary().get());
+		Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(reader,
+				Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false)
+				.map(recordJson -> convertRecordJson(recordJson, errorCreator))
+				.onClose(reader::close);
+	}
+
+	private ClientDataRecord convertRecordJson(String recordJson,
+			Function<String, DataClientException> errorCreator) {
+		try {
+			return (ClientDataRecord) JsonToClientDataConverterProvider
+					.getConverterUsingJsonString(recordJson).toInstance();
+		} catch (Exception e) {
+			throw errorCreator.apply(e.getMessage());
+		}
+	}
+
+	@Override
+	public Stream<ClientDataRecord> searchIncrementally(String searchId,
+			ClientDataGroup searchData) {
+		try {
+			String json = dataToJsonConverterFactory.factorUsingConvertible(searchData).toJson();
+			RestResponse response = restClient.searchRecordWithSearchCriteriaAsJsonStream(searchId,
+					json);
+			throwErrorIfNotSearched(searchId, response);
+			return readRecordsIncrementally(response,
+					message -> searchErrorUsingSearchIdAndMessage(searchId, message));
+		} catch (Exception e) {
+			rethrowIfClientException(e);
+			throw searchErrorUsingSearchIdAndMessage(searchId, e.getMessage());
+		}
+	}
+
+	private void throwErrorIfNotSearched(String searchId, RestResponse response) {
+		if (response.responseCode() != RESPONSE_CODE_OK) {
+			throw searchErrorUsingSearchIdAndMessage(searchId, response.responseText());
+		}
+	}
+
+	private DataClientException searchErrorUsingSearchIdAndMessage(String searchId,
+			String message) {
+		return DataClientException
+				.withMessage(MessageFormat.format(ERROR_MESSAGE_SEARCH, searchId, message));
+	}
+
 	@Override
 	public ClientDataRecord update(String recordType, String recordId,
 			ClientDataRecordGroup dataRecordGroup) {
@@ -252,6 +398,11 @@ public class DataClientImp implements DataClient {
 				.format(ERROR_MESSAGE_READ_INCOMMING_LINKS, recordType, recordId, message));
 	}
 
+	@Override
+	public DataClient withDeadline(Duration deadline) {
+		return new DataClientImp(restClient.withDeadline(deadline));
+	}
+
 	public RestClient onlyForTestGetRestClient() {
 		return restClient;
 	}
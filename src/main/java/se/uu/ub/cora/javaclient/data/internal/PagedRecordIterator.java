@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data.internal;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import se.uu.ub.cora.clientdata.ClientData;
+import se.uu.ub.cora.clientdata.ClientDataList;
+import se.uu.ub.cora.clientdata.ClientDataRecord;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+/**
+ * PagedRecordIterator iterates over all records in a list by reading one page at a time, using the
+ * fromNo and toNo of the list filter. When a page is received is the read of the next page started
+ * on the prefetch executor, so that it is read while the records in the current page are consumed.
+ * At most one page is prefetched, so memory use is bounded to about two pages.
+ * <p>
+ * Iteration ends when a page is empty or when the last read page ends at the total number of
+ * records reported by the server.
+ */
+public final class PagedRecordIterator implements Iterator<ClientDataRecord>, AutoCloseable {
+	private static final String ERROR_MESSAGE_PAGE_SIZE = "pageSize must be at least 1, was: {0}";
+	private PageReader pageReader;
+	private int pageSize;
+	private Executor prefetchExecutor;
+	private Iterator<ClientData> currentPage = Collections.emptyIterator();
+	private CompletableFuture<ClientDataList> nextPage;
+	private boolean started = false;
+
+	/**
+	 * PageReader reads one page of a list, from fromNo to toNo, both inclusive and starting at 1.
+	 */
+	@FunctionalInterface
+	public interface PageReader {
+		ClientDataList readPage(long fromNo, long toNo);
+	}
+
+	public static PagedRecordIterator usingPageReaderAndPageSizeAndPrefetchExecutor(
+			PageReader pageReader, int pageSize, Executor prefetchExecutor) {
+		return new PagedRecordIterator(pageReader, pageSize, prefetchExecutor);
+	}
+
+	private PagedRecordIterator(PageReader pageReader, int pageSize, Executor prefetchExecutor) {
+		throwErrorIfPageSizeIsLessThanOne(pageSize);
+		this.pageReader = pageReader;
+		this.pageSize = pageSize;
+		this.prefetchExecutor = prefetchExecutor;
+	}
+
+	private void throwErrorIfPageSizeIsLessThanOne(int pageSize) {
+		if (pageSize < 1) {
+			throw DataClientException.withMessage(
+					MessageFormat.format(ERROR_MESSAGE_PAGE_SIZE, String.valueOf(pageSize)));
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		startReadingFirstPageIfNotStarted();
+		while (!currentPage.hasNext()) {
+			if (nextPage == null) {
+				return false;
+			}
+			moveToNextPage();
+		}
+		return true;
+	}
+
+	private void startReadingFirstPageIfNotStarted() {
+		if (!started) {
+			started = true;
+			nextPage = readPageAsync(1);
+		}
+	}
+
+	private CompletableFuture<ClientDataList> readPageAsync(long fromNo) {
+		long toNo = fromNo + pageSize - 1;
+		return CompletableFuture.supplyAsync(() -> pageReader.readPage(fromNo, toNo),
+				prefetchExecutor);
+	}
+
+	private void moveToNextPage() {
+		ClientDataList page = waitForPage(nextPage);
+		nextPage = null;
+		currentPage = page.getDataList().iterator();
+		if (currentPage.hasNext() && thereAreMoreRecordsAfter(page)) {
+			nextPage = readPageAsync(Long.parseLong(page.getToNo()) + 1);
+		}
+	}
+
+	private ClientDataList waitForPage(CompletableFuture<ClientDataList> page) {
+		try {
+			return page.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private boolean thereAreMoreRecordsAfter(ClientDataList page) {
+		long toNo = Long.parseLong(page.getToNo());
+		long totalNumber = Long.parseLong(page.getTotalNumberOfTypeInStorage());
+		return toNo < totalNumber;
+	}
+
+	@Override
+	public ClientDataRecord next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return (ClientDataRecord) currentPage.next();
+	}
+
+	/**
+	 * close stops iteration and cancels the read of a prefetched page that is not yet received.
+	 */
+	@Override
+	public void close() {
+		started = true;
+		currentPage = Collections.emptyIterator();
+		if (nextPage != null) {
+			nextPage.cancel(true);
+			nextPage = null;
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+/**
+ * RecordListJsonReader reads a record list in the application/vnd.cora.recordList+json format
+ * from an InputStream and returns the json for one record at a time, from the data array in the
+ * dataList.
+ * <p>
+ * The list is read incrementally, character by character, so only the json for the current record
+ * is kept in memory, not the whole list. Only the structure of the json is interpreted, objects,
+ * arrays and strings, the content of each record is left to be converted by a
+ * JsonToClientDataConverter.
+ */
+public final class RecordListJsonReader implements Iterator<String>, AutoCloseable {
+	private static final String ERROR_MESSAGE = "Could not read record list json: ";
+	private static final int DEPTH_OF_DATA_LIST = 2;
+	private static final int END_OF_STREAM = -1;
+	private Reader reader;
+	private boolean inDataArray = false;
+	private boolean finished = false;
+	private String nextRecord;
+
+	public static RecordListJsonReader usingInputStream(InputStream inputStream) {
+		return new RecordListJsonReader(inputStream);
+	}
+
+	private RecordListJsonReader(InputStream inputStream) {
+		reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextRecord == null && !finished) {
+			nextRecord = tryToReadNextRecord();
+		}
+		return nextRecord != null;
+	}
+
+	private String tryToReadNextRecord() {
+		try {
+			return readNextRecord();
+		} catch (IOException e) {
+			close();
+			throw DataClientException.withMessageAndException(ERROR_MESSAGE + e.getMessage(), e);
+		}
+	}
+
+	private String readNextRecord() throws IOException {
+		if (!inDataArray) {
+			moveToStartOfDataArray();
+		}
+		int character = readSkippingWhitespaceAndCommas();
+		if (character == ']' || character == END_OF_STREAM) {
+			close();
+			return null;
+		}
+		if (character != '{') {
+			throw createParseError("expected start of record but found: " + (char) character);
+		}
+		return readObjectStartedWith((char) character);
+	}
+
+	private void moveToStartOfDataArray() throws IOException {
+		int depth = 0;
+		String lastStringAtDataListDepth = null;
+		int character;
+		while ((character = reader.read()) != END_OF_STREAM) {
+			if (character == '"') {
+				String string = readRestOfString(null);
+				if (depth == DEPTH_OF_DATA_LIST) {
+					lastStringAtDataListDepth = string;
+				}
+			} else if (character == '[' && depth == DEPTH_OF_DATA_LIST
+					&& "data".equals(lastStringAtDataListDepth)) {
+				inDataArray = true;
+				return;
+			} else if (character == '{' || character == '[') {
+				depth++;
+			} else if (character == '}' || character == ']') {
+				depth--;
+			}
+		}
+		throw createParseError("no data array found in dataList");
+	}
+
+	private String readRestOfString(StringBuilder copy) throws IOException {
+		StringBuilder string = new StringBuilder();
+		int character;
+		while ((character = readRequired()) != '"') {
+			appendIfNotNull(copy, character);
+			if (character == '\\') {
+				int escaped = readRequired();
+				appendIfNotNull(copy, escaped);
+				string.append((char) escaped);
+			} else {
+				string.append((char) character);
+			}
+		}
+		appendIfNotNull(copy, character);
+		return string.toString();
+	}
+
+	private void appendIfNotNull(StringBuilder copy, int character) {
+		if (copy != null) {
+			copy.append((char) character);
+		}
+	}
+
+	private int readRequired() throws IOException {
+		int character = reader.read();
+		if (character == END_OF_STREAM) {
+			throw createParseError("unexpected end of json");
+		}
+		return character;
+	}
+
+	private DataClientException createParseError(String message) {
+		close();
+		return DataClientException.withMessage(ERROR_MESSAGE + message);
+	}
+
+	private int readSkippingWhitespaceAndCommas() throws IOException {
+		int character;
+		do {
+			character = reader.read();
+		} while (character == ',' || Character.isWhitespace(character));
+		return character;
+	}
+
+	private String readObjectStartedWith(char start) throws IOException {
+		StringBuilder recordJson = new StringBuilder();
+		recordJson.append(start);
+		int depth = 1;
+		while (depth > 0) {
+			int character = readRequired();
+			recordJson.append((char) character);
+			if (character == '"') {
+				readRestOfString(recordJson);
+			} else if (character == '{' || character == '[') {
+				depth++;
+			} else if (character == '}' || character == ']') {
+				depth--;
+			}
+		}
+		return recordJson.toString();
+	}
+
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		String currentRecord = nextRecord;
+		nextRecord = null;
+		return currentRecord;
+	}
+
+	@Override
+	public void close() {
+		finished = true;
+		try {
+			reader.close();
+		} catch (IOException _) {
+			// nothing more to do, the reader is not used after close
+		}
+	}
+}
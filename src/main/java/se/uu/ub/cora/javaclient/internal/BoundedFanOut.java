@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.internal;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+/**
+ * BoundedFanOut runs a read for each id on its own virtual thread, with at most maxInFlight reads
+ * running at the same time. A new virtual thread is not started until there is room for it, so
+ * reading a large number of ids does not create more threads than maxInFlight at any time.
+ * <p>
+ * A failing read does not stop the other reads, its exception is instead collected in the
+ * failures of the returned {@link ReadManyResult}.
+ */
+public final class BoundedFanOut {
+	private static final String ERROR_MESSAGE_MAX_IN_FLIGHT = "maxInFlight must be at least 1, "
+			+ "was: {0}";
+	private static final String ERROR_MESSAGE_INTERRUPTED = "Interrupted while reading many "
+			+ "records.";
+
+	private BoundedFanOut() {
+		throw new UnsupportedOperationException();
+	}
+
+	public static <T> ReadManyResult<T> readAllUsingMaxInFlight(Collection<String> ids,
+			int maxInFlight, Function<String, T> reader) {
+		throwErrorIfMaxInFlightIsLessThanOne(maxInFlight);
+		List<Future<T>> futures = startAllReads(ids, maxInFlight, reader);
+		return collectResults(ids, futures);
+	}
+
+	private static void throwErrorIfMaxInFlightIsLessThanOne(int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw DataClientException
+					.withMessage(MessageFormat.format(ERROR_MESSAGE_MAX_IN_FLIGHT, maxInFlight));
+		}
+	}
+
+	private static <T> List<Future<T>> startAllReads(Collection<String> ids, int maxInFlight,
+			Function<String, T> reader) {
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		List<Future<T>> futures = new ArrayList<>(ids.size());
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (String id : ids) {
+				acquireOrStopReading(inFlight, executor);
+				futures.add(executor.submit(() -> readAndRelease(reader, id, inFlight)));
+			}
+		}
+		return futures;
+	}
+
+	private static void acquireOrStopReading(Semaphore inFlight, ExecutorService executor) {
+		try {
+			inFlight.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			executor.shutdownNow();
+			throw DataClientException.withMessageAndException(ERROR_MESSAGE_INTERRUPTED, e);
+		}
+	}
+
+	private static <T> T readAndRelease(Function<String, T> reader, String id,
+			Semaphore inFlight) {
+		try {
+			return reader.apply(id);
+		} finally {
+			inFlight.release();
+		}
+	}
+
+	private static <T> ReadManyResult<T> collectResults(Collection<String> ids,
+			List<Future<T>> futures) {
+		Map<String, T> results = new LinkedHashMap<>();
+		Map<String, DataClientException> failures = new LinkedHashMap<>();
+		Iterator<String> idIterator = ids.iterator();
+		for (Future<T> future : futures) {
+			String id = idIterator.next();
+			if (future.state() == Future.State.SUCCESS) {
+				results.put(id, future.resultNow());
+			} else {
+				failures.put(id, toDataClientException(future.exceptionNow()));
+			}
+		}
+		return new ReadManyResult<>(results, failures);
+	}
+
+	private static DataClientException toDataClientException(Throwable throwable) {
+		if (throwable instanceof DataClientException dataClientException) {
+			return dataClientException;
+		}
+		if (throwable instanceof Error error) {
+			throw error;
+		}
+		return DataClientException.withMessageAndException(throwable.getMessage(),
+				(Exception) throwable);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018, 2020, 2023 Uppsala University Library
+ * Copyright 2018, 2020, 2023, 2026 Uppsala University Library
  * Copyright 2023 Olov McKie
  *
  * This file is part of Cora.
@@ -19,41 +19,187 @@
  */
 package se.uu.ub.cora.javaclient.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import se.uu.ub.cora.httphandler.HttpHandlerFactory;
-import se.uu.ub.cora.httphandler.HttpHandlerFactoryImp;
 import se.uu.ub.cora.javaclient.AppTokenCredentials;
 import se.uu.ub.cora.javaclient.AuthTokenCredentials;
 import se.uu.ub.cora.javaclient.JavaClientAppTokenCredentials;
 import se.uu.ub.cora.javaclient.JavaClientAuthTokenCredentials;
 import se.uu.ub.cora.javaclient.JavaClientFactory;
+import se.uu.ub.cora.javaclient.JavaClientFactorySettings;
+import se.uu.ub.cora.javaclient.data.AsyncDataClient;
+import se.uu.ub.cora.javaclient.data.BulkWriter;
+import se.uu.ub.cora.javaclient.data.BulkWriterSettings;
 import se.uu.ub.cora.javaclient.data.DataClient;
+import se.uu.ub.cora.javaclient.data.internal.AsyncDataClientImp;
+import se.uu.ub.cora.javaclient.data.internal.BulkWriterImp;
 import se.uu.ub.cora.javaclient.data.internal.DataClientImp;
+import se.uu.ub.cora.javaclient.rest.AsyncRestClient;
+import se.uu.ub.cora.javaclient.rest.ReadCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RequestCoalescingSettings;
 import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RetryPolicy;
+import se.uu.ub.cora.javaclient.rest.internal.AdaptiveConcurrencyLimiter;
+import se.uu.ub.cora.javaclient.rest.internal.AsyncRestClientImp;
+import se.uu.ub.cora.javaclient.rest.internal.CachingRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.CircuitBreakerRegistry;
+import se.uu.ub.cora.javaclient.rest.internal.CoalescingRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.DiskResponseStoreRegistry;
+import se.uu.ub.cora.javaclient.rest.internal.HedgedRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.HedgingPolicy;
+import se.uu.ub.cora.javaclient.rest.internal.LoadBalancedNodeImp;
+import se.uu.ub.cora.javaclient.rest.internal.LoadBalancedRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.LoadBalancer;
+import se.uu.ub.cora.javaclient.rest.internal.RateLimitedRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.RateLimiters;
+import se.uu.ub.cora.javaclient.rest.internal.ReadCache;
 import se.uu.ub.cora.javaclient.rest.internal.RestClientImp;
+import se.uu.ub.cora.javaclient.rest.internal.RestClientSettings;
 import se.uu.ub.cora.javaclient.token.TokenClient;
+import se.uu.ub.cora.javaclient.token.TokenRenewalSettings;
 import se.uu.ub.cora.javaclient.token.internal.SchedulerFactoryImp;
 import se.uu.ub.cora.javaclient.token.internal.TokenClientImp;
+import se.uu.ub.cora.javaclient.token.internal.TokenClientRegistry;
 
 public class JavaClientFactoryImp implements JavaClientFactory {
+	private static final DiskResponseStoreRegistry diskStores = new DiskResponseStoreRegistry();
+	private JavaClientFactorySettings settings;
+	private HttpHandlerFactory httpHandlerFactory;
+	private RestClientSettings restClientSettings;
+	private RateLimiters rateLimiters;
+	private HedgingPolicy hedgingPolicy;
+	private LoadBalancer loadBalancer;
+	private TokenClientRegistry tokenClientRegistry;
+	private ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+	public static JavaClientFactoryImp usingSettings(JavaClientFactorySettings settings) {
+		return new JavaClientFactoryImp(settings, new TokenClientRegistry());
+	}
+
+	/**
+	 * usingSettingsAndTokenClientRegistry creates a factory that registers its token clients in
+	 * the provided {@link TokenClientRegistry}, so that clients created by this factory share
+	 * token clients with clients created by other factories using the same registry.
+	 * 
+	 * @param settings
+	 *            The {@link JavaClientFactorySettings} to use for all created clients
+	 * @param tokenClientRegistry
+	 *            The {@link TokenClientRegistry} to get and register token clients in
+	 * @return A JavaClientFactoryImp using the settings and registry
+	 */
+	public static JavaClientFactoryImp usingSettingsAndTokenClientRegistry(
+			JavaClientFactorySettings settings, TokenClientRegistry tokenClientRegistry) {
+		return new JavaClientFactoryImp(settings, tokenClientRegistry);
+	}
+
+	public JavaClientFactoryImp() {
+		this(JavaClientFactorySettings.createDefaultSettings(), new TokenClientRegistry());
+	}
+
+	private JavaClientFactoryImp(JavaClientFactorySettings settings,
+			TokenClientRegistry tokenClientRegistry) {
+		this.settings = settings;
+		this.tokenClientRegistry = tokenClientRegistry;
+		this.httpHandlerFactory = settings.httpHandlerFactory();
+		this.restClientSettings = new RestClientSettings(settings.operationTimeouts(),
+				settings.retryPolicy(),
+				CircuitBreakerRegistry.usingSettings(settings.circuitBreakerSettings()),
+				AdaptiveConcurrencyLimiter.usingSettings(settings.adaptiveConcurrencySettings()),
+				settings.conditionalReadSettings(), diskStores.getOrOpenUsingSettings(
+						settings.conditionalReadSettings().diskCacheSettings()));
+		this.rateLimiters = RateLimiters.usingSettings(settings.rateLimitSettings());
+		this.hedgingPolicy = HedgingPolicy.usingSettings(settings.hedgingSettings());
+		this.loadBalancer = LoadBalancer.usingSettingsAndHttpHandlerFactory(
+				settings.loadBalancingSettings(), httpHandlerFactory);
+	}
 
 	@Override
 	public RestClient factorRestClientUsingJavaClientAuthTokenCredentials(
 			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials) {
 		TokenClient tokenClient = createTokenClientForAuthToken(javaClientAuthTokenCredentials);
-		HttpHandlerFactory httpHandlerFactory = new HttpHandlerFactoryImp();
+		return createRestClientUsingBaseUrlAndTokenClientAndDiskCacheNamespace(
+				javaClientAuthTokenCredentials.baseUrl(), tokenClient,
+				"authToken " + javaClientAuthTokenCredentials.authToken());
+	}
+
+	private RestClient createRestClientUsingBaseUrlAndTokenClientAndDiskCacheNamespace(
+			String baseUrl, TokenClient tokenClient, String diskCacheNamespace) {
+		RestClient restClient = loadBalancer.hasNodesForBaseUrl(baseUrl)
+				? createLoadBalancedRestClient(baseUrl, tokenClient, diskCacheNamespace)
+				: createRestClientImp(baseUrl, tokenClient, diskCacheNamespace);
+		return possiblyWrapInCachingRestClient(possiblyWrapInCoalescingRestClient(
+				possiblyWrapInHedgedRestClient(possiblyWrapInRateLimitedRestClient(restClient))));
+	}
 
-		return RestClientImp.usingHttpHandlerFactoryAndBaseUrlAndTokenClient(httpHandlerFactory,
-				javaClientAuthTokenCredentials.baseUrl(), tokenClient);
+	private RestClient createLoadBalancedRestClient(String baseUrl, TokenClient tokenClient,
+			String diskCacheNamespace) {
+		RestClientSettings nodeSettings = restClientSettings.withRetryPolicy(RetryPolicy.NONE);
+		Map<LoadBalancedNodeImp, RestClient> restClients = new LinkedHashMap<>();
+		for (LoadBalancedNodeImp node : loadBalancer.getNodesForBaseUrl(baseUrl)) {
+			restClients.put(node, createRestClientImpUsingSettings(node.getBaseUrl(), tokenClient,
+					nodeSettings, diskCacheNamespace));
+		}
+		return LoadBalancedRestClient.usingLoadBalancerAndRetryPolicyAndRestClients(loadBalancer,
+				restClientSettings.retryPolicy(), restClients);
+	}
+
+	private RestClient createRestClientImp(String baseUrl, TokenClient tokenClient,
+			String diskCacheNamespace) {
+		return createRestClientImpUsingSettings(baseUrl, tokenClient, restClientSettings,
+				diskCacheNamespace);
+	}
+
+	private RestClient createRestClientImpUsingSettings(String baseUrl, TokenClient tokenClient,
+			RestClientSettings clientSettings, String diskCacheNamespace) {
+		return RestClientImp
+				.usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndSettingsAndDiskCacheNamespace(
+						httpHandlerFactory, baseUrl, tokenClient, clientSettings,
+						diskCacheNamespace);
+	}
+
+	private RestClient possiblyWrapInRateLimitedRestClient(RestClient restClient) {
+		if (settings.rateLimitSettings().isEnabled()) {
+			return RateLimitedRestClient.usingRestClientAndRateLimiters(restClient, rateLimiters);
+		}
+		return restClient;
+	}
+
+	private RestClient possiblyWrapInCachingRestClient(RestClient restClient) {
+		ReadCacheSettings readCacheSettings = settings.readCacheSettings();
+		if (readCacheSettings.isEnabled()) {
+			return CachingRestClient.usingRestClientAndReadCache(restClient,
+					ReadCache.usingSettings(readCacheSettings));
+		}
+		return restClient;
+	}
+
+	private RestClient possiblyWrapInCoalescingRestClient(RestClient restClient) {
+		RequestCoalescingSettings requestCoalescingSettings = settings
+				.requestCoalescingSettings();
+		if (requestCoalescingSettings.isEnabled()) {
+			return CoalescingRestClient.usingRestClientAndStatistics(restClient,
+					requestCoalescingSettings.statistics());
+		}
+		return restClient;
+	}
+
+	private RestClient possiblyWrapInHedgedRestClient(RestClient restClient) {
+		if (settings.hedgingSettings().isEnabled()) {
+			return HedgedRestClient.usingRestClientAndHedgingPolicy(restClient, hedgingPolicy);
+		}
+		return restClient;
 	}
 
 	private TokenClient createTokenClientForAuthToken(JavaClientAuthTokenCredentials credentials) {
-		HttpHandlerFactory httpHandlerFactory = new HttpHandlerFactoryImp();
-		SchedulerFactoryImp schedulerFactory = new SchedulerFactoryImp();
 		AuthTokenCredentials authTokenCredentials = new AuthTokenCredentials(
 				credentials.renewAuthTokenUrl(), credentials.authToken(),
 				credentials.tokenIsRenewable());
-		return TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAuthToken(httpHandlerFactory,
-				schedulerFactory.factor(), authTokenCredentials);
+		return factorTokenClientUsingAuthTokenCredentials(authTokenCredentials);
 	}
 
 	@Override
@@ -62,19 +208,37 @@ public class JavaClientFactoryImp implements JavaClientFactory {
 		TokenClient tokenClient = createTokenClientForLoginIdAndAppToken(
 				javaClientAppTokenCredentials.loginUrl(), javaClientAppTokenCredentials.loginId(),
 				javaClientAppTokenCredentials.appToken());
-		HttpHandlerFactory httpHandlerFactory = new HttpHandlerFactoryImp();
-		return RestClientImp.usingHttpHandlerFactoryAndBaseUrlAndTokenClient(httpHandlerFactory,
-				javaClientAppTokenCredentials.baseUrl(), tokenClient);
+		return createRestClientUsingBaseUrlAndTokenClientAndDiskCacheNamespace(
+				javaClientAppTokenCredentials.baseUrl(), tokenClient,
+				"loginId " + javaClientAppTokenCredentials.loginUrl() + " "
+						+ javaClientAppTokenCredentials.loginId());
 	}
 
 	private TokenClient createTokenClientForLoginIdAndAppToken(String appTokenUrl, String loginId,
 			String appToken) {
-		HttpHandlerFactory httpHandlerFactory = new HttpHandlerFactoryImp();
-		SchedulerFactoryImp schedulerFactory = new SchedulerFactoryImp();
 		AppTokenCredentials appTokenCredentials = new AppTokenCredentials(appTokenUrl, loginId,
 				appToken);
-		return TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAppToken(httpHandlerFactory,
-				schedulerFactory.factor(), appTokenCredentials);
+		return factorTokenClientUsingAppTokenCredentials(appTokenCredentials);
+	}
+
+	@Override
+	public AsyncRestClient factorAsyncRestClientUsingJavaClientAuthTokenCredentials(
+			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials) {
+		RestClient restClient = factorRestClientUsingJavaClientAuthTokenCredentials(
+				javaClientAuthTokenCredentials);
+		return createAsyncRestClientUsingRestClient(restClient);
+	}
+
+	private AsyncRestClient createAsyncRestClientUsingRestClient(RestClient restClient) {
+		return AsyncRestClientImp.usingRestClientAndExecutor(restClient, asyncExecutor);
+	}
+
+	@Override
+	public AsyncRestClient factorAsyncRestClientUsingJavaClientAppTokenCredentials(
+			JavaClientAppTokenCredentials javaClientAppTokenCredentials) {
+		RestClient restClient = factorRestClientUsingJavaClientAppTokenCredentials(
+				javaClientAppTokenCredentials);
+		return createAsyncRestClientUsingRestClient(restClient);
 	}
 
 	@Override
@@ -93,10 +257,53 @@ public class JavaClientFactoryImp implements JavaClientFactory {
 		return new DataClientImp(restClient);
 	}
 
+	@Override
+	public AsyncDataClient factorAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor(
+			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials,
+			Executor conversionExecutor) {
+		AsyncRestClient asyncRestClient = factorAsyncRestClientUsingJavaClientAuthTokenCredentials(
+				javaClientAuthTokenCredentials);
+		return AsyncDataClientImp.usingAsyncRestClientAndConversionExecutor(asyncRestClient,
+				conversionExecutor);
+	}
+
+	@Override
+	public AsyncDataClient factorAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor(
+			JavaClientAppTokenCredentials javaClientAppTokenCredentials,
+			Executor conversionExecutor) {
+		AsyncRestClient asyncRestClient = factorAsyncRestClientUsingJavaClientAppTokenCredentials(
+				javaClientAppTokenCredentials);
+		return AsyncDataClientImp.usingAsyncRestClientAndConversionExecutor(asyncRestClient,
+				conversionExecutor);
+	}
+
+	@Override
+	public BulkWriter factorBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings(
+			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials,
+			BulkWriterSettings settings) {
+		RestClient restClient = factorRestClientUsingJavaClientAuthTokenCredentials(
+				javaClientAuthTokenCredentials);
+		return BulkWriterImp.usingRestClientAndSettings(restClient, settings);
+	}
+
+	@Override
+	public BulkWriter factorBulkWriterUsingJavaClientAppTokenCredentialsAndSettings(
+			JavaClientAppTokenCredentials javaClientAppTokenCredentials,
+			BulkWriterSettings settings) {
+		RestClient restClient = factorRestClientUsingJavaClientAppTokenCredentials(
+				javaClientAppTokenCredentials);
+		return BulkWriterImp.usingRestClientAndSettings(restClient, settings);
+	}
+
 	@Override
 	public TokenClient factorTokenClientUsingAppTokenCredentials(
 			AppTokenCredentials appTokenCredentials) {
-		HttpHandlerFactory httpHandlerFactory = new HttpHandlerFactoryImp();
+		return tokenClientRegistry.getOrCreateUsingCredentials(appTokenCredentials,
+				() -> createTokenClientUsingAppTokenCredentials(appTokenCredentials));
+	}
+
+	private TokenClient createTokenClientUsingAppTokenCredentials(
+			AppTokenCredentials appTokenCredentials) {
 		SchedulerFactoryImp schedulerFactory = new SchedulerFactoryImp();
 		return TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAppToken(httpHandlerFactory,
 				schedulerFactory.factor(), appTokenCredentials);
@@ -105,9 +312,60 @@ public class JavaClientFactoryImp implements JavaClientFactory {
 	@Override
 	public TokenClient factorTokenClientUsingAuthTokenCredentials(
 			AuthTokenCredentials authTokenCredentials) {
-		HttpHandlerFactory httpHandlerFactory = new HttpHandlerFactoryImp();
+		return tokenClientRegistry.getOrCreateUsingCredentials(authTokenCredentials,
+				() -> createTokenClientUsingAuthTokenCredentials(authTokenCredentials));
+	}
+
+	private TokenClient createTokenClientUsingAuthTokenCredentials(
+			AuthTokenCredentials authTokenCredentials) {
 		SchedulerFactoryImp schedulerFactory = new SchedulerFactoryImp();
 		return TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAuthToken(httpHandlerFactory,
 				schedulerFactory.factor(), authTokenCredentials);
 	}
+
+	@Override
+	public TokenClient factorTokenClientUsingAppTokenCredentialsAndRenewalSettings(
+			AppTokenCredentials appTokenCredentials, TokenRenewalSettings renewalSettings) {
+		SchedulerFactoryImp schedulerFactory = new SchedulerFactoryImp();
+		return TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAppTokenAndRenewalSettings(
+				httpHandlerFactory, schedulerFactory.factor(), appTokenCredentials,
+				renewalSettings);
+	}
+
+	@Override
+	public TokenClient factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings(
+			AuthTokenCredentials authTokenCredentials, TokenRenewalSettings renewalSettings) {
+		SchedulerFactoryImp schedulerFactory = new SchedulerFactoryImp();
+		return TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAuthTokenAndRenewalSettings(
+				httpHandlerFactory, schedulerFactory.factor(), authTokenCredentials,
+				renewalSettings);
+	}
+
+	public JavaClientFactorySettings onlyForTestGetSettings() {
+		return settings;
+	}
+
+	public RestClientSettings onlyForTestGetRestClientSettings() {
+		return restClientSettings;
+	}
+
+	public RateLimiters onlyForTestGetRateLimiters() {
+		return rateLimiters;
+	}
+
+	public HedgingPolicy onlyForTestGetHedgingPolicy() {
+		return hedgingPolicy;
+	}
+
+	public LoadBalancer onlyForTestGetLoadBalancer() {
+		return loadBalancer;
+	}
+
+	public TokenClientRegistry onlyForTestGetTokenClientRegistry() {
+		return tokenClientRegistry;
+	}
+
+	public ExecutorService onlyForTestGetAsyncExecutor() {
+		return asyncExecutor;
+	}
 }
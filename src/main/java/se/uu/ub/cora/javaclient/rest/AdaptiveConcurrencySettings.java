@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.text.MessageFormat;
+import java.util.function.IntConsumer;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+/**
+ * AdaptiveConcurrencySettings sets up a limit of the number of requests in flight that adapts to
+ * how the server copes, using additive increase and multiplicative decrease (AIMD).
+ * <p>
+ * When a request succeeds while the limit is in use, the limit is increased by one. When a request
+ * fails, with a status code of 500 or above, a failed connection or a timeout, or when its round
+ * trip time is more than latencyTolerance times the average round trip time, the limit is
+ * multiplied by backoffRatio, at most once per round trip, so requests that were already in flight
+ * when the limit was decreased do not decrease it again. The round trip time does not include the
+ * time spent on a re-login. The limit is kept between minLimit and maxLimit. Calls over the limit
+ * wait until a request is done, but not past the deadline of the call if one is set.
+ * <p>
+ * The average round trip time is kept per {@link OperationType}, as for instance searches and
+ * downloads take longer than reads, and it is updated by every request that did not fail, also
+ * slow ones, so that a lasting change of the round trip times moves the average instead of
+ * keeping the limit at minLimit.
+ * <p>
+ * The limit is shared by all rest clients factored by the same factory, and each change of it is
+ * reported to the limitListener, so that it can be exposed as a metric.
+ * <p>
+ * Enabled settings must have 1 &lt;= minLimit &lt;= initialLimit &lt;= maxLimit, a backoffRatio
+ * between 0 and 1, and a latencyTolerance above 1, otherwise a {@link DataClientException} is
+ * thrown.
+ * 
+ * @param initialLimit
+ *            An int, the limit to start with
+ * @param minLimit
+ *            An int, the lowest limit
+ * @param maxLimit
+ *            An int, the highest limit, 0 disables the adaptive limit
+ * @param backoffRatio
+ *            A double between 0 and 1, the factor the limit is multiplied by when overload is
+ *            detected
+ * @param latencyTolerance
+ *            A double, how many times the average round trip time a request may take before it is
+ *            seen as a sign of overload
+ * @param limitListener
+ *            An IntConsumer called with the new limit each time it changes
+ */
+public record AdaptiveConcurrencySettings(int initialLimit, int minLimit, int maxLimit,
+		double backoffRatio, double latencyTolerance, IntConsumer limitListener) {
+	private static final String ERROR_MESSAGE_INVALID = "Invalid adaptive concurrency settings, "
+			+ "{0}.";
+	private static final IntConsumer NO_LISTENER = _ -> {
+	};
+
+	public AdaptiveConcurrencySettings {
+		if (maxLimit > 0) {
+			ensureLimitsAreInOrder(initialLimit, minLimit, maxLimit);
+			ensureFactorsAreValid(backoffRatio, latencyTolerance);
+		}
+	}
+
+	private static void ensureLimitsAreInOrder(int initialLimit, int minLimit, int maxLimit) {
+		if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+			throw createInvalidError("1 <= minLimit <= initialLimit <= maxLimit is required");
+		}
+	}
+
+	private static void ensureFactorsAreValid(double backoffRatio, double latencyTolerance) {
+		if (!(backoffRatio > 0 && backoffRatio < 1)) {
+			throw createInvalidError("backoffRatio must be between 0 and 1");
+		}
+		if (!(latencyTolerance > 1)) {
+			throw createInvalidError("latencyTolerance must be above 1");
+		}
+	}
+
+	private static DataClientException createInvalidError(String reason) {
+		return DataClientException.withMessage(MessageFormat.format(ERROR_MESSAGE_INVALID, reason));
+	}
+
+	/**
+	 * No adaptive limit.
+	 */
+	public static final AdaptiveConcurrencySettings DISABLED = new AdaptiveConcurrencySettings(0,
+			0, 0, 1, 0, NO_LISTENER);
+
+	/**
+	 * usingInitialLimitAndMinLimitAndMaxLimit creates settings with a backoff ratio of 0.9 and a
+	 * latency tolerance of 2, not reporting changes of the limit
+	 * 
+	 * @param initialLimit
+	 *            An int, the limit to start with
+	 * @param minLimit
+	 *            An int, the lowest limit
+	 * @param maxLimit
+	 *            An int, the highest limit
+	 * @return An AdaptiveConcurrencySettings
+	 */
+	public static AdaptiveConcurrencySettings usingInitialLimitAndMinLimitAndMaxLimit(
+			int initialLimit, int minLimit, int maxLimit) {
+		return new AdaptiveConcurrencySettings(initialLimit, minLimit, maxLimit, 0.9, 2,
+				NO_LISTENER);
+	}
+
+	/**
+	 * withLimitListener returns a copy of these settings reporting changes of the limit to the
+	 * provided listener
+	 * 
+	 * @param limitListener
+	 *            An IntConsumer called with the new limit each time it changes
+	 * @return An AdaptiveConcurrencySettings using the listener
+	 */
+	public AdaptiveConcurrencySettings withLimitListener(IntConsumer limitListener) {
+		return new AdaptiveConcurrencySettings(initialLimit, minLimit, maxLimit, backoffRatio,
+				latencyTolerance, limitListener);
+	}
+
+	/**
+	 * isEnabled returns true if an adaptive limit should be used
+	 * 
+	 * @return A boolean, true if maxLimit is larger than 0
+	 */
+	public boolean isEnabled() {
+		return maxLimit > 0;
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AsyncRestClient is the asynchronous variant of {@link RestClient}. It has the same operations as
+ * {@link RestClient}, but instead of blocking the calling thread for the whole http round trip each
+ * method returns a {@link CompletableFuture} that is completed with the {@link RestResponse} when
+ * the server has answered.
+ * <p>
+ * Handling of responses, including requesting a new authToken and retrying the call once when the
+ * server answers unauthorized, is the same as for {@link RestClient}.
+ */
+public interface AsyncRestClient {
+
+	/**
+	 * Reads a record using recordType and recordId.
+	 *
+	 * @param recordType,
+	 *            A String, the type of the record to read
+	 * @param recordId,
+	 *            A String, the id of the record to be read
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> readRecordAsJson(String recordType, String recordId);
+
+	/**
+	 * Creates a record using recordType and a string to set as output in the httpRequest.
+	 *
+	 * @param recordType,
+	 *            A String, the type of the record to be created
+	 * @param json,
+	 *            A String to create the record from
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> createRecordFromJson(String recordType, String json);
+
+	/**
+	 * Updates a record using recordType recordId, and a string to set as output in the httpRequest.
+	 *
+	 * @param recordType,
+	 *            A String, the type of the record to updated
+	 * @param recordId,
+	 *            A String, the id of the record to be updated
+	 * @param json,
+	 *            A String to update the record from
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> updateRecordFromJson(String recordType, String recordId,
+			String json);
+
+	/**
+	 * Deletes a record using recordType and recordId.
+	 *
+	 * @param recordType,
+	 *            A String, the type of the record to delete
+	 * @param recordId,
+	 *            A String, the id of the record to be delete
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> deleteRecord(String recordType, String recordId);
+
+	/**
+	 * Read a list of records using recordType.
+	 *
+	 * @param recordType,
+	 *            A String, the type of the records to be listed
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> readRecordListAsJson(String recordType);
+
+	/**
+	 * Reads incoming links for a record using recordType and recordId.
+	 *
+	 * @param recordType,
+	 *            A String, the type of the record to read the incoming links for
+	 * @param recordId,
+	 *            A String, the id of the record to read the incoming links for
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> readIncomingLinksAsJson(String recordType, String recordId);
+
+	/**
+	 * Read a list of records using recordType and a filter to filter the result.
+	 *
+	 * @param recordType,
+	 *            A String, the type of the records to be listed
+	 * @param filter,
+	 *            A String, a json string to use as a filter to limit the result
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> readRecordListWithFilterAsJson(String recordType,
+			String filter);
+
+	/**
+	 * Creates an IndexBatchJob for the provided recordType.
+	 *
+	 * @param recordType,
+	 *            A String, the type of the records to be indexed
+	 * @param indexSettingsAsJson
+	 *            A JSON-formatted String with settings for index including a filter used to filter
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> batchIndexWithFilterAsJson(String recordType,
+			String indexSettingsAsJson);
+
+	/**
+	 * Searches for records using a searchId and a string to define the search.
+	 *
+	 * @param searchId
+	 *            A String, the id of the search to use
+	 * @param json
+	 *            A String used to define the search
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> searchRecordWithSearchCriteriaAsJson(String searchId,
+			String json);
+
+	/**
+	 * Validates a record using a workorder as json.
+	 *
+	 * @param json
+	 *            A String used to use as output in the http request
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> validateRecordAsJson(String json);
+
+	/**
+	 * download method downloads a resource from storage.
+	 *
+	 * @param type
+	 *            the type of the resource to download
+	 * @param id
+	 *            the resource to download
+	 * @param representation
+	 *            the name of the representation to download
+	 * @return A {@link CompletableFuture} completed with a {@link RestResponse}, containing the
+	 *         response
+	 */
+	CompletableFuture<RestResponse> download(String type, String id, String representation);
+}
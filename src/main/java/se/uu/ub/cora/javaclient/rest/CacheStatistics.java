@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CacheStatistics counts hits, misses and evictions of a cache. One instance can be shared by
+ * several caches, it then counts the sum of them.
+ */
+public final class CacheStatistics {
+	private LongAdder hits = new LongAdder();
+	private LongAdder misses = new LongAdder();
+	private LongAdder evictions = new LongAdder();
+
+	public void countHit() {
+		hits.increment();
+	}
+
+	public void countMiss() {
+		misses.increment();
+	}
+
+	public void countEviction() {
+		evictions.increment();
+	}
+
+	/**
+	 * getHits returns the number of lookups that were answered by the cache
+	 * 
+	 * @return A long with the number of hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * getMisses returns the number of lookups that were not answered by the cache
+	 * 
+	 * @return A long with the number of misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * getEvictions returns the number of entries removed to keep the cache within its bounds or
+	 * because they had expired
+	 * 
+	 * @return A long with the number of evictions
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * getHitRate returns the share of lookups that were answered by the cache
+	 * 
+	 * @return A double between 0 and 1, 0 if there has been no lookup
+	 */
+	public double getHitRate() {
+		long hitCount = getHits();
+		long lookups = hitCount + getMisses();
+		return lookups == 0 ? 0 : (double) hitCount / lookups;
+	}
+}
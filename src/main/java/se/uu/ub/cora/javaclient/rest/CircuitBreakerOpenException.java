@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+/**
+ * CircuitBreakerOpenException is thrown instead of sending a request when the circuit breaker for
+ * the server, and possibly type of operation, is open. No request has been sent to the server.
+ */
+public class CircuitBreakerOpenException extends DataClientException {
+	private static final long serialVersionUID = 4183641975527730284L;
+
+	private CircuitBreakerOpenException(String message) {
+		super(message);
+	}
+
+	public static CircuitBreakerOpenException withMessage(String message) {
+		return new CircuitBreakerOpenException(message);
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.time.Duration;
+
+/**
+ * CircuitBreakerSettings decides when the circuit breaker of a {@link RestClient} opens, making
+ * calls fail fast with a {@link CircuitBreakerOpenException} instead of sending requests to a
+ * server that is failing or overloaded.
+ * <p>
+ * The outcome of the last windowSize calls is kept. When at least minimumNumberOfCalls are kept
+ * and the percentage of failed calls, or of calls slower than slowCallThreshold, reaches its
+ * threshold, the circuit breaker opens. A call has failed if the server responded with a status
+ * code of 500 or above or if the connection failed. After openDuration the circuit breaker lets
+ * halfOpenTrialCalls calls through, if all of them succeed it closes again, otherwise it opens.
+ * <p>
+ * There is one circuit breaker per base url, or if perOperation is true, one per base url and type
+ * of operation, shared by all rest clients factored by the same factory.
+ * 
+ * @param windowSize
+ *            An int, the number of calls to keep the outcome of, 0 disables the circuit breaker
+ * @param minimumNumberOfCalls
+ *            An int, the number of calls needed before the rates are calculated
+ * @param failureRateThreshold
+ *            An int, the percentage of failed calls that opens the circuit breaker, 0 means not
+ *            used
+ * @param slowCallThreshold
+ *            A {@link Duration}, calls taking longer than this are slow, {@link Duration#ZERO}
+ *            means not used
+ * @param slowCallRateThreshold
+ *            An int, the percentage of slow calls that opens the circuit breaker, 0 means not used
+ * @param openDuration
+ *            A {@link Duration}, how long the circuit breaker stays open before trial calls are
+ *            let through
+ * @param halfOpenTrialCalls
+ *            An int, the number of trial calls let through when half open
+ * @param perOperation
+ *            A boolean, true to use one circuit breaker per type of operation
+ */
+public record CircuitBreakerSettings(int windowSize, int minimumNumberOfCalls,
+		int failureRateThreshold, Duration slowCallThreshold, int slowCallRateThreshold,
+		Duration openDuration, int halfOpenTrialCalls, boolean perOperation) {
+
+	/**
+	 * No circuit breaker is used.
+	 */
+	public static final CircuitBreakerSettings DISABLED = new CircuitBreakerSettings(0, 0, 0,
+			Duration.ZERO, 0, Duration.ZERO, 0, false);
+
+	/**
+	 * A circuit breaker per base url keeping the last 100 calls, opening for 30 seconds when at
+	 * least 20 calls are kept and 50 percent of them failed or 80 percent of them took more than
+	 * 10 seconds, and then letting 3 trial calls through.
+	 */
+	public static final CircuitBreakerSettings DEFAULT = new CircuitBreakerSettings(100, 20, 50,
+			Duration.ofSeconds(10), 80, Duration.ofSeconds(30), 3, false);
+
+	/**
+	 * isEnabled returns true if a circuit breaker should be used
+	 * 
+	 * @return A boolean, true if windowSize is larger than 0
+	 */
+	public boolean isEnabled() {
+		return windowSize > 0;
+	}
+
+	/**
+	 * withPerOperation returns a copy of these settings using one circuit breaker per base url and
+	 * type of operation
+	 * 
+	 * @return A CircuitBreakerSettings with perOperation set to true
+	 */
+	public CircuitBreakerSettings withPerOperation() {
+		return new CircuitBreakerSettings(windowSize, minimumNumberOfCalls, failureRateThreshold,
+				slowCallThreshold, slowCallRateThreshold, openDuration, halfOpenTrialCalls, true);
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CoalescingStatistics counts how many reads were sent to the server and how many were coalesced
+ * into a read already in flight. One instance can be shared by several rest clients, it then
+ * counts the sum of them.
+ */
+public final class CoalescingStatistics {
+	private LongAdder sentRequests = new LongAdder();
+	private LongAdder coalescedRequests = new LongAdder();
+
+	public void countSentRequest() {
+		sentRequests.increment();
+	}
+
+	public void countCoalescedRequest() {
+		coalescedRequests.increment();
+	}
+
+	/**
+	 * getSentRequests returns the number of reads that were sent to the server
+	 * 
+	 * @return A long with the number of sent reads
+	 */
+	public long getSentRequests() {
+		return sentRequests.sum();
+	}
+
+	/**
+	 * getCoalescedRequests returns the number of reads that got the response of an identical read
+	 * already in flight instead of being sent to the server
+	 * 
+	 * @return A long with the number of coalesced reads
+	 */
+	public long getCoalescedRequests() {
+		return coalescedRequests.sum();
+	}
+}
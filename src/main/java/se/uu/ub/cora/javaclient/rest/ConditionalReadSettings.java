@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+/**
+ * ConditionalReadSettings sets up revalidation of read records. When a read record is answered
+ * with an ETag or Last-Modified header, the response is kept together with them for the url of
+ * the record. The next read of the same url sends them as If-None-Match and If-Modified-Since, and
+ * if the server answers 304 Not Modified the kept response is returned instead of downloading the
+ * record again.
+ * <p>
+ * Each rest client keeps its own responses, as what may be read depends on the user of the
+ * client. The least recently used url is forgotten when a client keeps more than maxEntries urls.
+ * <p>
+ * The kept responses can also be written to disk, to be used for conditional reads after a
+ * restart, as described in {@link DiskCacheSettings}.
+ * 
+ * @param maxEntries
+ *            An int, the highest number of urls kept in memory by each rest client, 0 disables
+ *            conditional reads
+ * @param diskCacheSettings
+ *            A {@link DiskCacheSettings} for keeping the responses on disk as well
+ * @param statistics
+ *            A {@link CacheStatistics} counting conditional reads answered with 304 Not Modified
+ *            as hits, conditional reads answered with a new record as misses and forgotten urls
+ *            as evictions, for all rest clients using these settings
+ */
+public record ConditionalReadSettings(int maxEntries, DiskCacheSettings diskCacheSettings,
+		CacheStatistics statistics) {
+
+	/**
+	 * No conditional reads.
+	 */
+	public static final ConditionalReadSettings DISABLED = new ConditionalReadSettings(0,
+			DiskCacheSettings.DISABLED, new CacheStatistics());
+
+	/**
+	 * usingMaxEntries creates settings for conditional reads keeping at most maxEntries urls in
+	 * memory per rest client and nothing on disk
+	 * 
+	 * @param maxEntries
+	 *            An int, the highest number of urls kept by each rest client
+	 * @return A ConditionalReadSettings
+	 */
+	public static ConditionalReadSettings usingMaxEntries(int maxEntries) {
+		return new ConditionalReadSettings(maxEntries, DiskCacheSettings.DISABLED,
+				new CacheStatistics());
+	}
+
+	/**
+	 * withDiskCacheSettings returns a copy of these settings using the provided
+	 * {@link DiskCacheSettings}, sharing the statistics of these settings
+	 * 
+	 * @param diskCacheSettings
+	 *            A {@link DiskCacheSettings} for keeping the responses on disk
+	 * @return A ConditionalReadSettings using the disk cache settings
+	 */
+	public ConditionalReadSettings withDiskCacheSettings(DiskCacheSettings diskCacheSettings) {
+		return new ConditionalReadSettings(maxEntries, diskCacheSettings, statistics);
+	}
+
+	/**
+	 * isEnabled returns if reads should be conditional
+	 * 
+	 * @return A boolean, true if maxEntries is above zero
+	 */
+	public boolean isEnabled() {
+		return maxEntries > 0;
+	}
+}
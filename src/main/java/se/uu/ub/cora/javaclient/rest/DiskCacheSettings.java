@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.nio.file.Path;
+
+/**
+ * DiskCacheSettings sets up a cache on disk of the responses kept for conditional reads, see
+ * {@link ConditionalReadSettings}, so that they survive a restart. After a restart a read of a
+ * url found on disk is still sent to the server as a conditional read, and if the server answers
+ * 304 Not Modified the response is read from disk instead of being downloaded again.
+ * <p>
+ * The responses are appended to memory mapped segment files of segmentSize bytes in directory.
+ * When the segment files would exceed diskBudget, the least recently used responses are dropped
+ * until the remaining ones use at most half of diskBudget, and those are rewritten into new
+ * segment files before the old ones are deleted. This compaction runs in the background, so no
+ * read waits for it. Responses written while it runs go to new segment files until those use half
+ * of diskBudget, later ones are not kept on disk until the compaction is done, so up to twice
+ * diskBudget may be used while it runs. A response larger than segmentSize is not kept on disk,
+ * and neither is a response that can not be written, for instance when the disk is full.
+ * <p>
+ * Each record in a segment file is checked with a checksum when the cache is opened. Reading
+ * stops at the first damaged record of a segment file, so a record only partly written when the
+ * process stopped is ignored. Records written shortly before the operating system stopped may be
+ * lost, as the segment files are only forced to disk when compacted.
+ * <p>
+ * The disk cache is shared by all rest clients factored by a factory. The directory is locked
+ * while the factory uses it, so creating a factory using a directory already used by another
+ * factory or process fails. The responses are kept apart per credential, the login id and login
+ * url of an app token or the auth token itself, which is only kept on disk as a hash. A response
+ * read using one credential is therefore never used for a client using another, and a response
+ * is never returned unless the server has confirmed it using the validators and the auth token of
+ * the reading client.
+ * 
+ * @param directory
+ *            A Path to the directory holding the segment files, null disables the disk cache
+ * @param diskBudget
+ *            A long, the highest number of bytes used by the segment files outside of compaction
+ * @param segmentSize
+ *            An int, the size in bytes of each segment file
+ */
+public record DiskCacheSettings(Path directory, long diskBudget, int segmentSize) {
+	private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * No disk cache.
+	 */
+	public static final DiskCacheSettings DISABLED = new DiskCacheSettings(null, 0, 0);
+
+	/**
+	 * usingDirectoryAndDiskBudget creates settings for a disk cache in the directory using segment
+	 * files of 16 MiB, or a quarter of the budget if that is smaller
+	 * 
+	 * @param directory
+	 *            A Path to the directory holding the segment files, created if missing
+	 * @param diskBudget
+	 *            A long, the highest number of bytes used by the segment files
+	 * @return A DiskCacheSettings
+	 */
+	public static DiskCacheSettings usingDirectoryAndDiskBudget(Path directory, long diskBudget) {
+		int segmentSize = (int) Math.min(DEFAULT_SEGMENT_SIZE, diskBudget / 4);
+		return new DiskCacheSettings(directory, diskBudget, segmentSize);
+	}
+
+	/**
+	 * withSegmentSize returns a copy of these settings using the provided segment size
+	 * 
+	 * @param segmentSize
+	 *            An int, the size in bytes of each segment file
+	 * @return A DiskCacheSettings using the segment size
+	 */
+	public DiskCacheSettings withSegmentSize(int segmentSize) {
+		return new DiskCacheSettings(directory, diskBudget, segmentSize);
+	}
+
+	/**
+	 * isEnabled returns if responses should be kept on disk
+	 * 
+	 * @return A boolean, true if there is a directory and room for at least two segment files
+	 */
+	public boolean isEnabled() {
+		return directory != null && segmentSize > 0 && diskBudget >= 2L * segmentSize;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.time.Duration;
+
+/**
+ * HedgingSettings sets up hedging of {@link RestClient#readRecordAsJson(String, String)}. When no
+ * response has arrived after a delay, a second identical request is sent, the first successful
+ * response is used and the other request is cancelled.
+ * <p>
+ * The delay is the delayPercentile of the latencies of recent reads, but never shorter than
+ * minimumDelay. To not add more load to an already slow server, at most maxHedgePercent percent of
+ * the reads are hedged.
+ * <p>
+ * The latencies and the share of hedged reads are shared by all rest clients factored by the same
+ * factory.
+ * 
+ * @param delayPercentile
+ *            An int between 1 and 100, the percentile of recent read latencies to wait before
+ *            hedging a read
+ * @param minimumDelay
+ *            A Duration, the shortest time to wait before hedging a read
+ * @param maxHedgePercent
+ *            An int, the highest percentage of reads that are hedged, 0 disables hedging
+ */
+public record HedgingSettings(int delayPercentile, Duration minimumDelay, int maxHedgePercent) {
+
+	/**
+	 * No hedging.
+	 */
+	public static final HedgingSettings DISABLED = new HedgingSettings(0, Duration.ZERO, 0);
+
+	/**
+	 * usingDelayPercentileAndMaxHedgePercent creates settings with a minimum delay of 10
+	 * milliseconds
+	 * 
+	 * @param delayPercentile
+	 *            An int between 1 and 100, the percentile of recent read latencies to wait before
+	 *            hedging a read
+	 * @param maxHedgePercent
+	 *            An int, the highest percentage of reads that are hedged
+	 * @return A HedgingSettings
+	 */
+	public static HedgingSettings usingDelayPercentileAndMaxHedgePercent(int delayPercentile,
+			int maxHedgePercent) {
+		return new HedgingSettings(delayPercentile, Duration.ofMillis(10), maxHedgePercent);
+	}
+
+	/**
+	 * withMinimumDelay returns a copy of these settings using the provided minimum delay
+	 * 
+	 * @param minimumDelay
+	 *            A Duration, the shortest time to wait before hedging a read
+	 * @return A HedgingSettings using the minimum delay
+	 */
+	public HedgingSettings withMinimumDelay(Duration minimumDelay) {
+		return new HedgingSettings(delayPercentile, minimumDelay, maxHedgePercent);
+	}
+
+	/**
+	 * isEnabled returns true if reads should be hedged
+	 * 
+	 * @return A boolean, true if maxHedgePercent is larger than 0
+	 */
+	public boolean isEnabled() {
+		return maxHedgePercent > 0;
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.time.Duration;
+
+/**
+ * HttpClientSettings holds the settings for the transport backed by one shared
+ * {@link HttpClient}. The HttpClient keeps a pool of open connections that are reused between
+ * requests, and when using {@link Version#HTTP_2} are concurrent requests to the same server
+ * multiplexed over one connection.
+ * 
+ * @param version
+ *            A {@link Version}, the preferred HTTP version, HTTP_2 falls back to HTTP_1_1 if the
+ *            server does not support it
+ * @param connectTimeout
+ *            A {@link Duration}, the maximum time to wait for a connection to be established
+ * @param readTimeout
+ *            A {@link Duration}, the maximum time to wait for the response of a request
+ */
+public record HttpClientSettings(Version version, Duration connectTimeout, Duration readTimeout) {
+	/**
+	 * The settings used when none are provided, HTTP_2 with a ten second connect timeout and a
+	 * one minute read timeout.
+	 */
+	public static final HttpClientSettings DEFAULT = new HttpClientSettings(Version.HTTP_2,
+			Duration.ofSeconds(10), Duration.ofMinutes(1));
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.time.Duration;
+
+/**
+ * LoadBalancedNode is one of the servers a load balanced {@link RestClient} sends requests to, as
+ * seen by a {@link NodeSelector}.
+ */
+public interface LoadBalancedNode {
+
+	/**
+	 * getBaseUrl returns the base url of the node
+	 * 
+	 * @return A String with the base url
+	 */
+	String getBaseUrl();
+
+	/**
+	 * getOutstandingRequests returns the number of requests sent to the node that have not yet
+	 * returned
+	 * 
+	 * @return An int with the number of outstanding requests
+	 */
+	int getOutstandingRequests();
+
+	/**
+	 * getAverageLatency returns an exponentially weighted moving average of the latencies of
+	 * successful requests to the node
+	 * 
+	 * @return A Duration with the average latency, zero if no request has succeeded yet
+	 */
+	Duration getAverageLatency();
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LoadBalancingSettings sets up load balancing of the requests sent by rest clients over several
+ * nodes. The base url in the credentials used to factor a rest client is looked up in nodes, and
+ * if found the requests are sent to the base urls of its nodes instead, as selected by the
+ * nodeSelector. The token client of the rest client is shared by all nodes.
+ * <p>
+ * A node is ejected after failuresBeforeEjection failed requests in a row, where a failed request
+ * is one with a status code of 500 or above, a failed connection or an open circuit breaker.
+ * Ejected nodes are not selected until ejectionDuration has passed. The node is then readmitted
+ * directly, or, if activeHealthChecks is true, after a GET request to its base url has returned a
+ * status code below 500. A readmitted node is ejected again on its next failure. If all nodes are
+ * ejected, requests are sent to all of them as if none were ejected.
+ * 
+ * @param nodes
+ *            A Map from a base url to the base urls of the nodes to balance its requests over
+ * @param nodeSelector
+ *            A {@link NodeSelector} selecting the node of each request
+ * @param failuresBeforeEjection
+ *            An int, the number of failed requests in a row that ejects a node
+ * @param ejectionDuration
+ *            A Duration, how long an ejected node is not selected
+ * @param activeHealthChecks
+ *            A boolean, true if a health check must pass before an ejected node is readmitted
+ */
+public record LoadBalancingSettings(Map<String, List<String>> nodes, NodeSelector nodeSelector,
+		int failuresBeforeEjection, Duration ejectionDuration, boolean activeHealthChecks) {
+
+	/**
+	 * No load balancing.
+	 */
+	public static final LoadBalancingSettings NONE = usingNodeSelector(NodeSelector.roundRobin());
+
+	/**
+	 * usingNodeSelector creates settings without nodes, ejecting a node after 5 failed requests
+	 * in a row for 30 seconds, without active health checks
+	 * 
+	 * @param nodeSelector
+	 *            A {@link NodeSelector} selecting the node of each request
+	 * @return A LoadBalancingSettings
+	 */
+	public static LoadBalancingSettings usingNodeSelector(NodeSelector nodeSelector) {
+		return new LoadBalancingSettings(Map.of(), nodeSelector, 5, Duration.ofSeconds(30), false);
+	}
+
+	/**
+	 * withNodes returns a copy of these settings where requests of rest clients using the
+	 * provided base url are balanced over the provided nodes
+	 * 
+	 * @param baseUrl
+	 *            A String with the base url used in credentials
+	 * @param nodeBaseUrls
+	 *            A List with the base urls of the nodes
+	 * @return A LoadBalancingSettings with the added nodes
+	 */
+	public LoadBalancingSettings withNodes(String baseUrl, List<String> nodeBaseUrls) {
+		Map<String, List<String>> allNodes = new HashMap<>(nodes);
+		allNodes.put(baseUrl, List.copyOf(nodeBaseUrls));
+		return new LoadBalancingSettings(Map.copyOf(allNodes), nodeSelector,
+				failuresBeforeEjection, ejectionDuration, activeHealthChecks);
+	}
+
+	/**
+	 * withEjection returns a copy of these settings using the provided ejection settings
+	 * 
+	 * @param failuresBeforeEjection
+	 *            An int, the number of failed requests in a row that ejects a node
+	 * @param ejectionDuration
+	 *            A Duration, how long an ejected node is not selected
+	 * @return A LoadBalancingSettings using the ejection settings
+	 */
+	public LoadBalancingSettings withEjection(int failuresBeforeEjection,
+			Duration ejectionDuration) {
+		return new LoadBalancingSettings(nodes, nodeSelector, failuresBeforeEjection,
+				ejectionDuration, activeHealthChecks);
+	}
+
+	/**
+	 * withActiveHealthChecks returns a copy of these settings where ejected nodes are readmitted
+	 * only after a passed health check
+	 * 
+	 * @return A LoadBalancingSettings using active health checks
+	 */
+	public LoadBalancingSettings withActiveHealthChecks() {
+		return new LoadBalancingSettings(nodes, nodeSelector, failuresBeforeEjection,
+				ejectionDuration, true);
+	}
+
+	/**
+	 * isEnabled returns true if requests of any base url should be load balanced
+	 * 
+	 * @return A boolean, true if nodes are set for at least one base url
+	 */
+	public boolean isEnabled() {
+		return !nodes.isEmpty();
+	}
+}
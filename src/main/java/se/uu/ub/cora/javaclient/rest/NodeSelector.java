@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.util.List;
+
+import se.uu.ub.cora.javaclient.rest.internal.EwmaLatencyNodeSelector;
+import se.uu.ub.cora.javaclient.rest.internal.LeastOutstandingRequestsNodeSelector;
+import se.uu.ub.cora.javaclient.rest.internal.RoundRobinNodeSelector;
+
+/**
+ * NodeSelector selects which node a load balanced {@link RestClient} sends a request to.
+ * Implementations must be thread safe, as one selector is used for all requests of all rest
+ * clients factored by the same factory.
+ */
+public interface NodeSelector {
+
+	/**
+	 * selectNode selects one of the provided nodes
+	 * 
+	 * @param nodes
+	 *            A List with the nodes to select among, never empty
+	 * @return The selected node
+	 */
+	<T extends LoadBalancedNode> T selectNode(List<T> nodes);
+
+	/**
+	 * roundRobin returns a NodeSelector selecting the nodes in turn
+	 * 
+	 * @return A round robin NodeSelector
+	 */
+	static NodeSelector roundRobin() {
+		return new RoundRobinNodeSelector();
+	}
+
+	/**
+	 * leastOutstandingRequests returns a NodeSelector selecting the node with the fewest
+	 * outstanding requests
+	 * 
+	 * @return A least outstanding requests NodeSelector
+	 */
+	static NodeSelector leastOutstandingRequests() {
+		return new LeastOutstandingRequestsNodeSelector();
+	}
+
+	/**
+	 * ewmaLatency returns a NodeSelector selecting the node with the lowest average latency
+	 * multiplied by its number of outstanding requests plus one. Nodes without a known latency
+	 * are selected first.
+	 * 
+	 * @return An EWMA latency NodeSelector
+	 */
+	static NodeSelector ewmaLatency() {
+		return new EwmaLatencyNodeSelector();
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.time.Duration;
+
+/**
+ * OperationTimeouts holds the maximum time to wait for the response of a single request, for each
+ * type of operation a {@link RestClient} does. A timeout of {@link Duration#ZERO} means that no
+ * timeout is set for that type of operation and the timeout of the transport is used.
+ * <p>
+ * Timeouts can only be applied when the transport supports it, such as the one set up by
+ * {@link HttpClientSettings}. The transport of the default settings, a
+ * {@link se.uu.ub.cora.httphandler.HttpHandlerFactoryImp HttpHandlerFactoryImp}, does not
+ * support it, with it these timeouts, and the timeouts lowered to fit a deadline set using
+ * {@link RestClient#withDeadline(Duration)}, are not applied and a request waits for as long as
+ * the transport does.
+ * 
+ * @param read
+ *            A {@link Duration}, the timeout for reading a record or its incoming links
+ * @param list
+ *            A {@link Duration}, the timeout for reading a list of records
+ * @param search
+ *            A {@link Duration}, the timeout for a search
+ * @param write
+ *            A {@link Duration}, the timeout for create, update, delete, validate and batch index
+ * @param download
+ *            A {@link Duration}, the timeout for downloading a resource
+ */
+public record OperationTimeouts(Duration read, Duration list, Duration search, Duration write,
+		Duration download) {
+	/**
+	 * No timeouts set, the timeouts of the transport are used for all operations.
+	 */
+	public static final OperationTimeouts NONE = new OperationTimeouts(Duration.ZERO,
+			Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+/**
+ * OperationType groups the calls of a {@link RestClient} into the types of operation that
+ * timeouts, circuit breakers and rate limits can be set for.
+ */
+public enum OperationType {
+	/**
+	 * Reading a record or its incoming links
+	 */
+	READ,
+	/**
+	 * Reading a list of records
+	 */
+	LIST,
+	/**
+	 * Searching
+	 */
+	SEARCH,
+	/**
+	 * Creating, updating, deleting and validating records and starting batch index jobs
+	 */
+	WRITE,
+	/**
+	 * Downloading a resource
+	 */
+	DOWNLOAD
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+/**
+ * RateLimit caps the requests sent to the server, both the rate at which they are started and the
+ * number of requests in flight at the same time.
+ * <p>
+ * The rate is limited using a token bucket refilled with requestsPerSecond tokens per second,
+ * holding at most burst tokens, so that up to burst requests can be started at once after a quiet
+ * period.
+ * 
+ * @param requestsPerSecond
+ *            A double, the maximum sustained number of requests started per second, 0 means no
+ *            limit
+ * @param burst
+ *            An int, the maximum number of requests started at once, at least 1 is used
+ * @param maxConcurrency
+ *            An int, the maximum number of requests in flight at the same time, 0 means no limit
+ */
+public record RateLimit(double requestsPerSecond, int burst, int maxConcurrency) {
+
+	/**
+	 * No limit on rate or concurrency.
+	 */
+	public static final RateLimit UNLIMITED = new RateLimit(0, 0, 0);
+
+	/**
+	 * isLimited returns true if the rate or concurrency is limited
+	 * 
+	 * @return A boolean, true if any limit is set
+	 */
+	public boolean isLimited() {
+		return requestsPerSecond > 0 || maxConcurrency > 0;
+	}
+}
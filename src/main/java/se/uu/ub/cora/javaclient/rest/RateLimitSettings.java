@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * RateLimitSettings holds the limits applied to the requests sent by all rest clients factored by
+ * the same factory. A request must be within both the global limit and the limit for its
+ * {@link OperationType}, if one is set.
+ * <p>
+ * When a limit is reached the call waits until it is within the limit again, or, if failFast is
+ * true, throws a {@link se.uu.ub.cora.javaclient.data.DataClientException DataClientException}
+ * without sending a request.
+ * 
+ * @param globalLimit
+ *            A {@link RateLimit} for all requests
+ * @param operationLimits
+ *            A Map with a {@link RateLimit} per {@link OperationType}, types without an entry are
+ *            only limited by the global limit
+ * @param failFast
+ *            A boolean, true if calls should fail instead of waiting when a limit is reached
+ */
+public record RateLimitSettings(RateLimit globalLimit,
+		Map<OperationType, RateLimit> operationLimits, boolean failFast) {
+
+	/**
+	 * No limits.
+	 */
+	public static final RateLimitSettings NONE = new RateLimitSettings(RateLimit.UNLIMITED,
+			Map.of(), false);
+
+	/**
+	 * usingGlobalLimit creates settings limiting all requests using the provided limit, waiting
+	 * when the limit is reached
+	 * 
+	 * @param globalLimit
+	 *            A {@link RateLimit} for all requests
+	 * @return A RateLimitSettings with the global limit
+	 */
+	public static RateLimitSettings usingGlobalLimit(RateLimit globalLimit) {
+		return new RateLimitSettings(globalLimit, Map.of(), false);
+	}
+
+	/**
+	 * withOperationLimit returns a copy of these settings also limiting requests of the provided
+	 * type of operation
+	 * 
+	 * @param operationType
+	 *            An {@link OperationType} to limit
+	 * @param limit
+	 *            A {@link RateLimit} for the type of operation
+	 * @return A RateLimitSettings with the added limit
+	 */
+	public RateLimitSettings withOperationLimit(OperationType operationType, RateLimit limit) {
+		Map<OperationType, RateLimit> limits = new EnumMap<>(OperationType.class);
+		limits.putAll(operationLimits);
+		limits.put(operationType, limit);
+		return new RateLimitSettings(globalLimit, Map.copyOf(limits), failFast);
+	}
+
+	/**
+	 * withFailFast returns a copy of these settings where calls fail instead of waiting when a
+	 * limit is reached
+	 * 
+	 * @return A RateLimitSettings failing fast
+	 */
+	public RateLimitSettings withFailFast() {
+		return new RateLimitSettings(globalLimit, operationLimits, true);
+	}
+
+	/**
+	 * isEnabled returns true if any limit is set
+	 * 
+	 * @return A boolean, true if the global limit or any operation limit limits requests
+	 */
+	public boolean isEnabled() {
+		return globalLimit.isLimited()
+				|| operationLimits.values().stream().anyMatch(RateLimit::isLimited);
+	}
+}
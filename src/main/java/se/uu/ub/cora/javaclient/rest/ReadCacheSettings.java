@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ReadCacheSettings sets up a cache of the responses of reads of records, keyed by record type and
+ * record id. Responses with status code 200 are cached for timeToLive. Responses with other
+ * status codes, such as 404 Not Found and 403 Forbidden, are only cached if a time to live is set
+ * for their status code using {@link #withErrorTimeToLive(int, Duration)}, a repeated failing read
+ * then gets the cached error response without calling the server.
+ * <p>
+ * Each rest client has its own cache, as what may be read depends on the user of the client. An
+ * entry is removed when the same client creates, updates or deletes the record, when it is older
+ * than its time to live, or when the least recently used entries are evicted to keep the cache
+ * within maxEntries and maxBytes. The size of an entry is estimated as two bytes per character of
+ * its response text.
+ * 
+ * @param maxEntries
+ *            An int, the highest number of entries in each cache, 0 for no limit
+ * @param maxBytes
+ *            A long, the highest estimated size in bytes of each cache, 0 for no limit
+ * @param timeToLive
+ *            A Duration, how long an entry with status code 200 is used, zero for not caching
+ *            such responses
+ * @param errorTimesToLive
+ *            A Map with how long an entry is used for each other status code that is cached
+ * @param statistics
+ *            A {@link CacheStatistics} counting hits, misses and evictions of all caches using
+ *            these settings
+ */
+public record ReadCacheSettings(int maxEntries, long maxBytes, Duration timeToLive,
+		Map<Integer, Duration> errorTimesToLive, CacheStatistics statistics) {
+	private static final int OK = 200;
+
+	public ReadCacheSettings {
+		errorTimesToLive = Map.copyOf(errorTimesToLive);
+	}
+
+	/**
+	 * No cache.
+	 */
+	public static final ReadCacheSettings DISABLED = new ReadCacheSettings(0, 0, Duration.ZERO,
+			Map.of(), new CacheStatistics());
+
+	/**
+	 * usingMaxEntriesAndTimeToLive creates settings for caches bounded by number of entries
+	 * 
+	 * @param maxEntries
+	 *            An int, the highest number of entries in each cache
+	 * @param timeToLive
+	 *            A Duration, how long an entry is used
+	 * @return A ReadCacheSettings
+	 */
+	public static ReadCacheSettings usingMaxEntriesAndTimeToLive(int maxEntries,
+			Duration timeToLive) {
+		return new ReadCacheSettings(maxEntries, 0, timeToLive, Map.of(), new CacheStatistics());
+	}
+
+	/**
+	 * usingMaxBytesAndTimeToLive creates settings for caches bounded by estimated size
+	 * 
+	 * @param maxBytes
+	 *            A long, the highest estimated size in bytes of each cache
+	 * @param timeToLive
+	 *            A Duration, how long an entry is used
+	 * @return A ReadCacheSettings
+	 */
+	public static ReadCacheSettings usingMaxBytesAndTimeToLive(long maxBytes,
+			Duration timeToLive) {
+		return new ReadCacheSettings(0, maxBytes, timeToLive, Map.of(), new CacheStatistics());
+	}
+
+	/**
+	 * withErrorTimeToLive returns a copy of these settings that also caches responses with the
+	 * provided status code, sharing the statistics of these settings
+	 * 
+	 * @param responseCode
+	 *            An int with the status code, such as 404 or 403
+	 * @param errorTimeToLive
+	 *            A Duration, how long an entry with the status code is used
+	 * @return A ReadCacheSettings also caching responses with the status code
+	 */
+	public ReadCacheSettings withErrorTimeToLive(int responseCode, Duration errorTimeToLive) {
+		Map<Integer, Duration> newErrorTimesToLive = new HashMap<>(errorTimesToLive);
+		newErrorTimesToLive.put(responseCode, errorTimeToLive);
+		return new ReadCacheSettings(maxEntries, maxBytes, timeToLive, newErrorTimesToLive,
+				statistics);
+	}
+
+	/**
+	 * getTimeToLiveForResponseCode returns how long a response with the status code is cached
+	 * 
+	 * @param responseCode
+	 *            An int with the status code of the response
+	 * @return A Duration, zero if responses with the status code are not cached
+	 */
+	public Duration getTimeToLiveForResponseCode(int responseCode) {
+		if (responseCode == OK) {
+			return timeToLive;
+		}
+		return errorTimesToLive.getOrDefault(responseCode, Duration.ZERO);
+	}
+
+	/**
+	 * isEnabled returns true if reads should be cached
+	 * 
+	 * @return A boolean, true if the cache is bounded and any time to live is positive
+	 */
+	public boolean isEnabled() {
+		return (maxEntries > 0 || maxBytes > 0) && (timeToLive.isPositive()
+				|| errorTimesToLive.values().stream().anyMatch(Duration::isPositive));
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+/**
+ * RequestCoalescingSettings sets up coalescing of concurrent identical reads. When a read is made
+ * while an identical read is already in flight from the same rest client, it is not sent to the
+ * server, instead it waits for and gets the same response, or exception, as the read in flight.
+ * <p>
+ * Reads of a record, of incoming links to a record, of record lists, with or without filter, and
+ * searches returning json are coalesced. Each rest client coalesces only its own reads, as what
+ * may be read depends on the user of the client.
+ * 
+ * @param enabled
+ *            A boolean, true if reads should be coalesced
+ * @param statistics
+ *            A {@link CoalescingStatistics} counting sent and coalesced reads of all rest clients
+ *            using these settings
+ */
+public record RequestCoalescingSettings(boolean enabled, CoalescingStatistics statistics) {
+
+	/**
+	 * No coalescing.
+	 */
+	public static final RequestCoalescingSettings DISABLED = new RequestCoalescingSettings(false,
+			new CoalescingStatistics());
+
+	/**
+	 * createEnabledSettings creates settings coalescing reads, counting them in new statistics
+	 * 
+	 * @return A RequestCoalescingSettings
+	 */
+	public static RequestCoalescingSettings createEnabledSettings() {
+		return new RequestCoalescingSettings(true, new CoalescingStatistics());
+	}
+
+	/**
+	 * isEnabled returns if reads should be coalesced
+	 * 
+	 * @return A boolean, true if reads should be coalesced
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+}
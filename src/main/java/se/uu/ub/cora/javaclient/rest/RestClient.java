@@ -18,7 +18,16 @@
  */
 package se.uu.ub.cora.javaclient.rest;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+import se.uu.ub.cora.javaclient.ReadManyResult;
 import se.uu.ub.cora.javaclient.data.DataClient;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.internal.BoundedFanOut;
 
 /**
  * RestClient is a java client for handling records in a Cora based system. Methods in this class
@@ -138,6 +147,51 @@ public interface RestClient {
 	 */
 	RestResponse searchRecordWithSearchCriteriaAsJson(String searchId, String json);
 
+	/**
+	 * Reads a list of records using recordType, without reading the response into a String. If the
+	 * list could be read is the body of the response available as an InputStream in the
+	 * responseBinary of the {@link RestResponse}, so that it can be read incrementally. The
+	 * InputStream MUST be closed by the caller. If the list could not be read is the error
+	 * returned as a responseText.
+	 * <p>
+	 * The default implementation reads the list using {@link #readRecordListAsJson(String)} and
+	 * provides its responseText as the InputStream, so that existing implementations keep working.
+	 * 
+	 * @param recordType,
+	 *            A String, the type of the records to be listed
+	 * @return A {@link RestResponse}, containing the response
+	 */
+	default RestResponse readRecordListAsJsonStream(String recordType) {
+		return moveResponseTextToStreamIfOk(readRecordListAsJson(recordType));
+	}
+
+	/**
+	 * Searches for records using a searchId and a string to define the search, without reading the
+	 * response into a String, in the same way as {@link #readRecordListAsJsonStream(String)}.
+	 * <p>
+	 * The default implementation searches using
+	 * {@link #searchRecordWithSearchCriteriaAsJson(String, String)} and provides its responseText
+	 * as the InputStream, so that existing implementations keep working.
+	 * 
+	 * @param searchId
+	 *            A String, the id of the search to use
+	 * @param json
+	 *            A String used to define the search
+	 * @return A {@link RestResponse}, containing the response
+	 */
+	default RestResponse searchRecordWithSearchCriteriaAsJsonStream(String searchId, String json) {
+		return moveResponseTextToStreamIfOk(searchRecordWithSearchCriteriaAsJson(searchId, json));
+	}
+
+	private static RestResponse moveResponseTextToStreamIfOk(RestResponse response) {
+		if (response.responseCode() != 200) {
+			return response;
+		}
+		byte[] responseBytes = response.responseText().getBytes(StandardCharsets.UTF_8);
+		return new RestResponse(response.responseCode(), "",
+				Optional.of(new ByteArrayInputStream(responseBytes)), response.createdId());
+	}
+
 	/**
 	 * Validates a record using a workorder as json. The result is returned as a responseText in the
 	 * {@link RestResponse}
@@ -162,4 +216,53 @@ public interface RestClient {
 	 */
 	RestResponse download(String type, String id, String representation);
 
+	/**
+	 * Reads many records of the same recordType by id. The reads are done in parallel with at
+	 * most maxInFlight reads running at the same time.
+	 * <p>
+	 * Responses from the server, including error responses, are returned in the results keyed by
+	 * id, in the same order as the ids. If a read of an id can not be done at all is the exception
+	 * collected in the failures instead, and reading of the other ids continues.
+	 * <p>
+	 * The default implementation reads each id using {@link #readRecordAsJson(String, String)}, so
+	 * that existing implementations keep working.
+	 * 
+	 * @param recordType
+	 *            A String, the type of the records to read
+	 * @param ids
+	 *            A Collection of Strings, the ids of the records to read
+	 * @param maxInFlight
+	 *            An int, the maximum number of reads to run at the same time, must be at least 1
+	 * @return A {@link ReadManyResult} with a {@link RestResponse} for each id that could be read
+	 *         and a {@link DataClientException} for each id that could not
+	 */
+	default ReadManyResult<RestResponse> readManyAsJson(String recordType, Collection<String> ids,
+			int maxInFlight) {
+		return BoundedFanOut.readAllUsingMaxInFlight(ids, maxInFlight,
+				recordId -> readRecordAsJson(recordType, recordId));
+	}
+
+	/**
+	 * withDeadline returns a RestClient that uses the same connection and authToken as this one,
+	 * but where each call must be done within the provided deadline. The deadline covers the
+	 * whole call, including a re-login and retry after an unauthorized response. No request is
+	 * sent once the deadline has passed, and the timeout of each request is lowered to the time
+	 * that remains, if the transport supports timeouts (see {@link OperationTimeouts}). A
+	 * re-login is waited for at most the time that remains.
+	 * <p>
+	 * If the deadline passes before the first request is sent a {@link DataClientException} is
+	 * thrown. If it passes before a retry after an unauthorized response, or while waiting for
+	 * the re-login, the unauthorized response is returned.
+	 * <p>
+	 * The default implementation returns this RestClient, without a deadline, so that existing
+	 * implementations keep working.
+	 * 
+	 * @param deadline
+	 *            A {@link Duration}, the maximum time each call may take
+	 * @return A RestClient using the deadline for each call
+	 */
+	default RestClient withDeadline(Duration deadline) {
+		return this;
+	}
+
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * RetryPolicy decides how a {@link RestClient} retries calls that fail with a transient error, a
+ * response with one of the retryable status codes or a failed connection.
+ * <p>
+ * Between attempts the client waits an exponential backoff with full jitter, starting at
+ * initialBackoff and doubling for each attempt up to maxBackoff. If the response has a Retry-After
+ * header is that time waited instead, unless it is longer than maxBackoff, then the response is
+ * returned without a retry. A deadline set on the client is never exceeded by a retry.
+ * <p>
+ * Only idempotent calls are retried, that is reads, lists, searches, downloads and deletes, unless
+ * retryCreateAndUpdate is true, then are also create, update, validate and batch index retried.
+ * 
+ * @param maxAttempts
+ *            An int, the maximum number of attempts including the first one, 1 means no retries
+ * @param initialBackoff
+ *            A {@link Duration}, the maximum time to wait before the first retry
+ * @param maxBackoff
+ *            A {@link Duration}, the maximum time to wait before any retry
+ * @param retryableStatusCodes
+ *            A Set of Integers, the status codes of responses that are retried
+ * @param retryCreateAndUpdate
+ *            A boolean, true if calls that are not idempotent should also be retried
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+		Set<Integer> retryableStatusCodes, boolean retryCreateAndUpdate) {
+
+	/**
+	 * The status codes retried by a policy created using
+	 * {@link #usingMaxAttemptsAndBackoff(int, Duration, Duration)}, 502, 503 and 504.
+	 */
+	public static final Set<Integer> TRANSIENT_STATUS_CODES = Set.of(502, 503, 504);
+
+	/**
+	 * A policy that never retries.
+	 */
+	public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO,
+			Set.of(), false);
+
+	/**
+	 * usingMaxAttemptsAndBackoff creates a policy retrying idempotent calls that fail with a failed
+	 * connection or one of the {@link #TRANSIENT_STATUS_CODES}.
+	 * 
+	 * @param maxAttempts
+	 *            An int, the maximum number of attempts including the first one
+	 * @param initialBackoff
+	 *            A {@link Duration}, the maximum time to wait before the first retry
+	 * @param maxBackoff
+	 *            A {@link Duration}, the maximum time to wait before any retry
+	 * @return A RetryPolicy
+	 */
+	public static RetryPolicy usingMaxAttemptsAndBackoff(int maxAttempts, Duration initialBackoff,
+			Duration maxBackoff) {
+		return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, TRANSIENT_STATUS_CODES,
+				false);
+	}
+
+	/**
+	 * withRetryOfCreateAndUpdate returns a copy of this policy that also retries calls that are
+	 * not idempotent. Only use this if the server handles a repeated create or update correctly.
+	 * 
+	 * @return A RetryPolicy also retrying create, update, validate and batch index
+	 */
+	public RetryPolicy withRetryOfCreateAndUpdate() {
+		return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, retryableStatusCodes,
+				true);
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.AdaptiveConcurrencySettings;
+import se.uu.ub.cora.javaclient.rest.OperationType;
+
+/**
+ * AdaptiveConcurrencyLimiter keeps the number of requests in flight within a limit that is adapted
+ * to the outcome and round trip time of each request, as described in
+ * {@link AdaptiveConcurrencySettings}.
+ * <p>
+ * The average round trip time is an exponential moving average, per {@link OperationType}, of
+ * the round trip times of requests that did not fail, slow ones included.
+ * <p>
+ * The limit is decreased at most once per round trip. A failed or slow request only decreases the
+ * limit if it was sent after the latest decrease, so a burst of failures of requests that were in
+ * flight at the same time decreases the limit once.
+ */
+public final class AdaptiveConcurrencyLimiter {
+	private static final String ERROR_MESSAGE_INTERRUPTED = "Interrupted while waiting for the "
+			+ "adaptive concurrency limit, no request was sent.";
+	private static final String ERROR_MESSAGE_DEADLINE = "The deadline was exceeded while waiting "
+			+ "for the adaptive concurrency limit, no request was sent.";
+	private static final double AVERAGE_SMOOTHING = 0.05;
+	private AdaptiveConcurrencySettings settings;
+	private LongSupplier nanoClock;
+	private ReentrantLock lock = new ReentrantLock();
+	private Condition belowLimit = lock.newCondition();
+	private int limit;
+	private int inFlight = 0;
+	private Map<OperationType, Double> averageRoundTripNanos = new EnumMap<>(
+			OperationType.class);
+	private boolean limitHasBeenDecreased = false;
+	private long latestDecreaseInNanos;
+
+	public static AdaptiveConcurrencyLimiter usingSettings(AdaptiveConcurrencySettings settings) {
+		return new AdaptiveConcurrencyLimiter(settings, System::nanoTime);
+	}
+
+	static AdaptiveConcurrencyLimiter usingSettingsAndNanoClock(
+			AdaptiveConcurrencySettings settings, LongSupplier nanoClock) {
+		return new AdaptiveConcurrencyLimiter(settings, nanoClock);
+	}
+
+	private AdaptiveConcurrencyLimiter(AdaptiveConcurrencySettings settings,
+			LongSupplier nanoClock) {
+		this.settings = settings;
+		this.nanoClock = nanoClock;
+		this.limit = settings.initialLimit();
+	}
+
+	/**
+	 * acquire waits until the number of requests in flight is below the limit and counts the
+	 * request as in flight. Each acquire must be followed by a call to
+	 * {@link #recordAndRelease(boolean, Duration)} or {@link #releaseWithoutRecording()}.
+	 * 
+	 * @throws DataClientException
+	 *             if interrupted while waiting
+	 */
+	public void acquire() {
+		if (!settings.isEnabled()) {
+			return;
+		}
+		lock.lock();
+		try {
+			waitUntilBelowLimit();
+			inFlight++;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void waitUntilBelowLimit() {
+		try {
+			while (inFlight >= limit) {
+				belowLimit.await();
+			}
+		} catch (InterruptedException e) {
+			throw createInterruptedError(e);
+		}
+	}
+
+	private DataClientException createInterruptedError(InterruptedException e) {
+		Thread.currentThread().interrupt();
+		return DataClientException.withMessageAndException(ERROR_MESSAGE_INTERRUPTED, e);
+	}
+
+	/**
+	 * acquireWithin does as {@link #acquire()} but waits at most the provided time for the number
+	 * of requests in flight to get below the limit.
+	 * 
+	 * @param maxWait
+	 *            A {@link Duration}, the maximum time to wait
+	 * @throws DataClientException
+	 *             if the number of requests in flight does not get below the limit in time, or if
+	 *             interrupted while waiting
+	 */
+	public void acquireWithin(Duration maxWait) {
+		if (!settings.isEnabled()) {
+			return;
+		}
+		lock.lock();
+		try {
+			waitUntilBelowLimitAtMostNanos(maxWait.toNanos());
+			inFlight++;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void waitUntilBelowLimitAtMostNanos(long maxWaitNanos) {
+		long nanosLeft = maxWaitNanos;
+		try {
+			while (inFlight >= limit) {
+				if (nanosLeft <= 0) {
+					throw DataClientException.withMessage(ERROR_MESSAGE_DEADLINE);
+				}
+				nanosLeft = belowLimit.awaitNanos(nanosLeft);
+			}
+		} catch (InterruptedException e) {
+			throw createInterruptedError(e);
+		}
+	}
+
+	/**
+	 * recordAndRelease adapts the limit to the outcome of a request and counts it as done
+	 * 
+	 * @param operationType
+	 *            The {@link OperationType} of the request, whose average round trip time the round
+	 *            trip time is compared to
+	 * @param failed
+	 *            A boolean, true if the request failed in a way indicating overload
+	 * @param roundTripTime
+	 *            A {@link Duration}, the time the request took
+	 */
+	public void recordAndRelease(OperationType operationType, boolean failed,
+			Duration roundTripTime) {
+		if (!settings.isEnabled()) {
+			return;
+		}
+		int newLimit = updateLimitAndRelease(operationType, failed, roundTripTime.toNanos());
+		if (newLimit > 0) {
+			settings.limitListener().accept(newLimit);
+		}
+	}
+
+	private int updateLimitAndRelease(OperationType operationType, boolean failed,
+			long roundTripNanos) {
+		lock.lock();
+		try {
+			int previousLimit = limit;
+			int inFlightWithRequest = inFlight;
+			inFlight--;
+			if (failed || isSlow(operationType, roundTripNanos)) {
+				possiblyDecreaseLimit(roundTripNanos);
+			} else {
+				possiblyIncreaseLimit(inFlightWithRequest);
+			}
+			if (!failed) {
+				updateAverageRoundTrip(operationType, roundTripNanos);
+			}
+			belowLimit.signalAll();
+			return limit != previousLimit ? limit : 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean isSlow(OperationType operationType, long roundTripNanos) {
+		Double average = averageRoundTripNanos.get(operationType);
+		return average != null && roundTripNanos > average * settings.latencyTolerance();
+	}
+
+	private void possiblyDecreaseLimit(long roundTripNanos) {
+		long now = nanoClock.getAsLong();
+		if (requestWasSentAfterLatestDecrease(now - roundTripNanos)) {
+			int decreasedLimit = Math.min(limit - 1, (int) (limit * settings.backoffRatio()));
+			limit = Math.max(settings.minLimit(), decreasedLimit);
+			limitHasBeenDecreased = true;
+			latestDecreaseInNanos = now;
+		}
+	}
+
+	private boolean requestWasSentAfterLatestDecrease(long sentInNanos) {
+		return !limitHasBeenDecreased || sentInNanos - latestDecreaseInNanos >= 0;
+	}
+
+	private void possiblyIncreaseLimit(int inFlightWithRequest) {
+		if (inFlightWithRequest * 2 >= limit) {
+			limit = Math.min(settings.maxLimit(), limit + 1);
+		}
+	}
+
+	private void updateAverageRoundTrip(OperationType operationType, long roundTripNanos) {
+		averageRoundTripNanos.merge(operationType, (double) roundTripNanos,
+				(average, latest) -> average + AVERAGE_SMOOTHING * (latest - average));
+	}
+
+	/**
+	 * releaseWithoutRecording counts a request as done without adapting the limit, used when the
+	 * request was never sent or ended in a way that says nothing about the load of the server
+	 */
+	public void releaseWithoutRecording() {
+		if (!settings.isEnabled()) {
+			return;
+		}
+		lock.lock();
+		try {
+			inFlight--;
+			belowLimit.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * getCurrentLimit returns the current limit of requests in flight
+	 * 
+	 * @return An int with the current limit
+	 */
+	public int getCurrentLimit() {
+		lock.lock();
+		try {
+			return limit;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * getInFlight returns the number of requests currently in flight
+	 * 
+	 * @return An int with the number of requests in flight
+	 */
+	public int getInFlight() {
+		lock.lock();
+		try {
+			return inFlight;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public AdaptiveConcurrencySettings onlyForTestGetSettings() {
+		return settings;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import se.uu.ub.cora.javaclient.rest.AsyncRestClient;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * AsyncRestClientImp runs each call to the wrapped {@link RestClient} as a task on the provided
+ * executor. Used with a virtual thread per task executor a blocked http call only parks a virtual
+ * thread, so a few carrier threads can keep a large number of requests in flight.
+ * <p>
+ * Response handling, including the unauthorized re-login and retry, is done by the wrapped
+ * {@link RestClient}.
+ */
+public final class AsyncRestClientImp implements AsyncRestClient {
+	private RestClient restClient;
+	private Executor executor;
+
+	public static AsyncRestClientImp usingRestClientAndExecutor(RestClient restClient,
+			Executor executor) {
+		return new AsyncRestClientImp(restClient, executor);
+	}
+
+	private AsyncRestClientImp(RestClient restClient, Executor executor) {
+		this.restClient = restClient;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> readRecordAsJson(String recordType, String recordId) {
+		return runAsync(() -> restClient.readRecordAsJson(recordType, recordId));
+	}
+
+	private CompletableFuture<RestResponse> runAsync(Supplier<RestResponse> call) {
+		return CompletableFuture.supplyAsync(call, executor);
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> createRecordFromJson(String recordType, String json) {
+		return runAsync(() -> restClient.createRecordFromJson(recordType, json));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> updateRecordFromJson(String recordType,
+			String recordId, String json) {
+		return runAsync(() -> restClient.updateRecordFromJson(recordType, recordId, json));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> deleteRecord(String recordType, String recordId) {
+		return runAsync(() -> restClient.deleteRecord(recordType, recordId));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> readRecordListAsJson(String recordType) {
+		return runAsync(() -> restClient.readRecordListAsJson(recordType));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> readIncomingLinksAsJson(String recordType,
+			String recordId) {
+		return runAsync(() -> restClient.readIncomingLinksAsJson(recordType, recordId));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> readRecordListWithFilterAsJson(String recordType,
+			String filter) {
+		return runAsync(() -> restClient.readRecordListWithFilterAsJson(recordType, filter));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> batchIndexWithFilterAsJson(String recordType,
+			String indexSettingsAsJson) {
+		return runAsync(
+				() -> restClient.batchIndexWithFilterAsJson(recordType, indexSettingsAsJson));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> searchRecordWithSearchCriteriaAsJson(String searchId,
+			String json) {
+		return runAsync(() -> restClient.searchRecordWithSearchCriteriaAsJson(searchId, json));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> validateRecordAsJson(String json) {
+		return runAsync(() -> restClient.validateRecordAsJson(json));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> download(String type, String id,
+			String representation) {
+		return runAsync(() -> restClient.download(type, id, representation));
+	}
+
+	public RestClient onlyForTestGetRestClient() {
+		return restClient;
+	}
+
+	public Executor onlyForTestGetExecutor() {
+		return executor;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import se.uu.ub.cora.javaclient.rest.OperationType;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * CachingRestClient answers {@link #readRecordAsJson(String, String)} from a {@link ReadCache}
+ * when possible, and removes a record from the cache when it is created, updated or deleted
+ * through this client. A read that was in flight when the record was removed does not put its
+ * response in the cache. All other calls are passed on to the wrapped {@link RestClient}.
+ */
+public final class CachingRestClient extends ForwardingRestClient {
+	private RestClient restClient;
+	private ReadCache readCache;
+
+	public static CachingRestClient usingRestClientAndReadCache(RestClient restClient,
+			ReadCache readCache) {
+		return new CachingRestClient(restClient, readCache);
+	}
+
+	private CachingRestClient(RestClient restClient, ReadCache readCache) {
+		this.restClient = restClient;
+		this.readCache = readCache;
+	}
+
+	@Override
+	public RestResponse readRecordAsJson(String recordType, String recordId) {
+		Optional<RestResponse> cachedResponse = readCache.get(recordType, recordId);
+		if (cachedResponse.isPresent()) {
+			return cachedResponse.get();
+		}
+		long generation = readCache.startRead(recordType, recordId);
+		try {
+			RestResponse response = restClient.readRecordAsJson(recordType, recordId);
+			readCache.putIfNotInvalidatedSince(recordType, recordId, generation, response);
+			return response;
+		} finally {
+			readCache.endRead(recordType, recordId);
+		}
+	}
+
+	@Override
+	public RestResponse createRecordFromJson(String recordType, String json) {
+		RestResponse response = restClient.createRecordFromJson(recordType, json);
+		response.createdId().ifPresent(createdId -> readCache.invalidate(recordType, createdId));
+		return response;
+	}
+
+	@Override
+	public RestResponse updateRecordFromJson(String recordType, String recordId, String json) {
+		try {
+			return restClient.updateRecordFromJson(recordType, recordId, json);
+		} finally {
+			readCache.invalidate(recordType, recordId);
+		}
+	}
+
+	@Override
+	public RestResponse deleteRecord(String recordType, String recordId) {
+		try {
+			return restClient.deleteRecord(recordType, recordId);
+		} finally {
+			readCache.invalidate(recordType, recordId);
+		}
+	}
+
+	@Override
+	protected RestResponse forward(OperationType operationType,
+			Function<RestClient, RestResponse> call) {
+		return call.apply(restClient);
+	}
+
+	@Override
+	public RestClient withDeadline(Duration deadline) {
+		return new CachingRestClient(restClient.withDeadline(deadline), readCache);
+	}
+
+	public RestClient onlyForTestGetRestClient() {
+		return restClient;
+	}
+
+	public ReadCache onlyForTestGetReadCache() {
+		return readCache;
+	}
+}
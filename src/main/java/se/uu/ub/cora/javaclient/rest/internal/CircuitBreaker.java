@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerOpenException;
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerSettings;
+
+/**
+ * CircuitBreaker keeps the outcome of the latest calls to one server, and possibly one type of
+ * operation, and stops calls from being sent while the server is failing, as described in
+ * {@link CircuitBreakerSettings}.
+ */
+public final class CircuitBreaker {
+	private static final String ERROR_MESSAGE_OPEN = "The circuit breaker for: {0} is open, "
+			+ "no request was sent.";
+
+	enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private String name;
+	private CircuitBreakerSettings settings;
+	private LongSupplier nanoClock;
+	private boolean[] failedCalls;
+	private boolean[] slowCalls;
+	private int nextIndex = 0;
+	private int numberOfCalls = 0;
+	private int numberOfFailedCalls = 0;
+	private int numberOfSlowCalls = 0;
+	private State state = State.CLOSED;
+	private long openedAtNanos;
+	private int startedTrialCalls;
+	private int successfulTrialCalls;
+
+	public static CircuitBreaker usingNameAndSettings(String name,
+			CircuitBreakerSettings settings) {
+		return new CircuitBreaker(name, settings, System::nanoTime);
+	}
+
+	static CircuitBreaker usingNameAndSettingsAndNanoClock(String name,
+			CircuitBreakerSettings settings, LongSupplier nanoClock) {
+		return new CircuitBreaker(name, settings, nanoClock);
+	}
+
+	private CircuitBreaker(String name, CircuitBreakerSettings settings, LongSupplier nanoClock) {
+		this.name = name;
+		this.settings = settings;
+		this.nanoClock = nanoClock;
+		this.failedCalls = new boolean[settings.windowSize()];
+		this.slowCalls = new boolean[settings.windowSize()];
+	}
+
+	/**
+	 * ensureCallIsPermitted returns if a call may be sent, otherwise it throws a
+	 * {@link CircuitBreakerOpenException}. Each permitted call must be followed by a call to
+	 * {@link #recordCall(boolean, Duration)} or {@link #releaseWithoutRecording()}.
+	 */
+	public synchronized void ensureCallIsPermitted() {
+		if (!settings.isEnabled()) {
+			return;
+		}
+		possiblyMoveFromOpenToHalfOpen();
+		if (state == State.OPEN || noTrialCallsLeft()) {
+			throw CircuitBreakerOpenException
+					.withMessage(MessageFormat.format(ERROR_MESSAGE_OPEN, name));
+		}
+		if (state == State.HALF_OPEN) {
+			startedTrialCalls++;
+		}
+	}
+
+	private void possiblyMoveFromOpenToHalfOpen() {
+		if (state == State.OPEN
+				&& nanoClock.getAsLong() - openedAtNanos >= settings.openDuration().toNanos()) {
+			state = State.HALF_OPEN;
+			startedTrialCalls = 0;
+			successfulTrialCalls = 0;
+		}
+	}
+
+	private boolean noTrialCallsLeft() {
+		return state == State.HALF_OPEN && startedTrialCalls >= settings.halfOpenTrialCalls();
+	}
+
+	/**
+	 * recordCall records the outcome of a permitted call
+	 * 
+	 * @param failed
+	 *            A boolean, true if the call failed
+	 * @param duration
+	 *            A {@link Duration}, the time the call took
+	 */
+	public synchronized void recordCall(boolean failed, Duration duration) {
+		if (!settings.isEnabled()) {
+			return;
+		}
+		boolean slow = callIsSlow(duration);
+		if (state == State.HALF_OPEN) {
+			recordTrialCall(failed || slow);
+		} else if (state == State.CLOSED) {
+			recordCallInWindow(failed, slow);
+			possiblyOpen();
+		}
+	}
+
+	/**
+	 * releaseWithoutRecording ends a permitted call without recording its outcome, used when the
+	 * call ended in a way that says nothing about the health of the server, such as a deadline
+	 * passing before the request was sent. A trial call of a half open circuit breaker is given
+	 * back, so that another call can be let through in its place.
+	 */
+	public synchronized void releaseWithoutRecording() {
+		if (state == State.HALF_OPEN && startedTrialCalls > 0) {
+			startedTrialCalls--;
+		}
+	}
+
+	private boolean callIsSlow(Duration duration) {
+		Duration slowCallThreshold = settings.slowCallThreshold();
+		return !slowCallThreshold.isZero() && duration.compareTo(slowCallThreshold) > 0;
+	}
+
+	private void recordTrialCall(boolean failed) {
+		if (failed) {
+			open();
+			return;
+		}
+		successfulTrialCalls++;
+		if (successfulTrialCalls >= settings.halfOpenTrialCalls()) {
+			close();
+		}
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openedAtNanos = nanoClock.getAsLong();
+	}
+
+	private void close() {
+		state = State.CLOSED;
+		nextIndex = 0;
+		numberOfCalls = 0;
+		numberOfFailedCalls = 0;
+		numberOfSlowCalls = 0;
+	}
+
+	private void recordCallInWindow(boolean failed, boolean slow) {
+		if (numberOfCalls == settings.windowSize()) {
+			removeOldestCallFromWindow();
+		} else {
+			numberOfCalls++;
+		}
+		failedCalls[nextIndex] = failed;
+		slowCalls[nextIndex] = slow;
+		numberOfFailedCalls += failed ? 1 : 0;
+		numberOfSlowCalls += slow ? 1 : 0;
+		nextIndex = (nextIndex + 1) % settings.windowSize();
+	}
+
+	private void removeOldestCallFromWindow() {
+		numberOfFailedCalls -= failedCalls[nextIndex] ? 1 : 0;
+		numberOfSlowCalls -= slowCalls[nextIndex] ? 1 : 0;
+	}
+
+	private void possiblyOpen() {
+		if (numberOfCalls >= settings.minimumNumberOfCalls()
+				&& (rateReachesThreshold(numberOfFailedCalls, settings.failureRateThreshold())
+						|| rateReachesThreshold(numberOfSlowCalls,
+								settings.slowCallRateThreshold()))) {
+			open();
+		}
+	}
+
+	private boolean rateReachesThreshold(int numberOfMatchingCalls, int thresholdInPercent) {
+		return thresholdInPercent > 0
+				&& numberOfMatchingCalls * 100 >= thresholdInPercent * numberOfCalls;
+	}
+
+	public String onlyForTestGetName() {
+		return name;
+	}
+
+	public CircuitBreakerSettings onlyForTestGetSettings() {
+		return settings;
+	}
+
+	synchronized State onlyForTestGetState() {
+		return state;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerSettings;
+
+/**
+ * CircuitBreakerRegistry keeps one {@link CircuitBreaker} per base url, or per base url and type of
+ * operation, so that all rest clients calling the same server share the same circuit breaker.
+ */
+public final class CircuitBreakerRegistry {
+	private CircuitBreakerSettings settings;
+	private CircuitBreaker disabledCircuitBreaker;
+	private Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+	public static CircuitBreakerRegistry usingSettings(CircuitBreakerSettings settings) {
+		return new CircuitBreakerRegistry(settings);
+	}
+
+	private CircuitBreakerRegistry(CircuitBreakerSettings settings) {
+		this.settings = settings;
+		disabledCircuitBreaker = CircuitBreaker.usingNameAndSettings("disabled",
+				CircuitBreakerSettings.DISABLED);
+	}
+
+	/**
+	 * getCircuitBreakerForBaseUrlAndOperation returns the circuit breaker to use for a call of the
+	 * type of operation to the base url, creating it if needed.
+	 * 
+	 * @param baseUrl
+	 *            A String with the base url of the server
+	 * @param operation
+	 *            A String with the type of operation, only used if the settings use one circuit
+	 *            breaker per operation
+	 * @return A CircuitBreaker for the call
+	 */
+	public CircuitBreaker getCircuitBreakerForBaseUrlAndOperation(String baseUrl,
+			String operation) {
+		if (!settings.isEnabled()) {
+			return disabledCircuitBreaker;
+		}
+		String name = settings.perOperation() ? baseUrl + " (" + operation + ")" : baseUrl;
+		return circuitBreakers.computeIfAbsent(name,
+				key -> CircuitBreaker.usingNameAndSettings(key, settings));
+	}
+
+	public CircuitBreakerSettings onlyForTestGetSettings() {
+		return settings;
+	}
+}
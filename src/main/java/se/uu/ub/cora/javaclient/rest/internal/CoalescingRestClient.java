@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.CoalescingStatistics;
+import se.uu.ub.cora.javaclient.rest.OperationType;
+import se.uu.ub.cora.javaclient.rest.RequestCoalescingSettings;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * CoalescingRestClient coalesces concurrent identical reads as described in
+ * {@link RequestCoalescingSettings}, all other calls are passed on to the wrapped
+ * {@link RestClient}.
+ * <p>
+ * The reads in flight are shared by all clients created from this one using
+ * {@link #withDeadline(Duration)}. A coalesced read waits for the read in flight at most its own
+ * deadline, and fails with a deadline error if the read in flight has not been answered by then,
+ * even if the read in flight has a longer deadline.
+ */
+public final class CoalescingRestClient extends ForwardingRestClient {
+	private static final String ERROR_MESSAGE_INTERRUPTED = "Interrupted while waiting for the "
+			+ "response to a coalesced read.";
+	private static final String ERROR_MESSAGE_DEADLINE = "The deadline was exceeded while waiting "
+			+ "for the response to a coalesced read.";
+	private RestClient restClient;
+	private CoalescingStatistics statistics;
+	private ConcurrentMap<ReadKey, CompletableFuture<RestResponse>> readsInFlight;
+	private Duration deadline;
+
+	private record ReadKey(String operation, String first, String second) {
+	}
+
+	public static CoalescingRestClient usingRestClientAndStatistics(RestClient restClient,
+			CoalescingStatistics statistics) {
+		return new CoalescingRestClient(restClient, statistics, new ConcurrentHashMap<>(),
+				Duration.ZERO);
+	}
+
+	private CoalescingRestClient(RestClient restClient, CoalescingStatistics statistics,
+			ConcurrentMap<ReadKey, CompletableFuture<RestResponse>> readsInFlight,
+			Duration deadline) {
+		this.restClient = restClient;
+		this.statistics = statistics;
+		this.readsInFlight = readsInFlight;
+		this.deadline = deadline;
+	}
+
+	@Override
+	public RestResponse readRecordAsJson(String recordType, String recordId) {
+		return readOrJoinReadInFlight(new ReadKey("read", recordType, recordId),
+				() -> restClient.readRecordAsJson(recordType, recordId));
+	}
+
+	private RestResponse readOrJoinReadInFlight(ReadKey key, Supplier<RestResponse> read) {
+		CompletableFuture<RestResponse> ownRead = new CompletableFuture<>();
+		CompletableFuture<RestResponse> readInFlight = readsInFlight.putIfAbsent(key, ownRead);
+		if (readInFlight != null) {
+			statistics.countCoalescedRequest();
+			return waitForReadInFlight(readInFlight);
+		}
+		statistics.countSentRequest();
+		return readAndCompleteOwnRead(key, read, ownRead);
+	}
+
+	private RestResponse waitForReadInFlight(CompletableFuture<RestResponse> readInFlight) {
+		try {
+			return getResponseOfReadInFlightWithinDeadline(readInFlight);
+		} catch (TimeoutException _) {
+			throw DataClientException.withMessage(ERROR_MESSAGE_DEADLINE);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw DataClientException.withMessageAndException(ERROR_MESSAGE_INTERRUPTED, e);
+		} catch (ExecutionException e) {
+			throw rethrowCauseOfReadInFlight(e.getCause());
+		}
+	}
+
+	private RestResponse getResponseOfReadInFlightWithinDeadline(
+			CompletableFuture<RestResponse> readInFlight)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		if (deadline.isZero()) {
+			return readInFlight.get();
+		}
+		return readInFlight.get(deadline.toNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	private RuntimeException rethrowCauseOfReadInFlight(Throwable cause) {
+		if (cause instanceof Error error) {
+			throw error;
+		}
+		return (RuntimeException) cause;
+	}
+
+	private RestResponse readAndCompleteOwnRead(ReadKey key, Supplier<RestResponse> read,
+			CompletableFuture<RestResponse> ownRead) {
+		try {
+			RestResponse response = read.get();
+			ownRead.complete(response);
+			return response;
+		} catch (RuntimeException | Error e) {
+			ownRead.completeExceptionally(e);
+			throw e;
+		} finally {
+			readsInFlight.remove(key, ownRead);
+		}
+	}
+
+	@Override
+	public RestResponse readRecordListAsJson(String recordType) {
+		return readOrJoinReadInFlight(new ReadKey("list", recordType, null),
+				() -> restClient.readRecordListAsJson(recordType));
+	}
+
+	@Override
+	public RestResponse readIncomingLinksAsJson(String recordType, String recordId) {
+		return readOrJoinReadInFlight(new ReadKey("incomingLinks", recordType, recordId),
+				() -> restClient.readIncomingLinksAsJson(recordType, recordId));
+	}
+
+	@Override
+	public RestResponse readRecordListWithFilterAsJson(String recordType, String filter) {
+		return readOrJoinReadInFlight(new ReadKey("listWithFilter", recordType, filter),
+				() -> restClient.readRecordListWithFilterAsJson(recordType, filter));
+	}
+
+	@Override
+	public RestResponse searchRecordWithSearchCriteriaAsJson(String searchId, String json) {
+		return readOrJoinReadInFlight(new ReadKey("search", searchId, json),
+				() -> restClient.searchRecordWithSearchCriteriaAsJson(searchId, json));
+	}
+
+	@Override
+	protected RestResponse forward(OperationType operationType,
+			Function<RestClient, RestResponse> call) {
+		return call.apply(restClient);
+	}
+
+	@Override
+	public RestClient withDeadline(Duration deadline) {
+		return new CoalescingRestClient(restClient.withDeadline(deadline), statistics,
+				readsInFlight, deadline);
+	}
+
+	public RestClient onlyForTestGetRestClient() {
+		return restClient;
+	}
+
+	public Duration onlyForTestGetDeadline() {
+		return deadline;
+	}
+
+	public CoalescingStatistics onlyForTestGetStatistics() {
+		return statistics;
+	}
+
+	int onlyForTestGetNumberOfReadsInFlight() {
+		return readsInFlight.size();
+	}
+}
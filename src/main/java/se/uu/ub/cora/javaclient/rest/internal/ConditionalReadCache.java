@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.CacheStatistics;
+import se.uu.ub.cora.javaclient.rest.ConditionalReadSettings;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * ConditionalReadCache keeps the latest response read from each url together with its ETag and
+ * Last-Modified headers, so that the next read of the url can be made conditional, as described in
+ * {@link ConditionalReadSettings}.
+ * <p>
+ * If a {@link DiskResponseStore} is enabled, every kept response is also written to it, and a url
+ * not kept in memory is looked up in it. The disk response store is shared by all rest clients of
+ * a factory, so its keys start with a SHA-256 hash of the disk cache namespace of this cache,
+ * keeping the responses read using one credential apart from those read using another. The disk
+ * response store is used outside of the lock of this cache, so that reads answered from memory
+ * never wait for the disk.
+ */
+public final class ConditionalReadCache {
+	private ConditionalReadSettings settings;
+	private CacheStatistics statistics;
+	private DiskResponseStore diskResponseStore;
+	private String diskKeyPrefix;
+	private Map<String, ValidatedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * ValidatedResponse is a response together with the validators the server sent with it. Each
+	 * validator is null if the server did not send it.
+	 */
+	record ValidatedResponse(String eTag, String lastModified, RestResponse response) {
+	}
+
+	public static ConditionalReadCache usingSettingsAndDiskResponseStore(
+			ConditionalReadSettings settings, DiskResponseStore diskResponseStore) {
+		return new ConditionalReadCache(settings, diskResponseStore, "");
+	}
+
+	/**
+	 * usingSettingsAndDiskResponseStoreAndNamespace creates a ConditionalReadCache keeping its
+	 * responses in the disk response store apart from those of caches with another namespace
+	 * 
+	 * @param settings
+	 *            The ConditionalReadSettings of the cache
+	 * @param diskResponseStore
+	 *            The DiskResponseStore shared by all rest clients of a factory
+	 * @param diskCacheNamespace
+	 *            A String identifying the credential the responses are read using, an empty
+	 *            String shares the disk entries with all other caches using no namespace
+	 * @return A ConditionalReadCache
+	 */
+	public static ConditionalReadCache usingSettingsAndDiskResponseStoreAndNamespace(
+			ConditionalReadSettings settings, DiskResponseStore diskResponseStore,
+			String diskCacheNamespace) {
+		return new ConditionalReadCache(settings, diskResponseStore, diskCacheNamespace);
+	}
+
+	private ConditionalReadCache(ConditionalReadSettings settings,
+			DiskResponseStore diskResponseStore, String diskCacheNamespace) {
+		this.settings = settings;
+		this.statistics = settings.statistics();
+		this.diskResponseStore = diskResponseStore;
+		this.diskKeyPrefix = createDiskKeyPrefix(diskCacheNamespace);
+	}
+
+	private String createDiskKeyPrefix(String diskCacheNamespace) {
+		if (diskCacheNamespace.isEmpty()) {
+			return "";
+		}
+		return HexFormat.of().formatHex(hashUsingSha256(diskCacheNamespace)) + " ";
+	}
+
+	private byte[] hashUsingSha256(String diskCacheNamespace) {
+		try {
+			return MessageDigest.getInstance("SHA-256")
+					.digest(diskCacheNamespace.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw DataClientException.withMessageAndException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * isEnabled returns if reads should be made conditional
+	 * 
+	 * @return A boolean, true if the settings enable conditional reads
+	 */
+	public boolean isEnabled() {
+		return settings.isEnabled();
+	}
+
+	Optional<ValidatedResponse> get(String url) {
+		Optional<ValidatedResponse> inMemory = getFromMemory(url);
+		if (inMemory.isPresent() || !diskResponseStore.isEnabled()) {
+			return inMemory;
+		}
+		Optional<ValidatedResponse> fromDisk = diskResponseStore.read(diskKeyPrefix + url);
+		fromDisk.ifPresent(validated -> keepInMemoryUnlessKeptSince(url, validated));
+		return fromDisk;
+	}
+
+	private synchronized Optional<ValidatedResponse> getFromMemory(String url) {
+		return Optional.ofNullable(entries.get(url));
+	}
+
+	private synchronized void keepInMemoryUnlessKeptSince(String url,
+			ValidatedResponse validatedResponse) {
+		if (!entries.containsKey(url)) {
+			keepInMemory(url, validatedResponse);
+		}
+	}
+
+	/**
+	 * put keeps the response for the url if the server sent any validator with it, otherwise any
+	 * response kept for the url is forgotten
+	 */
+	void put(String url, String eTag, String lastModified, RestResponse response) {
+		if (eTag == null && lastModified == null) {
+			forgetInMemory(url);
+			possiblyRemoveFromDisk(url);
+			return;
+		}
+		ValidatedResponse validatedResponse = new ValidatedResponse(eTag, lastModified, response);
+		keepInMemory(url, validatedResponse);
+		possiblyWriteToDisk(url, validatedResponse);
+	}
+
+	private synchronized void forgetInMemory(String url) {
+		entries.remove(url);
+	}
+
+	private synchronized void keepInMemory(String url, ValidatedResponse validatedResponse) {
+		entries.put(url, validatedResponse);
+		forgetLeastRecentlyUsedUntilWithinBounds();
+	}
+
+	private void possiblyRemoveFromDisk(String url) {
+		if (diskResponseStore.isEnabled()) {
+			diskResponseStore.remove(diskKeyPrefix + url);
+		}
+	}
+
+	private void possiblyWriteToDisk(String url, ValidatedResponse validatedResponse) {
+		if (diskResponseStore.isEnabled()) {
+			diskResponseStore.write(diskKeyPrefix + url, validatedResponse);
+		}
+	}
+
+	private void forgetLeastRecentlyUsedUntilWithinBounds() {
+		Iterator<ValidatedResponse> iterator = entries.values().iterator();
+		while (entries.size() > settings.maxEntries()) {
+			iterator.next();
+			iterator.remove();
+			statistics.countEviction();
+		}
+	}
+
+	void countNotModified() {
+		statistics.countHit();
+	}
+
+	void countModified() {
+		statistics.countMiss();
+	}
+
+	synchronized int onlyForTestGetNumberOfEntries() {
+		return entries.size();
+	}
+
+	public ConditionalReadSettings onlyForTestGetSettings() {
+		return settings;
+	}
+
+	public DiskResponseStore onlyForTestGetDiskResponseStore() {
+		return diskResponseStore;
+	}
+
+	public String onlyForTestGetDiskKeyPrefix() {
+		return diskKeyPrefix;
+	}
+}
@@ -0,0 +1,569 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.DiskCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.javaclient.rest.internal.ConditionalReadCache.ValidatedResponse;
+
+/**
+ * DiskResponseStore keeps validated responses in memory mapped segment files, as described in
+ * {@link DiskCacheSettings}.
+ * <p>
+ * Each record in a segment file starts with a header of a magic number, the length of the rest of
+ * the record and a CRC32 checksum of the rest of the record. The rest of the record is a type
+ * byte followed by the key and, for an entry, the ETag, the Last-Modified value and the response
+ * text, each written as its length in bytes followed by its UTF-8 bytes, with length -1 for a
+ * missing value. A removal record makes an earlier entry for the same key void when the segment
+ * files are read.
+ * <p>
+ * The directory is locked with a file lock for as long as the store is used. A response that can
+ * not be written to disk is forgotten, so that it is read from the server next time instead of
+ * failing the read that tried to keep it.
+ * <p>
+ * Compaction copies the live entries into new segment files on a virtual thread, so that no read
+ * or write waits for it. Segment numbers for the new files are reserved below the numbers of the
+ * segment files written while the compaction runs, so that entries written during the compaction
+ * replace the copied ones when the segment files are read after a restart.
+ */
+public final class DiskResponseStore {
+	private static final String ERROR_MESSAGE_OPEN = "Could not open the disk cache in: {0}.";
+	private static final String ERROR_MESSAGE_LOCKED = "The disk cache in: {0} is used by "
+			+ "another process or factory.";
+	private static final String ERROR_MESSAGE_CLOSE = "Could not close the disk cache in: {0}.";
+	private static final String LOCK_FILE_NAME = "lock";
+	private static final int MAGIC = 0x436f7261;
+	private static final int HEADER_SIZE = 12;
+	private static final byte ENTRY = 1;
+	private static final byte REMOVAL = 2;
+	private static final int OK = 200;
+	private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("segment-(\\d+)\\.dat");
+	private DiskCacheSettings settings;
+	private long maxSegments;
+	private FileChannel lockChannel;
+	private List<Segment> segments = new ArrayList<>();
+	private Segment currentSegment;
+	private long nextSegmentNumber = 0;
+	private Map<String, Location> index = new LinkedHashMap<>(16, 0.75f, true);
+	private long liveBytes = 0;
+	private boolean compacting = false;
+	private boolean closed = false;
+	private Executor compactionExecutor = Thread::startVirtualThread;
+
+	private static final class Segment {
+		private final long number;
+		private final Path path;
+		private final MappedByteBuffer buffer;
+		private int writePosition;
+
+		Segment(long number, Path path, MappedByteBuffer buffer, int writePosition) {
+			this.number = number;
+			this.path = path;
+			this.buffer = buffer;
+			this.writePosition = writePosition;
+		}
+
+		int remaining() {
+			return buffer.capacity() - writePosition;
+		}
+	}
+
+	private record Location(Segment segment, int offset, int length, String eTag,
+			String lastModified, int textOffset, int textLength) {
+	}
+
+	public static DiskResponseStore usingSettings(DiskCacheSettings settings) {
+		return new DiskResponseStore(settings);
+	}
+
+	private DiskResponseStore(DiskCacheSettings settings) {
+		this.settings = settings;
+		if (settings.isEnabled()) {
+			maxSegments = settings.diskBudget() / settings.segmentSize();
+			tryToReadSegmentFiles();
+		}
+	}
+
+	private void tryToReadSegmentFiles() {
+		try {
+			Files.createDirectories(settings.directory());
+			lockDirectory();
+			for (Path path : listSegmentFilesInOrder()) {
+				readSegmentFile(path);
+			}
+		} catch (IOException e) {
+			throw DataClientException.withMessageAndException(
+					MessageFormat.format(ERROR_MESSAGE_OPEN, settings.directory()), e);
+		}
+	}
+
+	private void lockDirectory() throws IOException {
+		lockChannel = FileChannel.open(settings.directory().resolve(LOCK_FILE_NAME),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		if (tryToLock(lockChannel) == null) {
+			lockChannel.close();
+			throw DataClientException.withMessage(
+					MessageFormat.format(ERROR_MESSAGE_LOCKED, settings.directory()));
+		}
+	}
+
+	private FileLock tryToLock(FileChannel channel) throws IOException {
+		try {
+			return channel.tryLock();
+		} catch (OverlappingFileLockException _) {
+			return null;
+		}
+	}
+
+	private List<Path> listSegmentFilesInOrder() throws IOException {
+		try (Stream<Path> files = Files.list(settings.directory())) {
+			return files.filter(path -> segmentNumberOf(path) >= 0)
+					.sorted(Comparator.comparingLong(this::segmentNumberOf)).toList();
+		}
+	}
+
+	private long segmentNumberOf(Path path) {
+		Matcher matcher = SEGMENT_FILE_NAME.matcher(path.getFileName().toString());
+		return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+	}
+
+	private void readSegmentFile(Path path) throws IOException {
+		long number = segmentNumberOf(path);
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			buffer = channel.map(MapMode.READ_WRITE, 0, channel.size());
+		}
+		Segment segment = new Segment(number, path, buffer, buffer.capacity());
+		segments.add(segment);
+		nextSegmentNumber = number + 1;
+		int position = 0;
+		while (isValidRecordAt(buffer, position)) {
+			readRecordAt(segment, position);
+			position += HEADER_SIZE + buffer.getInt(position + 4);
+		}
+	}
+
+	private boolean isValidRecordAt(MappedByteBuffer buffer, int position) {
+		if (position + HEADER_SIZE > buffer.capacity() || buffer.getInt(position) != MAGIC) {
+			return false;
+		}
+		int length = buffer.getInt(position + 4);
+		if (length <= 0 || length > buffer.capacity() - position - HEADER_SIZE) {
+			return false;
+		}
+		byte[] content = new byte[length];
+		buffer.get(position + HEADER_SIZE, content);
+		return buffer.getInt(position + 8) == calculateChecksum(content);
+	}
+
+	private int calculateChecksum(byte[] content) {
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		return (int) crc.getValue();
+	}
+
+	private void readRecordAt(Segment segment, int offset) {
+		int length = HEADER_SIZE + segment.buffer.getInt(offset + 4);
+		ByteBuffer content = segment.buffer.slice(offset + HEADER_SIZE, length - HEADER_SIZE);
+		byte type = content.get();
+		String key = readString(content);
+		if (type == REMOVAL) {
+			removeFromIndex(key);
+			return;
+		}
+		String eTag = readString(content);
+		String lastModified = readString(content);
+		int textLength = content.getInt();
+		int textOffset = offset + HEADER_SIZE + content.position();
+		addToIndex(key, new Location(segment, offset, length, eTag, lastModified, textOffset,
+				textLength));
+	}
+
+	private String readString(ByteBuffer content) {
+		int length = content.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		content.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private void addToIndex(String key, Location location) {
+		removeFromIndex(key);
+		index.put(key, location);
+		liveBytes += location.length();
+	}
+
+	private void removeFromIndex(String key) {
+		Location removed = index.remove(key);
+		if (removed != null) {
+			liveBytes -= removed.length();
+		}
+	}
+
+	/**
+	 * isEnabled returns if responses are kept on disk
+	 * 
+	 * @return A boolean, true if the settings enable the disk cache
+	 */
+	public boolean isEnabled() {
+		return settings.isEnabled();
+	}
+
+	synchronized Optional<ValidatedResponse> read(String key) {
+		Location location = index.get(key);
+		if (location == null) {
+			return Optional.empty();
+		}
+		byte[] text = new byte[location.textLength()];
+		location.segment().buffer.get(location.textOffset(), text);
+		RestResponse response = new RestResponse(OK, new String(text, StandardCharsets.UTF_8),
+				Optional.empty(), Optional.empty());
+		return Optional.of(
+				new ValidatedResponse(location.eTag(), location.lastModified(), response));
+	}
+
+	/**
+	 * write keeps the response for the key, or forgets any response kept for the key if the
+	 * response is larger than a segment or can not be written to disk
+	 */
+	synchronized void write(String key, ValidatedResponse validatedResponse) {
+		if (closed) {
+			return;
+		}
+		byte[] content = createEntryContent(key, validatedResponse);
+		int length = HEADER_SIZE + content.length;
+		if (length > settings.segmentSize() || !makeRoomInCurrentSegment(length)) {
+			remove(key);
+			return;
+		}
+		int offset = appendRecord(currentSegment, content);
+		int textLength = validatedResponse.response().responseText()
+				.getBytes(StandardCharsets.UTF_8).length;
+		addToIndex(key, new Location(currentSegment, offset, length, validatedResponse.eTag(),
+				validatedResponse.lastModified(), offset + length - textLength, textLength));
+	}
+
+	private byte[] createEntryContent(String key, ValidatedResponse validatedResponse) {
+		List<byte[]> values = new ArrayList<>();
+		values.add(toBytes(key));
+		values.add(toBytes(validatedResponse.eTag()));
+		values.add(toBytes(validatedResponse.lastModified()));
+		values.add(toBytes(validatedResponse.response().responseText()));
+		return createContent(ENTRY, values);
+	}
+
+	private byte[] toBytes(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private byte[] createContent(byte type, List<byte[]> values) {
+		int size = 1;
+		for (byte[] value : values) {
+			size += Integer.BYTES + (value == null ? 0 : value.length);
+		}
+		ByteBuffer content = ByteBuffer.allocate(size);
+		content.put(type);
+		for (byte[] value : values) {
+			putValue(content, value);
+		}
+		return content.array();
+	}
+
+	private void putValue(ByteBuffer content, byte[] value) {
+		if (value == null) {
+			content.putInt(-1);
+		} else {
+			content.putInt(value.length);
+			content.put(value);
+		}
+	}
+
+	/**
+	 * makeRoomInCurrentSegment makes sure that the current segment has room for a record of the
+	 * length, starting a new segment if needed, and a compaction if the segments use the whole
+	 * disk budget. While a compaction runs, new segments are only started until they use half of
+	 * the disk budget.
+	 * 
+	 * @return A boolean, false if there is no room for the record
+	 */
+	private boolean makeRoomInCurrentSegment(int length) {
+		if (currentSegmentHasRoomFor(length)) {
+			return true;
+		}
+		if (!compacting && segments.size() >= maxSegments) {
+			startCompaction();
+			if (currentSegmentHasRoomFor(length)) {
+				return true;
+			}
+		}
+		if (compacting && segments.size() >= maxSegments + maxSegments / 2) {
+			return false;
+		}
+		return tryToStartNewCurrentSegment();
+	}
+
+	private boolean currentSegmentHasRoomFor(int length) {
+		return currentSegment != null && currentSegment.remaining() >= length;
+	}
+
+	private boolean tryToStartNewCurrentSegment() {
+		try {
+			currentSegment = createSegment(nextSegmentNumber++);
+			segments.add(currentSegment);
+			return true;
+		} catch (IOException _) {
+			return false;
+		}
+	}
+
+	private Segment createSegment(long number) throws IOException {
+		Path path = settings.directory().resolve("segment-" + number + ".dat");
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, settings.segmentSize());
+			return new Segment(number, path, buffer, 0);
+		}
+	}
+
+	/**
+	 * appendRecord writes a record with the content at the end of the segment, that must have
+	 * room for it, and returns the offset of the record in the segment. The magic number is
+	 * written last, so that a record only partly written is not read.
+	 */
+	private int appendRecord(Segment segment, byte[] content) {
+		int offset = segment.writePosition;
+		segment.buffer.putInt(offset + 4, content.length);
+		segment.buffer.putInt(offset + 8, calculateChecksum(content));
+		segment.buffer.put(offset + HEADER_SIZE, content);
+		segment.buffer.putInt(offset, MAGIC);
+		segment.writePosition += HEADER_SIZE + content.length;
+		return offset;
+	}
+
+	/**
+	 * startCompaction drops the least recently used entries until the rest use at most half of
+	 * the disk budget, and starts copying them into new segments. The segments written so far are
+	 * sealed, and segment numbers are reserved for the new segments, which never need more
+	 * segments than the budget allows as each entry fits in a segment.
+	 */
+	private void startCompaction() {
+		compacting = true;
+		dropLeastRecentlyUsedUntilWithin(maxSegments * settings.segmentSize() / 2);
+		List<Segment> sealedSegments = List.copyOf(segments);
+		List<Location> liveLocations = List.copyOf(index.values());
+		Compaction compaction = new Compaction(nextSegmentNumber);
+		nextSegmentNumber += maxSegments;
+		currentSegment = null;
+		compactionExecutor.execute(() -> compact(compaction, sealedSegments, liveLocations));
+	}
+
+	private void dropLeastRecentlyUsedUntilWithin(long bytes) {
+		Iterator<Location> iterator = index.values().iterator();
+		while (liveBytes > bytes) {
+			Location eldest = iterator.next();
+			iterator.remove();
+			liveBytes -= eldest.length();
+		}
+	}
+
+	private final class Compaction {
+		private long nextNumber;
+		private List<Segment> compactedSegments = new ArrayList<>();
+		private Map<Location, Location> movedLocations = new HashMap<>();
+
+		Compaction(long firstNumber) {
+			this.nextNumber = firstNumber;
+		}
+
+		void copyRecord(Location location) throws IOException {
+			byte[] content = new byte[location.length() - HEADER_SIZE];
+			location.segment().buffer.get(location.offset() + HEADER_SIZE, content);
+			Segment segment = getSegmentWithRoomFor(location.length());
+			int offset = appendRecord(segment, content);
+			int textOffset = offset + location.textOffset() - location.offset();
+			movedLocations.put(location, new Location(segment, offset, location.length(),
+					location.eTag(), location.lastModified(), textOffset, location.textLength()));
+		}
+
+		private Segment getSegmentWithRoomFor(int length) throws IOException {
+			if (compactedSegments.isEmpty() || compactedSegments.getLast().remaining() < length) {
+				compactedSegments.add(createSegment(nextNumber++));
+			}
+			return compactedSegments.getLast();
+		}
+
+		void forceSegments() {
+			for (Segment segment : compactedSegments) {
+				segment.buffer.force();
+			}
+		}
+	}
+
+	private void compact(Compaction compaction, List<Segment> sealedSegments,
+			List<Location> liveLocations) {
+		try {
+			for (Location location : liveLocations) {
+				compaction.copyRecord(location);
+			}
+			compaction.forceSegments();
+			replaceSealedSegments(compaction, sealedSegments);
+			deleteSegmentFiles(sealedSegments);
+		} catch (IOException | RuntimeException _) {
+			deleteSegmentFiles(compaction.compactedSegments);
+			endCompaction();
+		}
+	}
+
+	private synchronized void replaceSealedSegments(Compaction compaction,
+			List<Segment> sealedSegments) {
+		for (Map.Entry<String, Location> entry : index.entrySet()) {
+			Location movedLocation = compaction.movedLocations.get(entry.getValue());
+			if (movedLocation != null) {
+				entry.setValue(movedLocation);
+			}
+		}
+		List<Segment> writtenDuringCompaction = segments.subList(sealedSegments.size(),
+				segments.size());
+		List<Segment> newSegments = new ArrayList<>(compaction.compactedSegments);
+		newSegments.addAll(writtenDuringCompaction);
+		if (writtenDuringCompaction.isEmpty() && !compaction.compactedSegments.isEmpty()) {
+			currentSegment = compaction.compactedSegments.getLast();
+			nextSegmentNumber = currentSegment.number + 1;
+		}
+		segments = newSegments;
+		endCompaction();
+	}
+
+	private synchronized void endCompaction() {
+		compacting = false;
+		notifyAll();
+	}
+
+	/**
+	 * deleteSegmentFiles deletes the oldest segment file first, so that an entry is never left on
+	 * disk without a later removal record voiding it. A segment file that can not be deleted is
+	 * left, to be read and compacted again after a restart.
+	 */
+	private void deleteSegmentFiles(List<Segment> segmentsToDelete) {
+		for (Segment segment : segmentsToDelete) {
+			tryToDeleteSegmentFile(segment);
+		}
+	}
+
+	private void tryToDeleteSegmentFile(Segment segment) {
+		try {
+			Files.deleteIfExists(segment.path);
+		} catch (IOException _) {
+			// read and compacted again after a restart
+		}
+	}
+
+	/**
+	 * remove forgets any response kept for the key, and writes a removal record for it if there
+	 * is room for one on disk
+	 */
+	synchronized void remove(String key) {
+		if (index.containsKey(key)) {
+			removeFromIndex(key);
+			byte[] content = createContent(REMOVAL, List.of(toBytes(key)));
+			if (makeRoomInCurrentSegment(HEADER_SIZE + content.length)) {
+				appendRecord(currentSegment, content);
+			}
+		}
+	}
+
+	synchronized int onlyForTestGetNumberOfEntries() {
+		return index.size();
+	}
+
+	synchronized int onlyForTestGetNumberOfSegments() {
+		return segments.size();
+	}
+
+	void onlyForTestSetCompactionExecutor(Executor compactionExecutor) {
+		this.compactionExecutor = compactionExecutor;
+	}
+
+	/**
+	 * close waits for a running compaction, forgets all responses and releases the lock on the
+	 * directory, so that another store can use it. A closed store keeps nothing.
+	 */
+	synchronized void close() {
+		waitForRunningCompaction();
+		closed = true;
+		index.clear();
+		liveBytes = 0;
+		if (settings.isEnabled()) {
+			tryToReleaseLock();
+		}
+	}
+
+	private void waitForRunningCompaction() {
+		try {
+			while (compacting) {
+				wait();
+			}
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void tryToReleaseLock() {
+		try {
+			lockChannel.close();
+		} catch (IOException e) {
+			throw DataClientException.withMessageAndException(
+					MessageFormat.format(ERROR_MESSAGE_CLOSE, settings.directory()), e);
+		}
+	}
+
+	public DiskCacheSettings onlyForTestGetSettings() {
+		return settings;
+	}
+}
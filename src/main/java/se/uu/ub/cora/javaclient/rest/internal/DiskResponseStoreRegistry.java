@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import se.uu.ub.cora.javaclient.rest.DiskCacheSettings;
+
+/**
+ * DiskResponseStoreRegistry keeps one {@link DiskResponseStore} per directory, so that factories
+ * using the same disk cache directory, for instance a factory replacing another one in
+ * JavaClientProvider, share the store and its lock on the directory instead of failing to lock
+ * it.
+ * <p>
+ * If the store of a directory is asked for using other settings, the registered store is closed
+ * and a new one is opened using the new settings. Clients of factories still using the closed
+ * store then no longer keep responses on disk.
+ */
+public final class DiskResponseStoreRegistry {
+	private Map<Path, RegisteredStore> stores = new HashMap<>();
+
+	private record RegisteredStore(DiskCacheSettings settings, DiskResponseStore store) {
+	}
+
+	/**
+	 * getOrOpenUsingSettings returns the store registered for the directory of the settings if it
+	 * uses equal settings, otherwise a new store is opened and registered. Settings that disable
+	 * the disk cache give a new disabled store, that is not registered.
+	 * 
+	 * @param settings
+	 *            The {@link DiskCacheSettings} of the store
+	 * @return A DiskResponseStore using the settings
+	 */
+	public synchronized DiskResponseStore getOrOpenUsingSettings(DiskCacheSettings settings) {
+		if (!settings.isEnabled()) {
+			return DiskResponseStore.usingSettings(settings);
+		}
+		Path directory = settings.directory().toAbsolutePath().normalize();
+		RegisteredStore registered = stores.get(directory);
+		if (registered != null && registered.settings().equals(settings)) {
+			return registered.store();
+		}
+		if (registered != null) {
+			stores.remove(directory);
+			registered.store().close();
+		}
+		DiskResponseStore store = DiskResponseStore.usingSettings(settings);
+		stores.put(directory, new RegisteredStore(settings, store));
+		return store;
+	}
+}
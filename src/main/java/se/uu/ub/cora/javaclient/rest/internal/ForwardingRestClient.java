@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+import se.uu.ub.cora.javaclient.rest.OperationType;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * ForwardingRestClient is the base of the {@link RestClient} decorators. It passes each call on
+ * to {@link #forward(OperationType, Function)} together with the {@link OperationType} of the
+ * call, so that a decorator only implements how a call is forwarded and overrides the calls it
+ * changes.
+ * <p>
+ * {@link #readManyAsJson(String, Collection, int)} is not overridden, the default of
+ * {@link RestClient} reads each record using {@link #readRecordAsJson(String, String)} of the
+ * decorator, so that each read goes through the decorator.
+ */
+public abstract class ForwardingRestClient implements RestClient {
+
+	/**
+	 * forward makes the call on the rest client, or rest clients, wrapped by the decorator
+	 * 
+	 * @param operationType
+	 *            An {@link OperationType}, the type of operation of the call
+	 * @param call
+	 *            A Function making the call on the provided {@link RestClient}
+	 * @return A {@link RestResponse}, the response of the call
+	 */
+	protected abstract RestResponse forward(OperationType operationType,
+			Function<RestClient, RestResponse> call);
+
+	@Override
+	public RestResponse readRecordAsJson(String recordType, String recordId) {
+		return forward(OperationType.READ, client -> client.readRecordAsJson(recordType, recordId));
+	}
+
+	@Override
+	public RestResponse createRecordFromJson(String recordType, String json) {
+		return forward(OperationType.WRITE,
+				client -> client.createRecordFromJson(recordType, json));
+	}
+
+	@Override
+	public RestResponse updateRecordFromJson(String recordType, String recordId, String json) {
+		return forward(OperationType.WRITE,
+				client -> client.updateRecordFromJson(recordType, recordId, json));
+	}
+
+	@Override
+	public RestResponse deleteRecord(String recordType, String recordId) {
+		return forward(OperationType.WRITE, client -> client.deleteRecord(recordType, recordId));
+	}
+
+	@Override
+	public RestResponse readRecordListAsJson(String recordType) {
+		return forward(OperationType.LIST, client -> client.readRecordListAsJson(recordType));
+	}
+
+	@Override
+	public RestResponse readIncomingLinksAsJson(String recordType, String recordId) {
+		return forward(OperationType.READ,
+				client -> client.readIncomingLinksAsJson(recordType, recordId));
+	}
+
+	@Override
+	public RestResponse readRecordListWithFilterAsJson(String recordType, String filter) {
+		return forward(OperationType.LIST,
+				client -> client.readRecordListWithFilterAsJson(recordType, filter));
+	}
+
+	@Override
+	public RestResponse batchIndexWithFilterAsJson(String recordType, String indexSettingsAsJson) {
+		return forward(OperationType.WRITE,
+				client -> client.batchIndexWithFilterAsJson(recordType, indexSettingsAsJson));
+	}
+
+	@Override
+	public RestResponse searchRecordWithSearchCriteriaAsJson(String searchId, String json) {
+		return forward(OperationType.SEARCH,
+				client -> client.searchRecordWithSearchCriteriaAsJson(searchId, json));
+	}
+
+	@Override
+	public RestResponse readRecordListAsJsonStream(String recordType) {
+		return forward(OperationType.LIST, client -> client.readRecordListAsJsonStream(recordType));
+	}
+
+	@Override
+	public RestResponse searchRecordWithSearchCriteriaAsJsonStream(String searchId, String json) {
+		return forward(OperationType.SEARCH,
+				client -> client.searchRecordWithSearchCriteriaAsJsonStream(searchId, json));
+	}
+
+	@Override
+	public RestResponse validateRecordAsJson(String json) {
+		return forward(OperationType.WRITE, client -> client.validateRecordAsJson(json));
+	}
+
+	@Override
+	public RestResponse download(String type, String id, String representation) {
+		return forward(OperationType.DOWNLOAD, client -> client.download(type, id, representation));
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.OperationType;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * HedgedRestClient hedges {@link #readRecordAsJson(String, String)} as decided by a
+ * {@link HedgingPolicy}, all other calls are passed on to the wrapped {@link RestClient}.
+ * <p>
+ * A hedged read sends its requests on virtual threads. A response with a status code below 500 is
+ * successful, the first successful response is returned and the other request is cancelled by
+ * interrupting its thread. If no request is successful, the outcome of the last request to finish
+ * is returned or thrown.
+ * <p>
+ * Cancelling only stops the request when the rest client sends it using a
+ * {@link HttpClientHandler}. A handler using HttpURLConnection ignores the interrupt, so the
+ * cancelled request keeps its connection until it is answered or times out.
+ */
+public final class HedgedRestClient extends ForwardingRestClient {
+	private static final String ERROR_MESSAGE_INTERRUPTED = "Interrupted while waiting for the "
+			+ "response to a hedged read.";
+	private static final int SERVER_ERROR = 500;
+	private RestClient restClient;
+	private HedgingPolicy hedgingPolicy;
+
+	public static HedgedRestClient usingRestClientAndHedgingPolicy(RestClient restClient,
+			HedgingPolicy hedgingPolicy) {
+		return new HedgedRestClient(restClient, hedgingPolicy);
+	}
+
+	private HedgedRestClient(RestClient restClient, HedgingPolicy hedgingPolicy) {
+		this.restClient = restClient;
+		this.hedgingPolicy = hedgingPolicy;
+	}
+
+	@Override
+	public RestResponse readRecordAsJson(String recordType, String recordId) {
+		hedgingPolicy.countRead();
+		Optional<Duration> hedgeDelay = hedgingPolicy.getHedgeDelay();
+		if (hedgeDelay.isEmpty()) {
+			return readAndRecordLatency(recordType, recordId);
+		}
+		return readUsingHedgeAfterDelay(() -> readAndRecordLatency(recordType, recordId),
+				hedgeDelay.get());
+	}
+
+	private RestResponse readAndRecordLatency(String recordType, String recordId) {
+		long startInNanos = System.nanoTime();
+		RestResponse response = restClient.readRecordAsJson(recordType, recordId);
+		hedgingPolicy.recordLatency(Duration.ofNanos(System.nanoTime() - startInNanos));
+		return response;
+	}
+
+	private RestResponse readUsingHedgeAfterDelay(Callable<RestResponse> read, Duration delay) {
+		CompletionService<RestResponse> completionService = new ExecutorCompletionService<>(
+				Thread::startVirtualThread);
+		List<Future<RestResponse>> reads = new ArrayList<>(2);
+		try {
+			reads.add(completionService.submit(read));
+			Future<RestResponse> first = completionService.poll(delay.toNanos(),
+					TimeUnit.NANOSECONDS);
+			if (first == null && hedgingPolicy.tryToStartHedge()) {
+				reads.add(completionService.submit(read));
+			}
+			return waitForFirstSuccessfulRead(completionService, first, reads.size());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw DataClientException.withMessageAndException(ERROR_MESSAGE_INTERRUPTED, e);
+		} finally {
+			cancelAll(reads);
+		}
+	}
+
+	private RestResponse waitForFirstSuccessfulRead(
+			CompletionService<RestResponse> completionService, Future<RestResponse> first,
+			int numberOfReads) throws InterruptedException {
+		Future<RestResponse> completed = first != null ? first : completionService.take();
+		int readsLeft = numberOfReads - 1;
+		while (!isSuccessful(completed) && readsLeft > 0) {
+			completed = completionService.take();
+			readsLeft--;
+		}
+		return getResponseOrThrowException(completed);
+	}
+
+	private boolean isSuccessful(Future<RestResponse> read) {
+		return read.state() == Future.State.SUCCESS
+				&& read.resultNow().responseCode() < SERVER_ERROR;
+	}
+
+	private RestResponse getResponseOrThrowException(Future<RestResponse> read) {
+		if (read.state() == Future.State.SUCCESS) {
+			return read.resultNow();
+		}
+		Throwable throwable = read.exceptionNow();
+		if (throwable instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		}
+		if (throwable instanceof Error error) {
+			throw error;
+		}
+		throw DataClientException.withMessageAndException(throwable.getMessage(),
+				(Exception) throwable);
+	}
+
+	/**
+	 * cancelAll interrupts the reads that are still running, which only stops reads sent using a
+	 * {@link HttpClientHandler}.
+	 */
+	private void cancelAll(List<Future<RestResponse>> reads) {
+		for (Future<RestResponse> read : reads) {
+			read.cancel(true);
+		}
+	}
+
+	@Override
+	protected RestResponse forward(OperationType operationType,
+			Function<RestClient, RestResponse> call) {
+		return call.apply(restClient);
+	}
+
+	@Override
+	public RestClient withDeadline(Duration deadline) {
+		return new HedgedRestClient(restClient.withDeadline(deadline), hedgingPolicy);
+	}
+
+	public RestClient onlyForTestGetRestClient() {
+		return restClient;
+	}
+
+	public HedgingPolicy onlyForTestGetHedgingPolicy() {
+		return hedgingPolicy;
+	}
+}
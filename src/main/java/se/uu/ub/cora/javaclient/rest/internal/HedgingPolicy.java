@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+import se.uu.ub.cora.javaclient.rest.HedgingSettings;
+
+/**
+ * HedgingPolicy decides when and if a read is hedged, as described in {@link HedgingSettings}. It
+ * is shared by all rest clients factored by the same factory.
+ * <p>
+ * The latencies of the last 1000 reads are kept, and the hedge delay is calculated anew each 20
+ * reads. No read is hedged until 20 latencies are known.
+ * <p>
+ * The share of hedged reads is kept using a budget, each read adds maxHedgePercent / 100 to the
+ * budget and each hedge uses 1. The budget is capped at 10 so that a long time without hedges can
+ * not be followed by a burst of them.
+ */
+public final class HedgingPolicy {
+	static final int NUMBER_OF_SAMPLES = 1000;
+	static final int SAMPLES_BETWEEN_UPDATES = 20;
+	static final int MINIMUM_NUMBER_OF_SAMPLES = 20;
+	static final double MAX_BUDGET = 10;
+	private HedgingSettings settings;
+	private long[] latencySamples = new long[NUMBER_OF_SAMPLES];
+	private long numberOfSamples = 0;
+	private Optional<Duration> hedgeDelay = Optional.empty();
+	private double budget = 0;
+
+	public static HedgingPolicy usingSettings(HedgingSettings settings) {
+		return new HedgingPolicy(settings);
+	}
+
+	private HedgingPolicy(HedgingSettings settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * countRead counts a read towards the share of reads that may be hedged
+	 */
+	public synchronized void countRead() {
+		budget = Math.min(MAX_BUDGET, budget + settings.maxHedgePercent() / 100.0);
+	}
+
+	/**
+	 * getHedgeDelay returns how long to wait for a response before hedging a read
+	 * 
+	 * @return An Optional with the delay, empty if hedging is disabled or too few latencies are
+	 *         known
+	 */
+	public synchronized Optional<Duration> getHedgeDelay() {
+		return hedgeDelay;
+	}
+
+	/**
+	 * recordLatency records the latency of a read that got a response
+	 * 
+	 * @param latency
+	 *            A Duration, the time from sending the request to getting the response
+	 */
+	public synchronized void recordLatency(Duration latency) {
+		if (!settings.isEnabled()) {
+			return;
+		}
+		latencySamples[(int) (numberOfSamples % NUMBER_OF_SAMPLES)] = latency.toNanos();
+		numberOfSamples++;
+		if (numberOfSamples >= MINIMUM_NUMBER_OF_SAMPLES
+				&& numberOfSamples % SAMPLES_BETWEEN_UPDATES == 0) {
+			hedgeDelay = Optional.of(calculateHedgeDelay());
+		}
+	}
+
+	private Duration calculateHedgeDelay() {
+		int size = (int) Math.min(numberOfSamples, NUMBER_OF_SAMPLES);
+		long[] sorted = Arrays.copyOf(latencySamples, size);
+		Arrays.sort(sorted);
+		int index = Math.clamp((long) Math.ceil(size * settings.delayPercentile() / 100.0) - 1, 0,
+				size - 1);
+		Duration percentile = Duration.ofNanos(sorted[index]);
+		return percentile.compareTo(settings.minimumDelay()) < 0 ? settings.minimumDelay()
+				: percentile;
+	}
+
+	/**
+	 * tryToStartHedge uses one hedge from the budget if there is one left
+	 * 
+	 * @return A boolean, true if a hedge may be sent
+	 */
+	public synchronized boolean tryToStartHedge() {
+		if (budget < 1) {
+			return false;
+		}
+		budget--;
+		return true;
+	}
+
+	public HedgingSettings onlyForTestGetSettings() {
+		return settings;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import se.uu.ub.cora.httphandler.HttpHandler;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+/**
+ * HttpClientHandler is a {@link HttpHandler} that sends its request using a shared
+ * {@link HttpClient}. The request is sent the first time anything is read from the response.
+ * <p>
+ * The body of the response is read and closed as soon as the response is received, so that the
+ * connection is returned to the pool of the HttpClient even if the caller only reads the response
+ * code. Only when {@link #streamResponseBody()} has been called is the body of a successful
+ * response left open for the caller to read from {@link #getResponseBinary()}.
+ */
+public final class HttpClientHandler
+		implements HttpHandlerWithTimeout, HttpHandlerWithStreamedResponse {
+	private static final String ERROR_MESSAGE = "Could not send request to url: {0}";
+	private static final String ERROR_MESSAGE_READ = "Could not read response from url: {0}";
+	private HttpClient httpClient;
+	private String url;
+	private HttpRequest.Builder requestBuilder;
+	private String requestMethod = "GET";
+	private BodyPublisher bodyPublisher = BodyPublishers.noBody();
+	private boolean streamResponseBody = false;
+	private HttpResponse<InputStream> response;
+	private byte[] responseBody;
+	private String responseText;
+
+	public static HttpClientHandler usingHttpClientAndUrlAndReadTimeout(HttpClient httpClient,
+			String url, Duration readTimeout) {
+		return new HttpClientHandler(httpClient, url, readTimeout);
+	}
+
+	private HttpClientHandler(HttpClient httpClient, String url, Duration readTimeout) {
+		this.httpClient = httpClient;
+		this.url = url;
+		requestBuilder = HttpRequest.newBuilder(URI.create(url)).timeout(readTimeout);
+	}
+
+	@Override
+	public void setRequestMethod(String requestMethod) {
+		this.requestMethod = requestMethod;
+	}
+
+	@Override
+	public void setTimeout(Duration timeout) {
+		requestBuilder.timeout(timeout);
+	}
+
+	@Override
+	public void setRequestProperty(String key, String value) {
+		requestBuilder.setHeader(key, value);
+	}
+
+	@Override
+	public void setBasicAuthorization(String username, String password) {
+		String credentials = username + ":" + password;
+		String encoded = Base64.getEncoder()
+				.encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+		requestBuilder.setHeader("Authorization", "Basic " + encoded);
+	}
+
+	@Override
+	public void setOutput(String outputString) {
+		bodyPublisher = BodyPublishers.ofString(outputString, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void setStreamOutput(InputStream stream) {
+		bodyPublisher = BodyPublishers.ofInputStream(() -> stream);
+	}
+
+	@Override
+	public void streamResponseBody() {
+		streamResponseBody = true;
+	}
+
+	@Override
+	public int getResponseCode() {
+		return getResponse().statusCode();
+	}
+
+	private HttpResponse<InputStream> getResponse() {
+		if (response == null) {
+			response = sendRequest();
+			possiblyReadAndCloseResponseBody();
+		}
+		return response;
+	}
+
+	private void possiblyReadAndCloseResponseBody() {
+		if (!streamResponseBody || !responseIsSuccessful()) {
+			responseBody = readAndCloseResponseBody();
+		}
+	}
+
+	private boolean responseIsSuccessful() {
+		int statusCode = response.statusCode();
+		return statusCode >= 200 && statusCode < 300;
+	}
+
+	private HttpResponse<InputStream> sendRequest() {
+		HttpRequest request = requestBuilder.method(requestMethod, bodyPublisher).build();
+		try {
+			return httpClient.send(request, BodyHandlers.ofInputStream());
+		} catch (IOException e) {
+			throw createExceptionUsingCause(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw createExceptionUsingCause(e);
+		}
+	}
+
+	private DataClientException createExceptionUsingCause(Exception e) {
+		return DataClientException.withMessageAndException(MessageFormat.format(ERROR_MESSAGE, url),
+				e);
+	}
+
+	@Override
+	public String getResponseText() {
+		if (responseText == null) {
+			responseText = readResponseBodyAsText();
+		}
+		return responseText;
+	}
+
+	private String readResponseBodyAsText() {
+		getResponse();
+		if (responseBody == null) {
+			responseBody = readAndCloseResponseBody();
+		}
+		return new String(responseBody, StandardCharsets.UTF_8);
+	}
+
+	private byte[] readAndCloseResponseBody() {
+		try (InputStream body = response.body()) {
+			return body.readAllBytes();
+		} catch (IOException e) {
+			throw DataClientException
+					.withMessageAndException(MessageFormat.format(ERROR_MESSAGE_READ, url), e);
+		}
+	}
+
+	@Override
+	public String getErrorText() {
+		return getResponseText();
+	}
+
+	@Override
+	public InputStream getResponseBinary() {
+		getResponse();
+		if (responseBody != null) {
+			return new ByteArrayInputStream(responseBody);
+		}
+		return response.body();
+	}
+
+	@Override
+	public String getHeaderField(String name) {
+		return getResponse().headers().firstValue(name).orElse(null);
+	}
+
+	@Override
+	public Map<String, String> getResponseHeaders() {
+		Map<String, String> headers = new HashMap<>();
+		for (Entry<String, List<String>> header : getResponse().headers().map().entrySet()) {
+			headers.put(header.getKey(), String.join(", ", header.getValue()));
+		}
+		return headers;
+	}
+
+	public HttpClient onlyForTestGetHttpClient() {
+		return httpClient;
+	}
+
+	public String onlyForTestGetUrl() {
+		return url;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import se.uu.ub.cora.httphandler.HttpHandler;
+import se.uu.ub.cora.httphandler.HttpHandlerFactory;
+import se.uu.ub.cora.httphandler.HttpHandlerFactoryImp;
+import se.uu.ub.cora.httphandler.HttpMultiPartUploader;
+import se.uu.ub.cora.javaclient.rest.HttpClientSettings;
+
+/**
+ * HttpClientHandlerFactory factors {@link HttpHandler}s that all send their requests using one
+ * shared {@link HttpClient}, so that connections are pooled and reused between requests instead
+ * of being opened for each request.
+ * <p>
+ * Multipart uploads are not handled by the shared HttpClient and are delegated to a
+ * {@link HttpHandlerFactoryImp}.
+ */
+public final class HttpClientHandlerFactory implements HttpHandlerFactory {
+	private HttpClient httpClient;
+	private Duration readTimeout;
+	private HttpHandlerFactory multiPartHttpHandlerFactory;
+
+	public static HttpClientHandlerFactory usingSettings(HttpClientSettings settings) {
+		HttpClient httpClient = HttpClient.newBuilder().version(settings.version())
+				.connectTimeout(settings.connectTimeout()).followRedirects(Redirect.NEVER)
+				.executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+		return new HttpClientHandlerFactory(httpClient, settings.readTimeout(),
+				new HttpHandlerFactoryImp());
+	}
+
+	public static HttpClientHandlerFactory usingHttpClientAndReadTimeoutAndMultiPartFactory(
+			HttpClient httpClient, Duration readTimeout,
+			HttpHandlerFactory multiPartHttpHandlerFactory) {
+		return new HttpClientHandlerFactory(httpClient, readTimeout, multiPartHttpHandlerFactory);
+	}
+
+	private HttpClientHandlerFactory(HttpClient httpClient, Duration readTimeout,
+			HttpHandlerFactory multiPartHttpHandlerFactory) {
+		this.httpClient = httpClient;
+		this.readTimeout = readTimeout;
+		this.multiPartHttpHandlerFactory = multiPartHttpHandlerFactory;
+	}
+
+	@Override
+	public HttpHandler factor(String url) {
+		return HttpClientHandler.usingHttpClientAndUrlAndReadTimeout(httpClient, url, readTimeout);
+	}
+
+	@Override
+	public HttpMultiPartUploader factorHttpMultiPartUploader(String url) {
+		return multiPartHttpHandlerFactory.factorHttpMultiPartUploader(url);
+	}
+
+	public HttpClient onlyForTestGetHttpClient() {
+		return httpClient;
+	}
+
+	public Duration onlyForTestGetReadTimeout() {
+		return readTimeout;
+	}
+
+	public HttpHandlerFactory onlyForTestGetMultiPartHttpHandlerFactory() {
+		return multiPartHttpHandlerFactory;
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import se.uu.ub.cora.httphandler.HttpHandler;
+
+/**
+ * HttpHandlerWithStreamedResponse is a {@link HttpHandler} that reads and closes the body of its
+ * response as soon as the response is received, unless it is asked to stream the body of a
+ * successful response to the caller.
+ */
+public interface HttpHandlerWithStreamedResponse extends HttpHandler {
+
+	/**
+	 * streamResponseBody makes {@link #getResponseBinary()} return the body of a successful
+	 * response as it is received. The caller is then responsible for closing the returned stream.
+	 * Bodies of unsuccessful responses are always read and closed when the response is received.
+	 */
+	void streamResponseBody();
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+
+import se.uu.ub.cora.httphandler.HttpHandler;
+
+/**
+ * HttpHandlerWithTimeout is a {@link HttpHandler} that makes it possible to set the maximum time
+ * to wait for the response of its request.
+ */
+public interface HttpHandlerWithTimeout extends HttpHandler {
+
+	/**
+	 * setTimeout sets the maximum time to wait for the response, replacing any timeout set
+	 * earlier.
+	 * 
+	 * @param timeout
+	 *            A {@link Duration}, the maximum time to wait for the response
+	 */
+	void setTimeout(Duration timeout);
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+
+import se.uu.ub.cora.javaclient.rest.LoadBalancedNode;
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+
+/**
+ * LoadBalancedNodeImp keeps the statistics and ejection state of one node, ejecting and
+ * readmitting it as described in {@link LoadBalancingSettings}.
+ * <p>
+ * A readmitted node keeps its count of failures in a row one below failuresBeforeEjection, so
+ * that its next failure ejects it again.
+ */
+public final class LoadBalancedNodeImp implements LoadBalancedNode {
+	private static final double AVERAGE_SMOOTHING = 0.3;
+	private String baseUrl;
+	private LoadBalancingSettings settings;
+	private int outstandingRequests = 0;
+	private double averageLatencyNanos = 0;
+	private int consecutiveFailures = 0;
+	private boolean ejected = false;
+	private long ejectedUntilNanos;
+	private boolean healthCheckInProgress = false;
+
+	enum Availability {
+		AVAILABLE, EJECTED, NEEDS_HEALTH_CHECK
+	}
+
+	static LoadBalancedNodeImp usingBaseUrlAndSettings(String baseUrl,
+			LoadBalancingSettings settings) {
+		return new LoadBalancedNodeImp(baseUrl, settings);
+	}
+
+	private LoadBalancedNodeImp(String baseUrl, LoadBalancingSettings settings) {
+		this.baseUrl = baseUrl;
+		this.settings = settings;
+	}
+
+	@Override
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	@Override
+	public synchronized int getOutstandingRequests() {
+		return outstandingRequests;
+	}
+
+	@Override
+	public synchronized Duration getAverageLatency() {
+		return Duration.ofNanos((long) averageLatencyNanos);
+	}
+
+	synchronized void startRequest() {
+		outstandingRequests++;
+	}
+
+	synchronized void endRequest() {
+		outstandingRequests--;
+	}
+
+	synchronized void recordSuccess(Duration latency) {
+		consecutiveFailures = 0;
+		long latencyNanos = latency.toNanos();
+		if (averageLatencyNanos == 0) {
+			averageLatencyNanos = latencyNanos;
+		} else {
+			averageLatencyNanos += AVERAGE_SMOOTHING * (latencyNanos - averageLatencyNanos);
+		}
+	}
+
+	synchronized void recordFailureAt(long nowInNanos) {
+		consecutiveFailures++;
+		if (!ejected && consecutiveFailures >= settings.failuresBeforeEjection()) {
+			ejectAt(nowInNanos);
+		}
+	}
+
+	synchronized void ejectAt(long nowInNanos) {
+		ejected = true;
+		ejectedUntilNanos = nowInNanos + settings.ejectionDuration().toNanos();
+		healthCheckInProgress = false;
+	}
+
+	synchronized Availability checkAvailabilityAt(long nowInNanos) {
+		if (!ejected) {
+			return Availability.AVAILABLE;
+		}
+		if (healthCheckInProgress || nowInNanos - ejectedUntilNanos < 0) {
+			return Availability.EJECTED;
+		}
+		if (settings.activeHealthChecks()) {
+			healthCheckInProgress = true;
+			return Availability.NEEDS_HEALTH_CHECK;
+		}
+		readmit();
+		return Availability.AVAILABLE;
+	}
+
+	synchronized void readmit() {
+		ejected = false;
+		healthCheckInProgress = false;
+		consecutiveFailures = settings.failuresBeforeEjection() - 1;
+	}
+
+	synchronized boolean isEjected() {
+		return ejected;
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerOpenException;
+import se.uu.ub.cora.javaclient.rest.OperationType;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.javaclient.rest.RetryPolicy;
+import se.uu.ub.cora.javaclient.rest.internal.RestClientImp.Sleeper;
+
+/**
+ * LoadBalancedRestClient sends each call to one of several rest clients, one per node, using the
+ * node selected by a {@link LoadBalancer}. The rest clients of the nodes share one token client.
+ * <p>
+ * Calls are retried here, not by the rest clients of the nodes, so that a retry is sent to
+ * another node than the one that failed. A call that fails with one of the retryable status codes
+ * of the {@link RetryPolicy}, a failed connection or an open circuit breaker is retried at once on
+ * a node that has not been tried in the call. Once all nodes have been tried, the next retry waits
+ * the backoff of the policy and may go to any node. Calls of {@link OperationType#WRITE} are only
+ * retried if the policy retries create and update.
+ * <p>
+ * A client created using {@link #withDeadline(Duration)} gives the rest client of each node the
+ * time that remains of the deadline, and does not retry if the deadline passes during the
+ * backoff.
+ * <p>
+ * For calls returning a stream is the request counted as done when the call returns, not when the
+ * stream is read.
+ */
+public final class LoadBalancedRestClient extends ForwardingRestClient {
+	private static final int SERVER_ERROR = 500;
+	private LoadBalancer loadBalancer;
+	private RetryPolicy retryPolicy;
+	private Map<LoadBalancedNodeImp, RestClient> restClients;
+	private List<LoadBalancedNodeImp> nodes;
+	private Duration deadline;
+	private Sleeper sleeper = Thread::sleep;
+
+	public static LoadBalancedRestClient usingLoadBalancerAndRestClients(LoadBalancer loadBalancer,
+			Map<LoadBalancedNodeImp, RestClient> restClients) {
+		return new LoadBalancedRestClient(loadBalancer, RetryPolicy.NONE, restClients,
+				Duration.ZERO);
+	}
+
+	public static LoadBalancedRestClient usingLoadBalancerAndRetryPolicyAndRestClients(
+			LoadBalancer loadBalancer, RetryPolicy retryPolicy,
+			Map<LoadBalancedNodeImp, RestClient> restClients) {
+		return new LoadBalancedRestClient(loadBalancer, retryPolicy, restClients, Duration.ZERO);
+	}
+
+	private LoadBalancedRestClient(LoadBalancer loadBalancer, RetryPolicy retryPolicy,
+			Map<LoadBalancedNodeImp, RestClient> restClients, Duration deadline) {
+		this.loadBalancer = loadBalancer;
+		this.retryPolicy = retryPolicy;
+		this.restClients = restClients;
+		this.nodes = List.copyOf(restClients.keySet());
+		this.deadline = deadline;
+	}
+
+	@Override
+	protected RestResponse forward(OperationType operationType,
+			Function<RestClient, RestResponse> call) {
+		long startInNanos = System.nanoTime();
+		int maxAttempts = callMayBeRetried(operationType) ? retryPolicy.maxAttempts() : 1;
+		List<LoadBalancedNodeImp> untriedNodes = new ArrayList<>(nodes);
+		Attempt attempt = callOnNodeAmong(untriedNodes, call, startInNanos);
+		int attempts = 1;
+		while (attempts < maxAttempts && attemptFailedOnNode(attempt)
+				&& waitIfAllNodesAreTried(untriedNodes, attempts, startInNanos)) {
+			attempt = callOnNodeAmong(untriedNodes, call, startInNanos);
+			attempts++;
+		}
+		return attempt.getResponseOrThrowException();
+	}
+
+	private boolean callMayBeRetried(OperationType operationType) {
+		return operationType != OperationType.WRITE || retryPolicy.retryCreateAndUpdate();
+	}
+
+	private Attempt callOnNodeAmong(List<LoadBalancedNodeImp> untriedNodes,
+			Function<RestClient, RestResponse> call, long startInNanos) {
+		LoadBalancedNodeImp node = loadBalancer.startRequestOnNodeAmong(untriedNodes);
+		untriedNodes.remove(node);
+		long startOfAttemptInNanos = System.nanoTime();
+		try {
+			RestResponse response = call.apply(getRestClientOfNodeWithinDeadline(node,
+					startInNanos));
+			endRequestUsingResponse(node, response, startOfAttemptInNanos);
+			return new Attempt(response, null);
+		} catch (RuntimeException e) {
+			endRequestUsingException(node, e);
+			return new Attempt(null, e);
+		}
+	}
+
+	private RestClient getRestClientOfNodeWithinDeadline(LoadBalancedNodeImp node,
+			long startInNanos) {
+		RestClient restClient = restClients.get(node);
+		if (deadline.isZero()) {
+			return restClient;
+		}
+		Duration remaining = deadline.minusNanos(System.nanoTime() - startInNanos);
+		return restClient.withDeadline(remaining.isPositive() ? remaining : Duration.ofNanos(1));
+	}
+
+	private boolean attemptFailedOnNode(Attempt attempt) {
+		if (attempt.exception() != null) {
+			return exceptionIsCausedByNode(attempt.exception());
+		}
+		return retryPolicy.retryableStatusCodes().contains(attempt.response().responseCode());
+	}
+
+	private boolean waitIfAllNodesAreTried(List<LoadBalancedNodeImp> untriedNodes, int attempts,
+			long startInNanos) {
+		if (!untriedNodes.isEmpty()) {
+			return true;
+		}
+		untriedNodes.addAll(nodes);
+		Duration delay = RestClientImp.calculateBackoffUsingRetryPolicyAndAttempts(retryPolicy,
+				attempts);
+		if (deadlinePassesWithin(delay, startInNanos)) {
+			return false;
+		}
+		try {
+			sleeper.sleep(delay);
+			return true;
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private boolean deadlinePassesWithin(Duration delay, long startInNanos) {
+		return !deadline.isZero()
+				&& System.nanoTime() - startInNanos + delay.toNanos() >= deadline.toNanos();
+	}
+
+	private record Attempt(RestResponse response, RuntimeException exception) {
+		RestResponse getResponseOrThrowException() {
+			if (exception != null) {
+				throw exception;
+			}
+			return response;
+		}
+	}
+
+	private void endRequestUsingResponse(LoadBalancedNodeImp node, RestResponse response,
+			long startInNanos) {
+		if (response.responseCode() >= SERVER_ERROR) {
+			loadBalancer.endFailedRequestOnNode(node);
+		} else {
+			loadBalancer.endSuccessfulRequestOnNode(node,
+					Duration.ofNanos(System.nanoTime() - startInNanos));
+		}
+	}
+
+	private void endRequestUsingException(LoadBalancedNodeImp node, RuntimeException exception) {
+		if (exceptionIsCausedByNode(exception)) {
+			loadBalancer.endFailedRequestOnNode(node);
+		} else {
+			loadBalancer.endRequestOnNode(node);
+		}
+	}
+
+	private boolean exceptionIsCausedByNode(Throwable exception) {
+		Throwable cause = exception;
+		while (cause != null) {
+			if (cause instanceof IOException || cause instanceof CircuitBreakerOpenException) {
+				return true;
+			}
+			cause = cause.getCause();
+		}
+		return false;
+	}
+
+	@Override
+	public RestClient withDeadline(Duration deadline) {
+		LoadBalancedRestClient restClientWithDeadline = new LoadBalancedRestClient(loadBalancer,
+				retryPolicy, restClients, deadline);
+		restClientWithDeadline.sleeper = sleeper;
+		return restClientWithDeadline;
+	}
+
+	public LoadBalancer onlyForTestGetLoadBalancer() {
+		return loadBalancer;
+	}
+
+	public Map<LoadBalancedNodeImp, RestClient> onlyForTestGetRestClients() {
+		return restClients;
+	}
+
+	public RetryPolicy onlyForTestGetRetryPolicy() {
+		return retryPolicy;
+	}
+
+	Duration onlyForTestGetDeadline() {
+		return deadline;
+	}
+
+	void onlyForTestSetSleeper(Sleeper sleeper) {
+		this.sleeper = sleeper;
+	}
+}
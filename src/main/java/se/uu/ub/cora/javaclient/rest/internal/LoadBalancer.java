@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+import se.uu.ub.cora.httphandler.HttpHandler;
+import se.uu.ub.cora.httphandler.HttpHandlerFactory;
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+import se.uu.ub.cora.javaclient.rest.NodeSelector;
+
+/**
+ * LoadBalancer holds the nodes set up in {@link LoadBalancingSettings} and selects the node of
+ * each request among them. It is shared by all rest clients factored by the same factory, so that
+ * the statistics and ejection state of a node are shared by all requests sent to it.
+ * <p>
+ * Health checks are sent on virtual threads, so that no request waits for them. A health check
+ * that has not answered within five seconds fails, also when the http handler does not support
+ * timeouts, so that a hung node is ejected again instead of staying out of rotation for good. The
+ * body of the health check response is read, so that its connection is released.
+ */
+public final class LoadBalancer {
+	private static final Duration HEALTH_CHECK_TIMEOUT = Duration.ofSeconds(5);
+	private static final int CLIENT_ERROR = 400;
+	private static final int SERVER_ERROR = 500;
+	private LoadBalancingSettings settings;
+	private HttpHandlerFactory httpHandlerFactory;
+	private LongSupplier nanoClock;
+	private Map<String, List<LoadBalancedNodeImp>> nodes = new HashMap<>();
+	private Executor healthCheckExecutor = Thread::startVirtualThread;
+	private Duration healthCheckTimeout = HEALTH_CHECK_TIMEOUT;
+
+	public static LoadBalancer usingSettingsAndHttpHandlerFactory(LoadBalancingSettings settings,
+			HttpHandlerFactory httpHandlerFactory) {
+		return new LoadBalancer(settings, httpHandlerFactory, System::nanoTime);
+	}
+
+	static LoadBalancer usingSettingsAndHttpHandlerFactoryAndNanoClock(
+			LoadBalancingSettings settings, HttpHandlerFactory httpHandlerFactory,
+			LongSupplier nanoClock) {
+		return new LoadBalancer(settings, httpHandlerFactory, nanoClock);
+	}
+
+	private LoadBalancer(LoadBalancingSettings settings, HttpHandlerFactory httpHandlerFactory,
+			LongSupplier nanoClock) {
+		this.settings = settings;
+		this.httpHandlerFactory = httpHandlerFactory;
+		this.nanoClock = nanoClock;
+		settings.nodes().forEach((baseUrl, nodeBaseUrls) -> nodes.put(baseUrl,
+				createNodesForBaseUrls(nodeBaseUrls)));
+	}
+
+	private List<LoadBalancedNodeImp> createNodesForBaseUrls(List<String> nodeBaseUrls) {
+		List<LoadBalancedNodeImp> nodesForBaseUrls = new ArrayList<>(nodeBaseUrls.size());
+		for (String nodeBaseUrl : nodeBaseUrls) {
+			nodesForBaseUrls
+					.add(LoadBalancedNodeImp.usingBaseUrlAndSettings(nodeBaseUrl, settings));
+		}
+		return List.copyOf(nodesForBaseUrls);
+	}
+
+	/**
+	 * hasNodesForBaseUrl returns true if requests for the base url should be load balanced
+	 * 
+	 * @param baseUrl
+	 *            A String with the base url from credentials
+	 * @return A boolean, true if nodes are set for the base url
+	 */
+	public boolean hasNodesForBaseUrl(String baseUrl) {
+		return nodes.containsKey(baseUrl);
+	}
+
+	/**
+	 * getNodesForBaseUrl returns the nodes set for the base url
+	 * 
+	 * @param baseUrl
+	 *            A String with the base url from credentials
+	 * @return A List with the nodes of the base url
+	 */
+	public List<LoadBalancedNodeImp> getNodesForBaseUrl(String baseUrl) {
+		return nodes.get(baseUrl);
+	}
+
+	/**
+	 * startRequestOnNodeAmong selects a node among the provided nodes that are not ejected, or
+	 * among all of them if all are ejected, and counts a request as outstanding on it. Each call
+	 * must be followed by a call to one of the endRequest methods.
+	 * 
+	 * @param nodesToSelectAmong
+	 *            A List with the nodes to select among
+	 * @return The selected node
+	 */
+	public LoadBalancedNodeImp startRequestOnNodeAmong(
+			List<LoadBalancedNodeImp> nodesToSelectAmong) {
+		List<LoadBalancedNodeImp> availableNodes = findAvailableNodes(nodesToSelectAmong);
+		NodeSelector nodeSelector = settings.nodeSelector();
+		LoadBalancedNodeImp node = availableNodes.isEmpty()
+				? nodeSelector.selectNode(nodesToSelectAmong)
+				: nodeSelector.selectNode(availableNodes);
+		node.startRequest();
+		return node;
+	}
+
+	private List<LoadBalancedNodeImp> findAvailableNodes(List<LoadBalancedNodeImp> nodesToCheck) {
+		long now = nanoClock.getAsLong();
+		List<LoadBalancedNodeImp> availableNodes = new ArrayList<>(nodesToCheck.size());
+		for (LoadBalancedNodeImp node : nodesToCheck) {
+			switch (node.checkAvailabilityAt(now)) {
+				case AVAILABLE -> availableNodes.add(node);
+				case NEEDS_HEALTH_CHECK -> startHealthCheck(node);
+				case EJECTED -> {
+					// not available
+				}
+			}
+		}
+		return availableNodes;
+	}
+
+	private void startHealthCheck(LoadBalancedNodeImp node) {
+		healthCheckExecutor.execute(() -> checkHealthAndReadmitOrEject(node));
+	}
+
+	private void checkHealthAndReadmitOrEject(LoadBalancedNodeImp node) {
+		if (nodeIsHealthy(node)) {
+			node.readmit();
+		} else {
+			node.ejectAt(nanoClock.getAsLong());
+		}
+	}
+
+	private boolean nodeIsHealthy(LoadBalancedNodeImp node) {
+		FutureTask<Boolean> healthCheck = new FutureTask<>(() -> sendHealthCheckTo(node));
+		Thread.ofVirtual().start(healthCheck);
+		return waitForHealthCheckAtMostTimeout(healthCheck);
+	}
+
+	private boolean sendHealthCheckTo(LoadBalancedNodeImp node) {
+		try {
+			HttpHandler httpHandler = httpHandlerFactory.factor(node.getBaseUrl());
+			if (httpHandler instanceof HttpHandlerWithTimeout handlerWithTimeout) {
+				handlerWithTimeout.setTimeout(healthCheckTimeout);
+			}
+			httpHandler.setRequestMethod("GET");
+			int responseCode = httpHandler.getResponseCode();
+			readResponseBodySoThatConnectionIsReleased(httpHandler, responseCode);
+			return responseCode < SERVER_ERROR;
+		} catch (RuntimeException _) {
+			return false;
+		}
+	}
+
+	private void readResponseBodySoThatConnectionIsReleased(HttpHandler httpHandler,
+			int responseCode) {
+		if (responseCode < CLIENT_ERROR) {
+			httpHandler.getResponseText();
+		} else {
+			httpHandler.getErrorText();
+		}
+	}
+
+	private boolean waitForHealthCheckAtMostTimeout(FutureTask<Boolean> healthCheck) {
+		try {
+			return healthCheck.get(healthCheckTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException | ExecutionException _) {
+			healthCheck.cancel(true);
+			return false;
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * endSuccessfulRequestOnNode counts a request on the node as done and records its latency
+	 * 
+	 * @param node
+	 *            The node the request was sent to
+	 * @param latency
+	 *            A Duration with the latency of the request
+	 */
+	public void endSuccessfulRequestOnNode(LoadBalancedNodeImp node, Duration latency) {
+		node.endRequest();
+		node.recordSuccess(latency);
+	}
+
+	/**
+	 * endFailedRequestOnNode counts a request on the node as done and records it as a failure,
+	 * possibly ejecting the node
+	 * 
+	 * @param node
+	 *            The node the request was sent to
+	 */
+	public void endFailedRequestOnNode(LoadBalancedNodeImp node) {
+		node.endRequest();
+		node.recordFailureAt(nanoClock.getAsLong());
+	}
+
+	/**
+	 * endRequestOnNode counts a request on the node as done without recording anything about it,
+	 * used when the outcome of the request says nothing about the health of the node
+	 * 
+	 * @param node
+	 *            The node the request was sent to
+	 */
+	public void endRequestOnNode(LoadBalancedNodeImp node) {
+		node.endRequest();
+	}
+
+	void onlyForTestSetHealthCheckExecutor(Executor healthCheckExecutor) {
+		this.healthCheckExecutor = healthCheckExecutor;
+	}
+
+	void onlyForTestSetHealthCheckTimeout(Duration healthCheckTimeout) {
+		this.healthCheckTimeout = healthCheckTimeout;
+	}
+
+	public LoadBalancingSettings onlyForTestGetSettings() {
+		return settings;
+	}
+
+	public HttpHandlerFactory onlyForTestGetHttpHandlerFactory() {
+		return httpHandlerFactory;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import se.uu.ub.cora.javaclient.rest.OperationType;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * RateLimitedRestClient keeps the calls to the wrapped {@link RestClient} within the limits held by
+ * {@link RateLimiters}. Each call counts as one request of its {@link OperationType}, including any
+ * re-login or retry done by the wrapped client.
+ * <p>
+ * For calls returning a stream is the request counted as done when the call returns, not when the
+ * stream is read.
+ * <p>
+ * A client created using {@link #withDeadline(Duration)} waits for the limits at most the
+ * deadline, and the wrapped client gets the time that remains of the deadline once the limits
+ * are acquired.
+ */
+public final class RateLimitedRestClient extends ForwardingRestClient {
+	private RestClient restClient;
+	private RateLimiters rateLimiters;
+	private Duration deadline;
+
+	public static RateLimitedRestClient usingRestClientAndRateLimiters(RestClient restClient,
+			RateLimiters rateLimiters) {
+		return new RateLimitedRestClient(restClient, rateLimiters, Duration.ZERO);
+	}
+
+	private RateLimitedRestClient(RestClient restClient, RateLimiters rateLimiters,
+			Duration deadline) {
+		this.restClient = restClient;
+		this.rateLimiters = rateLimiters;
+		this.deadline = deadline;
+	}
+
+	@Override
+	protected RestResponse forward(OperationType operationType,
+			Function<RestClient, RestResponse> call) {
+		long startInNanos = System.nanoTime();
+		rateLimiters.acquireForOperationTypeWithin(operationType, deadline);
+		try {
+			return call.apply(getRestClientForRemainingDeadline(startInNanos));
+		} finally {
+			rateLimiters.releaseForOperationType(operationType);
+		}
+	}
+
+	private RestClient getRestClientForRemainingDeadline(long startInNanos) {
+		if (deadline.isZero()) {
+			return restClient;
+		}
+		Duration remaining = deadline.minusNanos(System.nanoTime() - startInNanos);
+		return restClient.withDeadline(remaining.isPositive() ? remaining : Duration.ofNanos(1));
+	}
+
+	@Override
+	public RestClient withDeadline(Duration deadline) {
+		return new RateLimitedRestClient(restClient, rateLimiters, deadline);
+	}
+
+	public RestClient onlyForTestGetRestClient() {
+		return restClient;
+	}
+
+	public RateLimiters onlyForTestGetRateLimiters() {
+		return rateLimiters;
+	}
+
+	public Duration onlyForTestGetDeadline() {
+		return deadline;
+	}
+}
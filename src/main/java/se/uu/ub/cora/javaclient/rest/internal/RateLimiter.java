@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.RateLimit;
+
+/**
+ * RateLimiter applies one {@link RateLimit}, using a {@link TokenBucket} for the rate and a
+ * {@link Semaphore} for the concurrency. Each acquire must be followed by a release once the
+ * request is done.
+ */
+public final class RateLimiter {
+	private static final String ERROR_MESSAGE_RATE = "The rate limit for: {0} was exceeded, "
+			+ "no request was sent.";
+	private static final String ERROR_MESSAGE_CONCURRENCY = "The concurrency limit for: {0} "
+			+ "was reached, no request was sent.";
+	private static final String ERROR_MESSAGE_INTERRUPTED = "Interrupted while waiting for the "
+			+ "limit for: {0}, no request was sent.";
+	private static final String ERROR_MESSAGE_DEADLINE = "The deadline was exceeded while waiting "
+			+ "for the limit for: {0}, no request was sent.";
+	private String name;
+	private RateLimit rateLimit;
+	private Optional<TokenBucket> tokenBucket = Optional.empty();
+	private Optional<Semaphore> concurrencyPermits = Optional.empty();
+
+	public static RateLimiter usingNameAndRateLimit(String name, RateLimit rateLimit) {
+		return new RateLimiter(name, rateLimit);
+	}
+
+	private RateLimiter(String name, RateLimit rateLimit) {
+		this.name = name;
+		this.rateLimit = rateLimit;
+		if (rateLimit.requestsPerSecond() > 0) {
+			tokenBucket = Optional.of(TokenBucket.usingRequestsPerSecondAndBurst(
+					rateLimit.requestsPerSecond(), rateLimit.burst()));
+		}
+		if (rateLimit.maxConcurrency() > 0) {
+			concurrencyPermits = Optional.of(new Semaphore(rateLimit.maxConcurrency()));
+		}
+	}
+
+	/**
+	 * acquire waits until a request is within the limit
+	 * 
+	 * @throws DataClientException
+	 *             if interrupted while waiting
+	 */
+	public void acquire() {
+		try {
+			acquireConcurrencyPermit();
+			waitForToken();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			String message = MessageFormat.format(ERROR_MESSAGE_INTERRUPTED, name);
+			throw DataClientException.withMessageAndException(message, e);
+		}
+	}
+
+	/**
+	 * acquireWithin waits at most the provided time until a request is within the limit
+	 * 
+	 * @param maxWait
+	 *            A {@link Duration}, the maximum time to wait
+	 * @throws DataClientException
+	 *             if the request is not within the limit in time, or if interrupted while waiting
+	 */
+	public void acquireWithin(Duration maxWait) {
+		long startInNanos = System.nanoTime();
+		try {
+			acquireConcurrencyPermitWithin(maxWait.toNanos());
+			waitForTokenWithin(maxWait.toNanos() - (System.nanoTime() - startInNanos));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			String message = MessageFormat.format(ERROR_MESSAGE_INTERRUPTED, name);
+			throw DataClientException.withMessageAndException(message, e);
+		}
+	}
+
+	private void acquireConcurrencyPermitWithin(long maxWaitNanos) throws InterruptedException {
+		if (concurrencyPermits.isPresent()
+				&& !concurrencyPermits.get().tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+			throw createDeadlineExceededError();
+		}
+	}
+
+	private DataClientException createDeadlineExceededError() {
+		return DataClientException.withMessage(MessageFormat.format(ERROR_MESSAGE_DEADLINE, name));
+	}
+
+	private void waitForTokenWithin(long maxWaitNanos) throws InterruptedException {
+		if (tokenBucket.isPresent()) {
+			long waitNanos = tokenBucket.get().tryReserveWithin(maxWaitNanos);
+			if (waitNanos < 0) {
+				release();
+				throw createDeadlineExceededError();
+			}
+			possiblyWait(waitNanos);
+		}
+	}
+
+	private void acquireConcurrencyPermit() throws InterruptedException {
+		if (concurrencyPermits.isPresent()) {
+			concurrencyPermits.get().acquire();
+		}
+	}
+
+	private void waitForToken() throws InterruptedException {
+		if (tokenBucket.isPresent()) {
+			long waitNanos = tokenBucket.get().reserve();
+			possiblyWait(waitNanos);
+		}
+	}
+
+	private void possiblyWait(long waitNanos) throws InterruptedException {
+		if (waitNanos > 0) {
+			try {
+				Thread.sleep(Duration.ofNanos(waitNanos));
+			} catch (InterruptedException e) {
+				release();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * tryAcquire returns if a request is within the limit, otherwise it throws a
+	 * {@link DataClientException}
+	 */
+	public void tryAcquire() {
+		if (concurrencyPermits.isPresent() && !concurrencyPermits.get().tryAcquire()) {
+			throw DataClientException
+					.withMessage(MessageFormat.format(ERROR_MESSAGE_CONCURRENCY, name));
+		}
+		if (tokenBucket.isPresent() && !tokenBucket.get().tryAcquire()) {
+			release();
+			throw DataClientException.withMessage(MessageFormat.format(ERROR_MESSAGE_RATE, name));
+		}
+	}
+
+	/**
+	 * release marks a request acquired using {@link #acquire()}, {@link #acquireWithin(Duration)}
+	 * or {@link #tryAcquire()} as done
+	 */
+	public void release() {
+		concurrencyPermits.ifPresent(Semaphore::release);
+	}
+
+	public String onlyForTestGetName() {
+		return name;
+	}
+
+	public RateLimit onlyForTestGetRateLimit() {
+		return rateLimit;
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.OperationType;
+import se.uu.ub.cora.javaclient.rest.RateLimit;
+import se.uu.ub.cora.javaclient.rest.RateLimitSettings;
+
+/**
+ * RateLimiters holds the global {@link RateLimiter} and one per limited {@link OperationType}, as
+ * set in {@link RateLimitSettings}. It is shared by all rest clients factored by the same factory.
+ */
+public final class RateLimiters {
+	private RateLimitSettings settings;
+	private RateLimiter globalLimiter;
+	private Map<OperationType, RateLimiter> operationLimiters = new EnumMap<>(OperationType.class);
+
+	public static RateLimiters usingSettings(RateLimitSettings settings) {
+		return new RateLimiters(settings);
+	}
+
+	private RateLimiters(RateLimitSettings settings) {
+		this.settings = settings;
+		globalLimiter = RateLimiter.usingNameAndRateLimit("all operations",
+				settings.globalLimit());
+		for (Entry<OperationType, RateLimit> entry : settings.operationLimits().entrySet()) {
+			String name = entry.getKey().name().toLowerCase(Locale.ROOT) + " operations";
+			operationLimiters.put(entry.getKey(),
+					RateLimiter.usingNameAndRateLimit(name, entry.getValue()));
+		}
+	}
+
+	/**
+	 * acquireForOperationType waits for, or if the settings fail fast, ensures, a request of the
+	 * type of operation to be within both the global limit and the limit of the type. The limit of
+	 * the type is acquired first, so that requests waiting for a saturated type do not hold
+	 * permits of the global limit that requests of other types could use. Each acquire must be
+	 * followed by a call to {@link #releaseForOperationType(OperationType)}.
+	 * 
+	 * @param operationType
+	 *            The {@link OperationType} of the request
+	 */
+	public void acquireForOperationType(OperationType operationType) {
+		acquireForOperationTypeWithin(operationType, Duration.ZERO);
+	}
+
+	/**
+	 * acquireForOperationTypeWithin does as {@link #acquireForOperationType(OperationType)} but
+	 * waits at most the provided time for the limits.
+	 * 
+	 * @param operationType
+	 *            The {@link OperationType} of the request
+	 * @param maxWait
+	 *            A {@link Duration}, the maximum time to wait for the limits, {@link Duration#ZERO}
+	 *            to wait for as long as it takes
+	 * @throws DataClientException
+	 *             if the request is not within the limits in time
+	 */
+	public void acquireForOperationTypeWithin(OperationType operationType, Duration maxWait) {
+		long startInNanos = System.nanoTime();
+		if (!operationLimiters.containsKey(operationType)) {
+			acquireUsingLimiterWithin(globalLimiter, maxWait);
+			return;
+		}
+		RateLimiter operationLimiter = operationLimiters.get(operationType);
+		acquireUsingLimiterWithin(operationLimiter, maxWait);
+		acquireGlobalLimiterOrReleaseOperationLimiter(operationLimiter,
+				calculateTimeLeft(maxWait, startInNanos));
+	}
+
+	private Duration calculateTimeLeft(Duration maxWait, long startInNanos) {
+		if (maxWait.isZero()) {
+			return maxWait;
+		}
+		Duration timeLeft = maxWait.minusNanos(System.nanoTime() - startInNanos);
+		return timeLeft.isPositive() ? timeLeft : Duration.ofNanos(1);
+	}
+
+	private void acquireGlobalLimiterOrReleaseOperationLimiter(RateLimiter operationLimiter,
+			Duration maxWait) {
+		try {
+			acquireUsingLimiterWithin(globalLimiter, maxWait);
+		} catch (RuntimeException e) {
+			operationLimiter.release();
+			throw e;
+		}
+	}
+
+	private void acquireUsingLimiterWithin(RateLimiter rateLimiter, Duration maxWait) {
+		if (settings.failFast()) {
+			rateLimiter.tryAcquire();
+		} else if (maxWait.isZero()) {
+			rateLimiter.acquire();
+		} else {
+			rateLimiter.acquireWithin(maxWait);
+		}
+	}
+
+	/**
+	 * releaseForOperationType marks a request of the type of operation as done
+	 * 
+	 * @param operationType
+	 *            The {@link OperationType} of the request
+	 */
+	public void releaseForOperationType(OperationType operationType) {
+		if (operationLimiters.containsKey(operationType)) {
+			operationLimiters.get(operationType).release();
+		}
+		globalLimiter.release();
+	}
+
+	public RateLimitSettings onlyForTestGetSettings() {
+		return settings;
+	}
+
+	RateLimiter onlyForTestGetGlobalLimiter() {
+		return globalLimiter;
+	}
+
+	RateLimiter onlyForTestGetLimiterForOperationType(OperationType operationType) {
+		return operationLimiters.get(operationType);
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import se.uu.ub.cora.javaclient.rest.CacheStatistics;
+import se.uu.ub.cora.javaclient.rest.ReadCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+/**
+ * ReadCache is a least recently used cache of read responses, keyed by record type and record id,
+ * as described in {@link ReadCacheSettings}.
+ * <p>
+ * A record has a generation while reads of it are in flight, that is bumped each time the record
+ * is invalidated. A response read before an invalidation is therefore not cached after it, see
+ * {@link #startRead(String, String)}.
+ */
+public final class ReadCache {
+	private static final int BYTES_PER_CHAR = 2;
+	private ReadCacheSettings settings;
+	private CacheStatistics statistics;
+	private LongSupplier nanoClock;
+	private Map<RecordKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long sizeInBytes = 0;
+	private Map<RecordKey, ReadsInFlight> readsInFlight = new HashMap<>();
+
+	private record RecordKey(String recordType, String recordId) {
+	}
+
+	private record Entry(RestResponse response, long sizeInBytes, long expiresAtNanos) {
+	}
+
+	private static final class ReadsInFlight {
+		private int reads = 0;
+		private long generation = 0;
+	}
+
+	public static ReadCache usingSettings(ReadCacheSettings settings) {
+		return new ReadCache(settings, System::nanoTime);
+	}
+
+	static ReadCache usingSettingsAndNanoClock(ReadCacheSettings settings, LongSupplier nanoClock) {
+		return new ReadCache(settings, nanoClock);
+	}
+
+	private ReadCache(ReadCacheSettings settings, LongSupplier nanoClock) {
+		this.settings = settings;
+		this.statistics = settings.statistics();
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * get returns the cached response for the record, if there is one that has not expired
+	 * 
+	 * @param recordType
+	 *            A String with the type of the record
+	 * @param recordId
+	 *            A String with the id of the record
+	 * @return An Optional with the cached response, empty if there is none
+	 */
+	public synchronized Optional<RestResponse> get(String recordType, String recordId) {
+		RecordKey key = new RecordKey(recordType, recordId);
+		Entry entry = entries.get(key);
+		if (entry != null && hasExpired(entry)) {
+			removeEntry(key);
+			statistics.countEviction();
+			entry = null;
+		}
+		if (entry == null) {
+			statistics.countMiss();
+			return Optional.empty();
+		}
+		statistics.countHit();
+		return Optional.of(entry.response());
+	}
+
+	private boolean hasExpired(Entry entry) {
+		return nanoClock.getAsLong() - entry.expiresAtNanos() >= 0;
+	}
+
+	private void removeEntry(RecordKey key) {
+		Entry removed = entries.remove(key);
+		if (removed != null) {
+			sizeInBytes -= removed.sizeInBytes();
+		}
+	}
+
+	/**
+	 * put caches the response for the record for the time to live set for its status code,
+	 * evicting the least recently used entries if needed. A response with a status code that has
+	 * no time to live, or larger than the whole cache, is not cached.
+	 * 
+	 * @param recordType
+	 *            A String with the type of the record
+	 * @param recordId
+	 *            A String with the id of the record
+	 * @param response
+	 *            A RestResponse to cache
+	 */
+	public synchronized void put(String recordType, String recordId, RestResponse response) {
+		RecordKey key = new RecordKey(recordType, recordId);
+		removeEntry(key);
+		Duration timeToLive = settings.getTimeToLiveForResponseCode(response.responseCode());
+		long entrySize = (long) response.responseText().length() * BYTES_PER_CHAR;
+		if (!timeToLive.isPositive() || isLargerThanCache(entrySize)) {
+			return;
+		}
+		long expiresAt = nanoClock.getAsLong() + timeToLive.toNanos();
+		entries.put(key, new Entry(response, entrySize, expiresAt));
+		sizeInBytes += entrySize;
+		evictLeastRecentlyUsedUntilWithinBounds();
+	}
+
+	/**
+	 * startRead counts a read of the record as in flight and returns the current generation of
+	 * the record. Each call must be followed by a call to {@link #endRead(String, String)}.
+	 * 
+	 * @param recordType
+	 *            A String with the type of the record
+	 * @param recordId
+	 *            A String with the id of the record
+	 * @return A long with the generation of the record when the read started
+	 */
+	public synchronized long startRead(String recordType, String recordId) {
+		ReadsInFlight reads = readsInFlight.computeIfAbsent(new RecordKey(recordType, recordId),
+				_ -> new ReadsInFlight());
+		reads.reads++;
+		return reads.generation;
+	}
+
+	/**
+	 * putIfNotInvalidatedSince caches the response for the record as {@link #put(String, String,
+	 * RestResponse)} does, unless the record has been invalidated since the read of the response
+	 * started
+	 * 
+	 * @param recordType
+	 *            A String with the type of the record
+	 * @param recordId
+	 *            A String with the id of the record
+	 * @param generation
+	 *            A long with the generation returned by {@link #startRead(String, String)}
+	 * @param response
+	 *            A RestResponse to cache
+	 */
+	public synchronized void putIfNotInvalidatedSince(String recordType, String recordId,
+			long generation, RestResponse response) {
+		ReadsInFlight reads = readsInFlight.get(new RecordKey(recordType, recordId));
+		if (reads != null && reads.generation == generation) {
+			put(recordType, recordId, response);
+		}
+	}
+
+	/**
+	 * endRead counts a read of the record started by {@link #startRead(String, String)} as done
+	 * 
+	 * @param recordType
+	 *            A String with the type of the record
+	 * @param recordId
+	 *            A String with the id of the record
+	 */
+	public synchronized void endRead(String recordType, String recordId) {
+		RecordKey key = new RecordKey(recordType, recordId);
+		ReadsInFlight reads = readsInFlight.get(key);
+		reads.reads--;
+		if (reads.reads == 0) {
+			readsInFlight.remove(key);
+		}
+	}
+
+	private boolean isLargerThanCache(long entrySize) {
+		return settings.maxBytes() > 0 && entrySize > settings.maxBytes();
+	}
+
+	private void evictLeastRecentlyUsedUntilWithinBounds() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (isOverBounds()) {
+			Entry eldest = iterator.next();
+			iterator.remove();
+			sizeInBytes -= eldest.sizeInBytes();
+			statistics.countEviction();
+		}
+	}
+
+	private boolean isOverBounds() {
+		return (settings.maxEntries() > 0 && entries.size() > settings.maxEntries())
+				|| (settings.maxBytes() > 0 && sizeInBytes > settings.maxBytes());
+	}
+
+	/**
+	 * invalidate removes the cached response for the record, if there is one, and bumps the
+	 * generation of the record if reads of it are in flight
+	 * 
+	 * @param recordType
+	 *            A String with the type of the record
+	 * @param recordId
+	 *            A String with the id of the record
+	 */
+	public synchronized void invalidate(String recordType, String recordId) {
+		RecordKey key = new RecordKey(recordType, recordId);
+		removeEntry(key);
+		ReadsInFlight reads = readsInFlight.get(key);
+		if (reads != null) {
+			reads.generation++;
+		}
+	}
+
+	synchronized int onlyForTestGetNumberOfEntries() {
+		return entries.size();
+	}
+
+	synchronized int onlyForTestGetNumberOfRecordsWithReadsInFlight() {
+		return readsInFlight.size();
+	}
+
+	synchronized long onlyForTestGetSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	public ReadCacheSettings onlyForTestGetSettings() {
+		return settings;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018, 2020 Uppsala University Library
+ * Copyright 2018, 2020, 2026 Uppsala University Library
  *
  * This file is part of Cora.
  *
@@ -18,61 +18,288 @@
  */
 package se.uu.ub.cora.javaclient.rest.internal;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 import se.uu.ub.cora.httphandler.HttpHandler;
 import se.uu.ub.cora.httphandler.HttpHandlerFactory;
 import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.OperationTimeouts;
+import se.uu.ub.cora.javaclient.rest.OperationType;
 import se.uu.ub.cora.javaclient.rest.RestClient;
 import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.javaclient.rest.RetryPolicy;
+import se.uu.ub.cora.javaclient.rest.internal.ConditionalReadCache.ValidatedResponse;
 import se.uu.ub.cora.javaclient.token.TokenClient;
 
 public final class RestClientImp implements RestClient {
 	private static final String CONTENT_TYPE = "Content-Type";
 	private static final int OK = 200;
 	private static final int CREATED = 201;
+	private static final int NOT_MODIFIED = 304;
 	private static final int UNAUTHORIZED = 401;
+	private static final int SERVER_ERROR = 500;
 	private static final String APPLICATION_VND_CORA_RECORD_JSON = "application/vnd.cora.record+json";
 	private static final String APPLICATION_VND_CORA_RECORDGROUP_JSON = "application/vnd.cora.recordgroup+json";
 	private static final String APPLICATION_VND_CORA_RECORD_LIST_JSON = "application/vnd.cora.recordList+json";
 	private static final String ACCEPT = "Accept";
+	private static final boolean IDEMPOTENT = true;
+	private static final boolean NOT_IDEMPOTENT = false;
+	private static final String ERROR_MESSAGE_DEADLINE = "The deadline of {0} ms was exceeded "
+			+ "before a request to: {1} could be sent.";
+	private static final String LOGIN = "login";
 	private HttpHandlerFactory httpHandlerFactory;
 	private String baseUrl;
 	private TokenClient tokenClient;
 	private String baseUrlRecord;
+	private RestClientSettings settings;
+	private OperationTimeouts timeouts;
+	private RetryPolicy retryPolicy;
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+	private AdaptiveConcurrencyLimiter concurrencyLimiter;
+	private ConditionalReadCache conditionalReadCache;
+	private Duration deadline;
+	private Sleeper sleeper = Thread::sleep;
 
 	public static RestClientImp usingHttpHandlerFactoryAndBaseUrlAndTokenClient(
 			HttpHandlerFactory httpHandlerFactory, String baseUrl, TokenClient tokenClient) {
-		return new RestClientImp(httpHandlerFactory, baseUrl, tokenClient);
+		return usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndSettings(httpHandlerFactory,
+				baseUrl, tokenClient, RestClientSettings.createDefaultSettings());
+	}
+
+	public static RestClientImp usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndTimeouts(
+			HttpHandlerFactory httpHandlerFactory, String baseUrl, TokenClient tokenClient,
+			OperationTimeouts timeouts) {
+		RestClientSettings defaultSettings = RestClientSettings.createDefaultSettings();
+		RestClientSettings settings = new RestClientSettings(timeouts,
+				defaultSettings.retryPolicy(), defaultSettings.circuitBreakerRegistry(),
+				defaultSettings.concurrencyLimiter(), defaultSettings.conditionalReadSettings(),
+				defaultSettings.diskResponseStore());
+		return usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndSettings(httpHandlerFactory,
+				baseUrl, tokenClient, settings);
+	}
+
+	public static RestClientImp usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndSettings(
+			HttpHandlerFactory httpHandlerFactory, String baseUrl, TokenClient tokenClient,
+			RestClientSettings settings) {
+		return usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndSettingsAndDiskCacheNamespace(
+				httpHandlerFactory, baseUrl, tokenClient, settings, "");
+	}
+
+	public static RestClientImp usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndSettingsAndDiskCacheNamespace(
+			HttpHandlerFactory httpHandlerFactory, String baseUrl, TokenClient tokenClient,
+			RestClientSettings settings, String diskCacheNamespace) {
+		return new RestClientImp(httpHandlerFactory, baseUrl, tokenClient, settings,
+				ConditionalReadCache.usingSettingsAndDiskResponseStoreAndNamespace(
+						settings.conditionalReadSettings(), settings.diskResponseStore(),
+						diskCacheNamespace),
+				Duration.ZERO);
 	}
 
 	private RestClientImp(HttpHandlerFactory httpHandlerFactory, String baseUrl,
-			TokenClient tokenClient) {
+			TokenClient tokenClient, RestClientSettings settings,
+			ConditionalReadCache conditionalReadCache, Duration deadline) {
 		this.httpHandlerFactory = httpHandlerFactory;
 		this.baseUrl = baseUrl;
 		this.baseUrlRecord = baseUrl + "record/";
 		this.tokenClient = tokenClient;
+		this.settings = settings;
+		this.timeouts = settings.operationTimeouts();
+		this.retryPolicy = settings.retryPolicy();
+		this.circuitBreakerRegistry = settings.circuitBreakerRegistry();
+		this.concurrencyLimiter = settings.concurrencyLimiter();
+		this.conditionalReadCache = conditionalReadCache;
+		this.deadline = deadline;
+	}
+
+	@Override
+	public RestClient withDeadline(Duration deadline) {
+		RestClientImp restClient = new RestClientImp(httpHandlerFactory, baseUrl, tokenClient,
+				settings, conditionalReadCache, deadline);
+		restClient.sleeper = sleeper;
+		return restClient;
+	}
+
+	private CallLimits startCall(OperationType operationType, boolean idempotent) {
+		int maxAttempts = idempotent || retryPolicy.retryCreateAndUpdate()
+				? retryPolicy.maxAttempts()
+				: 1;
+		CircuitBreaker circuitBreaker = circuitBreakerRegistry
+				.getCircuitBreakerForBaseUrlAndOperation(baseUrl,
+						operationType.name().toLowerCase(Locale.ROOT));
+		Duration operationTimeout = getTimeoutForOperationType(operationType);
+		return new CallLimits(operationType, operationTimeout, deadline, System.nanoTime(),
+				maxAttempts, circuitBreaker);
+	}
+
+	private Duration getTimeoutForOperationType(OperationType operationType) {
+		return switch (operationType) {
+			case READ -> timeouts.read();
+			case LIST -> timeouts.list();
+			case SEARCH -> timeouts.search();
+			case WRITE -> timeouts.write();
+			case DOWNLOAD -> timeouts.download();
+		};
+	}
+
+	private RestResponse callUsingRetryPolicy(CallLimits limits, Supplier<RestResponse> call) {
+		Attempt attempt = tryToCall(limits, call);
+		while (attemptShouldBeRetried(limits, attempt) && waitBeforeNextAttempt(limits)) {
+			attempt = tryToCall(limits, call);
+		}
+		return attempt.getResponseOrThrowException();
+	}
+
+	private Attempt tryToCall(CallLimits limits, Supplier<RestResponse> call) {
+		limits.startAttempt();
+		acquireConcurrencyLimiterWithinDeadline(limits);
+		ensureCircuitBreakerPermitsCallOrReleaseConcurrencyLimiter(limits);
+		return callAndRecordOutcome(limits, call);
+	}
+
+	private void acquireConcurrencyLimiterWithinDeadline(CallLimits limits) {
+		if (limits.deadline().isZero()) {
+			concurrencyLimiter.acquire();
+		} else {
+			concurrencyLimiter.acquireWithin(Duration.ofNanos(limits.calculateRemainingNanos()));
+		}
+	}
+
+	private void ensureCircuitBreakerPermitsCallOrReleaseConcurrencyLimiter(CallLimits limits) {
+		try {
+			limits.circuitBreaker.ensureCallIsPermitted();
+		} catch (RuntimeException e) {
+			concurrencyLimiter.releaseWithoutRecording();
+			throw e;
+		}
+	}
+
+	private Attempt callAndRecordOutcome(CallLimits limits, Supplier<RestResponse> call) {
+		long startOfAttemptInNanos = System.nanoTime();
+		try {
+			RestResponse response = call.get();
+			boolean failed = response.responseCode() >= SERVER_ERROR;
+			Duration duration = calculateRoundTripOfAttempt(limits, startOfAttemptInNanos);
+			limits.circuitBreaker.recordCall(failed, duration);
+			concurrencyLimiter.recordAndRelease(limits.operationType, failed, duration);
+			return new Attempt(response, null);
+		} catch (RuntimeException e) {
+			boolean connectionError = exceptionIsCausedByConnectionError(e);
+			Duration duration = calculateRoundTripOfAttempt(limits, startOfAttemptInNanos);
+			releaseCircuitBreakerAfterException(limits.circuitBreaker, connectionError, duration);
+			releaseConcurrencyLimiterAfterException(limits, connectionError, duration);
+			return new Attempt(null, e);
+		}
+	}
+
+	private void releaseCircuitBreakerAfterException(CircuitBreaker circuitBreaker,
+			boolean connectionError, Duration duration) {
+		if (connectionError) {
+			circuitBreaker.recordCall(true, duration);
+		} else {
+			circuitBreaker.releaseWithoutRecording();
+		}
+	}
+
+	private Duration calculateRoundTripOfAttempt(CallLimits limits, long startOfAttemptInNanos) {
+		return Duration.ofNanos(System.nanoTime() - startOfAttemptInNanos - limits.loginNanos);
+	}
+
+	private void releaseConcurrencyLimiterAfterException(CallLimits limits,
+			boolean connectionError, Duration duration) {
+		if (connectionError) {
+			concurrencyLimiter.recordAndRelease(limits.operationType, true, duration);
+		} else {
+			concurrencyLimiter.releaseWithoutRecording();
+		}
+	}
+
+	private boolean attemptShouldBeRetried(CallLimits limits, Attempt attempt) {
+		return limits.hasAttemptsLeft() && attemptFailedWithTransientError(attempt);
+	}
+
+	private boolean attemptFailedWithTransientError(Attempt attempt) {
+		if (attempt.exception() != null) {
+			return exceptionIsCausedByConnectionError(attempt.exception());
+		}
+		return retryPolicy.retryableStatusCodes().contains(attempt.response().responseCode());
+	}
+
+	private boolean exceptionIsCausedByConnectionError(Throwable exception) {
+		Throwable cause = exception;
+		while (cause != null) {
+			if (cause instanceof IOException) {
+				return true;
+			}
+			cause = cause.getCause();
+		}
+		return false;
+	}
+
+	private boolean waitBeforeNextAttempt(CallLimits limits) {
+		Duration delay = limits.retryAfter
+				.orElseGet(() -> calculateBackoffUsingRetryPolicyAndAttempts(retryPolicy,
+						limits.attempts));
+		if (delay.compareTo(retryPolicy.maxBackoff()) > 0 || limits.deadlinePassesWithin(delay)) {
+			return false;
+		}
+		try {
+			sleeper.sleep(delay);
+			return true;
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	static Duration calculateBackoffUsingRetryPolicyAndAttempts(RetryPolicy retryPolicy,
+			int attempts) {
+		long maxBackoffNanos = retryPolicy.maxBackoff().toNanos();
+		long backoffNanos = retryPolicy.initialBackoff().toNanos();
+		for (int i = 1; i < attempts && backoffNanos < maxBackoffNanos; i++) {
+			backoffNanos *= 2;
+		}
+		long cappedBackoffNanos = Math.min(backoffNanos, maxBackoffNanos);
+		return Duration.ofNanos(ThreadLocalRandom.current().nextLong(cappedBackoffNanos + 1));
 	}
 
 	@Override
 	public RestResponse createRecordFromJson(String recordType, String json) {
-		Supplier<RestResponse> methodToRetry = () -> createRecordFromJson(recordType, json);
+		CallLimits limits = startCall(OperationType.WRITE, NOT_IDEMPOTENT);
+		return callUsingRetryPolicy(limits, () -> createRecordFromJson(recordType, json, limits));
+	}
 
-		HttpHandler httpHandler = createHttpHandlerForCreate(recordType, json);
-		return handleCreateResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry);
+	private RestResponse createRecordFromJson(String recordType, String json, CallLimits limits) {
+		Supplier<RestResponse> methodToRetry = () -> createRecordFromJson(recordType, json, limits);
+
+		HttpHandler httpHandler = createHttpHandlerForCreate(recordType, json, limits);
+		return handleCreateResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry,
+				limits);
 	}
 
-	private HttpHandler createHttpHandlerForCreate(String recordType, String json) {
+	private HttpHandler createHttpHandlerForCreate(String recordType, String json,
+			CallLimits limits) {
 		String url = baseUrlRecord + recordType;
-		return setUpHttpHandlerForPost(json, url);
+		return setUpHttpHandlerForPost(json, url, limits);
 	}
 
-	private HttpHandler setUpHttpHandlerForPost(String json, String url) {
-		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url);
+	private HttpHandler setUpHttpHandlerForPost(String json, String url, CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url, limits);
 		httpHandler.setRequestProperty(ACCEPT, APPLICATION_VND_CORA_RECORD_JSON);
 		httpHandler.setRequestProperty(CONTENT_TYPE, APPLICATION_VND_CORA_RECORDGROUP_JSON);
 		httpHandler.setRequestMethod("POST");
@@ -80,18 +307,27 @@ public final class RestClientImp implements RestClient {
 		return httpHandler;
 	}
 
-	private HttpHandler createHttpHandlerWithAuthTokenAndUrl(String url) {
+	private HttpHandler createHttpHandlerWithAuthTokenAndUrl(String url, CallLimits limits) {
+		Duration timeout = limits.calculateTimeoutForRequestToUrl(url);
 		HttpHandler httpHandler = httpHandlerFactory.factor(url);
-		httpHandler.setRequestProperty("authToken", tokenClient.getAuthToken());
+		possiblySetTimeout(httpHandler, timeout);
+		limits.sentAuthToken = tokenClient.getAuthToken();
+		httpHandler.setRequestProperty("authToken", limits.sentAuthToken);
 		return httpHandler;
 	}
 
+	private void possiblySetTimeout(HttpHandler httpHandler, Duration timeout) {
+		if (!timeout.isZero() && httpHandler instanceof HttpHandlerWithTimeout handlerWithTimeout) {
+			handlerWithTimeout.setTimeout(timeout);
+		}
+	}
+
 	private RestResponse handleCreateResponseFromHttpHandlerUsingMethodToRetry(
-			HttpHandler httpHandler, Supplier<RestResponse> methodToRetry) {
+			HttpHandler httpHandler, Supplier<RestResponse> methodToRetry, CallLimits limits) {
 		if (responseIsCreated(httpHandler)) {
 			return composeResponseForCreated(httpHandler);
 		}
-		return handleErrorResponses(httpHandler, methodToRetry);
+		return handleErrorResponses(httpHandler, methodToRetry, limits);
 	}
 
 	private boolean responseIsCreated(HttpHandler httpHandler) {
@@ -110,29 +346,107 @@ public final class RestClientImp implements RestClient {
 	}
 
 	private RestResponse handleErrorResponses(HttpHandler httpHandler,
-			Supplier<RestResponse> methodToRetry) {
+			Supplier<RestResponse> methodToRetry, CallLimits limits) {
 		if (responseIsUnauthorized(httpHandler)) {
-			return tryRequestNewAuthTokenAndRetryToCallMethod(httpHandler, methodToRetry);
+			return tryRequestNewAuthTokenAndRetryToCallMethod(httpHandler, methodToRetry, limits);
 		}
+		possiblyReadRetryAfter(httpHandler, limits);
 		return composeResponseForAnyOtherError(httpHandler);
 	}
 
+	private void possiblyReadRetryAfter(HttpHandler httpHandler, CallLimits limits) {
+		if (retryPolicy.retryableStatusCodes().contains(httpHandler.getResponseCode())) {
+			limits.retryAfter = parseRetryAfter(httpHandler.getHeaderField("Retry-After"));
+		}
+	}
+
+	private Optional<Duration> parseRetryAfter(String retryAfter) {
+		if (retryAfter == null || retryAfter.isBlank()) {
+			return Optional.empty();
+		}
+		if (retryAfter.strip().chars().allMatch(Character::isDigit)) {
+			return Optional.of(parseRetryAfterAsSeconds(retryAfter.strip()));
+		}
+		return parseRetryAfterAsHttpDate(retryAfter);
+	}
+
+	private Duration parseRetryAfterAsSeconds(String retryAfter) {
+		try {
+			return Duration.ofSeconds(Long.parseLong(retryAfter));
+		} catch (NumberFormatException _) {
+			return Duration.ofSeconds(Long.MAX_VALUE);
+		}
+	}
+
+	private Optional<Duration> parseRetryAfterAsHttpDate(String retryAfter) {
+		try {
+			ZonedDateTime retryAt = ZonedDateTime.parse(retryAfter.strip(),
+					DateTimeFormatter.RFC_1123_DATE_TIME);
+			Duration untilRetry = Duration.between(ZonedDateTime.now(), retryAt);
+			return Optional.of(untilRetry.isNegative() ? Duration.ZERO : untilRetry);
+		} catch (DateTimeParseException _) {
+			return Optional.empty();
+		}
+	}
+
 	private boolean responseIsUnauthorized(HttpHandler httpHandler) {
 		return httpHandler.getResponseCode() == UNAUTHORIZED;
 	}
 
 	private RestResponse tryRequestNewAuthTokenAndRetryToCallMethod(HttpHandler httpHandler,
-			Supplier<RestResponse> methodToRetry) {
+			Supplier<RestResponse> methodToRetry, CallLimits limits) {
 		try {
-			return requestNewAuthTokenAndRetryToCallMethod(methodToRetry);
+			requestNewAuthTokenWithinDeadlineAndNoteLoginTime(limits);
+			return methodToRetry.get();
 		} catch (DataClientException _) {
 			return composeResponseForAnyOtherError(httpHandler);
 		}
 	}
 
-	RestResponse requestNewAuthTokenAndRetryToCallMethod(Supplier<RestResponse> methodToRetry) {
-		tokenClient.requestNewAuthToken();
-		return methodToRetry.get();
+	private void requestNewAuthTokenWithinDeadlineAndNoteLoginTime(CallLimits limits) {
+		long startOfLoginInNanos = System.nanoTime();
+		try {
+			requestNewAuthTokenWithinDeadline(limits);
+		} finally {
+			limits.loginNanos += System.nanoTime() - startOfLoginInNanos;
+		}
+	}
+
+	private void requestNewAuthTokenWithinDeadline(CallLimits limits) {
+		if (limits.deadline().isZero()) {
+			tokenClient.requestNewAuthTokenReplacingAuthToken(limits.sentAuthToken);
+		} else {
+			Duration remaining = limits.ensureDeadlineHasNotPassedForRequestTo(LOGIN);
+			waitForLoginAtMost(startLogin(limits.sentAuthToken), remaining, limits);
+		}
+	}
+
+	private FutureTask<Void> startLogin(String rejectedAuthToken) {
+		FutureTask<Void> login = new FutureTask<>(
+				() -> tokenClient.requestNewAuthTokenReplacingAuthToken(rejectedAuthToken), null);
+		Thread.ofVirtual().start(login);
+		return login;
+	}
+
+	private void waitForLoginAtMost(FutureTask<Void> login, Duration remaining,
+			CallLimits limits) {
+		try {
+			login.get(remaining.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException _) {
+			throw limits.createDeadlineExceededErrorForRequestTo(LOGIN);
+		} catch (ExecutionException e) {
+			throw unwrapCauseOfFailedLogin(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw DataClientException.withMessageAndException(e.getMessage(), e);
+		}
+	}
+
+	private RuntimeException unwrapCauseOfFailedLogin(ExecutionException e) {
+		if (e.getCause() instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		throw (Error) e.getCause();
 	}
 
 	private RestResponse composeResponseForAnyOtherError(HttpHandler httpHandler) {
@@ -142,25 +456,71 @@ public final class RestClientImp implements RestClient {
 
 	@Override
 	public RestResponse readRecordAsJson(String recordType, String recordId) {
-		HttpHandler httpHandler = createUpHttpHandlerForRead(recordType, recordId);
-		Supplier<RestResponse> methodToRetry = () -> readRecordAsJson(recordType, recordId);
-		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry);
+		CallLimits limits = startCall(OperationType.READ, IDEMPOTENT);
+		return callUsingRetryPolicy(limits, () -> readRecordAsJson(recordType, recordId, limits));
 	}
 
-	private HttpHandler createUpHttpHandlerForRead(String recordType, String recordId) {
+	private RestResponse readRecordAsJson(String recordType, String recordId, CallLimits limits) {
 		String url = baseUrlRecord + recordType + "/" + recordId;
-		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url);
+		Optional<ValidatedResponse> validatedResponse = getValidatedResponseIfEnabled(url);
+		HttpHandler httpHandler = createUpHttpHandlerForRead(url, validatedResponse, limits);
+		if (validatedResponse.isPresent() && responseIsNotModified(httpHandler)) {
+			conditionalReadCache.countNotModified();
+			return validatedResponse.get().response();
+		}
+		Supplier<RestResponse> methodToRetry = () -> readRecordAsJson(recordType, recordId,
+				limits);
+		RestResponse response = handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler,
+				methodToRetry, limits);
+		possiblyKeepResponseForConditionalRead(url, validatedResponse, httpHandler, response);
+		return response;
+	}
+
+	private Optional<ValidatedResponse> getValidatedResponseIfEnabled(String url) {
+		if (conditionalReadCache.isEnabled()) {
+			return conditionalReadCache.get(url);
+		}
+		return Optional.empty();
+	}
+
+	private HttpHandler createUpHttpHandlerForRead(String url,
+			Optional<ValidatedResponse> validatedResponse, CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url, limits);
 		httpHandler.setRequestProperty(ACCEPT, APPLICATION_VND_CORA_RECORD_JSON);
 		httpHandler.setRequestMethod("GET");
+		validatedResponse.ifPresent(validated -> setConditionsForRead(httpHandler, validated));
 		return httpHandler;
 	}
 
+	private void setConditionsForRead(HttpHandler httpHandler, ValidatedResponse validated) {
+		if (validated.eTag() != null) {
+			httpHandler.setRequestProperty("If-None-Match", validated.eTag());
+		}
+		if (validated.lastModified() != null) {
+			httpHandler.setRequestProperty("If-Modified-Since", validated.lastModified());
+		}
+	}
+
+	private boolean responseIsNotModified(HttpHandler httpHandler) {
+		return httpHandler.getResponseCode() == NOT_MODIFIED;
+	}
+
+	private void possiblyKeepResponseForConditionalRead(String url,
+			Optional<ValidatedResponse> validatedResponse, HttpHandler httpHandler,
+			RestResponse response) {
+		if (conditionalReadCache.isEnabled() && responseIsOk(httpHandler)) {
+			validatedResponse.ifPresent(_ -> conditionalReadCache.countModified());
+			conditionalReadCache.put(url, httpHandler.getHeaderField("ETag"),
+					httpHandler.getHeaderField("Last-Modified"), response);
+		}
+	}
+
 	private RestResponse handleResponseFromHttpHandlerUsingMethodToRetry(HttpHandler httpHandler,
-			Supplier<RestResponse> methodToRetry) {
+			Supplier<RestResponse> methodToRetry, CallLimits limits) {
 		if (responseIsOk(httpHandler)) {
 			return composeResponseForOk(httpHandler);
 		}
-		return handleErrorResponses(httpHandler, methodToRetry);
+		return handleErrorResponses(httpHandler, methodToRetry, limits);
 	}
 
 	private boolean responseIsOk(HttpHandler httpHandler) {
@@ -174,28 +534,41 @@ public final class RestClientImp implements RestClient {
 
 	@Override
 	public RestResponse updateRecordFromJson(String recordType, String recordId, String json) {
-		HttpHandler httpHandler = createHttpHandlerForUpdate(recordType, recordId, json);
+		CallLimits limits = startCall(OperationType.WRITE, NOT_IDEMPOTENT);
+		return callUsingRetryPolicy(limits,
+				() -> updateRecordFromJson(recordType, recordId, json, limits));
+	}
+
+	private RestResponse updateRecordFromJson(String recordType, String recordId, String json,
+			CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerForUpdate(recordType, recordId, json, limits);
 		Supplier<RestResponse> methodToRetry = () -> updateRecordFromJson(recordType, recordId,
-				json);
-		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry);
+				json, limits);
+		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry, limits);
 	}
 
 	private HttpHandler createHttpHandlerForUpdate(String recordType, String recordId,
-			String json) {
+			String json, CallLimits limits) {
 		String url = baseUrlRecord + recordType + "/" + recordId;
-		return setUpHttpHandlerForPost(json, url);
+		return setUpHttpHandlerForPost(json, url, limits);
 	}
 
 	@Override
 	public RestResponse deleteRecord(String recordType, String recordId) {
-		HttpHandler httpHandler = createHttpHandlerForDelete(recordType, recordId);
-		Supplier<RestResponse> methodToRetry = () -> deleteRecord(recordType, recordId);
-		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry);
+		CallLimits limits = startCall(OperationType.WRITE, IDEMPOTENT);
+		return callUsingRetryPolicy(limits, () -> deleteRecord(recordType, recordId, limits));
+	}
+
+	private RestResponse deleteRecord(String recordType, String recordId, CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerForDelete(recordType, recordId, limits);
+		Supplier<RestResponse> methodToRetry = () -> deleteRecord(recordType, recordId, limits);
+		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry, limits);
 	}
 
-	private HttpHandler createHttpHandlerForDelete(String recordType, String recordId) {
+	private HttpHandler createHttpHandlerForDelete(String recordType, String recordId,
+			CallLimits limits) {
 		String url = baseUrlRecord + recordType + "/" + recordId;
-		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url);
+		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url, limits);
 		httpHandler.setRequestMethod("DELETE");
 		return httpHandler;
 	}
@@ -203,30 +576,42 @@ public final class RestClientImp implements RestClient {
 	@Override
 	public RestResponse readRecordListAsJson(String recordType) {
 		String url = baseUrlRecord + recordType;
-		return readRecordListUsingUrl(url, recordType);
+		CallLimits limits = startCall(OperationType.LIST, IDEMPOTENT);
+		return callUsingRetryPolicy(limits, () -> readRecordListUsingUrl(url, limits));
 	}
 
-	private RestResponse readRecordListUsingUrl(String url, String recordType) {
-		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url);
+	private RestResponse readRecordListUsingUrl(String url, CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerForRecordList(url, limits);
+		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler,
+				() -> readRecordListUsingUrl(url, limits), limits);
+	}
+
+	private HttpHandler createHttpHandlerForRecordList(String url, CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url, limits);
 		httpHandler.setRequestMethod("GET");
 		httpHandler.setRequestProperty(ACCEPT, APPLICATION_VND_CORA_RECORD_LIST_JSON);
-		// TODO: this should be a method with url as this is called from
-		// readRecordListWithFilterAsJson aswell
-		Supplier<RestResponse> methodToRetry = () -> readRecordListAsJson(recordType);
-		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry);
+		return httpHandler;
 	}
 
 	@Override
 	public RestResponse readIncomingLinksAsJson(String recordType, String recordId) {
-		HttpHandler httpHandler = createHttpHandlerForIncomingLinks(recordType, recordId);
+		CallLimits limits = startCall(OperationType.READ, IDEMPOTENT);
+		return callUsingRetryPolicy(limits,
+				() -> readIncomingLinksAsJson(recordType, recordId, limits));
+	}
+
+	private RestResponse readIncomingLinksAsJson(String recordType, String recordId,
+			CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerForIncomingLinks(recordType, recordId, limits);
 
 		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler,
-				() -> readIncomingLinksAsJson(recordType, recordId));
+				() -> readIncomingLinksAsJson(recordType, recordId, limits), limits);
 	}
 
-	private HttpHandler createHttpHandlerForIncomingLinks(String recordType, String recordId) {
+	private HttpHandler createHttpHandlerForIncomingLinks(String recordType, String recordId,
+			CallLimits limits) {
 		String url = baseUrlRecord + recordType + "/" + recordId + "/incomingLinks";
-		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url);
+		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url, limits);
 		httpHandler.setRequestMethod("GET");
 		httpHandler.setRequestProperty(ACCEPT, APPLICATION_VND_CORA_RECORD_LIST_JSON);
 		return httpHandler;
@@ -236,22 +621,31 @@ public final class RestClientImp implements RestClient {
 	public RestResponse readRecordListWithFilterAsJson(String recordType, String filter) {
 		String url = baseUrlRecord + recordType + "?filter="
 				+ URLEncoder.encode(filter, StandardCharsets.UTF_8);
-		return readRecordListUsingUrl(url, recordType);
+		CallLimits limits = startCall(OperationType.LIST, IDEMPOTENT);
+		return callUsingRetryPolicy(limits, () -> readRecordListUsingUrl(url, limits));
 	}
 
 	@Override
 	public RestResponse batchIndexWithFilterAsJson(String recordType, String indexSettingsAsJson) {
+		CallLimits limits = startCall(OperationType.WRITE, NOT_IDEMPOTENT);
+		return callUsingRetryPolicy(limits,
+				() -> batchIndexWithFilterAsJson(recordType, indexSettingsAsJson, limits));
+	}
+
+	private RestResponse batchIndexWithFilterAsJson(String recordType, String indexSettingsAsJson,
+			CallLimits limits) {
 		HttpHandler httpHandler = createHttpHandlerForIndexBatchJob(recordType,
-				indexSettingsAsJson);
+				indexSettingsAsJson, limits);
 		Supplier<RestResponse> methodToRetry = () -> batchIndexWithFilterAsJson(recordType,
-				indexSettingsAsJson);
-		return handleCreateResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry);
+				indexSettingsAsJson, limits);
+		return handleCreateResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry,
+				limits);
 	}
 
 	private HttpHandler createHttpHandlerForIndexBatchJob(String recordType,
-			String indexSettingsAsJson) {
+			String indexSettingsAsJson, CallLimits limits) {
 		String url = baseUrlRecord + "index/" + recordType;
-		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url);
+		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url, limits);
 		httpHandler.setRequestProperty(ACCEPT, APPLICATION_VND_CORA_RECORD_JSON);
 		httpHandler.setRequestProperty(CONTENT_TYPE, APPLICATION_VND_CORA_RECORD_JSON);
 		httpHandler.setRequestMethod("POST");
@@ -261,31 +655,71 @@ public final class RestClientImp implements RestClient {
 
 	@Override
 	public RestResponse searchRecordWithSearchCriteriaAsJson(String searchId, String json) {
-		HttpHandler httpHandler = createHttpHandlerForSearch(searchId, json);
+		CallLimits limits = startCall(OperationType.SEARCH, IDEMPOTENT);
+		return callUsingRetryPolicy(limits,
+				() -> searchRecordWithSearchCriteriaAsJson(searchId, json, limits));
+	}
+
+	private RestResponse searchRecordWithSearchCriteriaAsJson(String searchId, String json,
+			CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerForSearch(searchId, json, limits);
 		Supplier<RestResponse> methodToRetry = () -> searchRecordWithSearchCriteriaAsJson(searchId,
-				json);
-		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry);
+				json, limits);
+		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry, limits);
 	}
 
-	private HttpHandler createHttpHandlerForSearch(String searchId, String json) {
+	private HttpHandler createHttpHandlerForSearch(String searchId, String json,
+			CallLimits limits) {
 		String url = baseUrlRecord + "searchResult/" + searchId + "?searchData="
 				+ URLEncoder.encode(json, StandardCharsets.UTF_8);
-		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url);
+		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url, limits);
 		httpHandler.setRequestMethod("GET");
 		httpHandler.setRequestProperty(ACCEPT, APPLICATION_VND_CORA_RECORD_LIST_JSON);
 		return httpHandler;
 	}
 
+	@Override
+	public RestResponse readRecordListAsJsonStream(String recordType) {
+		CallLimits limits = startCall(OperationType.LIST, IDEMPOTENT);
+		return callUsingRetryPolicy(limits, () -> readRecordListAsJsonStream(recordType, limits));
+	}
+
+	private RestResponse readRecordListAsJsonStream(String recordType, CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerForRecordList(baseUrlRecord + recordType,
+				limits);
+		return handlDownloadResponseFromHttpHandlerUsingMethodToRetry(httpHandler,
+				() -> readRecordListAsJsonStream(recordType, limits), limits);
+	}
+
+	@Override
+	public RestResponse searchRecordWithSearchCriteriaAsJsonStream(String searchId, String json) {
+		CallLimits limits = startCall(OperationType.SEARCH, IDEMPOTENT);
+		return callUsingRetryPolicy(limits,
+				() -> searchRecordWithSearchCriteriaAsJsonStream(searchId, json, limits));
+	}
+
+	private RestResponse searchRecordWithSearchCriteriaAsJsonStream(String searchId, String json,
+			CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerForSearch(searchId, json, limits);
+		return handlDownloadResponseFromHttpHandlerUsingMethodToRetry(httpHandler,
+				() -> searchRecordWithSearchCriteriaAsJsonStream(searchId, json, limits), limits);
+	}
+
 	@Override
 	public RestResponse validateRecordAsJson(String json) {
-		HttpHandler httpHandler = createHttpHandlerForValidate(json);
-		Supplier<RestResponse> methodToRetry = () -> validateRecordAsJson(json);
-		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry);
+		CallLimits limits = startCall(OperationType.WRITE, NOT_IDEMPOTENT);
+		return callUsingRetryPolicy(limits, () -> validateRecordAsJson(json, limits));
 	}
 
-	private HttpHandler createHttpHandlerForValidate(String json) {
+	private RestResponse validateRecordAsJson(String json, CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerForValidate(json, limits);
+		Supplier<RestResponse> methodToRetry = () -> validateRecordAsJson(json, limits);
+		return handleResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry, limits);
+	}
+
+	private HttpHandler createHttpHandlerForValidate(String json, CallLimits limits) {
 		String url = baseUrlRecord + "workOrder";
-		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url);
+		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url, limits);
 		httpHandler.setRequestMethod("POST");
 		httpHandler.setRequestProperty(ACCEPT, APPLICATION_VND_CORA_RECORD_JSON);
 		httpHandler.setRequestProperty(CONTENT_TYPE, "application/vnd.cora.workorder+json");
@@ -295,25 +729,39 @@ public final class RestClientImp implements RestClient {
 
 	@Override
 	public RestResponse download(String type, String id, String representation) {
-		HttpHandler httpHandler = createHttpHandlerForDownload(type, id, representation);
-		Supplier<RestResponse> methodToRetry = () -> download(type, id, representation);
-		return handlDownloadResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry);
+		CallLimits limits = startCall(OperationType.DOWNLOAD, IDEMPOTENT);
+		return callUsingRetryPolicy(limits, () -> download(type, id, representation, limits));
+	}
+
+	private RestResponse download(String type, String id, String representation,
+			CallLimits limits) {
+		HttpHandler httpHandler = createHttpHandlerForDownload(type, id, representation, limits);
+		Supplier<RestResponse> methodToRetry = () -> download(type, id, representation, limits);
+		return handlDownloadResponseFromHttpHandlerUsingMethodToRetry(httpHandler, methodToRetry,
+				limits);
 	}
 
 	private HttpHandler createHttpHandlerForDownload(String type, String id,
-			String representation) {
+			String representation, CallLimits limits) {
 		String url = baseUrl + "record/" + type + "/" + id + "/" + representation;
-		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url);
+		HttpHandler httpHandler = createHttpHandlerWithAuthTokenAndUrl(url, limits);
 		httpHandler.setRequestMethod("GET");
 		return httpHandler;
 	}
 
 	private RestResponse handlDownloadResponseFromHttpHandlerUsingMethodToRetry(
-			HttpHandler httpHandler, Supplier<RestResponse> methodToRetry) {
+			HttpHandler httpHandler, Supplier<RestResponse> methodToRetry, CallLimits limits) {
+		possiblyStreamResponseBody(httpHandler);
 		if (responseIsOk(httpHandler)) {
 			return composeDownloadResponseForOk(httpHandler);
 		}
-		return handleErrorResponses(httpHandler, methodToRetry);
+		return handleErrorResponses(httpHandler, methodToRetry, limits);
+	}
+
+	private void possiblyStreamResponseBody(HttpHandler httpHandler) {
+		if (httpHandler instanceof HttpHandlerWithStreamedResponse handlerWithStreamedResponse) {
+			handlerWithStreamedResponse.streamResponseBody();
+		}
 	}
 
 	private RestResponse composeDownloadResponseForOk(HttpHandler httpHandler) {
@@ -322,6 +770,104 @@ public final class RestClientImp implements RestClient {
 				Optional.empty());
 	}
 
+	/**
+	 * CallLimits holds the timeout for the type of operation of one call, how many attempts the
+	 * call may make, the circuit breaker guarding it and, if a deadline is set, when the call
+	 * started, so that the whole call, including any re-login and retry, can be kept within the
+	 * deadline. It also notes the authToken sent with the latest request of the call, so that an
+	 * unauthorized response only replaces that authToken, and the time spent on re-login during
+	 * the current attempt, so that it is not counted as round trip time.
+	 */
+	private static final class CallLimits {
+		private final OperationType operationType;
+		private final Duration operationTimeout;
+		private final Duration deadline;
+		private final long startInNanos;
+		private final int maxAttempts;
+		private final CircuitBreaker circuitBreaker;
+		private int attempts = 0;
+		private Optional<Duration> retryAfter = Optional.empty();
+		private String sentAuthToken;
+		private long loginNanos;
+
+		CallLimits(OperationType operationType, Duration operationTimeout, Duration deadline,
+				long startInNanos, int maxAttempts, CircuitBreaker circuitBreaker) {
+			this.operationType = operationType;
+			this.operationTimeout = operationTimeout;
+			this.deadline = deadline;
+			this.startInNanos = startInNanos;
+			this.maxAttempts = maxAttempts;
+			this.circuitBreaker = circuitBreaker;
+		}
+
+		Duration deadline() {
+			return deadline;
+		}
+
+		void startAttempt() {
+			attempts++;
+			retryAfter = Optional.empty();
+			loginNanos = 0;
+		}
+
+		boolean hasAttemptsLeft() {
+			return attempts < maxAttempts;
+		}
+
+		boolean deadlinePassesWithin(Duration delay) {
+			return !deadline.isZero() && calculateRemainingNanos() <= delay.toNanos();
+		}
+
+		Duration calculateTimeoutForRequestToUrl(String url) {
+			if (deadline.isZero()) {
+				return operationTimeout;
+			}
+			Duration remaining = ensureDeadlineHasNotPassedForRequestTo(url);
+			if (operationTimeout.isZero() || remaining.compareTo(operationTimeout) < 0) {
+				return remaining;
+			}
+			return operationTimeout;
+		}
+
+		Duration ensureDeadlineHasNotPassedForRequestTo(String target) {
+			long remainingNanos = calculateRemainingNanos();
+			if (remainingNanos <= 0) {
+				throw createDeadlineExceededErrorForRequestTo(target);
+			}
+			return Duration.ofNanos(remainingNanos);
+		}
+
+		DataClientException createDeadlineExceededErrorForRequestTo(String target) {
+			return DataClientException.withMessage(MessageFormat.format(ERROR_MESSAGE_DEADLINE,
+					String.valueOf(deadline.toMillis()), target));
+		}
+
+		long calculateRemainingNanos() {
+			return deadline.toNanos() - (System.nanoTime() - startInNanos);
+		}
+	}
+
+	/**
+	 * Attempt holds the outcome of one attempt of a call, either a response or the exception
+	 * thrown while making it.
+	 */
+	private record Attempt(RestResponse response, RuntimeException exception) {
+
+		RestResponse getResponseOrThrowException() {
+			if (exception != null) {
+				throw exception;
+			}
+			return response;
+		}
+	}
+
+	/**
+	 * Sleeper waits between attempts of a call, it is only replaced in tests.
+	 */
+	interface Sleeper {
+		void sleep(Duration duration) throws InterruptedException;
+	}
+
 	public String onlyForTestGetBaseUrl() {
 		return baseUrl;
 	}
@@ -333,4 +879,32 @@ public final class RestClientImp implements RestClient {
 	public TokenClient onlyForTestGetTokenClient() {
 		return tokenClient;
 	}
+
+	public OperationTimeouts onlyForTestGetTimeouts() {
+		return timeouts;
+	}
+
+	public Duration onlyForTestGetDeadline() {
+		return deadline;
+	}
+
+	public RetryPolicy onlyForTestGetRetryPolicy() {
+		return retryPolicy;
+	}
+
+	public CircuitBreakerRegistry onlyForTestGetCircuitBreakerRegistry() {
+		return circuitBreakerRegistry;
+	}
+
+	public AdaptiveConcurrencyLimiter onlyForTestGetConcurrencyLimiter() {
+		return concurrencyLimiter;
+	}
+
+	public ConditionalReadCache onlyForTestGetConditionalReadCache() {
+		return conditionalReadCache;
+	}
+
+	void onlyForTestSetSleeper(Sleeper sleeper) {
+		this.sleeper = sleeper;
+	}
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import se.uu.ub.cora.javaclient.rest.AdaptiveConcurrencySettings;
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerSettings;
+import se.uu.ub.cora.javaclient.rest.ConditionalReadSettings;
+import se.uu.ub.cora.javaclient.rest.DiskCacheSettings;
+import se.uu.ub.cora.javaclient.rest.OperationTimeouts;
+import se.uu.ub.cora.javaclient.rest.RetryPolicy;
+
+/**
+ * RestClientSettings holds the settings and shared state used by a {@link RestClientImp}, apart
+ * from what is needed to reach the server.
+ * 
+ * @param operationTimeouts
+ *            An {@link OperationTimeouts} with the timeouts for each type of operation
+ * @param retryPolicy
+ *            A {@link RetryPolicy} deciding how calls failing with a transient error are retried
+ * @param circuitBreakerRegistry
+ *            A {@link CircuitBreakerRegistry} shared by all rest clients calling the same servers
+ * @param concurrencyLimiter
+ *            An {@link AdaptiveConcurrencyLimiter} shared by all rest clients calling the same
+ *            servers
+ * @param conditionalReadSettings
+ *            A {@link ConditionalReadSettings}, each rest client keeps its own responses for
+ *            conditional reads
+ * @param diskResponseStore
+ *            A {@link DiskResponseStore} shared by all rest clients, keeping the responses for
+ *            conditional reads on disk
+ */
+public record RestClientSettings(OperationTimeouts operationTimeouts, RetryPolicy retryPolicy,
+		CircuitBreakerRegistry circuitBreakerRegistry,
+		AdaptiveConcurrencyLimiter concurrencyLimiter,
+		ConditionalReadSettings conditionalReadSettings, DiskResponseStore diskResponseStore) {
+
+	/**
+	 * createDefaultSettings creates settings without timeouts, retries, circuit breaker,
+	 * concurrency limit, conditional reads or disk cache
+	 * 
+	 * @return A RestClientSettings with the default settings
+	 */
+	public static RestClientSettings createDefaultSettings() {
+		return new RestClientSettings(OperationTimeouts.NONE, RetryPolicy.NONE,
+				CircuitBreakerRegistry.usingSettings(CircuitBreakerSettings.DISABLED),
+				AdaptiveConcurrencyLimiter.usingSettings(AdaptiveConcurrencySettings.DISABLED),
+				ConditionalReadSettings.DISABLED,
+				DiskResponseStore.usingSettings(DiskCacheSettings.DISABLED));
+	}
+
+	/**
+	 * withRetryPolicy creates a copy of these settings using the provided retry policy
+	 * 
+	 * @param retryPolicy
+	 *            A RetryPolicy to use instead of the retry policy of these settings
+	 * @return A RestClientSettings with the provided retry policy
+	 */
+	public RestClientSettings withRetryPolicy(RetryPolicy retryPolicy) {
+		return new RestClientSettings(operationTimeouts, retryPolicy, circuitBreakerRegistry,
+				concurrencyLimiter, conditionalReadSettings, diskResponseStore);
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * TokenBucket limits the rate at which requests are started without using locks.
+ * <p>
+ * Instead of counting tokens the bucket keeps the time when it would be full again if no more
+ * tokens were taken, the theoretical arrival time. Taking a token moves that time one interval
+ * forward, and a token can be taken as long as that time is at most burst - 1 intervals ahead of
+ * now. Both taking and reserving a token is a single atomic update.
+ */
+public final class TokenBucket {
+	private static final double NANOS_PER_SECOND = 1_000_000_000d;
+	private long intervalNanos;
+	private long burstToleranceNanos;
+	private LongSupplier nanoClock;
+	private AtomicLong theoreticalArrivalNanos;
+
+	public static TokenBucket usingRequestsPerSecondAndBurst(double requestsPerSecond,
+			int burst) {
+		return new TokenBucket(requestsPerSecond, burst, System::nanoTime);
+	}
+
+	static TokenBucket usingRequestsPerSecondAndBurstAndNanoClock(double requestsPerSecond,
+			int burst, LongSupplier nanoClock) {
+		return new TokenBucket(requestsPerSecond, burst, nanoClock);
+	}
+
+	private TokenBucket(double requestsPerSecond, int burst, LongSupplier nanoClock) {
+		this.intervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / requestsPerSecond));
+		this.burstToleranceNanos = (Math.max(1, burst) - 1) * intervalNanos;
+		this.nanoClock = nanoClock;
+		this.theoreticalArrivalNanos = new AtomicLong(nanoClock.getAsLong());
+	}
+
+	/**
+	 * tryAcquire takes a token if one is available
+	 * 
+	 * @return A boolean, true if a token was taken
+	 */
+	public boolean tryAcquire() {
+		long now = nanoClock.getAsLong();
+		long previous = theoreticalArrivalNanos.getAndUpdate(arrival -> tokenIsAvailable(arrival,
+				now) ? Math.max(arrival, now) + intervalNanos : arrival);
+		return tokenIsAvailable(previous, now);
+	}
+
+	private boolean tokenIsAvailable(long arrival, long now) {
+		return arrival - now <= burstToleranceNanos;
+	}
+
+	/**
+	 * reserve takes the next token, even if it is not available yet, and returns how long to wait
+	 * until it is available
+	 * 
+	 * @return A long, the number of nanoseconds to wait before the request is started, 0 if the
+	 *         token is available now
+	 */
+	public long reserve() {
+		long now = nanoClock.getAsLong();
+		long previous = theoreticalArrivalNanos
+				.getAndUpdate(arrival -> Math.max(arrival, now) + intervalNanos);
+		return calculateWaitNanos(previous, now);
+	}
+
+	private long calculateWaitNanos(long arrival, long now) {
+		return Math.max(0, arrival - burstToleranceNanos - now);
+	}
+
+	/**
+	 * tryReserveWithin takes the next token, if it is available within the provided time, and
+	 * returns how long to wait until it is available
+	 * 
+	 * @param maxWaitNanos
+	 *            A long, the maximum number of nanoseconds to wait for the token
+	 * @return A long, the number of nanoseconds to wait before the request is started, 0 if the
+	 *         token is available now, -1 if no token was taken as it is not available in time
+	 */
+	public long tryReserveWithin(long maxWaitNanos) {
+		long now = nanoClock.getAsLong();
+		long previous = theoreticalArrivalNanos.getAndUpdate(
+				arrival -> calculateWaitNanos(arrival, now) <= maxWaitNanos
+						? Math.max(arrival, now) + intervalNanos
+						: arrival);
+		long waitNanos = calculateWaitNanos(previous, now);
+		return waitNanos <= maxWaitNanos ? waitNanos : -1;
+	}
+
+	long onlyForTestGetIntervalNanos() {
+		return intervalNanos;
+	}
+}
@@ -45,4 +45,22 @@ public interface TokenClient {
 	 *             server fails
 	 */
 	void requestNewAuthToken();
+
+	/**
+	 * requestNewAuthTokenReplacingAuthToken requests a new authToken to replace an authToken that
+	 * the server has rejected. Implementations MAY skip the request if the current authToken
+	 * already differs from the rejected one, as it then has been replaced since the rejected
+	 * authToken was sent.
+	 * <p>
+	 * The default implementation calls {@link #requestNewAuthToken()}.
+	 * 
+	 * @param rejectedAuthToken
+	 *            A String with the authToken that was sent with the rejected request
+	 * @throws DataClientException
+	 *             is thrown if the initialized without an appToken or fetching the authToken from
+	 *             server fails
+	 */
+	default void requestNewAuthTokenReplacingAuthToken(String rejectedAuthToken) {
+		requestNewAuthToken();
+	}
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.token;
+
+import java.time.Duration;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+/**
+ * TokenRenewalSettings holds the settings for how a {@link TokenClient} renews its authToken in the
+ * background. The renewal is scheduled margin plus a random part of maxJitter before the authToken
+ * expires, so that many clients started at the same time do not renew at the same time.
+ * <p>
+ * If margin plus jitter is as long as the remaining lifetime of the authToken, it is renewed when
+ * half of its remaining lifetime has passed instead, and never sooner than one second after the
+ * previous renewal. Negative durations are rejected with a {@link DataClientException}.
+ * 
+ * @param margin
+ *            A {@link Duration}, how long before the authToken expires it is renewed
+ * @param maxJitter
+ *            A {@link Duration}, the maximum random time added to the margin for each renewal
+ */
+public record TokenRenewalSettings(Duration margin, Duration maxJitter) {
+
+	public TokenRenewalSettings {
+		if (margin.isNegative() || maxJitter.isNegative()) {
+			throw DataClientException.withMessage(
+					"Invalid token renewal settings, margin and maxJitter must not be negative.");
+		}
+	}
+
+	/**
+	 * The settings used when none are provided, renewing ten seconds before the authToken expires
+	 * without jitter.
+	 */
+	public static final TokenRenewalSettings DEFAULT = new TokenRenewalSettings(
+			Duration.ofSeconds(10), Duration.ZERO);
+}
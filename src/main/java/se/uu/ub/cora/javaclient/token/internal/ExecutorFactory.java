@@ -1,5 +1,5 @@
 /*
- * Copyright 2025 Uppsala University Library
+ * Copyright 2025, 2026 Uppsala University Library
  *
  * This file is part of Cora.
  *
@@ -24,9 +24,18 @@ import java.util.concurrent.ScheduledExecutorService;
 
 public interface ExecutorFactory {
 
-	public ExecutorService createVirtualThreadPerTaskExecutor();
+	/**
+	 * Returns the executor that scheduled tasks are run on when their delay has passed. The same
+	 * executor is returned for all schedulers.
+	 */
+	public ExecutorService getSharedTaskExecutor();
 
-	public ScheduledExecutorService createSingleThreadScheduledExecutor();
+	/**
+	 * Returns the scheduled executor that delays tasks for all schedulers. It only keeps track of
+	 * time and hands each task over to {@link #getSharedTaskExecutor()}, it never runs tasks
+	 * itself.
+	 */
+	public ScheduledExecutorService getSharedScheduledExecutor();
 
 	public WeakReference<Runnable> createWeakReferenceFromRunnable(Runnable task);
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2025 Uppsala University Library
+ * Copyright 2025, 2026 Uppsala University Library
  *
  * This file is part of Cora.
  *
@@ -22,19 +22,36 @@ import java.lang.ref.WeakReference;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
+/**
+ * ExecutorFactoryImp returns executors shared by all token clients in the JVM. The scheduled
+ * executor uses one daemon thread, started the first time a renewal is scheduled, so the number
+ * of threads does not grow with the number of clients.
+ */
 public class ExecutorFactoryImp implements ExecutorFactory {
+	private static final String TIMER_THREAD_NAME = "cora-javaclient-token-renewal";
+
+	private static final class SharedExecutors {
+		static final ExecutorService TASK_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+		static final ScheduledExecutorService SCHEDULED_EXECUTOR = createScheduledExecutor();
+
+		private static ScheduledExecutorService createScheduledExecutor() {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+					Thread.ofPlatform().name(TIMER_THREAD_NAME).daemon().factory());
+			executor.setRemoveOnCancelPolicy(true);
+			return executor;
+		}
+	}
+
 	@Override
-	public ExecutorService createVirtualThreadPerTaskExecutor() {
-		return Executors.newVirtualThreadPerTaskExecutor();
-		// ThreadFactory factory = Thread.ofPlatform().factory();
-		// return Executors.newThreadPerTaskExecutor(factory);
+	public ExecutorService getSharedTaskExecutor() {
+		return SharedExecutors.TASK_EXECUTOR;
 	}
 
 	@Override
-	public ScheduledExecutorService createSingleThreadScheduledExecutor() {
-		// Executors.newScheduledThreadPool(2);
-		return Executors.newSingleThreadScheduledExecutor();
+	public ScheduledExecutorService getSharedScheduledExecutor() {
+		return SharedExecutors.SCHEDULED_EXECUTOR;
 	}
 
 	@Override
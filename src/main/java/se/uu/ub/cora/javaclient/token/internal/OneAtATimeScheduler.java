@@ -1,5 +1,5 @@
 /*
- * Copyright 2025 Uppsala University Library
+ * Copyright 2025, 2026 Uppsala University Library
  *
  * This file is part of Cora.
  *
@@ -18,19 +18,26 @@
  */
 package se.uu.ub.cora.javaclient.token.internal;
 
+import java.lang.ref.Cleaner;
 import java.lang.ref.WeakReference;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * OneAtATimeScheduler only schedules one task during the same time. When the next task is scheduled
- * is the first task canceled if it has not already run, before the next one is scheduled.
+ * OneAtATimeScheduler keeps at most one scheduled task, scheduling a new task cancels the
+ * previous one. Tasks are scheduled on the executors shared by all schedulers, see
+ * {@link ExecutorFactory}.
+ * <p>
+ * The shared executors only hold a weak reference to the task, while this scheduler holds a
+ * strong one. When the owner of the scheduler is garbage collected, so is the task, the scheduled
+ * entry is cancelled and removed from the shared executor, and nothing is run.
  */
 public class OneAtATimeScheduler implements Scheduler {
+	private static final Cleaner CLEANER = Cleaner.create();
 	private ExecutorFactory executorFactory;
-	private Future<?> future;
+	private AtomicReference<Future<?>> scheduledFuture = new AtomicReference<>();
+	private Runnable scheduledTask;
 
 	public static OneAtATimeScheduler usingExecutorFactory(ExecutorFactory executorFactory) {
 		return new OneAtATimeScheduler(executorFactory);
@@ -38,44 +45,52 @@ public class OneAtATimeScheduler implements Scheduler {
 
 	private OneAtATimeScheduler(ExecutorFactory executorFactory) {
 		this.executorFactory = executorFactory;
+		CLEANER.register(this, new CancelScheduledTask(scheduledFuture));
 	}
 
 	@Override
-	public void scheduleTaskWithDelayInMillis(Runnable task, long delayInMillis) {
+	public synchronized void scheduleTaskWithDelayInMillis(Runnable task, long delayInMillis) {
+		scheduledTask = task;
 		WeakReference<Runnable> weakReferenceTask = executorFactory
 				.createWeakReferenceFromRunnable(task);
-		ExecutorService virtualThreadExecutor = executorFactory
-				.createVirtualThreadPerTaskExecutor();
-		if (null != future) {
-			future.cancel(false);
-		}
-		try {
-			future = virtualThreadExecutor.submit(
-					() -> scheduleTaskUsingSingleThreadSchedule(weakReferenceTask, delayInMillis));
-		} finally {
-			virtualThreadExecutor.shutdown();
+		Future<?> future = executorFactory.getSharedScheduledExecutor().schedule(
+				createCommandUsingWeakReference(executorFactory, weakReferenceTask),
+				delayInMillis, TimeUnit.MILLISECONDS);
+		cancelIfScheduled(scheduledFuture.getAndSet(future));
+	}
+
+	private static Runnable createCommandUsingWeakReference(ExecutorFactory executorFactory,
+			WeakReference<Runnable> weakReferenceTask) {
+		// static, so that the shared executor does not hold a reference to this scheduler
+		return () -> executorFactory.getSharedTaskExecutor()
+				.submit(() -> runTaskIfStillReferenced(weakReferenceTask));
+	}
+
+	private static void runTaskIfStillReferenced(WeakReference<Runnable> weakReferenceTask) {
+		Runnable task = weakReferenceTask.get();
+		if (task != null) {
+			task.run();
 		}
 	}
 
-	private void scheduleTaskUsingSingleThreadSchedule(WeakReference<Runnable> task, long delay) {
-		ScheduledExecutorService singleThreadScheduler = executorFactory
-				.createSingleThreadScheduledExecutor();
-		try {
-			singleThreadScheduler.schedule(getRunnableFromWeakReference(task), delay,
-					TimeUnit.MILLISECONDS);
-		} finally {
-			singleThreadScheduler.shutdown();
+	private static void cancelIfScheduled(Future<?> future) {
+		if (future != null) {
+			future.cancel(false);
 		}
 	}
 
-	private Runnable getRunnableFromWeakReference(WeakReference<Runnable> methodAsWeakReference) {
-		return () -> {
-			Runnable methodAsRunnable = methodAsWeakReference.get();
-			methodAsRunnable.run();
-		};
+	record CancelScheduledTask(AtomicReference<Future<?>> scheduledFuture) implements Runnable {
+		@Override
+		public void run() {
+			cancelIfScheduled(scheduledFuture.get());
+		}
 	}
 
 	public ExecutorFactory onlyForTestGetExecutorFactory() {
 		return executorFactory;
 	}
-}
\ No newline at end of file
+
+	public Runnable onlyForTestGetScheduledTask() {
+		return scheduledTask;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018, 2024, 2025 Uppsala University Library
+ * Copyright 2018, 2024, 2025, 2026 Uppsala University Library
  *
  * This file is part of Cora.
  *
@@ -19,6 +19,9 @@
 package se.uu.ub.cora.javaclient.token.internal;
 
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import se.uu.ub.cora.clientdata.ClientAction;
 import se.uu.ub.cora.clientdata.ClientActionLink;
@@ -31,6 +34,7 @@ import se.uu.ub.cora.javaclient.AppTokenCredentials;
 import se.uu.ub.cora.javaclient.AuthTokenCredentials;
 import se.uu.ub.cora.javaclient.data.DataClientException;
 import se.uu.ub.cora.javaclient.token.TokenClient;
+import se.uu.ub.cora.javaclient.token.TokenRenewalSettings;
 
 public final class TokenClientImp implements TokenClient {
 
@@ -38,25 +42,37 @@ public final class TokenClientImp implements TokenClient {
 	private static final String CORA_REST_APPTOKEN_ENDPOINT = "apptoken";
 	private static final int CREATED = 201;
 	private static final String NEW_LINE = "\n";
+	private static final long MIN_DELAY_TO_RENEW_IN_MILLIS = 1000;
+	private static final long FIRST_RETRY_DELAY_IN_MILLIS = 1000;
 	private HttpHandlerFactory httpHandlerFactory;
 	private String loginUrl;
 	private String loginId;
 	private String appToken;
 	private AppTokenCredentials appTokenCredentials;
 	private AuthTokenCredentials authTokenCredentials;
-	private ClientDataAuthentication authentication;
+	private volatile ClientDataAuthentication authentication;
 	private Scheduler scheduler;
+	private TokenRenewalSettings renewalSettings;
+	private AtomicLong coalescedLogins = new AtomicLong();
 
 	public static TokenClientImp usingHttpHandlerFactoryAndSchedulerAndAppToken(
 			HttpHandlerFactory httpHandlerFactory, Scheduler scheduler,
 			AppTokenCredentials credentials) {
-		return new TokenClientImp(httpHandlerFactory, scheduler, credentials);
+		return new TokenClientImp(httpHandlerFactory, scheduler, credentials,
+				TokenRenewalSettings.DEFAULT);
+	}
+
+	public static TokenClientImp usingHttpHandlerFactoryAndSchedulerAndAppTokenAndRenewalSettings(
+			HttpHandlerFactory httpHandlerFactory, Scheduler scheduler,
+			AppTokenCredentials credentials, TokenRenewalSettings renewalSettings) {
+		return new TokenClientImp(httpHandlerFactory, scheduler, credentials, renewalSettings);
 	}
 
 	TokenClientImp(HttpHandlerFactory httpHandlerFactory, Scheduler scheduler,
-			AppTokenCredentials credentials) {
+			AppTokenCredentials credentials, TokenRenewalSettings renewalSettings) {
 		this.httpHandlerFactory = httpHandlerFactory;
 		this.scheduler = scheduler;
+		this.renewalSettings = renewalSettings;
 
 		this.appTokenCredentials = credentials;
 		this.loginUrl = credentials.loginUrl() + CORA_REST_APPTOKEN_ENDPOINT;
@@ -67,21 +83,41 @@ public final class TokenClientImp implements TokenClient {
 	public static TokenClient usingHttpHandlerFactoryAndSchedulerAndAuthToken(
 			HttpHandlerFactory httpHandlerFactory, Scheduler scheduler,
 			AuthTokenCredentials credentials) {
-		return new TokenClientImp(httpHandlerFactory, scheduler, credentials);
+		return new TokenClientImp(httpHandlerFactory, scheduler, credentials,
+				TokenRenewalSettings.DEFAULT);
+	}
+
+	public static TokenClient usingHttpHandlerFactoryAndSchedulerAndAuthTokenAndRenewalSettings(
+			HttpHandlerFactory httpHandlerFactory, Scheduler scheduler,
+			AuthTokenCredentials credentials, TokenRenewalSettings renewalSettings) {
+		return new TokenClientImp(httpHandlerFactory, scheduler, credentials, renewalSettings);
 	}
 
 	TokenClientImp(HttpHandlerFactory httpHandlerFactory, Scheduler scheduler,
-			AuthTokenCredentials credentials) {
+			AuthTokenCredentials credentials, TokenRenewalSettings renewalSettings) {
 		this.httpHandlerFactory = httpHandlerFactory;
 		this.scheduler = scheduler;
+		this.renewalSettings = renewalSettings;
 		this.authTokenCredentials = credentials;
 	}
 
+	/**
+	 * getAuthToken reads the current authentication without taking a lock, only the first call,
+	 * that has to fetch the authentication, synchronizes with other callers.
+	 */
 	@Override
-	public synchronized String getAuthToken() {
+	public String getAuthToken() {
 		if (isStartedUsingAuthTokenButIsNotRenewable()) {
 			return authTokenCredentials.authToken();
 		}
+		ClientDataAuthentication currentAuthentication = authentication;
+		if (currentAuthentication != null) {
+			return currentAuthentication.getToken();
+		}
+		return fetchAuthenticationAndGetToken();
+	}
+
+	private synchronized String fetchAuthenticationAndGetToken() {
 		if (authenticationNeedsToBeFetched()) {
 			authentication = loginUsingAppTokenOrRenewProvidedAuthToken();
 			scheduleRenewOfAuthentication();
@@ -142,13 +178,68 @@ public final class TokenClientImp implements TokenClient {
 		return possiblyGetAuthenticationFromLoginAnswer(httpHandler);
 	}
 
+	/**
+	 * requestNewAuthToken logs in again using the appToken. The authentication known when the call
+	 * is made is noted before waiting for the lock, if another caller has replaced it while this
+	 * call waited, no new login is made and the call returns directly.
+	 */
 	@Override
-	public synchronized void requestNewAuthToken() {
+	public void requestNewAuthToken() {
+		ensureAppTokenExists();
+		ClientDataAuthentication staleAuthentication = authentication;
+		synchronized (this) {
+			logInIfAuthenticationIsNotReplaced(staleAuthentication);
+		}
+	}
+
+	private void ensureAppTokenExists() {
 		if (appTokenDoesNotExist()) {
 			throw DataClientException.withMessage(
 					"Could not request a new authToken due to being initialized without appToken.");
 		}
+	}
+
+	private void logInIfAuthenticationIsNotReplaced(
+			ClientDataAuthentication staleAuthentication) {
+		if (authentication != staleAuthentication) {
+			coalescedLogins.incrementAndGet();
+			return;
+		}
 		authentication = logInWithAppToken();
+		scheduleRenewOfAuthentication();
+	}
+
+	/**
+	 * requestNewAuthTokenReplacingAuthToken logs in again using the appToken, unless the current
+	 * authToken differs from the rejected one. Concurrent callers that got an unauthorized response
+	 * for the same authToken therefore share the result of one login, also when a caller gets its
+	 * response after another caller's login has finished.
+	 */
+	@Override
+	public void requestNewAuthTokenReplacingAuthToken(String rejectedAuthToken) {
+		ensureAppTokenExists();
+		synchronized (this) {
+			logInIfAuthTokenIsNotReplaced(rejectedAuthToken);
+		}
+	}
+
+	private void logInIfAuthTokenIsNotReplaced(String rejectedAuthToken) {
+		if (authentication != null && !authentication.getToken().equals(rejectedAuthToken)) {
+			coalescedLogins.incrementAndGet();
+			return;
+		}
+		authentication = logInWithAppToken();
+		scheduleRenewOfAuthentication();
+	}
+
+	/**
+	 * getNumberOfCoalescedLogins returns how many requests for a new authToken that did not log in
+	 * themselves, as the authToken they wanted to replace already had been replaced.
+	 * 
+	 * @return A long with the number of coalesced logins
+	 */
+	public long getNumberOfCoalescedLogins() {
+		return coalescedLogins.get();
 	}
 
 	private boolean appTokenDoesNotExist() {
@@ -201,38 +292,111 @@ public final class TokenClientImp implements TokenClient {
 		}
 	}
 
-	private void startScheduleUsingActionLink(ClientActionLink actionLink) {
-		ClientActionLink renewAction = actionLink;
+	private void startScheduleUsingActionLink(ClientActionLink renewAction) {
 		long delayToRenew = calculateDelayToRenew();
 		long timeNow = System.currentTimeMillis();
 		long renewUntilLong = Long.parseLong(authentication.getRenewUntil());
 		if (timeNow + delayToRenew > renewUntilLong) {
-			throw DataClientException.withMessage(
-					"The authToken renewal could not be scheduled because it has reached the "
-							+ "permitted renewal limit. The current token will remain "
-							+ "active for a while but will eventually become unauthorized. "
-							+ "Please re-login to continue using this client.");
+			scheduleLoginOrThrowErrorAsRenewLimitIsReached(delayToRenew);
+			return;
+		}
+		scheduler.scheduleTaskWithDelayInMillis(renewToken(authentication, renewAction),
+				delayToRenew);
+	}
+
+	private void scheduleLoginOrThrowErrorAsRenewLimitIsReached(long delayToRenew) {
+		if (startedWithAppToken()) {
+			scheduler.scheduleTaskWithDelayInMillis(logInAgainWithAppToken(authentication),
+					delayToRenew);
+			return;
+		}
+		throw DataClientException.withMessage(
+				"The authToken renewal could not be scheduled because it has reached the "
+						+ "permitted renewal limit. The current token will remain "
+						+ "active for a while but will eventually become unauthorized. "
+						+ "Please re-login to continue using this client.");
+	}
+
+	private Runnable logInAgainWithAppToken(ClientDataAuthentication authenticationToReplace) {
+		return () -> replaceAuthenticationOrRetry(authenticationToReplace, this::logInWithAppToken,
+				FIRST_RETRY_DELAY_IN_MILLIS);
+	}
+
+	private Runnable renewToken(ClientDataAuthentication authenticationToRenew,
+			ClientActionLink renewAction) {
+		return () -> replaceAuthenticationOrRetry(authenticationToRenew,
+				() -> requestRenewOfAuthentication(authenticationToRenew, renewAction),
+				FIRST_RETRY_DELAY_IN_MILLIS);
+	}
+
+	private ClientDataAuthentication requestRenewOfAuthentication(
+			ClientDataAuthentication authenticationToRenew, ClientActionLink renewAction) {
+		HttpHandlerSpec httpHandlerSpec = new HttpHandlerSpec(renewAction.getURL(),
+				renewAction.getRequestMethod(), renewAction.getAccept(),
+				authenticationToRenew.getToken());
+		HttpHandler httpHandler = createHttpHandlerRequestUsingSpec(httpHandlerSpec);
+		return possiblyGetAuthenticationFromRenewAuthTokenAnswer(httpHandler);
+	}
+
+	/**
+	 * replaceAuthenticationOrRetry fetches a new authentication in the background, without holding
+	 * the lock, and replaces the current authentication with it only if the current one is still
+	 * the one the background task was started for. If fetching fails, the current authentication
+	 * is kept and the fetch is retried with a doubling delay, as long as the retry can be made
+	 * before the current authToken is no longer valid. When no retry can be made, the authToken
+	 * expires and a client started using an appToken logs in again on the next unauthorized
+	 * response.
+	 */
+	private void replaceAuthenticationOrRetry(ClientDataAuthentication authenticationToReplace,
+			Supplier<ClientDataAuthentication> fetchAuthentication, long retryDelay) {
+		ClientDataAuthentication fetchedAuthentication;
+		try {
+			fetchedAuthentication = fetchAuthentication.get();
+		} catch (RuntimeException _) {
+			scheduleRetryBeforeValidUntil(authenticationToReplace, fetchAuthentication,
+					retryDelay);
+			return;
+		}
+		replaceAuthenticationIfNotReplaced(authenticationToReplace, fetchedAuthentication);
+	}
+
+	private void scheduleRetryBeforeValidUntil(ClientDataAuthentication authenticationToReplace,
+			Supplier<ClientDataAuthentication> fetchAuthentication, long retryDelay) {
+		long validUntil = Long.parseLong(authenticationToReplace.getValidUntil());
+		if (authentication == authenticationToReplace
+				&& System.currentTimeMillis() + retryDelay < validUntil) {
+			scheduler.scheduleTaskWithDelayInMillis(
+					() -> replaceAuthenticationOrRetry(authenticationToReplace,
+							fetchAuthentication, retryDelay * 2),
+					retryDelay);
 		}
-		scheduler.scheduleTaskWithDelayInMillis(renewToken(renewAction), delayToRenew);
 	}
 
-	private Runnable renewToken(ClientActionLink renewAction) {
-		return () -> {
-			HttpHandlerSpec httpHandlerSpec = new HttpHandlerSpec(renewAction.getURL(),
-					renewAction.getRequestMethod(), renewAction.getAccept(),
-					authentication.getToken());
-			HttpHandler httpHandler = createHttpHandlerRequestUsingSpec(httpHandlerSpec);
-			authentication = possiblyGetAuthenticationFromRenewAuthTokenAnswer(httpHandler);
+	private synchronized void replaceAuthenticationIfNotReplaced(
+			ClientDataAuthentication authenticationToReplace,
+			ClientDataAuthentication newAuthentication) {
+		if (authentication == authenticationToReplace) {
+			authentication = newAuthentication;
 			scheduleRenewOfAuthentication();
-		};
+		}
 	}
 
 	private long calculateDelayToRenew() {
 		String validUntil = authentication.getValidUntil();
 		long validUntilLong = Long.parseLong(validUntil);
 		long now = System.currentTimeMillis();
-		int margin = 10000;
-		return validUntilLong - now - margin;
+		long margin = renewalSettings.margin().toMillis() + calculateJitter();
+		long timeLeft = validUntilLong - now;
+		long delayBeforeMargin = Math.max(timeLeft - margin, timeLeft / 2);
+		return Math.max(MIN_DELAY_TO_RENEW_IN_MILLIS, delayBeforeMargin);
+	}
+
+	private long calculateJitter() {
+		long maxJitter = renewalSettings.maxJitter().toMillis();
+		if (maxJitter <= 0) {
+			return 0;
+		}
+		return ThreadLocalRandom.current().nextLong(maxJitter + 1);
 	}
 
 	public HttpHandlerFactory onlyForTestGetHttpHandlerFactory() {
@@ -250,4 +414,8 @@ public final class TokenClientImp implements TokenClient {
 	public Scheduler onlyForTestGetScheduler() {
 		return scheduler;
 	}
+
+	public TokenRenewalSettings onlyForTestGetRenewalSettings() {
+		return renewalSettings;
+	}
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.token.internal;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import se.uu.ub.cora.javaclient.token.TokenClient;
+
+/**
+ * TokenClientRegistry keeps one {@link TokenClient} per credentials, so that clients created using
+ * equal credentials share the same login and renewal of the authToken.
+ * <p>
+ * The registry only holds weak references to the token clients. When no client uses a token client
+ * any more it is garbage collected, and its entry is removed from the registry on the next call.
+ */
+public final class TokenClientRegistry {
+	private Map<Object, TokenClientReference> tokenClients = new HashMap<>();
+	private ReferenceQueue<TokenClient> releasedTokenClients = new ReferenceQueue<>();
+
+	/**
+	 * getOrCreateUsingCredentials returns the token client registered for credentials equal to the
+	 * provided ones. If there is none, or it has been garbage collected, a new token client is
+	 * created using the provided supplier and registered.
+	 * 
+	 * @param credentials
+	 *            An Object, normally an AppTokenCredentials or AuthTokenCredentials record, to use
+	 *            as key
+	 * @param tokenClientSupplier
+	 *            A Supplier used to create a new token client if none is registered
+	 * @return A TokenClient for the credentials
+	 */
+	public synchronized TokenClient getOrCreateUsingCredentials(Object credentials,
+			Supplier<TokenClient> tokenClientSupplier) {
+		removeReleasedTokenClients();
+		TokenClient tokenClient = getRegisteredTokenClient(credentials);
+		if (tokenClient != null) {
+			return tokenClient;
+		}
+		return createAndRegisterTokenClient(credentials, tokenClientSupplier);
+	}
+
+	private void removeReleasedTokenClients() {
+		TokenClientReference released = (TokenClientReference) releasedTokenClients.poll();
+		while (released != null) {
+			tokenClients.remove(released.credentials, released);
+			released = (TokenClientReference) releasedTokenClients.poll();
+		}
+	}
+
+	private TokenClient getRegisteredTokenClient(Object credentials) {
+		TokenClientReference reference = tokenClients.get(credentials);
+		if (reference == null) {
+			return null;
+		}
+		return reference.get();
+	}
+
+	private TokenClient createAndRegisterTokenClient(Object credentials,
+			Supplier<TokenClient> tokenClientSupplier) {
+		TokenClient tokenClient = tokenClientSupplier.get();
+		tokenClients.put(credentials,
+				new TokenClientReference(credentials, tokenClient, releasedTokenClients));
+		return tokenClient;
+	}
+
+	/**
+	 * getNumberOfRegisteredTokenClients returns the number of token clients currently in the
+	 * registry, after removing those that have been garbage collected.
+	 * 
+	 * @return An int with the number of registered token clients
+	 */
+	public synchronized int getNumberOfRegisteredTokenClients() {
+		removeReleasedTokenClients();
+		return tokenClients.size();
+	}
+
+	private static final class TokenClientReference extends WeakReference<TokenClient> {
+		private final Object credentials;
+
+		TokenClientReference(Object credentials, TokenClient tokenClient,
+				ReferenceQueue<TokenClient> queue) {
+			super(tokenClient, queue);
+			this.credentials = credentials;
+		}
+	}
+}
@@ -19,11 +19,17 @@
  */
 package se.uu.ub.cora.javaclient;
 
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -33,12 +39,30 @@ import se.uu.ub.cora.clientdata.converter.ClientDataToJsonConverterProvider;
 import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterFactoryCreatorSpy;
 import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterFactorySpy;
 import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterSpy;
+import se.uu.ub.cora.httphandler.spies.HttpHandlerFactorySpy;
+import se.uu.ub.cora.javaclient.data.AsyncDataClient;
+import se.uu.ub.cora.javaclient.data.BulkWriter;
+import se.uu.ub.cora.javaclient.data.BulkWriterSettings;
 import se.uu.ub.cora.javaclient.data.DataClientSpy;
 import se.uu.ub.cora.javaclient.data.internal.DataClientImp;
 import se.uu.ub.cora.javaclient.doubles.JavaClientFactorySpy;
+import se.uu.ub.cora.javaclient.rest.AdaptiveConcurrencySettings;
+import se.uu.ub.cora.javaclient.rest.AsyncRestClient;
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerSettings;
+import se.uu.ub.cora.javaclient.rest.ConditionalReadSettings;
+import se.uu.ub.cora.javaclient.rest.DiskCacheSettings;
+import se.uu.ub.cora.javaclient.rest.HedgingSettings;
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+import se.uu.ub.cora.javaclient.rest.OperationTimeouts;
+import se.uu.ub.cora.javaclient.rest.RateLimitSettings;
+import se.uu.ub.cora.javaclient.rest.ReadCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RequestCoalescingSettings;
 import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RetryPolicy;
+import se.uu.ub.cora.javaclient.rest.internal.DiskResponseStore;
 import se.uu.ub.cora.javaclient.rest.internal.RestClientImp;
 import se.uu.ub.cora.javaclient.token.TokenClient;
+import se.uu.ub.cora.javaclient.token.TokenRenewalSettings;
 import se.uu.ub.cora.javaclient.token.internal.TokenClientImp;
 
 public class JavaClientProviderTest {
@@ -85,6 +109,8 @@ public class JavaClientProviderTest {
 	@AfterMethod
 	private void afterMethod() {
 		JavaClientProvider.onlyForTestSetJavaClientFactory(null);
+		JavaClientProvider
+				.setJavaClientFactorySettings(JavaClientFactorySettings.createDefaultSettings());
 	}
 
 	@Test
@@ -146,6 +172,104 @@ public class JavaClientProviderTest {
 				restClient);
 	}
 
+	@Test
+	public void testCreateAsyncRestClientUsingJavaClientAuthTokenCredentials() {
+		JavaClientProvider.onlyForTestSetJavaClientFactory(javaClientFactory);
+
+		AsyncRestClient asyncRestClient = JavaClientProvider
+				.createAsyncRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		javaClientFactory.MCR.assertParameters(
+				"factorAsyncRestClientUsingJavaClientAuthTokenCredentials", 0,
+				javaClientAuthTokenCredentials);
+		javaClientFactory.MCR.assertReturn(
+				"factorAsyncRestClientUsingJavaClientAuthTokenCredentials", 0, asyncRestClient);
+	}
+
+	@Test
+	public void testCreateAsyncRestClientUsingJavaClientAppTokenCredentials() {
+		JavaClientProvider.onlyForTestSetJavaClientFactory(javaClientFactory);
+
+		AsyncRestClient asyncRestClient = JavaClientProvider
+				.createAsyncRestClientUsingJavaClientAppTokenCredentials(
+						javaClientAppTokenCredentials);
+
+		javaClientFactory.MCR.assertParameters(
+				"factorAsyncRestClientUsingJavaClientAppTokenCredentials", 0,
+				javaClientAppTokenCredentials);
+		javaClientFactory.MCR.assertReturn(
+				"factorAsyncRestClientUsingJavaClientAppTokenCredentials", 0, asyncRestClient);
+	}
+
+	@Test
+	public void testCreateAsyncDataClientUsingJavaClientAuthTokenCredentials() {
+		JavaClientProvider.onlyForTestSetJavaClientFactory(javaClientFactory);
+		Executor conversionExecutor = ForkJoinPool.commonPool();
+
+		AsyncDataClient asyncDataClient = JavaClientProvider
+				.createAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor(
+						javaClientAuthTokenCredentials, conversionExecutor);
+
+		javaClientFactory.MCR.assertParameters(
+				"factorAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor", 0,
+				javaClientAuthTokenCredentials, conversionExecutor);
+		javaClientFactory.MCR.assertReturn(
+				"factorAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor", 0,
+				asyncDataClient);
+	}
+
+	@Test
+	public void testCreateAsyncDataClientUsingJavaClientAppTokenCredentials() {
+		JavaClientProvider.onlyForTestSetJavaClientFactory(javaClientFactory);
+		Executor conversionExecutor = ForkJoinPool.commonPool();
+
+		AsyncDataClient asyncDataClient = JavaClientProvider
+				.createAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor(
+						javaClientAppTokenCredentials, conversionExecutor);
+
+		javaClientFactory.MCR.assertParameters(
+				"factorAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor", 0,
+				javaClientAppTokenCredentials, conversionExecutor);
+		javaClientFactory.MCR.assertReturn(
+				"factorAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor", 0,
+				asyncDataClient);
+	}
+
+	@Test
+	public void testCreateBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings() {
+		JavaClientProvider.onlyForTestSetJavaClientFactory(javaClientFactory);
+		BulkWriterSettings settings = new BulkWriterSettings(4, 100, false,
+				ForkJoinPool.commonPool());
+
+		BulkWriter bulkWriter = JavaClientProvider
+				.createBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings(
+						javaClientAuthTokenCredentials, settings);
+
+		javaClientFactory.MCR.assertParameters(
+				"factorBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings", 0,
+				javaClientAuthTokenCredentials, settings);
+		javaClientFactory.MCR.assertReturn(
+				"factorBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings", 0, bulkWriter);
+	}
+
+	@Test
+	public void testCreateBulkWriterUsingJavaClientAppTokenCredentialsAndSettings() {
+		JavaClientProvider.onlyForTestSetJavaClientFactory(javaClientFactory);
+		BulkWriterSettings settings = new BulkWriterSettings(4, 100, false,
+				ForkJoinPool.commonPool());
+
+		BulkWriter bulkWriter = JavaClientProvider
+				.createBulkWriterUsingJavaClientAppTokenCredentialsAndSettings(
+						javaClientAppTokenCredentials, settings);
+
+		javaClientFactory.MCR.assertParameters(
+				"factorBulkWriterUsingJavaClientAppTokenCredentialsAndSettings", 0,
+				javaClientAppTokenCredentials, settings);
+		javaClientFactory.MCR.assertReturn(
+				"factorBulkWriterUsingJavaClientAppTokenCredentialsAndSettings", 0, bulkWriter);
+	}
+
 	@Test
 	public void testCreateDataClientUsingBaseUrlAndApptokenUrlAndAuthToken() {
 		DataClientImp dataClient = (DataClientImp) JavaClientProvider
@@ -233,4 +357,117 @@ public class JavaClientProviderTest {
 
 		assertTrue(tokenClient instanceof TokenClientImp);
 	}
+
+	@Test
+	public void testCreateTokenClientUsingAppTokenCredentialsAndRenewalSettings() {
+		JavaClientProvider.onlyForTestSetJavaClientFactory(javaClientFactory);
+
+		TokenClient tokenClient = JavaClientProvider
+				.createTokenClientUsingAppTokenCredentialsAndRenewalSettings(appTokenCredentials,
+						TokenRenewalSettings.DEFAULT);
+
+		javaClientFactory.MCR.assertParameters(
+				"factorTokenClientUsingAppTokenCredentialsAndRenewalSettings", 0,
+				appTokenCredentials, TokenRenewalSettings.DEFAULT);
+		javaClientFactory.MCR.assertReturn(
+				"factorTokenClientUsingAppTokenCredentialsAndRenewalSettings", 0, tokenClient);
+	}
+
+	@Test
+	public void testCreateTokenClientUsingAppTokenCredentialsAndRenewalSettingsRealJavaFactory() {
+		TokenClient tokenClient = JavaClientProvider
+				.createTokenClientUsingAppTokenCredentialsAndRenewalSettings(appTokenCredentials,
+						TokenRenewalSettings.DEFAULT);
+
+		assertTrue(tokenClient instanceof TokenClientImp);
+	}
+
+	@Test
+	public void testCreateTokenClientUsingAuthTokenCredentialsAndRenewalSettings() {
+		JavaClientProvider.onlyForTestSetJavaClientFactory(javaClientFactory);
+
+		TokenClient tokenClient = JavaClientProvider
+				.createTokenClientUsingAuthTokenCredentialsAndRenewalSettings(authTokenCredentials,
+						TokenRenewalSettings.DEFAULT);
+
+		javaClientFactory.MCR.assertParameters(
+				"factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings", 0,
+				authTokenCredentials, TokenRenewalSettings.DEFAULT);
+		javaClientFactory.MCR.assertReturn(
+				"factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings", 0, tokenClient);
+	}
+
+	@Test
+	public void testCreateTokenClientUsingAuthTokenCredentialsAndRenewalSettingsRealJavaFactory() {
+		TokenClient tokenClient = JavaClientProvider
+				.createTokenClientUsingAuthTokenCredentialsAndRenewalSettings(authTokenCredentials,
+						TokenRenewalSettings.DEFAULT);
+
+		assertTrue(tokenClient instanceof TokenClientImp);
+	}
+
+	@Test
+	public void testSetJavaClientFactorySettings() {
+		HttpHandlerFactorySpy httpHandlerFactory = new HttpHandlerFactorySpy();
+		JavaClientFactorySettings settings = new JavaClientFactorySettings(httpHandlerFactory,
+				OperationTimeouts.NONE, RetryPolicy.NONE, CircuitBreakerSettings.DISABLED,
+				RateLimitSettings.NONE, AdaptiveConcurrencySettings.DISABLED,
+				HedgingSettings.DISABLED, LoadBalancingSettings.NONE, ReadCacheSettings.DISABLED,
+				ConditionalReadSettings.DISABLED, RequestCoalescingSettings.DISABLED);
+		JavaClientProvider.setJavaClientFactorySettings(settings);
+
+		RestClientImp restClient = (RestClientImp) JavaClientProvider
+				.createRestClientUsingJavaClientAppTokenCredentials(
+						new JavaClientAppTokenCredentials(SOME_BASE_URL,
+								SOME_APP_TOKEN_VERIFIER_URL, "someUserIdOnlyUsedHere",
+								SOME_APP_TOKEN));
+
+		assertSame(restClient.onlyForTestGetHttpHandlerFactory(), httpHandlerFactory);
+		TokenClientImp tokenClient = (TokenClientImp) restClient.onlyForTestGetTokenClient();
+		assertSame(tokenClient.onlyForTestGetHttpHandlerFactory(), httpHandlerFactory);
+	}
+
+	@Test
+	public void testTokenClientIsSharedWithClientsCreatedAfterSetJavaClientFactorySettings() {
+		RestClientImp restClientBefore = (RestClientImp) JavaClientProvider
+				.createRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+
+		JavaClientProvider
+				.setJavaClientFactorySettings(JavaClientFactorySettings.createDefaultSettings());
+		RestClientImp restClientAfter = (RestClientImp) JavaClientProvider
+				.createRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+
+		assertSame(restClientAfter.onlyForTestGetTokenClient(),
+				restClientBefore.onlyForTestGetTokenClient());
+	}
+
+	@Test
+	public void testSetJavaClientFactorySettingsUsingSameDiskCacheTwice() throws IOException {
+		Path directory = Files.createTempDirectory("javaClientProviderTest");
+		try {
+			JavaClientFactorySettings settings = JavaClientFactorySettings.createDefaultSettings()
+					.withConditionalReadSettings(ConditionalReadSettings.usingMaxEntries(100)
+							.withDiskCacheSettings(DiskCacheSettings
+									.usingDirectoryAndDiskBudget(directory, 1024 * 1024)));
+
+			JavaClientProvider.setJavaClientFactorySettings(settings);
+			DiskResponseStore storeBefore = getDiskResponseStoreOfNewRestClient();
+			JavaClientProvider.setJavaClientFactorySettings(settings);
+			DiskResponseStore storeAfter = getDiskResponseStoreOfNewRestClient();
+
+			assertTrue(storeAfter.isEnabled());
+			assertSame(storeAfter, storeBefore);
+		} finally {
+			JavaClientProvider
+					.setJavaClientFactorySettings(JavaClientFactorySettings.createDefaultSettings());
+			Files.delete(directory.resolve("lock"));
+			Files.delete(directory);
+		}
+	}
+
+	private DiskResponseStore getDiskResponseStoreOfNewRestClient() {
+		RestClientImp restClient = (RestClientImp) JavaClientProvider
+				.createRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		return restClient.onlyForTestGetConditionalReadCache().onlyForTestGetDiskResponseStore();
+	}
 }
@@ -41,4 +41,8 @@ public class TokenClientSpy implements TokenClient {
 		MCR.addCall();
 	}
 
+	@Override
+	public void requestNewAuthTokenReplacingAuthToken(String rejectedAuthToken) {
+		MCR.addCall("rejectedAuthToken", rejectedAuthToken);
+	}
 }
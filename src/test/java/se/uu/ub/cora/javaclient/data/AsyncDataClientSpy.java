@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data;
+
+import java.util.concurrent.CompletableFuture;
+
+import se.uu.ub.cora.clientdata.ClientDataList;
+import se.uu.ub.cora.clientdata.ClientDataRecord;
+import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
+import se.uu.ub.cora.clientdata.spies.ClientDataListSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataRecordSpy;
+import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
+import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
+
+public class AsyncDataClientSpy implements AsyncDataClient {
+	public MethodCallRecorder MCR = new MethodCallRecorder();
+	public MethodReturnValues MRV = new MethodReturnValues();
+
+	public AsyncDataClientSpy() {
+		MCR.useMRV(MRV);
+		MRV.setDefaultReturnValuesSupplier("create",
+				() -> CompletableFuture.completedFuture(new ClientDataRecordSpy()));
+		MRV.setDefaultReturnValuesSupplier("read",
+				() -> CompletableFuture.completedFuture(new ClientDataRecordSpy()));
+		MRV.setDefaultReturnValuesSupplier("readList",
+				() -> CompletableFuture.completedFuture(new ClientDataListSpy()));
+		MRV.setDefaultReturnValuesSupplier("update",
+				() -> CompletableFuture.completedFuture(new ClientDataRecordSpy()));
+		MRV.setDefaultReturnValuesSupplier("delete",
+				() -> CompletableFuture.completedFuture(null));
+		MRV.setDefaultReturnValuesSupplier("readIncomingLinks",
+				() -> CompletableFuture.completedFuture(new ClientDataListSpy()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> toFuture(Object returnValue) {
+		return (CompletableFuture<T>) returnValue;
+	}
+
+	@Override
+	public CompletableFuture<ClientDataRecord> create(String recordType,
+			ClientDataRecordGroup dataRecordGroup) {
+		return toFuture(MCR.addCallAndReturnFromMRV("recordType", recordType, "dataRecordGroup",
+				dataRecordGroup));
+	}
+
+	@Override
+	public CompletableFuture<ClientDataRecord> read(String recordType, String recordId) {
+		return toFuture(
+				MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId", recordId));
+	}
+
+	@Override
+	public CompletableFuture<ClientDataList> readList(String recordType) {
+		return toFuture(MCR.addCallAndReturnFromMRV("recordType", recordType));
+	}
+
+	@Override
+	public CompletableFuture<ClientDataRecord> update(String recordType, String recordId,
+			ClientDataRecordGroup dataRecordGroup) {
+		return toFuture(MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId",
+				recordId, "dataRecordGroup", dataRecordGroup));
+	}
+
+	@Override
+	public CompletableFuture<Void> delete(String recordType, String recordId) {
+		return toFuture(
+				MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId", recordId));
+	}
+
+	@Override
+	public CompletableFuture<ClientDataList> readIncomingLinks(String recordType,
+			String recordId) {
+		return toFuture(
+				MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId", recordId));
+	}
+}
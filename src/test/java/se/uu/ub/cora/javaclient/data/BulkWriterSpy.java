@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data;
+
+import java.util.Collections;
+import java.util.List;
+
+import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
+import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
+import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
+
+public class BulkWriterSpy implements BulkWriter {
+	public MethodCallRecorder MCR = new MethodCallRecorder();
+	public MethodReturnValues MRV = new MethodReturnValues();
+
+	public BulkWriterSpy() {
+		MCR.useMRV(MRV);
+		MRV.setDefaultReturnValuesSupplier("finish", Collections::emptyList);
+	}
+
+	@Override
+	public void create(String recordType, ClientDataRecordGroup dataRecordGroup) {
+		MCR.addCall("recordType", recordType, "dataRecordGroup", dataRecordGroup);
+	}
+
+	@Override
+	public void update(String recordType, String recordId, ClientDataRecordGroup dataRecordGroup) {
+		MCR.addCall("recordType", recordType, "recordId", recordId, "dataRecordGroup",
+				dataRecordGroup);
+	}
+
+	@Override
+	public void delete(String recordType, String recordId) {
+		MCR.addCall("recordType", recordType, "recordId", recordId);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<BulkWriteOutcome> finish() {
+		return (List<BulkWriteOutcome>) MCR.addCallAndReturnFromMRV();
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.clientdata.ClientDataRecord;
+import se.uu.ub.cora.clientdata.spies.ClientDataGroupSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataListSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataRecordSpy;
+import se.uu.ub.cora.javaclient.ReadManyResult;
+
+public class DataClientDefaultMethodsTest {
+	private static final String SOME_TYPE = "someType";
+	private DataClientOriginalMethodsSpy dataClient;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		dataClient = new DataClientOriginalMethodsSpy();
+	}
+
+	@Test
+	public void testReadManyReadsEachId() {
+		DataClientException error = DataClientException.withMessage("spy error");
+		dataClient.MRV.setSpecificReturnValuesSupplier("read", () -> {
+			throw error;
+		}, SOME_TYPE, "id2");
+
+		ReadManyResult<ClientDataRecord> result = dataClient.readMany(SOME_TYPE,
+				List.of("id1", "id2", "id3"), 2);
+
+		dataClient.MCR.assertNumberOfCallsToMethod("read", 3);
+		assertEquals(List.copyOf(result.results().keySet()), List.of("id1", "id3"));
+		assertEquals(result.failures().get("id2"), error);
+	}
+
+	@Test
+	public void testWithDeadlineReturnsSameClient() {
+		assertSame(dataClient.withDeadline(Duration.ofSeconds(1)), dataClient);
+	}
+
+	@Test
+	public void testReadListAsStreamReadsWholeList() {
+		List<ClientDataRecordSpy> listedRecords = setUpListWithTwoRecords();
+
+		List<ClientDataRecord> records = dataClient.readListAsStream(SOME_TYPE, 1).toList();
+
+		dataClient.MCR.assertParameters("readList", 0, SOME_TYPE);
+		assertEquals(records, listedRecords);
+	}
+
+	private List<ClientDataRecordSpy> setUpListWithTwoRecords() {
+		List<ClientDataRecordSpy> records = List.of(new ClientDataRecordSpy(),
+				new ClientDataRecordSpy());
+		ClientDataListSpy list = new ClientDataListSpy();
+		list.MRV.setDefaultReturnValuesSupplier("getDataList", () -> records);
+		dataClient.MRV.setDefaultReturnValuesSupplier("readList", () -> list);
+		return records;
+	}
+
+	@Test(expectedExceptions = DataClientException.class, expectedExceptionsMessageRegExp = ""
+			+ "Reading a list with a filter is not supported by: "
+			+ "se.uu.ub.cora.javaclient.data.DataClientOriginalMethodsSpy")
+	public void testReadListWithFilterAsStreamIsNotSupported() {
+		dataClient.readListWithFilterAsStream(SOME_TYPE, new ClientDataGroupSpy(), 1);
+	}
+
+	@Test
+	public void testReadListIncrementallyReadsWholeList() {
+		List<ClientDataRecordSpy> listedRecords = setUpListWithTwoRecords();
+
+		List<ClientDataRecord> records = dataClient.readListIncrementally(SOME_TYPE).toList();
+
+		dataClient.MCR.assertParameters("readList", 0, SOME_TYPE);
+		assertEquals(records, listedRecords);
+	}
+
+	@Test(expectedExceptions = DataClientException.class, expectedExceptionsMessageRegExp = ""
+			+ "Searching is not supported by: "
+			+ "se.uu.ub.cora.javaclient.data.DataClientOriginalMethodsSpy")
+	public void testSearchIncrementallyIsNotSupported() {
+		dataClient.searchIncrementally("someSearchId", new ClientDataGroupSpy());
+	}
+}
@@ -18,11 +18,19 @@
  */
 package se.uu.ub.cora.javaclient.data;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import se.uu.ub.cora.clientdata.ClientDataGroup;
 import se.uu.ub.cora.clientdata.ClientDataList;
 import se.uu.ub.cora.clientdata.ClientDataRecord;
 import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
 import se.uu.ub.cora.clientdata.spies.ClientDataListSpy;
 import se.uu.ub.cora.clientdata.spies.ClientDataRecordSpy;
+import se.uu.ub.cora.javaclient.ReadManyResult;
 import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
 import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
 
@@ -34,9 +42,16 @@ public class DataClientSpy implements DataClient {
 		MCR.useMRV(MRV);
 		MRV.setDefaultReturnValuesSupplier("create", ClientDataRecordSpy::new);
 		MRV.setDefaultReturnValuesSupplier("read", ClientDataRecordSpy::new);
+		MRV.setDefaultReturnValuesSupplier("readMany", () -> new ReadManyResult<>(
+				Map.of("someId", new ClientDataRecordSpy()), Collections.emptyMap()));
 		MRV.setDefaultReturnValuesSupplier("readList", ClientDataListSpy::new);
+		MRV.setDefaultReturnValuesSupplier("readListAsStream", Stream::empty);
+		MRV.setDefaultReturnValuesSupplier("readListWithFilterAsStream", Stream::empty);
+		MRV.setDefaultReturnValuesSupplier("readListIncrementally", Stream::empty);
+		MRV.setDefaultReturnValuesSupplier("searchIncrementally", Stream::empty);
 		MRV.setDefaultReturnValuesSupplier("update", ClientDataRecordSpy::new);
 		MRV.setDefaultReturnValuesSupplier("readIncomingLinks", ClientDataListSpy::new);
+		MRV.setDefaultReturnValuesSupplier("withDeadline", DataClientSpy::new);
 	}
 
 	@Override
@@ -51,11 +66,48 @@ public class DataClientSpy implements DataClient {
 				recordId);
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public ReadManyResult<ClientDataRecord> readMany(String recordType, Collection<String> ids,
+			int maxInFlight) {
+		return (ReadManyResult<ClientDataRecord>) MCR.addCallAndReturnFromMRV("recordType",
+				recordType, "ids", ids, "maxInFlight", maxInFlight);
+	}
+
 	@Override
 	public ClientDataList readList(String recordType) {
 		return (ClientDataList) MCR.addCallAndReturnFromMRV("recordType", recordType);
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public Stream<ClientDataRecord> readListAsStream(String recordType, int pageSize) {
+		return (Stream<ClientDataRecord>) MCR.addCallAndReturnFromMRV("recordType", recordType,
+				"pageSize", pageSize);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Stream<ClientDataRecord> readListWithFilterAsStream(String recordType,
+			ClientDataGroup filter, int pageSize) {
+		return (Stream<ClientDataRecord>) MCR.addCallAndReturnFromMRV("recordType", recordType,
+				"filter", filter, "pageSize", pageSize);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Stream<ClientDataRecord> readListIncrementally(String recordType) {
+		return (Stream<ClientDataRecord>) MCR.addCallAndReturnFromMRV("recordType", recordType);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Stream<ClientDataRecord> searchIncrementally(String searchId,
+			ClientDataGroup searchData) {
+		return (Stream<ClientDataRecord>) MCR.addCallAndReturnFromMRV("searchId", searchId,
+				"searchData", searchData);
+	}
+
 	@Override
 	public ClientDataRecord update(String recordType, String recordId,
 			ClientDataRecordGroup dataRecordGroup) {
@@ -74,4 +126,8 @@ public class DataClientSpy implements DataClient {
 				recordId);
 	}
 
+	@Override
+	public DataClient withDeadline(Duration deadline) {
+		return (DataClient) MCR.addCallAndReturnFromMRV("deadline", deadline);
+	}
 }
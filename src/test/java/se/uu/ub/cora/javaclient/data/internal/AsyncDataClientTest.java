@@ -0,0 +1,350 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.clientdata.ClientDataList;
+import se.uu.ub.cora.clientdata.ClientDataRecord;
+import se.uu.ub.cora.clientdata.converter.ClientDataToJsonConverterProvider;
+import se.uu.ub.cora.clientdata.converter.JsonToClientDataConverterProvider;
+import se.uu.ub.cora.clientdata.spies.ClientDataListSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataRecordGroupSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataRecordSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterFactoryCreatorSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterFactorySpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterSpy;
+import se.uu.ub.cora.clientdata.spies.JsonToClientDataConverterFactorySpy;
+import se.uu.ub.cora.clientdata.spies.JsonToClientDataConverterSpy;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.AsyncRestClientSpy;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
+
+public class AsyncDataClientTest {
+	private static final String RECORD_TYPE = "someRecordType";
+	private static final String RECORD_ID = "someRecordId";
+	private static final RestResponse OK_RESPONSE = new RestResponse(200, "some json",
+			Optional.empty(), Optional.empty());
+	private static final RestResponse CREATED_RESPONSE = new RestResponse(201, "some json",
+			Optional.empty(), Optional.of("someNewId"));
+	private static final RestResponse INTERNAL_ERROR_RESPONSE = new RestResponse(500,
+			"ErrorMessageFromRest", Optional.empty(), Optional.empty());
+	private AsyncDataClientImp asyncDataClient;
+	private AsyncRestClientSpy asyncRestClient;
+	private ExecutorSpy conversionExecutor;
+	private ClientDataToJsonConverterFactorySpy dataToJsonConverterFactory;
+	private ClientDataToJsonConverterSpy dataToJsonConverter;
+	private JsonToClientDataConverterFactorySpy jsonToDataFactory;
+	private JsonToClientDataConverterSpy jsonToDataConverter;
+	private ClientDataRecordGroupSpy dataRecordGroup;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		setUpDataToJsonConverter();
+		setUpJsonToDataConverter();
+
+		asyncRestClient = new AsyncRestClientSpy();
+		conversionExecutor = new ExecutorSpy();
+		asyncDataClient = AsyncDataClientImp
+				.usingAsyncRestClientAndConversionExecutor(asyncRestClient, conversionExecutor);
+		dataRecordGroup = new ClientDataRecordGroupSpy();
+	}
+
+	private void setUpDataToJsonConverter() {
+		ClientDataToJsonConverterFactoryCreatorSpy dataToJsonFactoryCreator = new ClientDataToJsonConverterFactoryCreatorSpy();
+		ClientDataToJsonConverterProvider
+				.setDataToJsonConverterFactoryCreator(dataToJsonFactoryCreator);
+		dataToJsonConverterFactory = new ClientDataToJsonConverterFactorySpy();
+		dataToJsonFactoryCreator.MRV.setDefaultReturnValuesSupplier("createFactory",
+				() -> dataToJsonConverterFactory);
+		dataToJsonConverter = new ClientDataToJsonConverterSpy();
+		dataToJsonConverter.MRV.setDefaultReturnValuesSupplier("toJson", () -> "converted json");
+		dataToJsonConverterFactory.MRV.setDefaultReturnValuesSupplier("factorUsingConvertible",
+				() -> dataToJsonConverter);
+	}
+
+	private void setUpJsonToDataConverter() {
+		jsonToDataFactory = new JsonToClientDataConverterFactorySpy();
+		JsonToClientDataConverterProvider.setJsonToDataConverterFactory(jsonToDataFactory);
+		jsonToDataConverter = new JsonToClientDataConverterSpy();
+		jsonToDataFactory.MRV.setDefaultReturnValuesSupplier("factorUsingString",
+				() -> jsonToDataConverter);
+	}
+
+	private void setConvertedDataToReturn(Object convertedData) {
+		jsonToDataConverter.MRV.setDefaultReturnValuesSupplier("toInstance", () -> convertedData);
+	}
+
+	private void setRestResponse(String methodName, RestResponse response) {
+		asyncRestClient.MRV.setDefaultReturnValuesSupplier(methodName,
+				() -> CompletableFuture.completedFuture(response));
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		assertSame(asyncDataClient.onlyForTestGetAsyncRestClient(), asyncRestClient);
+		assertSame(asyncDataClient.onlyForTestGetConversionExecutor(), conversionExecutor);
+	}
+
+	@Test
+	public void testCreate() {
+		setRestResponse("createRecordFromJson", CREATED_RESPONSE);
+		ClientDataRecordSpy convertedRecord = new ClientDataRecordSpy();
+		setConvertedDataToReturn(convertedRecord);
+
+		ClientDataRecord createdRecord = asyncDataClient.create(RECORD_TYPE, dataRecordGroup)
+				.join();
+
+		dataToJsonConverterFactory.MCR.assertParameters("factorUsingConvertible", 0,
+				dataRecordGroup);
+		asyncRestClient.MCR.assertParameters("createRecordFromJson", 0, RECORD_TYPE,
+				"converted json");
+		jsonToDataFactory.MCR.assertParameters("factorUsingString", 0,
+				CREATED_RESPONSE.responseText());
+		assertSame(createdRecord, convertedRecord);
+		conversionExecutor.MCR.assertNumberOfCallsToMethod("execute", 2);
+	}
+
+	@Test
+	public void testCreateErrorCodeOnRestClient() {
+		setRestResponse("createRecordFromJson", INTERNAL_ERROR_RESPONSE);
+
+		CompletableFuture<ClientDataRecord> future = asyncDataClient.create(RECORD_TYPE,
+				dataRecordGroup);
+
+		assertFailedWithDataClientExceptionAndMessage(future, "Could not create record of type: "
+				+ RECORD_TYPE + ". Returned error was: ErrorMessageFromRest");
+	}
+
+	private DataClientException assertFailedWithDataClientExceptionAndMessage(
+			CompletableFuture<?> future, String message) {
+		try {
+			future.join();
+			fail("Should complete exceptionally");
+			return null;
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof DataClientException);
+			assertEquals(e.getCause().getMessage(), message);
+			return (DataClientException) e.getCause();
+		}
+	}
+
+	@Test
+	public void testCreateExceptionOnConvertToJson() {
+		dataToJsonConverterFactory.MRV.setAlwaysThrowException("factorUsingConvertible",
+				new RuntimeException("someErrorConversionToJson"));
+
+		CompletableFuture<ClientDataRecord> future = asyncDataClient.create(RECORD_TYPE,
+				dataRecordGroup);
+
+		assertFailedWithDataClientExceptionAndMessage(future, "Could not create record of type: "
+				+ RECORD_TYPE + ". Returned error was: someErrorConversionToJson");
+		asyncRestClient.MCR.assertMethodNotCalled("createRecordFromJson");
+	}
+
+	@Test
+	public void testCreateExceptionOnConvertToData() {
+		setRestResponse("createRecordFromJson", CREATED_RESPONSE);
+		jsonToDataFactory.MRV.setAlwaysThrowException("factorUsingString",
+				new RuntimeException("someErrorConversionToData"));
+
+		CompletableFuture<ClientDataRecord> future = asyncDataClient.create(RECORD_TYPE,
+				dataRecordGroup);
+
+		assertFailedWithDataClientExceptionAndMessage(future, "Could not create record of type: "
+				+ RECORD_TYPE + ". Returned error was: someErrorConversionToData");
+	}
+
+	@Test
+	public void testRead() {
+		setRestResponse("readRecordAsJson", OK_RESPONSE);
+		ClientDataRecordSpy convertedRecord = new ClientDataRecordSpy();
+		setConvertedDataToReturn(convertedRecord);
+
+		ClientDataRecord readRecord = asyncDataClient.read(RECORD_TYPE, RECORD_ID).join();
+
+		asyncRestClient.MCR.assertParameters("readRecordAsJson", 0, RECORD_TYPE, RECORD_ID);
+		jsonToDataFactory.MCR.assertParameters("factorUsingString", 0,
+				OK_RESPONSE.responseText());
+		assertSame(readRecord, convertedRecord);
+		conversionExecutor.MCR.assertNumberOfCallsToMethod("execute", 1);
+	}
+
+	@Test
+	public void testReadErrorCodeOnRestClientKeepsResponseCode() {
+		setRestResponse("readRecordAsJson", INTERNAL_ERROR_RESPONSE);
+
+		CompletableFuture<ClientDataRecord> future = asyncDataClient.read(RECORD_TYPE, RECORD_ID);
+
+		DataClientException exception = assertFailedWithDataClientExceptionAndMessage(future,
+				"Could not read record of type: " + RECORD_TYPE + " and id: " + RECORD_ID
+						+ ". Returned error was: ErrorMessageFromRest");
+		assertEquals(exception.getResponseCode().get(), Integer.valueOf(500));
+		jsonToDataFactory.MCR.assertMethodNotCalled("factorUsingString");
+	}
+
+	@Test
+	public void testReadRestCallCompletedExceptionally() {
+		asyncRestClient.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> CompletableFuture
+						.failedFuture(new RuntimeException("someErrorFromRestClient")));
+
+		CompletableFuture<ClientDataRecord> future = asyncDataClient.read(RECORD_TYPE, RECORD_ID);
+
+		assertFailedWithDataClientExceptionAndMessage(future,
+				"Could not read record of type: " + RECORD_TYPE + " and id: " + RECORD_ID
+						+ ". Returned error was: someErrorFromRestClient");
+	}
+
+	@Test
+	public void testReadRestCallCompletedExceptionallyWithDataClientException() {
+		DataClientException exception = DataClientException.withMessage("someDataClientError");
+		asyncRestClient.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> CompletableFuture.supplyAsync(() -> {
+					throw exception;
+				}, conversionExecutor));
+
+		CompletableFuture<ClientDataRecord> future = asyncDataClient.read(RECORD_TYPE, RECORD_ID);
+
+		DataClientException thrown = assertFailedWithDataClientExceptionAndMessage(future,
+				"someDataClientError");
+		assertSame(thrown, exception);
+	}
+
+	@Test
+	public void testReadList() {
+		setRestResponse("readRecordListAsJson", OK_RESPONSE);
+		ClientDataListSpy convertedList = new ClientDataListSpy();
+		setConvertedDataToReturn(convertedList);
+
+		ClientDataList readList = asyncDataClient.readList(RECORD_TYPE).join();
+
+		asyncRestClient.MCR.assertParameters("readRecordListAsJson", 0, RECORD_TYPE);
+		assertSame(readList, convertedList);
+	}
+
+	@Test
+	public void testReadListErrorCodeOnRestClient() {
+		setRestResponse("readRecordListAsJson", INTERNAL_ERROR_RESPONSE);
+
+		CompletableFuture<ClientDataList> future = asyncDataClient.readList(RECORD_TYPE);
+
+		assertFailedWithDataClientExceptionAndMessage(future, "Could not list records of type: "
+				+ RECORD_TYPE + ". Returned error was: ErrorMessageFromRest");
+	}
+
+	@Test
+	public void testUpdate() {
+		setRestResponse("updateRecordFromJson", OK_RESPONSE);
+		ClientDataRecordSpy convertedRecord = new ClientDataRecordSpy();
+		setConvertedDataToReturn(convertedRecord);
+
+		ClientDataRecord updatedRecord = asyncDataClient
+				.update(RECORD_TYPE, RECORD_ID, dataRecordGroup).join();
+
+		dataToJsonConverterFactory.MCR.assertParameters("factorUsingConvertible", 0,
+				dataRecordGroup);
+		asyncRestClient.MCR.assertParameters("updateRecordFromJson", 0, RECORD_TYPE, RECORD_ID,
+				"converted json");
+		assertSame(updatedRecord, convertedRecord);
+	}
+
+	@Test
+	public void testUpdateErrorCodeOnRestClientKeepsResponseCode() {
+		setRestResponse("updateRecordFromJson", INTERNAL_ERROR_RESPONSE);
+
+		CompletableFuture<ClientDataRecord> future = asyncDataClient.update(RECORD_TYPE,
+				RECORD_ID, dataRecordGroup);
+
+		DataClientException exception = assertFailedWithDataClientExceptionAndMessage(future,
+				"Could not update record of type: " + RECORD_TYPE + " and id: " + RECORD_ID
+						+ ". Returned error was: ErrorMessageFromRest");
+		assertEquals(exception.getResponseCode().get(), Integer.valueOf(500));
+	}
+
+	@Test
+	public void testDelete() {
+		setRestResponse("deleteRecord", OK_RESPONSE);
+
+		Object result = asyncDataClient.delete(RECORD_TYPE, RECORD_ID).join();
+
+		asyncRestClient.MCR.assertParameters("deleteRecord", 0, RECORD_TYPE, RECORD_ID);
+		assertNull(result);
+		jsonToDataFactory.MCR.assertMethodNotCalled("factorUsingString");
+	}
+
+	@Test
+	public void testDeleteErrorCodeOnRestClient() {
+		setRestResponse("deleteRecord", INTERNAL_ERROR_RESPONSE);
+
+		CompletableFuture<Void> future = asyncDataClient.delete(RECORD_TYPE, RECORD_ID);
+
+		assertFailedWithDataClientExceptionAndMessage(future,
+				"Could not delete record of type: " + RECORD_TYPE + " and id: " + RECORD_ID
+						+ ". Returned error was: ErrorMessageFromRest");
+	}
+
+	@Test
+	public void testReadIncomingLinks() {
+		setRestResponse("readIncomingLinksAsJson", OK_RESPONSE);
+		ClientDataListSpy convertedList = new ClientDataListSpy();
+		setConvertedDataToReturn(convertedList);
+
+		ClientDataList links = asyncDataClient.readIncomingLinks(RECORD_TYPE, RECORD_ID).join();
+
+		asyncRestClient.MCR.assertParameters("readIncomingLinksAsJson", 0, RECORD_TYPE,
+				RECORD_ID);
+		assertSame(links, convertedList);
+	}
+
+	@Test
+	public void testReadIncomingLinksErrorCodeOnRestClient() {
+		setRestResponse("readIncomingLinksAsJson", INTERNAL_ERROR_RESPONSE);
+
+		CompletableFuture<ClientDataList> future = asyncDataClient.readIncomingLinks(RECORD_TYPE,
+				RECORD_ID);
+
+		assertFailedWithDataClientExceptionAndMessage(future,
+				"Could not read incomming links for type: " + RECORD_TYPE + " and id: "
+						+ RECORD_ID + ". Returned error was: ErrorMessageFromRest");
+	}
+
+	class ExecutorSpy implements Executor {
+		public MethodCallRecorder MCR = new MethodCallRecorder();
+
+		@Override
+		public void execute(Runnable command) {
+			MCR.addCall("command", command);
+			command.run();
+		}
+	}
+}
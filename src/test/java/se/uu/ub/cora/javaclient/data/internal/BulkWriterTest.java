@@ -0,0 +1,341 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.clientdata.converter.ClientDataToJsonConverterProvider;
+import se.uu.ub.cora.clientdata.spies.ClientDataRecordGroupSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterFactoryCreatorSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterFactorySpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterSpy;
+import se.uu.ub.cora.javaclient.data.BulkWriteOutcome;
+import se.uu.ub.cora.javaclient.data.BulkWriter;
+import se.uu.ub.cora.javaclient.data.BulkWriterSettings;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.RestClientSpy;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+public class BulkWriterTest {
+	private static final String RECORD_TYPE = "someRecordType";
+	private static final String RECORD_ID = "someRecordId";
+	private static final RestResponse CREATED_RESPONSE = new RestResponse(201, "some json",
+			Optional.empty(), Optional.of("someNewId"));
+	private static final RestResponse OK_RESPONSE = new RestResponse(200, "some json",
+			Optional.empty(), Optional.empty());
+	private static final RestResponse INTERNAL_ERROR_RESPONSE = new RestResponse(500,
+			"ErrorMessageFromRest", Optional.empty(), Optional.empty());
+	private RestClientSpy restClient;
+	private ClientDataToJsonConverterFactorySpy dataToJsonConverterFactory;
+	private ClientDataRecordGroupSpy dataRecordGroup;
+	private BulkWriterSettings settings;
+	private BulkWriter bulkWriter;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		setUpDataToJsonConverter();
+		restClient = new RestClientSpy();
+		restClient.MRV.setDefaultReturnValuesSupplier("createRecordFromJson",
+				() -> CREATED_RESPONSE);
+		restClient.MRV.setDefaultReturnValuesSupplier("updateRecordFromJson", () -> OK_RESPONSE);
+		restClient.MRV.setDefaultReturnValuesSupplier("deleteRecord", () -> OK_RESPONSE);
+		dataRecordGroup = new ClientDataRecordGroupSpy();
+		settings = new BulkWriterSettings(1, 10, false, Runnable::run);
+		bulkWriter = BulkWriterImp.usingRestClientAndSettings(restClient, settings);
+	}
+
+	private void setUpDataToJsonConverter() {
+		ClientDataToJsonConverterFactoryCreatorSpy dataToJsonFactoryCreator = new ClientDataToJsonConverterFactoryCreatorSpy();
+		ClientDataToJsonConverterProvider
+				.setDataToJsonConverterFactoryCreator(dataToJsonFactoryCreator);
+		dataToJsonConverterFactory = new ClientDataToJsonConverterFactorySpy();
+		dataToJsonFactoryCreator.MRV.setDefaultReturnValuesSupplier("createFactory",
+				() -> dataToJsonConverterFactory);
+		ClientDataToJsonConverterSpy dataToJsonConverter = new ClientDataToJsonConverterSpy();
+		dataToJsonConverter.MRV.setDefaultReturnValuesSupplier("toJson", () -> "converted json");
+		dataToJsonConverterFactory.MRV.setDefaultReturnValuesSupplier("factorUsingConvertible",
+				() -> dataToJsonConverter);
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		BulkWriterImp bulkWriterImp = (BulkWriterImp) bulkWriter;
+
+		assertSame(bulkWriterImp.onlyForTestGetRestClient(), restClient);
+		assertSame(bulkWriterImp.onlyForTestGetSettings(), settings);
+	}
+
+	@Test
+	public void testCreate() {
+		bulkWriter.create(RECORD_TYPE, dataRecordGroup);
+		List<BulkWriteOutcome> outcomes = bulkWriter.finish();
+
+		dataToJsonConverterFactory.MCR.assertParameters("factorUsingConvertible", 0,
+				dataRecordGroup);
+		restClient.MCR.assertParameters("createRecordFromJson", 0, RECORD_TYPE, "converted json");
+		assertEquals(outcomes,
+				List.of(new BulkWriteOutcome(RECORD_TYPE, Optional.of("someNewId"),
+						Optional.empty())));
+		assertTrue(outcomes.get(0).succeeded());
+	}
+
+	@Test
+	public void testUpdate() {
+		bulkWriter.update(RECORD_TYPE, RECORD_ID, dataRecordGroup);
+		List<BulkWriteOutcome> outcomes = bulkWriter.finish();
+
+		restClient.MCR.assertParameters("updateRecordFromJson", 0, RECORD_TYPE, RECORD_ID,
+				"converted json");
+		assertEquals(outcomes, List.of(
+				new BulkWriteOutcome(RECORD_TYPE, Optional.of(RECORD_ID), Optional.empty())));
+	}
+
+	@Test
+	public void testDelete() {
+		bulkWriter.delete(RECORD_TYPE, RECORD_ID);
+		List<BulkWriteOutcome> outcomes = bulkWriter.finish();
+
+		restClient.MCR.assertParameters("deleteRecord", 0, RECORD_TYPE, RECORD_ID);
+		assertEquals(outcomes, List.of(
+				new BulkWriteOutcome(RECORD_TYPE, Optional.of(RECORD_ID), Optional.empty())));
+	}
+
+	@Test
+	public void testCreateErrorResponseIsReportedWithResponseCode() {
+		restClient.MRV.setDefaultReturnValuesSupplier("createRecordFromJson",
+				() -> INTERNAL_ERROR_RESPONSE);
+
+		bulkWriter.create(RECORD_TYPE, dataRecordGroup);
+		BulkWriteOutcome outcome = bulkWriter.finish().get(0);
+
+		assertFalse(outcome.succeeded());
+		assertEquals(outcome.recordId(), Optional.empty());
+		DataClientException error = outcome.error().get();
+		assertEquals(error.getMessage(), "Could not create record of type: " + RECORD_TYPE
+				+ ". Returned error was: ErrorMessageFromRest");
+		assertEquals(error.getResponseCode().get(), Integer.valueOf(500));
+	}
+
+	@Test
+	public void testUpdateErrorResponseIsReportedWithResponseCode() {
+		restClient.MRV.setDefaultReturnValuesSupplier("updateRecordFromJson",
+				() -> INTERNAL_ERROR_RESPONSE);
+
+		bulkWriter.update(RECORD_TYPE, RECORD_ID, dataRecordGroup);
+		BulkWriteOutcome outcome = bulkWriter.finish().get(0);
+
+		assertEquals(outcome.recordId(), Optional.of(RECORD_ID));
+		DataClientException error = outcome.error().get();
+		assertEquals(error.getMessage(), "Could not update record of type: " + RECORD_TYPE
+				+ " and id: " + RECORD_ID + ". Returned error was: ErrorMessageFromRest");
+		assertEquals(error.getResponseCode().get(), Integer.valueOf(500));
+	}
+
+	@Test
+	public void testDeleteErrorResponseIsReportedWithResponseCode() {
+		restClient.MRV.setDefaultReturnValuesSupplier("deleteRecord",
+				() -> INTERNAL_ERROR_RESPONSE);
+
+		bulkWriter.delete(RECORD_TYPE, RECORD_ID);
+		DataClientException error = bulkWriter.finish().get(0).error().get();
+
+		assertEquals(error.getMessage(), "Could not delete record of type: " + RECORD_TYPE
+				+ " and id: " + RECORD_ID + ". Returned error was: ErrorMessageFromRest");
+		assertEquals(error.getResponseCode().get(), Integer.valueOf(500));
+	}
+
+	@Test
+	public void testConversionErrorIsReported() {
+		dataToJsonConverterFactory.MRV.setAlwaysThrowException("factorUsingConvertible",
+				new RuntimeException("someErrorConversionToJson"));
+
+		bulkWriter.create(RECORD_TYPE, dataRecordGroup);
+		DataClientException error = bulkWriter.finish().get(0).error().get();
+
+		assertEquals(error.getMessage(), "Could not create record of type: " + RECORD_TYPE
+				+ ". Returned error was: someErrorConversionToJson");
+		assertEquals(error.getResponseCode(), Optional.empty());
+		restClient.MCR.assertMethodNotCalled("createRecordFromJson");
+	}
+
+	@Test
+	public void testDataClientExceptionFromRestClientIsReportedAsIs() {
+		DataClientException exception = DataClientException.withMessage("someError");
+		restClient.MRV.setAlwaysThrowException("deleteRecord", exception);
+
+		bulkWriter.delete(RECORD_TYPE, RECORD_ID);
+
+		assertSame(bulkWriter.finish().get(0).error().get(), exception);
+	}
+
+	@Test
+	public void testOutcomesInAcceptedOrder() {
+		bulkWriter = BulkWriterImp.usingRestClientAndSettings(restClient,
+				new BulkWriterSettings(4, 10, false, Runnable::run));
+
+		bulkWriter.create(RECORD_TYPE, dataRecordGroup);
+		bulkWriter.update(RECORD_TYPE, "id1", dataRecordGroup);
+		bulkWriter.delete(RECORD_TYPE, "id2");
+		List<BulkWriteOutcome> outcomes = bulkWriter.finish();
+
+		assertEquals(outcomes.get(0).recordId(), Optional.of("someNewId"));
+		assertEquals(outcomes.get(1).recordId(), Optional.of("id1"));
+		assertEquals(outcomes.get(2).recordId(), Optional.of("id2"));
+	}
+
+	@Test
+	public void testNoMoreRecordsAcceptedAfterFinish() {
+		bulkWriter.finish();
+		try {
+			bulkWriter.delete(RECORD_TYPE, RECORD_ID);
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not accept record of type: " + RECORD_TYPE
+					+ ". The writer is finished.");
+		}
+	}
+
+	@Test
+	public void testRejectWhenQueueIsFull() {
+		BlockingRestClient blockingRestClient = new BlockingRestClient();
+		bulkWriter = BulkWriterImp.usingRestClientAndSettings(blockingRestClient,
+				new BulkWriterSettings(1, 1, true, Runnable::run));
+		bulkWriter.delete(RECORD_TYPE, "id1");
+		try {
+			bulkWriter.delete(RECORD_TYPE, "id2");
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not accept record of type: " + RECORD_TYPE
+					+ ". The queue of 1 records is full.");
+		}
+		blockingRestClient.release.countDown();
+
+		assertEquals(bulkWriter.finish().size(), 1);
+	}
+
+	@Test
+	public void testBlockProducerWhenQueueIsFull() throws Exception {
+		BlockingRestClient blockingRestClient = new BlockingRestClient();
+		bulkWriter = BulkWriterImp.usingRestClientAndSettings(blockingRestClient,
+				new BulkWriterSettings(1, 1, false, Runnable::run));
+		bulkWriter.delete(RECORD_TYPE, "id1");
+		CountDownLatch secondAccepted = new CountDownLatch(1);
+
+		Thread.ofVirtual().start(() -> {
+			bulkWriter.delete(RECORD_TYPE, "id2");
+			secondAccepted.countDown();
+		});
+
+		assertFalse(secondAccepted.await(100, TimeUnit.MILLISECONDS));
+		blockingRestClient.release.countDown();
+		assertTrue(secondAccepted.await(5, TimeUnit.SECONDS));
+		assertEquals(bulkWriter.finish().size(), 2);
+	}
+
+	@Test
+	public void testProducerWaitingForRoomWhenFinishedIsRejected() throws Exception {
+		BlockingRestClient blockingRestClient = new BlockingRestClient();
+		bulkWriter = BulkWriterImp.usingRestClientAndSettings(blockingRestClient,
+				new BulkWriterSettings(1, 1, false, Runnable::run));
+		bulkWriter.delete(RECORD_TYPE, "id1");
+		CompletableFuture<Void> waitingProducer = CompletableFuture.runAsync(
+				() -> bulkWriter.delete(RECORD_TYPE, "id2"),
+				Executors.newVirtualThreadPerTaskExecutor());
+		Thread.sleep(100);
+
+		CompletableFuture<List<BulkWriteOutcome>> finish = CompletableFuture
+				.supplyAsync(bulkWriter::finish, Executors.newVirtualThreadPerTaskExecutor());
+		Thread.sleep(100);
+		blockingRestClient.release.countDown();
+
+		assertEquals(finish.get(5, TimeUnit.SECONDS).size(), 1);
+		try {
+			waitingProducer.get(5, TimeUnit.SECONDS);
+			fail("Should throw Exception");
+		} catch (ExecutionException e) {
+			assertEquals(e.getCause().getMessage(), "Could not accept record of type: "
+					+ RECORD_TYPE + ". The writer is finished.");
+		}
+		assertEquals(blockingRestClient.numberOfDeletes.get(), 1);
+	}
+
+	@Test
+	public void testNeverMoreThanMaxInFlightRequestsAtTheSameTime() {
+		CountingRestClient countingRestClient = new CountingRestClient();
+		bulkWriter = BulkWriterImp.usingRestClientAndSettings(countingRestClient,
+				new BulkWriterSettings(3, 100, false, Runnable::run));
+
+		for (int i = 0; i < 30; i++) {
+			bulkWriter.delete(RECORD_TYPE, "id" + i);
+		}
+		List<BulkWriteOutcome> outcomes = bulkWriter.finish();
+
+		assertEquals(outcomes.size(), 30);
+		assertTrue(countingRestClient.maxSeenInFlight.get() <= 3);
+	}
+
+	private class BlockingRestClient extends RestClientSpy {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger numberOfDeletes = new AtomicInteger();
+
+		@Override
+		public RestResponse deleteRecord(String recordType, String recordId) {
+			numberOfDeletes.incrementAndGet();
+			try {
+				release.await();
+			} catch (InterruptedException _) {
+				Thread.currentThread().interrupt();
+			}
+			return OK_RESPONSE;
+		}
+	}
+
+	private class CountingRestClient extends RestClientSpy {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxSeenInFlight = new AtomicInteger();
+
+		@Override
+		public RestResponse deleteRecord(String recordType, String recordId) {
+			maxSeenInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException _) {
+				Thread.currentThread().interrupt();
+			}
+			inFlight.decrementAndGet();
+			return OK_RESPONSE;
+		}
+	}
+}
@@ -23,17 +23,30 @@ import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import se.uu.ub.cora.clientdata.ClientConvertible;
+import se.uu.ub.cora.clientdata.ClientData;
 import se.uu.ub.cora.clientdata.ClientDataList;
+import se.uu.ub.cora.clientdata.ClientDataProvider;
 import se.uu.ub.cora.clientdata.ClientDataRecord;
 import se.uu.ub.cora.clientdata.ClientDataRecordGroup;
 import se.uu.ub.cora.clientdata.converter.ClientDataToJsonConverterProvider;
 import se.uu.ub.cora.clientdata.converter.JsonToClientDataConverterProvider;
+import se.uu.ub.cora.clientdata.spies.ClientDataAtomicSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataFactorySpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataGroupSpy;
 import se.uu.ub.cora.clientdata.spies.ClientDataListSpy;
 import se.uu.ub.cora.clientdata.spies.ClientDataRecordGroupSpy;
 import se.uu.ub.cora.clientdata.spies.ClientDataRecordSpy;
@@ -42,6 +55,7 @@ import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterFactorySpy;
 import se.uu.ub.cora.clientdata.spies.ClientDataToJsonConverterSpy;
 import se.uu.ub.cora.clientdata.spies.JsonToClientDataConverterFactorySpy;
 import se.uu.ub.cora.clientdata.spies.JsonToClientDataConverterSpy;
+import se.uu.ub.cora.javaclient.ReadManyResult;
 import se.uu.ub.cora.javaclient.data.DataClientException;
 import se.uu.ub.cora.javaclient.rest.RestClient;
 import se.uu.ub.cora.javaclient.rest.RestClientSpy;
@@ -62,9 +76,12 @@ public class DataClientTest {
 	private ClientDataRecordSpy clientDataRecordSpy;
 	private JsonToClientDataConverterSpy jsonToDataConverter;
 	private ClientDataToJsonConverterFactorySpy dataToJsonConverterFactoryFromProvider;
+	private ClientDataFactorySpy dataFactory;
 
 	@BeforeMethod
 	public void beforeMethod() {
+		dataFactory = new ClientDataFactorySpy();
+		ClientDataProvider.onlyForTestSetDataFactory(dataFactory);
 		setUpDataToJsonConverter();
 		setUpJsonToDataConverter();
 		setUpConverterToReturnDataRecord();
@@ -231,6 +248,7 @@ public class DataClientTest {
 			dataClient.read(RECORD_TYPE, RECORD_ID);
 			fail("Should throw Exception");
 		} catch (Exception e) {
+			assertEquals(((DataClientException) e).getResponseCode().get(), 500);
 			assertEquals(e.getMessage(),
 					"Could not read record of type: " + RECORD_TYPE + " and id: " + RECORD_ID
 							+ ". Returned error was: " + INTERNAL_ERROR_RESPONSE.responseText());
@@ -253,6 +271,217 @@ public class DataClientTest {
 		}
 	}
 
+	@Test
+	public void testReadMany() throws Exception {
+		restClient.MRV.setSpecificReturnValuesSupplier("readRecordAsJson",
+				() -> INTERNAL_ERROR_RESPONSE, RECORD_TYPE, "id2");
+
+		ReadManyResult<ClientDataRecord> result = dataClient.readMany(RECORD_TYPE,
+				List.of("id1", "id2", "id3"), 1);
+
+		restClient.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 3);
+		restClient.MCR.assertParameters("readRecordAsJson", 0, RECORD_TYPE, "id1");
+		restClient.MCR.assertParameters("readRecordAsJson", 1, RECORD_TYPE, "id2");
+		restClient.MCR.assertParameters("readRecordAsJson", 2, RECORD_TYPE, "id3");
+		assertEquals(new ArrayList<>(result.results().keySet()), List.of("id1", "id3"));
+		assertSame(result.results().get("id1"), clientDataRecordSpy);
+		assertEquals(result.failures().keySet(), Set.of("id2"));
+		assertEquals(result.failures().get("id2").getMessage(),
+				"Could not read record of type: " + RECORD_TYPE + " and id: id2. "
+						+ "Returned error was: " + INTERNAL_ERROR_RESPONSE.responseText());
+	}
+
+	@Test
+	public void testReadListAsStream() throws Exception {
+		ClientDataListSpy page = createPageWithRecordsAndToNoAndTotal(2, "2", "2");
+		serUpDataTypetoReturnForAConverter(page);
+
+		List<ClientDataRecord> records;
+		try (Stream<ClientDataRecord> stream = dataClient.readListAsStream(RECORD_TYPE, 10)) {
+			records = stream.collect(Collectors.toList());
+		}
+
+		assertEquals(records, page.getDataList());
+		ClientDataGroupSpy pageFilter = assertPageFilterCreatedWithFromNoAndToNo("1", "10");
+		pageFilter.MCR.assertNumberOfCallsToMethod("addChild", 2);
+		dataToJsonConverterFactoryFromProvider.MCR.assertParameters("factorUsingConvertible", 0,
+				pageFilter);
+		restClient.MCR.assertNumberOfCallsToMethod("readRecordListWithFilterAsJson", 1);
+		restClient.MCR.assertParameters("readRecordListWithFilterAsJson", 0, RECORD_TYPE,
+				"converted json");
+	}
+
+	private ClientDataGroupSpy assertPageFilterCreatedWithFromNoAndToNo(String fromNo,
+			String toNo) {
+		dataFactory.MCR.assertParameters("factorGroupUsingNameInData", 0, "filter");
+		ClientDataGroupSpy pageFilter = (ClientDataGroupSpy) dataFactory.MCR
+				.getReturnValue("factorGroupUsingNameInData", 0);
+		dataFactory.MCR.assertParameters("factorAtomicUsingNameInDataAndValue", 0, "fromNo",
+				fromNo);
+		dataFactory.MCR.assertParameters("factorAtomicUsingNameInDataAndValue", 1, "toNo", toNo);
+		pageFilter.MCR.assertParameters("addChild", 0,
+				dataFactory.MCR.getReturnValue("factorAtomicUsingNameInDataAndValue", 0));
+		pageFilter.MCR.assertParameters("addChild", 1,
+				dataFactory.MCR.getReturnValue("factorAtomicUsingNameInDataAndValue", 1));
+		return pageFilter;
+	}
+
+	private ClientDataListSpy createPageWithRecordsAndToNoAndTotal(int numberOfRecords,
+			String toNo, String total) {
+		ClientDataListSpy page = new ClientDataListSpy();
+		List<ClientData> dataList = new ArrayList<>();
+		for (int i = 0; i < numberOfRecords; i++) {
+			dataList.add(new ClientDataRecordSpy());
+		}
+		page.MRV.setDefaultReturnValuesSupplier("getDataList", () -> dataList);
+		page.MRV.setDefaultReturnValuesSupplier("getToNo", () -> toNo);
+		page.MRV.setDefaultReturnValuesSupplier("getTotalNumberOfTypeInStorage", () -> total);
+		return page;
+	}
+
+	@Test
+	public void testReadListWithFilterAsStreamAddsFromNoAndToNoToCopyOfFilter()
+			throws Exception {
+		serUpDataTypetoReturnForAConverter(createPageWithRecordsAndToNoAndTotal(1, "5", "5"));
+		ClientDataGroupSpy filter = new ClientDataGroupSpy();
+		ClientDataGroupSpy part = createChildSpyWithNameInData("part");
+		ClientDataAtomicSpy oldFromNo = new ClientDataAtomicSpy();
+		oldFromNo.MRV.setDefaultReturnValuesSupplier("getNameInData", () -> "fromNo");
+		ClientDataAtomicSpy oldToNo = new ClientDataAtomicSpy();
+		oldToNo.MRV.setDefaultReturnValuesSupplier("getNameInData", () -> "toNo");
+		filter.MRV.setDefaultReturnValuesSupplier("getChildren",
+				() -> List.of(oldFromNo, part, oldToNo));
+
+		long count = dataClient.readListWithFilterAsStream(RECORD_TYPE, filter, 5).count();
+
+		assertEquals(count, 1L);
+		ClientDataGroupSpy pageFilter = assertPageFilterCreatedWithFromNoAndToNo("1", "5");
+		pageFilter.MCR.assertNumberOfCallsToMethod("addChild", 3);
+		pageFilter.MCR.assertParameters("addChild", 2, part);
+		filter.MCR.assertMethodNotCalled("addChild");
+		dataToJsonConverterFactoryFromProvider.MCR.assertParameters("factorUsingConvertible", 0,
+				pageFilter);
+		restClient.MCR.assertParameters("readRecordListWithFilterAsJson", 0, RECORD_TYPE,
+				"converted json");
+	}
+
+	private ClientDataGroupSpy createChildSpyWithNameInData(String nameInData) {
+		ClientDataGroupSpy child = new ClientDataGroupSpy();
+		child.MRV.setDefaultReturnValuesSupplier("getNameInData", () -> nameInData);
+		return child;
+	}
+
+	@Test
+	public void testReadListAsStreamErrorCodeOnRestClient() throws Exception {
+		restClient.MRV.setDefaultReturnValuesSupplier("readRecordListWithFilterAsJson",
+				() -> INTERNAL_ERROR_RESPONSE);
+		try {
+			dataClient.readListAsStream(RECORD_TYPE, 10).count();
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not list records of type: " + RECORD_TYPE
+					+ ". Returned error was: " + INTERNAL_ERROR_RESPONSE.responseText());
+		}
+	}
+
+	@Test
+	public void testReadListIncrementally() throws Exception {
+		setUpConverterToReturnDataRecord();
+		setUpRestClientToReturnStreamOfRecordList("readRecordListAsJsonStream");
+
+		List<ClientDataRecord> records;
+		try (Stream<ClientDataRecord> stream = dataClient.readListIncrementally(RECORD_TYPE)) {
+			records = stream.collect(Collectors.toList());
+		}
+
+		restClient.MCR.assertParameters("readRecordListAsJsonStream", 0, RECORD_TYPE);
+		jsonToDataFactory.MCR.assertNumberOfCallsToMethod("factorUsingString", 2);
+		jsonToDataFactory.MCR.assertParameters("factorUsingString", 0, "{\"record\":\"1\"}");
+		jsonToDataFactory.MCR.assertParameters("factorUsingString", 1, "{\"record\":\"2\"}");
+		assertEquals(records, List.of(clientDataRecordSpy, clientDataRecordSpy));
+	}
+
+	private void setUpRestClientToReturnStreamOfRecordList(String methodName) {
+		String json = "{\"dataList\":{\"fromNo\":\"1\",\"data\":[{\"record\":\"1\"},"
+				+ "{\"record\":\"2\"}],\"totalNo\":\"2\",\"containDataOfType\":\"mix\",\"toNo\":\"2\"}}";
+		restClient.MRV.setDefaultReturnValuesSupplier(methodName,
+				() -> new RestResponse(200, "", Optional.of(new ByteArrayInputStream(
+						json.getBytes(StandardCharsets.UTF_8))), Optional.empty()));
+	}
+
+	@Test
+	public void testReadListIncrementallyErrorCodeOnRestClient() throws Exception {
+		restClient.MRV.setDefaultReturnValuesSupplier("readRecordListAsJsonStream",
+				() -> INTERNAL_ERROR_RESPONSE);
+		try {
+			dataClient.readListIncrementally(RECORD_TYPE);
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not list records of type: " + RECORD_TYPE
+					+ ". Returned error was: " + INTERNAL_ERROR_RESPONSE.responseText());
+		}
+	}
+
+	@Test
+	public void testReadListIncrementallyExceptionOnConvertToData() throws Exception {
+		setUpRestClientToReturnStreamOfRecordList("readRecordListAsJsonStream");
+		jsonToDataFactory.MRV.setAlwaysThrowException("factorUsingString",
+				new RuntimeException("someErrorConversionToData"));
+
+		try (Stream<ClientDataRecord> stream = dataClient.readListIncrementally(RECORD_TYPE)) {
+			stream.findFirst();
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not list records of type: " + RECORD_TYPE
+					+ ". Returned error was: someErrorConversionToData");
+		}
+	}
+
+	@Test
+	public void testSearchIncrementally() throws Exception {
+		setUpConverterToReturnDataRecord();
+		setUpRestClientToReturnStreamOfRecordList("searchRecordWithSearchCriteriaAsJsonStream");
+		ClientDataGroupSpy searchData = new ClientDataGroupSpy();
+
+		long count;
+		try (Stream<ClientDataRecord> stream = dataClient.searchIncrementally("someSearchId",
+				searchData)) {
+			count = stream.count();
+		}
+
+		assertEquals(count, 2L);
+		dataToJsonConverterFactoryFromProvider.MCR.assertParameters("factorUsingConvertible", 0,
+				searchData);
+		restClient.MCR.assertParameters("searchRecordWithSearchCriteriaAsJsonStream", 0,
+				"someSearchId", "converted json");
+	}
+
+	@Test
+	public void testSearchIncrementallyErrorCodeOnRestClient() throws Exception {
+		restClient.MRV.setDefaultReturnValuesSupplier("searchRecordWithSearchCriteriaAsJsonStream",
+				() -> INTERNAL_ERROR_RESPONSE);
+		try {
+			dataClient.searchIncrementally("someSearchId", new ClientDataGroupSpy());
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not search using searchId: someSearchId. "
+					+ "Returned error was: " + INTERNAL_ERROR_RESPONSE.responseText());
+		}
+	}
+
+	@Test
+	public void testSearchIncrementallyExceptionOnConvertToJson() throws Exception {
+		dataToJsonConverterFactoryFromProvider.MRV.setAlwaysThrowException("factorUsingConvertible",
+				new RuntimeException("someErrorConversionToJson"));
+		try {
+			dataClient.searchIncrementally("someSearchId", new ClientDataGroupSpy());
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not search using searchId: someSearchId. "
+					+ "Returned error was: someErrorConversionToJson");
+		}
+	}
+
 	@Test
 	public void testReadList() throws Exception {
 		setUpDataListToReturnForConverter();
@@ -438,4 +667,13 @@ public class DataClientTest {
 		}
 	}
 
+	@Test
+	public void testWithDeadline() {
+		DataClientImp dataClientWithDeadline = (DataClientImp) dataClient
+				.withDeadline(Duration.ofSeconds(5));
+
+		restClient.MCR.assertParameters("withDeadline", 0, Duration.ofSeconds(5));
+		restClient.MCR.assertReturn("withDeadline", 0,
+				dataClientWithDeadline.onlyForTestGetRestClient());
+	}
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.clientdata.ClientData;
+import se.uu.ub.cora.clientdata.ClientDataList;
+import se.uu.ub.cora.clientdata.spies.ClientDataListSpy;
+import se.uu.ub.cora.clientdata.spies.ClientDataRecordSpy;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.data.internal.PagedRecordIterator.PageReader;
+
+public class PagedRecordIteratorTest {
+	private static final int TOTAL = 5;
+	private List<long[]> readPages;
+	private List<ClientData> allRecords;
+	private List<Runnable> prefetchTasks;
+	private Executor firstTaskRunDirectlyOtherTasksDeferred;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		readPages = new ArrayList<>();
+		allRecords = new ArrayList<>();
+		for (int i = 0; i < TOTAL; i++) {
+			allRecords.add(new ClientDataRecordSpy());
+		}
+		prefetchTasks = new ArrayList<>();
+		AtomicInteger executeCalls = new AtomicInteger();
+		firstTaskRunDirectlyOtherTasksDeferred = task -> {
+			if (executeCalls.getAndIncrement() == 0) {
+				task.run();
+			} else {
+				prefetchTasks.add(task);
+			}
+		};
+	}
+
+	private PageReader createPageReader() {
+		return (fromNo, toNo) -> {
+			readPages.add(new long[] { fromNo, toNo });
+			return createPage(fromNo, Math.min(toNo, TOTAL));
+		};
+	}
+
+	private ClientDataList createPage(long fromNo, long toNo) {
+		ClientDataListSpy page = new ClientDataListSpy();
+		List<ClientData> records = new ArrayList<>();
+		if (fromNo <= TOTAL) {
+			records.addAll(allRecords.subList((int) fromNo - 1, (int) toNo));
+		}
+		page.MRV.setDefaultReturnValuesSupplier("getDataList", () -> records);
+		page.MRV.setDefaultReturnValuesSupplier("getToNo", () -> String.valueOf(toNo));
+		page.MRV.setDefaultReturnValuesSupplier("getTotalNumberOfTypeInStorage",
+				() -> String.valueOf(TOTAL));
+		return page;
+	}
+
+	private void runPrefetchTasks() {
+		List<Runnable> tasks = new ArrayList<>(prefetchTasks);
+		prefetchTasks.clear();
+		tasks.forEach(Runnable::run);
+	}
+
+	@Test
+	public void testNothingIsReadBeforeIterationStarts() {
+		PagedRecordIterator.usingPageReaderAndPageSizeAndPrefetchExecutor(createPageReader(), 2,
+				Runnable::run);
+
+		assertEquals(readPages.size(), 0);
+	}
+
+	@Test
+	public void testAllRecordsAreReturnedInOrderUsingPages() {
+		PagedRecordIterator iterator = PagedRecordIterator
+				.usingPageReaderAndPageSizeAndPrefetchExecutor(createPageReader(), 2,
+						Runnable::run);
+
+		List<ClientData> records = new ArrayList<>();
+		iterator.forEachRemaining(records::add);
+
+		assertEquals(records, allRecords);
+		assertEquals(readPages.size(), 3);
+		assertPageRead(0, 1, 2);
+		assertPageRead(1, 3, 4);
+		assertPageRead(2, 5, 6);
+	}
+
+	private void assertPageRead(int readNo, long fromNo, long toNo) {
+		assertEquals(readPages.get(readNo)[0], fromNo);
+		assertEquals(readPages.get(readNo)[1], toNo);
+	}
+
+	@Test
+	public void testNextPageIsPrefetchedWhenCurrentPageIsReceived() {
+		PagedRecordIterator iterator = PagedRecordIterator
+				.usingPageReaderAndPageSizeAndPrefetchExecutor(createPageReader(), 2,
+						firstTaskRunDirectlyOtherTasksDeferred);
+
+		assertTrue(iterator.hasNext());
+
+		assertEquals(readPages.size(), 1);
+		assertEquals(prefetchTasks.size(), 1);
+		runPrefetchTasks();
+		assertPageRead(1, 3, 4);
+	}
+
+	@Test
+	public void testIterationEndsOnEmptyPage() {
+		PageReader emptyPageReader = (fromNo, toNo) -> {
+			readPages.add(new long[] { fromNo, toNo });
+			return createPage(TOTAL + 1, TOTAL);
+		};
+		PagedRecordIterator iterator = PagedRecordIterator
+				.usingPageReaderAndPageSizeAndPrefetchExecutor(emptyPageReader, 2, Runnable::run);
+
+		assertFalse(iterator.hasNext());
+		assertEquals(readPages.size(), 1);
+	}
+
+	@Test(expectedExceptions = NoSuchElementException.class)
+	public void testNextAfterLastRecord() {
+		PagedRecordIterator iterator = PagedRecordIterator
+				.usingPageReaderAndPageSizeAndPrefetchExecutor(createPageReader(), 10,
+						Runnable::run);
+		iterator.forEachRemaining(_ -> {
+		});
+
+		iterator.next();
+	}
+
+	@Test
+	public void testErrorReadingPageIsThrownToConsumer() {
+		DataClientException exception = DataClientException.withMessage("someError");
+		PagedRecordIterator iterator = PagedRecordIterator
+				.usingPageReaderAndPageSizeAndPrefetchExecutor((_, _) -> {
+					throw exception;
+				}, 2, Runnable::run);
+		try {
+			iterator.hasNext();
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertSame(e, exception);
+		}
+	}
+
+	@Test
+	public void testCloseStopsIterationAndDoesNotReadMorePages() {
+		PagedRecordIterator iterator = PagedRecordIterator
+				.usingPageReaderAndPageSizeAndPrefetchExecutor(createPageReader(), 2,
+						firstTaskRunDirectlyOtherTasksDeferred);
+		iterator.hasNext();
+
+		iterator.close();
+		runPrefetchTasks();
+
+		assertFalse(iterator.hasNext());
+		assertEquals(readPages.size(), 1);
+	}
+
+	@Test
+	public void testPageSizeLessThanOne() {
+		try {
+			PagedRecordIterator.usingPageReaderAndPageSizeAndPrefetchExecutor(createPageReader(),
+					0, Runnable::run);
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "pageSize must be at least 1, was: 0");
+		}
+	}
+}
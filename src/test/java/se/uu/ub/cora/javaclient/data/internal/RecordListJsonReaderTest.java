@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.data.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+public class RecordListJsonReaderTest {
+	private static final String RECORD_1 = "{\"record\":{\"data\":{\"name\":\"someName\","
+			+ "\"children\":[{\"name\":\"id\",\"value\":\"some}]\\\"id\"}]}}}";
+	private static final String RECORD_2 = "{\"record\":{\"data\":{\"name\":\"other\"}}}";
+
+	@Test
+	public void testReadRecords() {
+		RecordListJsonReader reader = createReaderUsingJson(createListJson(RECORD_1 + ", "
+				+ RECORD_2));
+
+		List<String> records = readAll(reader);
+
+		assertEquals(records, List.of(RECORD_1, RECORD_2));
+	}
+
+	private RecordListJsonReader createReaderUsingJson(String json) {
+		return RecordListJsonReader.usingInputStream(createInputStream(json));
+	}
+
+	private ByteArrayInputStream createInputStream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String createListJson(String data) {
+		return "{\"dataList\":{\"fromNo\":\"1\",\"data\":[" + data
+				+ "],\"totalNo\":\"2\",\"containDataOfType\":\"mix\",\"toNo\":\"2\"}}";
+	}
+
+	private List<String> readAll(RecordListJsonReader reader) {
+		List<String> records = new ArrayList<>();
+		reader.forEachRemaining(records::add);
+		return records;
+	}
+
+	@Test
+	public void testReadRecordsWithWhitespaceAndDataNotFirstInDataList() {
+		String json = "{\n \"dataList\" : {\n  \"totalNo\" : \"1\",\n  \"data\" : [\n   " + RECORD_2
+				+ "\n  ]\n }\n}";
+
+		List<String> records = readAll(createReaderUsingJson(json));
+
+		assertEquals(records, List.of(RECORD_2));
+	}
+
+	@Test
+	public void testEmptyDataArray() {
+		RecordListJsonReader reader = createReaderUsingJson(createListJson(""));
+
+		assertFalse(reader.hasNext());
+	}
+
+	@Test(expectedExceptions = NoSuchElementException.class)
+	public void testNextWhenNoMoreRecords() {
+		RecordListJsonReader reader = createReaderUsingJson(createListJson(""));
+
+		reader.next();
+	}
+
+	@Test
+	public void testHasNextDoesNotReadMoreThanOneRecord() {
+		RecordListJsonReader reader = createReaderUsingJson(createListJson(RECORD_1 + ","
+				+ RECORD_2));
+
+		assertTrue(reader.hasNext());
+		assertTrue(reader.hasNext());
+		assertEquals(reader.next(), RECORD_1);
+		assertEquals(reader.next(), RECORD_2);
+		assertFalse(reader.hasNext());
+	}
+
+	@Test
+	public void testNoDataArray() {
+		RecordListJsonReader reader = createReaderUsingJson("{\"dataList\":{\"totalNo\":\"0\"}}");
+
+		assertParseErrorOnHasNext(reader, "no data array found in dataList");
+	}
+
+	private void assertParseErrorOnHasNext(RecordListJsonReader reader, String message) {
+		try {
+			reader.hasNext();
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not read record list json: " + message);
+		}
+	}
+
+	@Test
+	public void testDataKeyInsideRecordIsNotUsedAsDataArray() {
+		RecordListJsonReader reader = createReaderUsingJson(
+				"{\"dataList\":{\"other\":{\"data\":[\"notThis\"]}}}");
+
+		assertParseErrorOnHasNext(reader, "no data array found in dataList");
+	}
+
+	@Test
+	public void testUnexpectedEndOfJson() {
+		RecordListJsonReader reader = createReaderUsingJson(
+				"{\"dataList\":{\"data\":[{\"record\":{");
+
+		assertParseErrorOnHasNext(reader, "unexpected end of json");
+	}
+
+	@Test
+	public void testUnexpectedCharacterInDataArray() {
+		RecordListJsonReader reader = createReaderUsingJson(createListJson("\"text\""));
+
+		assertParseErrorOnHasNext(reader, "expected start of record but found: \"");
+	}
+
+	@Test
+	public void testIOExceptionFromStream() {
+		InputStream failingStream = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("someIOError");
+			}
+		};
+		RecordListJsonReader reader = RecordListJsonReader.usingInputStream(failingStream);
+
+		assertParseErrorOnHasNext(reader, "someIOError");
+	}
+
+	@Test
+	public void testCloseClosesStreamAndStopsReading() {
+		InputStreamSpy inputStream = new InputStreamSpy(createListJson(RECORD_1));
+		RecordListJsonReader reader = RecordListJsonReader.usingInputStream(inputStream);
+
+		reader.close();
+
+		assertTrue(inputStream.closed);
+		assertFalse(reader.hasNext());
+	}
+
+	@Test
+	public void testStreamIsClosedWhenAllRecordsRead() {
+		InputStreamSpy inputStream = new InputStreamSpy(createListJson(RECORD_1));
+		RecordListJsonReader reader = RecordListJsonReader.usingInputStream(inputStream);
+
+		readAll(reader);
+
+		assertTrue(inputStream.closed);
+	}
+
+	@Test
+	public void testRecordsAreReadIncrementally() {
+		InputStreamSpy inputStream = new InputStreamSpy(
+				createListJson(RECORD_1 + "," + "x".repeat(100_000)));
+		RecordListJsonReader reader = RecordListJsonReader.usingInputStream(inputStream);
+
+		assertEquals(reader.next(), RECORD_1);
+
+		assertTrue(inputStream.bytesRead < 20_000);
+	}
+
+	class InputStreamSpy extends ByteArrayInputStream {
+		boolean closed = false;
+		int bytesRead = 0;
+
+		InputStreamSpy(String json) {
+			super(json.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) {
+			int read = super.read(b, off, len);
+			bytesRead += Math.max(read, 0);
+			return read;
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+}
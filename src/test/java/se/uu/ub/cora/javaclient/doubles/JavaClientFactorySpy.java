@@ -19,17 +19,27 @@
  */
 package se.uu.ub.cora.javaclient.doubles;
 
+import java.util.concurrent.Executor;
+
 import se.uu.ub.cora.javaclient.AppTokenCredentials;
 import se.uu.ub.cora.javaclient.AuthTokenCredentials;
 import se.uu.ub.cora.javaclient.JavaClientAppTokenCredentials;
 import se.uu.ub.cora.javaclient.JavaClientAuthTokenCredentials;
 import se.uu.ub.cora.javaclient.JavaClientFactory;
 import se.uu.ub.cora.javaclient.TokenClientSpy;
+import se.uu.ub.cora.javaclient.data.AsyncDataClient;
+import se.uu.ub.cora.javaclient.data.AsyncDataClientSpy;
+import se.uu.ub.cora.javaclient.data.BulkWriter;
+import se.uu.ub.cora.javaclient.data.BulkWriterSettings;
+import se.uu.ub.cora.javaclient.data.BulkWriterSpy;
 import se.uu.ub.cora.javaclient.data.DataClient;
 import se.uu.ub.cora.javaclient.data.DataClientSpy;
+import se.uu.ub.cora.javaclient.rest.AsyncRestClient;
+import se.uu.ub.cora.javaclient.rest.AsyncRestClientSpy;
 import se.uu.ub.cora.javaclient.rest.RestClient;
 import se.uu.ub.cora.javaclient.rest.RestClientSpy;
 import se.uu.ub.cora.javaclient.token.TokenClient;
+import se.uu.ub.cora.javaclient.token.TokenRenewalSettings;
 import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
 import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
 
@@ -43,14 +53,35 @@ public class JavaClientFactorySpy implements JavaClientFactory {
 				RestClientSpy::new);
 		MRV.setDefaultReturnValuesSupplier("factorRestClientUsingJavaClientAppTokenCredentials",
 				RestClientSpy::new);
+		MRV.setDefaultReturnValuesSupplier(
+				"factorAsyncRestClientUsingJavaClientAuthTokenCredentials",
+				AsyncRestClientSpy::new);
+		MRV.setDefaultReturnValuesSupplier(
+				"factorAsyncRestClientUsingJavaClientAppTokenCredentials", AsyncRestClientSpy::new);
 		MRV.setDefaultReturnValuesSupplier("factorDataClientUsingJavaClientAuthTokenCredentials",
 				DataClientSpy::new);
 		MRV.setDefaultReturnValuesSupplier("factorDataClientUsingJavaClientAppTokenCredentials",
 				DataClientSpy::new);
+		MRV.setDefaultReturnValuesSupplier(
+				"factorAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor",
+				AsyncDataClientSpy::new);
+		MRV.setDefaultReturnValuesSupplier(
+				"factorAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor",
+				AsyncDataClientSpy::new);
+		MRV.setDefaultReturnValuesSupplier(
+				"factorBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings",
+				BulkWriterSpy::new);
+		MRV.setDefaultReturnValuesSupplier(
+				"factorBulkWriterUsingJavaClientAppTokenCredentialsAndSettings", BulkWriterSpy::new);
 		MRV.setDefaultReturnValuesSupplier("factorTokenClientUsingAppTokenCredentials",
 				TokenClientSpy::new);
 		MRV.setDefaultReturnValuesSupplier("factorTokenClientUsingAuthTokenCredentials",
 				TokenClientSpy::new);
+		MRV.setDefaultReturnValuesSupplier(
+				"factorTokenClientUsingAppTokenCredentialsAndRenewalSettings", TokenClientSpy::new);
+		MRV.setDefaultReturnValuesSupplier(
+				"factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings",
+				TokenClientSpy::new);
 	}
 
 	@Override
@@ -67,6 +98,20 @@ public class JavaClientFactorySpy implements JavaClientFactory {
 				javaClientAppTokenCredentials);
 	}
 
+	@Override
+	public AsyncRestClient factorAsyncRestClientUsingJavaClientAuthTokenCredentials(
+			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials) {
+		return (AsyncRestClient) MCR.addCallAndReturnFromMRV("javaClientAuthTokenCredentials",
+				javaClientAuthTokenCredentials);
+	}
+
+	@Override
+	public AsyncRestClient factorAsyncRestClientUsingJavaClientAppTokenCredentials(
+			JavaClientAppTokenCredentials javaClientAppTokenCredentials) {
+		return (AsyncRestClient) MCR.addCallAndReturnFromMRV("javaClientAppTokenCredentials",
+				javaClientAppTokenCredentials);
+	}
+
 	@Override
 	public DataClient factorDataClientUsingJavaClientAuthTokenCredentials(
 			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials) {
@@ -81,6 +126,38 @@ public class JavaClientFactorySpy implements JavaClientFactory {
 				javaClientAppTokenCredentials);
 	}
 
+	@Override
+	public AsyncDataClient factorAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor(
+			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials,
+			Executor conversionExecutor) {
+		return (AsyncDataClient) MCR.addCallAndReturnFromMRV("javaClientAuthTokenCredentials",
+				javaClientAuthTokenCredentials, "conversionExecutor", conversionExecutor);
+	}
+
+	@Override
+	public AsyncDataClient factorAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor(
+			JavaClientAppTokenCredentials javaClientAppTokenCredentials,
+			Executor conversionExecutor) {
+		return (AsyncDataClient) MCR.addCallAndReturnFromMRV("javaClientAppTokenCredentials",
+				javaClientAppTokenCredentials, "conversionExecutor", conversionExecutor);
+	}
+
+	@Override
+	public BulkWriter factorBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings(
+			JavaClientAuthTokenCredentials javaClientAuthTokenCredentials,
+			BulkWriterSettings settings) {
+		return (BulkWriter) MCR.addCallAndReturnFromMRV("javaClientAuthTokenCredentials",
+				javaClientAuthTokenCredentials, "settings", settings);
+	}
+
+	@Override
+	public BulkWriter factorBulkWriterUsingJavaClientAppTokenCredentialsAndSettings(
+			JavaClientAppTokenCredentials javaClientAppTokenCredentials,
+			BulkWriterSettings settings) {
+		return (BulkWriter) MCR.addCallAndReturnFromMRV("javaClientAppTokenCredentials",
+				javaClientAppTokenCredentials, "settings", settings);
+	}
+
 	@Override
 	public TokenClient factorTokenClientUsingAppTokenCredentials(
 			AppTokenCredentials appTokenCredentials) {
@@ -95,4 +172,17 @@ public class JavaClientFactorySpy implements JavaClientFactory {
 				authTokenCredentials);
 	}
 
+	@Override
+	public TokenClient factorTokenClientUsingAppTokenCredentialsAndRenewalSettings(
+			AppTokenCredentials appTokenCredentials, TokenRenewalSettings renewalSettings) {
+		return (TokenClient) MCR.addCallAndReturnFromMRV("appTokenCredentials",
+				appTokenCredentials, "renewalSettings", renewalSettings);
+	}
+
+	@Override
+	public TokenClient factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings(
+			AuthTokenCredentials authTokenCredentials, TokenRenewalSettings renewalSettings) {
+		return (TokenClient) MCR.addCallAndReturnFromMRV("authTokenCredentials",
+				authTokenCredentials, "renewalSettings", renewalSettings);
+	}
 }
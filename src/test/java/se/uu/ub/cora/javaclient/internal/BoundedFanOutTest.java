@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+public class BoundedFanOutTest {
+
+	@Test
+	public void testEmptyIds() {
+		ReadManyResult<String> result = BoundedFanOut.readAllUsingMaxInFlight(List.of(), 2,
+				id -> id);
+
+		assertEquals(result.results(), Map.of());
+		assertEquals(result.failures(), Map.of());
+	}
+
+	@Test
+	public void testResultsInInputOrder() {
+		List<String> ids = createIds(50);
+
+		ReadManyResult<String> result = BoundedFanOut.readAllUsingMaxInFlight(ids, 8,
+				id -> sleepAndReturn("read " + id, 50 - Integer.parseInt(id)));
+
+		assertEquals(new ArrayList<>(result.results().keySet()), ids);
+		for (String id : ids) {
+			assertEquals(result.results().get(id), "read " + id);
+		}
+		assertEquals(result.failures(), Map.of());
+	}
+
+	private List<String> createIds(int numberOfIds) {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < numberOfIds; i++) {
+			ids.add(String.valueOf(i));
+		}
+		return ids;
+	}
+
+	private String sleepAndReturn(String value, long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+		}
+		return value;
+	}
+
+	@Test
+	public void testFailuresAreCollectedPerIdAndDoNotStopOtherReads() {
+		DataClientException exception = DataClientException.withMessage("someError");
+		Function<String, String> reader = id -> {
+			if ("1".equals(id)) {
+				throw exception;
+			}
+			if ("3".equals(id)) {
+				throw new RuntimeException("someRuntimeError");
+			}
+			return "read " + id;
+		};
+
+		ReadManyResult<String> result = BoundedFanOut.readAllUsingMaxInFlight(createIds(5), 2,
+				reader);
+
+		assertEquals(new ArrayList<>(result.results().keySet()), List.of("0", "2", "4"));
+		assertEquals(result.results().get("2"), "read 2");
+		assertEquals(new ArrayList<>(result.failures().keySet()), List.of("1", "3"));
+		assertSame(result.failures().get("1"), exception);
+		DataClientException wrapped = result.failures().get("3");
+		assertEquals(wrapped.getMessage(), "someRuntimeError");
+		assertEquals(wrapped.getCause().getMessage(), "someRuntimeError");
+	}
+
+	@Test
+	public void testNeverMoreThanMaxInFlightReadsAtTheSameTime() {
+		AtomicInteger inFlight = new AtomicInteger();
+		List<Integer> seenInFlight = Collections.synchronizedList(new ArrayList<>());
+
+		BoundedFanOut.readAllUsingMaxInFlight(createIds(40), 4, id -> {
+			seenInFlight.add(inFlight.incrementAndGet());
+			sleepAndReturn(id, 5);
+			inFlight.decrementAndGet();
+			return id;
+		});
+
+		assertEquals(seenInFlight.size(), 40);
+		assertTrue(Collections.max(seenInFlight) <= 4);
+	}
+
+	@Test
+	public void testReadsRunOnVirtualThreads() {
+		ReadManyResult<Boolean> result = BoundedFanOut.readAllUsingMaxInFlight(List.of("id"), 1,
+				_ -> Thread.currentThread().isVirtual());
+
+		assertEquals(result.results(), Map.of("id", true));
+	}
+
+	@Test
+	public void testMaxInFlightLessThanOne() {
+		try {
+			BoundedFanOut.readAllUsingMaxInFlight(List.of("id"), 0, id -> id);
+			fail("Should throw Exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "maxInFlight must be at least 1, was: 0");
+		}
+	}
+}
@@ -21,21 +21,72 @@ package se.uu.ub.cora.javaclient.internal;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import se.uu.ub.cora.httphandler.HttpHandlerFactory;
 import se.uu.ub.cora.httphandler.HttpHandlerFactoryImp;
+import se.uu.ub.cora.httphandler.spies.HttpHandlerFactorySpy;
 import se.uu.ub.cora.javaclient.AppTokenCredentials;
 import se.uu.ub.cora.javaclient.AuthTokenCredentials;
 import se.uu.ub.cora.javaclient.JavaClientAppTokenCredentials;
 import se.uu.ub.cora.javaclient.JavaClientAuthTokenCredentials;
 import se.uu.ub.cora.javaclient.JavaClientFactory;
+import se.uu.ub.cora.javaclient.JavaClientFactorySettings;
+import se.uu.ub.cora.javaclient.data.BulkWriterSettings;
+import se.uu.ub.cora.javaclient.data.internal.AsyncDataClientImp;
+import se.uu.ub.cora.javaclient.data.internal.BulkWriterImp;
 import se.uu.ub.cora.javaclient.data.internal.DataClientImp;
+import se.uu.ub.cora.javaclient.rest.AdaptiveConcurrencySettings;
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerSettings;
+import se.uu.ub.cora.javaclient.rest.ConditionalReadSettings;
+import se.uu.ub.cora.javaclient.rest.DiskCacheSettings;
+import se.uu.ub.cora.javaclient.rest.HedgingSettings;
+import se.uu.ub.cora.javaclient.rest.HttpClientSettings;
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+import se.uu.ub.cora.javaclient.rest.NodeSelector;
+import se.uu.ub.cora.javaclient.rest.OperationTimeouts;
+import se.uu.ub.cora.javaclient.rest.RateLimit;
+import se.uu.ub.cora.javaclient.rest.RateLimitSettings;
+import se.uu.ub.cora.javaclient.rest.ReadCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RequestCoalescingSettings;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RetryPolicy;
+import se.uu.ub.cora.javaclient.rest.internal.AdaptiveConcurrencyLimiter;
+import se.uu.ub.cora.javaclient.rest.internal.AsyncRestClientImp;
+import se.uu.ub.cora.javaclient.rest.internal.CachingRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.CircuitBreakerRegistry;
+import se.uu.ub.cora.javaclient.rest.internal.CoalescingRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.ConditionalReadCache;
+import se.uu.ub.cora.javaclient.rest.internal.DiskResponseStore;
+import se.uu.ub.cora.javaclient.rest.internal.HedgedRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.HedgingPolicy;
+import se.uu.ub.cora.javaclient.rest.internal.HttpClientHandlerFactory;
+import se.uu.ub.cora.javaclient.rest.internal.LoadBalancedRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.LoadBalancer;
+import se.uu.ub.cora.javaclient.rest.internal.RateLimitedRestClient;
+import se.uu.ub.cora.javaclient.rest.internal.RateLimiters;
+import se.uu.ub.cora.javaclient.rest.internal.ReadCache;
 import se.uu.ub.cora.javaclient.rest.internal.RestClientImp;
+import se.uu.ub.cora.javaclient.token.TokenClient;
+import se.uu.ub.cora.javaclient.token.TokenRenewalSettings;
 import se.uu.ub.cora.javaclient.token.internal.OneAtATimeScheduler;
 import se.uu.ub.cora.javaclient.token.internal.TokenClientImp;
+import se.uu.ub.cora.javaclient.token.internal.TokenClientRegistry;
 
 public class JavaClientFactoryTest {
 
@@ -164,6 +215,114 @@ public class JavaClientFactoryTest {
 		assertEquals(returnedAppTokenCredentials.appToken(), appToken);
 	}
 
+	@Test
+	public void testFactorAsyncRestClientUsingAuthTokenCredentials() {
+		AsyncRestClientImp asyncRestClient = (AsyncRestClientImp) factory
+				.factorAsyncRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		RestClientImp restClient = (RestClientImp) asyncRestClient.onlyForTestGetRestClient();
+		assertEquals(restClient.onlyForTestGetBaseUrl(), baseUrl);
+		TokenClientImp tokenClient = (TokenClientImp) restClient.onlyForTestGetTokenClient();
+		assertTokenClientCredentialsWithoutAuthTokenRenewable(tokenClient);
+		assertTrue(asyncRestClient.onlyForTestGetExecutor() instanceof ExecutorService);
+	}
+
+	@Test
+	public void testFactorAsyncRestClientUsingAppTokenCredentials() {
+		AsyncRestClientImp asyncRestClient = (AsyncRestClientImp) factory
+				.factorAsyncRestClientUsingJavaClientAppTokenCredentials(
+						javaClientAppTokenCredentials);
+
+		RestClientImp restClient = (RestClientImp) asyncRestClient.onlyForTestGetRestClient();
+		assertEquals(restClient.onlyForTestGetBaseUrl(), baseUrl);
+		TokenClientImp tokenClient = (TokenClientImp) restClient.onlyForTestGetTokenClient();
+		assertTokenClientUsingAppTokenCredentials(tokenClient);
+		assertTrue(asyncRestClient.onlyForTestGetExecutor() instanceof ExecutorService);
+	}
+
+	@Test
+	public void testAsyncRestClientsShareExecutorOfFactory() {
+		AsyncRestClientImp asyncRestClient1 = (AsyncRestClientImp) factory
+				.factorAsyncRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+		AsyncRestClientImp asyncRestClient2 = (AsyncRestClientImp) factory
+				.factorAsyncRestClientUsingJavaClientAppTokenCredentials(
+						javaClientAppTokenCredentials);
+
+		JavaClientFactoryImp factoryImp = (JavaClientFactoryImp) factory;
+		assertSame(asyncRestClient1.onlyForTestGetExecutor(),
+				factoryImp.onlyForTestGetAsyncExecutor());
+		assertSame(asyncRestClient2.onlyForTestGetExecutor(),
+				factoryImp.onlyForTestGetAsyncExecutor());
+	}
+
+	@Test
+	public void testFactorAsyncDataClientUsingAuthTokenCredentials() {
+		Executor conversionExecutor = ForkJoinPool.commonPool();
+
+		AsyncDataClientImp asyncDataClient = (AsyncDataClientImp) factory
+				.factorAsyncDataClientUsingJavaClientAuthTokenCredentialsAndConversionExecutor(
+						javaClientAuthTokenCredentials, conversionExecutor);
+
+		AsyncRestClientImp asyncRestClient = (AsyncRestClientImp) asyncDataClient
+				.onlyForTestGetAsyncRestClient();
+		RestClientImp restClient = (RestClientImp) asyncRestClient.onlyForTestGetRestClient();
+		assertEquals(restClient.onlyForTestGetBaseUrl(), baseUrl);
+		assertTokenClientCredentialsWithoutAuthTokenRenewable(
+				(TokenClientImp) restClient.onlyForTestGetTokenClient());
+		assertSame(asyncDataClient.onlyForTestGetConversionExecutor(), conversionExecutor);
+	}
+
+	@Test
+	public void testFactorAsyncDataClientUsingAppTokenCredentials() {
+		Executor conversionExecutor = ForkJoinPool.commonPool();
+
+		AsyncDataClientImp asyncDataClient = (AsyncDataClientImp) factory
+				.factorAsyncDataClientUsingJavaClientAppTokenCredentialsAndConversionExecutor(
+						javaClientAppTokenCredentials, conversionExecutor);
+
+		AsyncRestClientImp asyncRestClient = (AsyncRestClientImp) asyncDataClient
+				.onlyForTestGetAsyncRestClient();
+		RestClientImp restClient = (RestClientImp) asyncRestClient.onlyForTestGetRestClient();
+		assertEquals(restClient.onlyForTestGetBaseUrl(), baseUrl);
+		assertTokenClientUsingAppTokenCredentials(
+				(TokenClientImp) restClient.onlyForTestGetTokenClient());
+		assertSame(asyncDataClient.onlyForTestGetConversionExecutor(), conversionExecutor);
+	}
+
+	@Test
+	public void testFactorBulkWriterUsingAuthTokenCredentials() {
+		BulkWriterSettings settings = new BulkWriterSettings(4, 100, false,
+				ForkJoinPool.commonPool());
+
+		BulkWriterImp bulkWriter = (BulkWriterImp) factory
+				.factorBulkWriterUsingJavaClientAuthTokenCredentialsAndSettings(
+						javaClientAuthTokenCredentials, settings);
+
+		RestClientImp restClient = (RestClientImp) bulkWriter.onlyForTestGetRestClient();
+		assertEquals(restClient.onlyForTestGetBaseUrl(), baseUrl);
+		assertTokenClientCredentialsWithoutAuthTokenRenewable(
+				(TokenClientImp) restClient.onlyForTestGetTokenClient());
+		assertSame(bulkWriter.onlyForTestGetSettings(), settings);
+	}
+
+	@Test
+	public void testFactorBulkWriterUsingAppTokenCredentials() {
+		BulkWriterSettings settings = new BulkWriterSettings(4, 100, false,
+				ForkJoinPool.commonPool());
+
+		BulkWriterImp bulkWriter = (BulkWriterImp) factory
+				.factorBulkWriterUsingJavaClientAppTokenCredentialsAndSettings(
+						javaClientAppTokenCredentials, settings);
+
+		RestClientImp restClient = (RestClientImp) bulkWriter.onlyForTestGetRestClient();
+		assertEquals(restClient.onlyForTestGetBaseUrl(), baseUrl);
+		assertTokenClientUsingAppTokenCredentials(
+				(TokenClientImp) restClient.onlyForTestGetTokenClient());
+		assertSame(bulkWriter.onlyForTestGetSettings(), settings);
+	}
+
 	@Test
 	public void testFactorBaseUrlAddedToRestClient_dataClient() {
 		DataClientImp dataClient = (DataClientImp) factory
@@ -262,4 +421,480 @@ public class JavaClientFactoryTest {
 
 		assertTokenClientCredentials(tokenClient);
 	}
+
+	@Test
+	public void testFactorTokenClientUsesDefaultRenewalSettings() {
+		TokenClientImp tokenClient = (TokenClientImp) factory
+				.factorTokenClientUsingAppTokenCredentials(appTokenCredentials);
+
+		assertSame(tokenClient.onlyForTestGetRenewalSettings(), TokenRenewalSettings.DEFAULT);
+	}
+
+	@Test
+	public void testFactorTokenClientUsingAppTokenCredentialsAndRenewalSettings() {
+		TokenRenewalSettings renewalSettings = new TokenRenewalSettings(Duration.ofMinutes(1),
+				Duration.ofSeconds(5));
+
+		TokenClientImp tokenClient = (TokenClientImp) factory
+				.factorTokenClientUsingAppTokenCredentialsAndRenewalSettings(appTokenCredentials,
+						renewalSettings);
+
+		assertTokenClientUsingAppTokenCredentials(tokenClient);
+		assertSame(tokenClient.onlyForTestGetRenewalSettings(), renewalSettings);
+	}
+
+	@Test
+	public void testFactorTokenClientUsingAuthTokenCredentialsAndRenewalSettings() {
+		TokenRenewalSettings renewalSettings = new TokenRenewalSettings(Duration.ofMinutes(1),
+				Duration.ofSeconds(5));
+
+		TokenClientImp tokenClient = (TokenClientImp) factory
+				.factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings(authTokenCredentials,
+						renewalSettings);
+
+		assertTokenClientCredentials(tokenClient);
+		assertSame(tokenClient.onlyForTestGetRenewalSettings(), renewalSettings);
+	}
+
+	@Test
+	public void testTokenClientSharedForRestClientsUsingEqualAppTokenCredentials() {
+		RestClientImp restClient = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		RestClientImp restClient2 = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAppTokenCredentials(
+						new JavaClientAppTokenCredentials(baseUrl, loginUrl, loginId, appToken));
+
+		assertSame(restClient2.onlyForTestGetTokenClient(), restClient.onlyForTestGetTokenClient());
+		assertSame(factory.factorTokenClientUsingAppTokenCredentials(appTokenCredentials),
+				restClient.onlyForTestGetTokenClient());
+	}
+
+	@Test
+	public void testTokenClientSharedForRestClientsUsingEqualAuthTokenCredentials() {
+		RestClientImp restClient = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+		RestClientImp restClient2 = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						new JavaClientAuthTokenCredentials(baseUrl, RENEW_URL, authToken));
+
+		assertSame(restClient2.onlyForTestGetTokenClient(), restClient.onlyForTestGetTokenClient());
+	}
+
+	@Test
+	public void testTokenClientNotSharedForDifferentCredentials() {
+		RestClientImp restClient = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		RestClientImp restClient2 = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAppTokenCredentials(
+						new JavaClientAppTokenCredentials(baseUrl, loginUrl, "someOtherLoginId",
+								appToken));
+
+		assertNotSame(restClient2.onlyForTestGetTokenClient(),
+				restClient.onlyForTestGetTokenClient());
+	}
+
+	@Test
+	public void testTokenClientsRegisteredInFactoryRegistry() {
+		JavaClientFactoryImp factoryImp = (JavaClientFactoryImp) factory;
+		TokenClient tokenClient = factory
+				.factorTokenClientUsingAuthTokenCredentials(authTokenCredentials);
+
+		TokenClientRegistry registry = factoryImp.onlyForTestGetTokenClientRegistry();
+		assertSame(registry.getOrCreateUsingCredentials(authTokenCredentials, () -> null),
+				tokenClient);
+	}
+
+	@Test
+	public void testFactoriesUsingSameTokenClientRegistryShareTokenClients() {
+		TokenClientRegistry registry = new TokenClientRegistry();
+		JavaClientFactoryImp factory1 = JavaClientFactoryImp.usingSettingsAndTokenClientRegistry(
+				JavaClientFactorySettings.createDefaultSettings(), registry);
+		JavaClientFactoryImp factory2 = JavaClientFactoryImp.usingSettingsAndTokenClientRegistry(
+				JavaClientFactorySettings.createDefaultSettings(), registry);
+
+		TokenClient tokenClient = factory1
+				.factorTokenClientUsingAppTokenCredentials(appTokenCredentials);
+
+		assertSame(factory1.onlyForTestGetTokenClientRegistry(), registry);
+		assertSame(factory2.factorTokenClientUsingAppTokenCredentials(appTokenCredentials),
+				tokenClient);
+	}
+
+	@Test
+	public void testTokenClientWithRenewalSettingsIsNotShared() {
+		TokenClient tokenClient = factory
+				.factorTokenClientUsingAppTokenCredentials(appTokenCredentials);
+
+		TokenClient tokenClient2 = factory.factorTokenClientUsingAppTokenCredentialsAndRenewalSettings(
+				appTokenCredentials, TokenRenewalSettings.DEFAULT);
+
+		assertNotSame(tokenClient2, tokenClient);
+	}
+
+	@Test
+	public void testDefaultSettingsUsesHttpHandlerFactoryImp() {
+		JavaClientFactoryImp factoryImp = (JavaClientFactoryImp) factory;
+
+		JavaClientFactorySettings settings = factoryImp.onlyForTestGetSettings();
+
+		assertTrue(settings.httpHandlerFactory() instanceof HttpHandlerFactoryImp);
+	}
+
+	@Test
+	public void testRestClientAndTokenClientShareHttpHandlerFactory() {
+		RestClientImp restClient = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		RestClientImp restClient2 = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		TokenClientImp tokenClient = (TokenClientImp) restClient.onlyForTestGetTokenClient();
+		HttpHandlerFactory httpHandlerFactory = restClient.onlyForTestGetHttpHandlerFactory();
+		assertSame(tokenClient.onlyForTestGetHttpHandlerFactory(), httpHandlerFactory);
+		assertSame(restClient2.onlyForTestGetHttpHandlerFactory(), httpHandlerFactory);
+	}
+
+	@Test
+	public void testUsingSettingsUsesHttpHandlerFactoryFromSettings() {
+		HttpHandlerFactorySpy httpHandlerFactory = new HttpHandlerFactorySpy();
+		JavaClientFactorySettings settings = new JavaClientFactorySettings(httpHandlerFactory,
+				OperationTimeouts.NONE, RetryPolicy.NONE, CircuitBreakerSettings.DISABLED,
+				RateLimitSettings.NONE, AdaptiveConcurrencySettings.DISABLED,
+				HedgingSettings.DISABLED, LoadBalancingSettings.NONE, ReadCacheSettings.DISABLED,
+				ConditionalReadSettings.DISABLED, RequestCoalescingSettings.DISABLED);
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(settings);
+
+		RestClientImp restClient = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		TokenClientImp tokenClient = (TokenClientImp) factoryImp
+				.factorTokenClientUsingAuthTokenCredentialsAndRenewalSettings(authTokenCredentials,
+						TokenRenewalSettings.DEFAULT);
+
+		assertSame(factoryImp.onlyForTestGetSettings(), settings);
+		assertSame(restClient.onlyForTestGetHttpHandlerFactory(), httpHandlerFactory);
+		assertSame(((TokenClientImp) restClient.onlyForTestGetTokenClient())
+				.onlyForTestGetHttpHandlerFactory(), httpHandlerFactory);
+		assertSame(tokenClient.onlyForTestGetHttpHandlerFactory(), httpHandlerFactory);
+	}
+
+	@Test
+	public void testSettingsUsingHttpClientSettings() {
+		JavaClientFactorySettings settings = JavaClientFactorySettings
+				.createUsingHttpClientSettingsAndOperationTimeouts(HttpClientSettings.DEFAULT,
+						OperationTimeouts.NONE);
+
+		HttpClientHandlerFactory httpHandlerFactory = (HttpClientHandlerFactory) settings
+				.httpHandlerFactory();
+		assertEquals(httpHandlerFactory.onlyForTestGetReadTimeout(),
+				HttpClientSettings.DEFAULT.readTimeout());
+		assertSame(settings.operationTimeouts(), OperationTimeouts.NONE);
+	}
+
+	@Test
+	public void testOperationTimeoutsFromSettingsUsedByRestClients() {
+		OperationTimeouts timeouts = new OperationTimeouts(Duration.ofSeconds(1),
+				Duration.ofSeconds(2), Duration.ofSeconds(3), Duration.ofSeconds(4),
+				Duration.ofSeconds(5));
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				new JavaClientFactorySettings(new HttpHandlerFactorySpy(), timeouts,
+						RetryPolicy.NONE, CircuitBreakerSettings.DISABLED, RateLimitSettings.NONE,
+						AdaptiveConcurrencySettings.DISABLED, HedgingSettings.DISABLED,
+						LoadBalancingSettings.NONE, ReadCacheSettings.DISABLED,
+						ConditionalReadSettings.DISABLED, RequestCoalescingSettings.DISABLED));
+
+		RestClientImp restClient = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		RestClientImp restClient2 = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		assertSame(restClient.onlyForTestGetTimeouts(), timeouts);
+		assertSame(restClient2.onlyForTestGetTimeouts(), timeouts);
+	}
+
+	@Test
+	public void testDefaultSettingsHasNoOperationTimeouts() {
+		RestClientImp restClient = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+
+		assertSame(restClient.onlyForTestGetTimeouts(), OperationTimeouts.NONE);
+	}
+
+	@Test
+	public void testRetryPolicyFromSettingsUsedByRestClients() {
+		RetryPolicy retryPolicy = RetryPolicy.usingMaxAttemptsAndBackoff(3,
+				Duration.ofMillis(100), Duration.ofSeconds(1));
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				JavaClientFactorySettings.createDefaultSettings().withRetryPolicy(retryPolicy));
+
+		RestClientImp restClient = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		RestClientImp restClient2 = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		assertSame(restClient.onlyForTestGetRetryPolicy(), retryPolicy);
+		assertSame(restClient2.onlyForTestGetRetryPolicy(), retryPolicy);
+	}
+
+	@Test
+	public void testDefaultSettingsHasNoRetries() {
+		RestClientImp restClient = (RestClientImp) factory
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+
+		assertSame(restClient.onlyForTestGetRetryPolicy(), RetryPolicy.NONE);
+	}
+
+	@Test
+	public void testCircuitBreakersSharedByRestClientsOfFactory() {
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp
+				.usingSettings(JavaClientFactorySettings.createDefaultSettings()
+						.withCircuitBreakerSettings(CircuitBreakerSettings.DEFAULT));
+
+		RestClientImp restClient = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		RestClientImp restClient2 = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		CircuitBreakerRegistry registry = factoryImp.onlyForTestGetRestClientSettings()
+				.circuitBreakerRegistry();
+		assertSame(registry.onlyForTestGetSettings(), CircuitBreakerSettings.DEFAULT);
+		assertSame(restClient.onlyForTestGetCircuitBreakerRegistry(), registry);
+		assertSame(restClient2.onlyForTestGetCircuitBreakerRegistry(), registry);
+	}
+
+	@Test
+	public void testRestClientsWrappedInRateLimitedRestClientSharingLimits() {
+		RateLimitSettings rateLimitSettings = RateLimitSettings
+				.usingGlobalLimit(new RateLimit(10, 10, 5));
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				JavaClientFactorySettings.createDefaultSettings()
+						.withRateLimitSettings(rateLimitSettings));
+
+		RateLimitedRestClient restClient = (RateLimitedRestClient) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		RateLimitedRestClient restClient2 = (RateLimitedRestClient) factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		RateLimiters rateLimiters = factoryImp.onlyForTestGetRateLimiters();
+		assertSame(rateLimiters.onlyForTestGetSettings(), rateLimitSettings);
+		assertSame(restClient.onlyForTestGetRateLimiters(), rateLimiters);
+		assertSame(restClient2.onlyForTestGetRateLimiters(), rateLimiters);
+		assertTrue(restClient.onlyForTestGetRestClient() instanceof RestClientImp);
+		assertTrue(restClient2.onlyForTestGetRestClient() instanceof RestClientImp);
+	}
+
+	@Test
+	public void testRestClientsShareAdaptiveConcurrencyLimiter() {
+		AdaptiveConcurrencySettings adaptiveConcurrencySettings = AdaptiveConcurrencySettings
+				.usingInitialLimitAndMinLimitAndMaxLimit(10, 1, 100);
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				JavaClientFactorySettings.createDefaultSettings()
+						.withAdaptiveConcurrencySettings(adaptiveConcurrencySettings));
+
+		RestClientImp restClient = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		RestClientImp restClient2 = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		AdaptiveConcurrencyLimiter limiter = factoryImp.onlyForTestGetRestClientSettings()
+				.concurrencyLimiter();
+		assertSame(limiter.onlyForTestGetSettings(), adaptiveConcurrencySettings);
+		assertSame(restClient.onlyForTestGetConcurrencyLimiter(), limiter);
+		assertSame(restClient2.onlyForTestGetConcurrencyLimiter(), limiter);
+	}
+
+	@Test
+	public void testRestClientsWrappedInHedgedRestClientSharingPolicy() {
+		HedgingSettings hedgingSettings = HedgingSettings.usingDelayPercentileAndMaxHedgePercent(95,
+				5);
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				JavaClientFactorySettings.createDefaultSettings()
+						.withRateLimitSettings(
+								RateLimitSettings.usingGlobalLimit(new RateLimit(10, 10, 5)))
+						.withHedgingSettings(hedgingSettings));
+
+		HedgedRestClient restClient = (HedgedRestClient) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		HedgedRestClient restClient2 = (HedgedRestClient) factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		HedgingPolicy hedgingPolicy = factoryImp.onlyForTestGetHedgingPolicy();
+		assertSame(hedgingPolicy.onlyForTestGetSettings(), hedgingSettings);
+		assertSame(restClient.onlyForTestGetHedgingPolicy(), hedgingPolicy);
+		assertSame(restClient2.onlyForTestGetHedgingPolicy(), hedgingPolicy);
+		assertTrue(restClient.onlyForTestGetRestClient() instanceof RateLimitedRestClient);
+		assertTrue(restClient2.onlyForTestGetRestClient() instanceof RateLimitedRestClient);
+	}
+
+	@Test
+	public void testRestClientsWrappedInCachingRestClientWithOwnReadCache() {
+		ReadCacheSettings readCacheSettings = ReadCacheSettings.usingMaxEntriesAndTimeToLive(100,
+				Duration.ofMinutes(1));
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				JavaClientFactorySettings.createDefaultSettings()
+						.withReadCacheSettings(readCacheSettings));
+
+		CachingRestClient restClient = (CachingRestClient) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		CachingRestClient restClient2 = (CachingRestClient) factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		ReadCache readCache = restClient.onlyForTestGetReadCache();
+		assertSame(readCache.onlyForTestGetSettings(), readCacheSettings);
+		assertNotSame(restClient2.onlyForTestGetReadCache(), readCache);
+		assertSame(restClient2.onlyForTestGetReadCache().onlyForTestGetSettings(),
+				readCacheSettings);
+		assertTrue(restClient.onlyForTestGetRestClient() instanceof RestClientImp);
+	}
+
+	@Test
+	public void testRestClientsUseConditionalReadSettingsWithOwnCache() {
+		ConditionalReadSettings conditionalReadSettings = ConditionalReadSettings
+				.usingMaxEntries(100);
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				JavaClientFactorySettings.createDefaultSettings()
+						.withConditionalReadSettings(conditionalReadSettings));
+
+		RestClientImp restClient = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		RestClientImp restClient2 = (RestClientImp) factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		assertSame(factoryImp.onlyForTestGetRestClientSettings().conditionalReadSettings(),
+				conditionalReadSettings);
+		ConditionalReadCache cache = restClient.onlyForTestGetConditionalReadCache();
+		assertSame(cache.onlyForTestGetSettings(), conditionalReadSettings);
+		assertNotSame(restClient2.onlyForTestGetConditionalReadCache(), cache);
+	}
+
+	@Test
+	public void testRestClientsShareDiskResponseStore() throws IOException {
+		Path directory = Files.createTempDirectory("javaClientFactoryTest");
+		try {
+			DiskCacheSettings diskCacheSettings = DiskCacheSettings
+					.usingDirectoryAndDiskBudget(directory, 1024 * 1024);
+			JavaClientFactoryImp factoryImp = JavaClientFactoryImp
+					.usingSettings(JavaClientFactorySettings.createDefaultSettings()
+							.withConditionalReadSettings(ConditionalReadSettings
+									.usingMaxEntries(100).withDiskCacheSettings(diskCacheSettings)));
+
+			RestClientImp restClient = (RestClientImp) factoryImp
+					.factorRestClientUsingJavaClientAppTokenCredentials(
+							javaClientAppTokenCredentials);
+			RestClientImp restClient2 = (RestClientImp) factoryImp
+					.factorRestClientUsingJavaClientAuthTokenCredentials(
+							javaClientAuthTokenCredentials);
+
+			DiskResponseStore diskResponseStore = factoryImp.onlyForTestGetRestClientSettings()
+					.diskResponseStore();
+			assertSame(diskResponseStore.onlyForTestGetSettings(), diskCacheSettings);
+			assertSame(restClient.onlyForTestGetConditionalReadCache()
+					.onlyForTestGetDiskResponseStore(), diskResponseStore);
+			assertSame(restClient2.onlyForTestGetConditionalReadCache()
+					.onlyForTestGetDiskResponseStore(), diskResponseStore);
+			assertNotEquals(
+					restClient.onlyForTestGetConditionalReadCache().onlyForTestGetDiskKeyPrefix(),
+					restClient2.onlyForTestGetConditionalReadCache()
+							.onlyForTestGetDiskKeyPrefix());
+		} finally {
+			Files.delete(directory.resolve("lock"));
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void testRestClientsWrappedInCoalescingRestClientSharingStatistics() {
+		RequestCoalescingSettings requestCoalescingSettings = RequestCoalescingSettings
+				.createEnabledSettings();
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				JavaClientFactorySettings.createDefaultSettings()
+						.withReadCacheSettings(ReadCacheSettings.usingMaxEntriesAndTimeToLive(10,
+								Duration.ofMinutes(1)))
+						.withRequestCoalescingSettings(requestCoalescingSettings));
+
+		CachingRestClient restClient = (CachingRestClient) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+		CachingRestClient restClient2 = (CachingRestClient) factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		CoalescingRestClient coalescingRestClient = (CoalescingRestClient) restClient
+				.onlyForTestGetRestClient();
+		CoalescingRestClient coalescingRestClient2 = (CoalescingRestClient) restClient2
+				.onlyForTestGetRestClient();
+		assertSame(coalescingRestClient.onlyForTestGetStatistics(),
+				requestCoalescingSettings.statistics());
+		assertSame(coalescingRestClient2.onlyForTestGetStatistics(),
+				requestCoalescingSettings.statistics());
+		assertTrue(coalescingRestClient.onlyForTestGetRestClient() instanceof RestClientImp);
+	}
+
+	@Test
+	public void testRestClientsForBaseUrlWithNodesAreLoadBalancedSharingTokenClient() {
+		LoadBalancingSettings loadBalancingSettings = LoadBalancingSettings
+				.usingNodeSelector(NodeSelector.roundRobin())
+				.withNodes(javaClientAppTokenCredentials.baseUrl(), List.of("node1", "node2"));
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				JavaClientFactorySettings.createDefaultSettings()
+						.withLoadBalancingSettings(loadBalancingSettings));
+
+		LoadBalancedRestClient restClient = (LoadBalancedRestClient) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+
+		LoadBalancer loadBalancer = factoryImp.onlyForTestGetLoadBalancer();
+		assertSame(loadBalancer.onlyForTestGetSettings(), loadBalancingSettings);
+		assertSame(restClient.onlyForTestGetLoadBalancer(), loadBalancer);
+		List<RestClientImp> nodeClients = restClient.onlyForTestGetRestClients().values().stream()
+				.map(RestClientImp.class::cast).toList();
+		assertEquals(nodeClients.get(0).onlyForTestGetBaseUrl(), "node1");
+		assertEquals(nodeClients.get(1).onlyForTestGetBaseUrl(), "node2");
+		assertSame(nodeClients.get(0).onlyForTestGetTokenClient(),
+				nodeClients.get(1).onlyForTestGetTokenClient());
+	}
+
+	@Test
+	public void testLoadBalancedRestClientRetriesInsteadOfNodes() {
+		RetryPolicy retryPolicy = RetryPolicy.usingMaxAttemptsAndBackoff(3,
+				Duration.ofMillis(100), Duration.ofSeconds(1));
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp
+				.usingSettings(JavaClientFactorySettings.createDefaultSettings()
+						.withRetryPolicy(retryPolicy)
+						.withLoadBalancingSettings(LoadBalancingSettings
+								.usingNodeSelector(NodeSelector.roundRobin()).withNodes(
+										javaClientAppTokenCredentials.baseUrl(),
+										List.of("node1", "node2"))));
+
+		LoadBalancedRestClient restClient = (LoadBalancedRestClient) factoryImp
+				.factorRestClientUsingJavaClientAppTokenCredentials(javaClientAppTokenCredentials);
+
+		assertSame(restClient.onlyForTestGetRetryPolicy(), retryPolicy);
+		for (RestClient nodeClient : restClient.onlyForTestGetRestClients().values()) {
+			assertSame(((RestClientImp) nodeClient).onlyForTestGetRetryPolicy(),
+					RetryPolicy.NONE);
+		}
+	}
+
+	@Test
+	public void testRestClientsForOtherBaseUrlsAreNotLoadBalanced() {
+		LoadBalancingSettings loadBalancingSettings = LoadBalancingSettings
+				.usingNodeSelector(NodeSelector.roundRobin())
+				.withNodes("someOtherBaseUrl", List.of("node1", "node2"));
+		JavaClientFactoryImp factoryImp = JavaClientFactoryImp.usingSettings(
+				JavaClientFactorySettings.createDefaultSettings()
+						.withLoadBalancingSettings(loadBalancingSettings));
+
+		RestClient restClient = factoryImp
+				.factorRestClientUsingJavaClientAuthTokenCredentials(
+						javaClientAuthTokenCredentials);
+
+		assertTrue(restClient instanceof RestClientImp);
+	}
 }
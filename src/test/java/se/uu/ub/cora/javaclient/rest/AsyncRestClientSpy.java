@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
+import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
+
+public class AsyncRestClientSpy implements AsyncRestClient {
+
+	public MethodCallRecorder MCR = new MethodCallRecorder();
+	public MethodReturnValues MRV = new MethodReturnValues();
+
+	public AsyncRestClientSpy() {
+		MCR.useMRV(MRV);
+		MRV.setDefaultReturnValuesSupplier("readRecordAsJson", this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("createRecordFromJson", this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("updateRecordFromJson", this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("deleteRecord", this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("readRecordListAsJson", this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("readRecordListWithFilterAsJson",
+				this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("readIncomingLinksAsJson", this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("validateRecordAsJson", this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("searchRecordWithSearchCriteriaAsJson",
+				this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("batchIndexWithFilterAsJson",
+				this::createFutureResponse);
+		MRV.setDefaultReturnValuesSupplier("download", this::createFutureResponse);
+	}
+
+	private CompletableFuture<RestResponse> createFutureResponse() {
+		return CompletableFuture.completedFuture(new RestResponse(200,
+				"Some response text from spy", Optional.empty(), Optional.empty()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private CompletableFuture<RestResponse> toFuture(Object returnValue) {
+		return (CompletableFuture<RestResponse>) returnValue;
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> readRecordAsJson(String recordType, String recordId) {
+		return toFuture(
+				MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId", recordId));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> createRecordFromJson(String recordType, String json) {
+		return toFuture(MCR.addCallAndReturnFromMRV("recordType", recordType, "json", json));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> updateRecordFromJson(String recordType,
+			String recordId, String json) {
+		return toFuture(MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId",
+				recordId, "json", json));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> deleteRecord(String recordType, String recordId) {
+		return toFuture(
+				MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId", recordId));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> readRecordListAsJson(String recordType) {
+		return toFuture(MCR.addCallAndReturnFromMRV("recordType", recordType));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> readIncomingLinksAsJson(String recordType,
+			String recordId) {
+		return toFuture(
+				MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId", recordId));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> readRecordListWithFilterAsJson(String recordType,
+			String filter) {
+		return toFuture(MCR.addCallAndReturnFromMRV("recordType", recordType, "filter", filter));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> batchIndexWithFilterAsJson(String recordType,
+			String indexSettingsAsJson) {
+		return toFuture(MCR.addCallAndReturnFromMRV("recordType", recordType,
+				"indexSettingsAsJson", indexSettingsAsJson));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> searchRecordWithSearchCriteriaAsJson(String searchId,
+			String json) {
+		return toFuture(MCR.addCallAndReturnFromMRV("searchId", searchId, "json", json));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> validateRecordAsJson(String json) {
+		return toFuture(MCR.addCallAndReturnFromMRV("json", json));
+	}
+
+	@Override
+	public CompletableFuture<RestResponse> download(String type, String id,
+			String representation) {
+		return toFuture(MCR.addCallAndReturnFromMRV("type", type, "id", id, "representation",
+				representation));
+	}
+}
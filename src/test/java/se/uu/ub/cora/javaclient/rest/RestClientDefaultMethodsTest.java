@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+public class RestClientDefaultMethodsTest {
+	private static final String SOME_TYPE = "someType";
+	private RestClientOriginalMethodsSpy restClient;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		restClient = new RestClientOriginalMethodsSpy();
+	}
+
+	@Test
+	public void testReadManyAsJsonReadsEachId() {
+		DataClientException error = DataClientException.withMessage("spy error");
+		restClient.MRV.setSpecificReturnValuesSupplier("readRecordAsJson", () -> {
+			throw error;
+		}, SOME_TYPE, "id2");
+
+		ReadManyResult<RestResponse> result = restClient.readManyAsJson(SOME_TYPE,
+				List.of("id1", "id2", "id3"), 2);
+
+		restClient.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 3);
+		assertEquals(List.copyOf(result.results().keySet()), List.of("id1", "id3"));
+		assertEquals(result.failures().get("id2"), error);
+	}
+
+	@Test
+	public void testReadRecordListAsJsonStreamProvidesResponseTextAsStream() throws IOException {
+		RestResponse response = restClient.readRecordListAsJsonStream(SOME_TYPE);
+
+		restClient.MCR.assertParameters("readRecordListAsJson", 0, SOME_TYPE);
+		assertResponseTextIsProvidedAsStream(response);
+	}
+
+	private void assertResponseTextIsProvidedAsStream(RestResponse response) throws IOException {
+		assertEquals(response.responseCode(), 200);
+		assertEquals(response.responseText(), "");
+		try (InputStream stream = response.responseBinary().get()) {
+			assertEquals(new String(stream.readAllBytes(), StandardCharsets.UTF_8),
+					"Some response text from spy");
+		}
+	}
+
+	@Test
+	public void testSearchAsJsonStreamProvidesResponseTextAsStream() throws IOException {
+		RestResponse response = restClient
+				.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", "someJson");
+
+		restClient.MCR.assertParameters("searchRecordWithSearchCriteriaAsJson", 0, "someSearchId",
+				"someJson");
+		assertResponseTextIsProvidedAsStream(response);
+	}
+
+	@Test
+	public void testWithDeadlineReturnsSameClient() {
+		assertSame(restClient.withDeadline(Duration.ofSeconds(1)), restClient);
+	}
+
+	@Test
+	public void testErrorResponseIsNotProvidedAsStream() {
+		RestResponse errorResponse = new RestResponse(404, "someError", Optional.empty(),
+				Optional.empty());
+		restClient.MRV.setDefaultReturnValuesSupplier("readRecordListAsJson", () -> errorResponse);
+
+		assertSame(restClient.readRecordListAsJsonStream(SOME_TYPE), errorResponse);
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest;
+
+import java.util.Optional;
+
+import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
+import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
+
+/**
+ * RestClientOriginalMethodsSpy implements only the methods of {@link RestClient} that have no
+ * default implementation, as an implementation written before the default methods were added.
+ */
+public class RestClientOriginalMethodsSpy implements RestClient {
+
+	public MethodCallRecorder MCR = new MethodCallRecorder();
+	public MethodReturnValues MRV = new MethodReturnValues();
+
+	public RestClientOriginalMethodsSpy() {
+		MCR.useMRV(MRV);
+		MRV.setDefaultReturnValuesSupplier("readRecordAsJson", () -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("createRecordFromJson", () -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("updateRecordFromJson", () -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("deleteRecord", () -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("readRecordListAsJson", () -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("readRecordListWithFilterAsJson",
+				() -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("readIncomingLinksAsJson", () -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("validateRecordAsJson", () -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("searchRecordWithSearchCriteriaAsJson",
+				() -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("batchIndexWithFilterAsJson",
+				() -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("download", () -> createRestResponse());
+	}
+
+	private RestResponse createRestResponse() {
+		return new RestResponse(200, "Some response text from spy", Optional.empty(),
+				Optional.empty());
+	}
+
+	@Override
+	public RestResponse readRecordAsJson(String recordType, String recordId) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId",
+				recordId);
+	}
+
+	@Override
+	public RestResponse createRecordFromJson(String recordType, String json) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType, "json", json);
+	}
+
+	@Override
+	public RestResponse updateRecordFromJson(String recordType, String recordId, String json) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId",
+				recordId, "json", json);
+	}
+
+	@Override
+	public RestResponse deleteRecord(String recordType, String recordId) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId",
+				recordId);
+	}
+
+	@Override
+	public RestResponse readRecordListAsJson(String recordType) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType);
+	}
+
+	@Override
+	public RestResponse readIncomingLinksAsJson(String recordType, String recordId) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId",
+				recordId);
+	}
+
+	@Override
+	public RestResponse readRecordListWithFilterAsJson(String recordType, String filter) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType, "filter",
+				filter);
+	}
+
+	@Override
+	public RestResponse batchIndexWithFilterAsJson(String recordType, String indexSettingsAsJson) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType,
+				"indexSettingsAsJson", indexSettingsAsJson);
+	}
+
+	@Override
+	public RestResponse searchRecordWithSearchCriteriaAsJson(String searchId, String json) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("searchId", searchId, "json", json);
+	}
+
+	@Override
+	public RestResponse validateRecordAsJson(String json) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("json", json);
+	}
+
+	@Override
+	public RestResponse download(String recordType, String recordId, String representation) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId",
+				recordId, "representation", representation);
+	}
+}
@@ -18,8 +18,14 @@
  */
 package se.uu.ub.cora.javaclient.rest;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 
+import se.uu.ub.cora.javaclient.ReadManyResult;
+
 import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
 import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
 
@@ -30,6 +36,7 @@ public class RestClientSpy implements RestClient {
 
 	public RestClientSpy() {
 		MCR.useMRV(MRV);
+		MRV.setDefaultReturnValuesSupplier("withDeadline", RestClientSpy::new);
 		MRV.setDefaultReturnValuesSupplier("readRecordAsJson", () -> createRestResponse());
 		MRV.setDefaultReturnValuesSupplier("createRecordFromJson", () -> createRestResponse());
 		MRV.setDefaultReturnValuesSupplier("updateRecordFromJson", () -> createRestResponse());
@@ -44,7 +51,14 @@ public class RestClientSpy implements RestClient {
 		MRV.setDefaultReturnValuesSupplier("batchIndexWithFilterAsJson",
 				() -> createRestResponse());
 		MRV.setDefaultReturnValuesSupplier("download", () -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("readRecordListAsJsonStream",
+				() -> createRestResponse());
+		MRV.setDefaultReturnValuesSupplier("searchRecordWithSearchCriteriaAsJsonStream",
+				() -> createRestResponse());
 		MRV.setDefaultReturnValuesSupplier("getBaseUrl", String::new);
+		MRV.setDefaultReturnValuesSupplier("readManyAsJson",
+				() -> new ReadManyResult<>(Map.of("someId", createRestResponse()),
+						Collections.emptyMap()));
 	}
 
 	private RestResponse createRestResponse() {
@@ -103,6 +117,16 @@ public class RestClientSpy implements RestClient {
 		return (RestResponse) MCR.addCallAndReturnFromMRV("searchId", searchId, "json", json);
 	}
 
+	@Override
+	public RestResponse readRecordListAsJsonStream(String recordType) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType);
+	}
+
+	@Override
+	public RestResponse searchRecordWithSearchCriteriaAsJsonStream(String searchId, String json) {
+		return (RestResponse) MCR.addCallAndReturnFromMRV("searchId", searchId, "json", json);
+	}
+
 	@Override
 	public RestResponse validateRecordAsJson(String json) {
 		return (RestResponse) MCR.addCallAndReturnFromMRV("json", json);
@@ -113,4 +137,17 @@ public class RestClientSpy implements RestClient {
 		return (RestResponse) MCR.addCallAndReturnFromMRV("recordType", recordType, "recordId",
 				recordId, "representation", representation);
 	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ReadManyResult<RestResponse> readManyAsJson(String recordType, Collection<String> ids,
+			int maxInFlight) {
+		return (ReadManyResult<RestResponse>) MCR.addCallAndReturnFromMRV("recordType", recordType,
+				"ids", ids, "maxInFlight", maxInFlight);
+	}
+
+	@Override
+	public RestClient withDeadline(Duration deadline) {
+		return (RestClient) MCR.addCallAndReturnFromMRV("deadline", deadline);
+	}
 }
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.AdaptiveConcurrencySettings;
+import se.uu.ub.cora.javaclient.rest.OperationType;
+
+public class AdaptiveConcurrencyLimiterTest {
+	private static final Duration FAST = Duration.ofMillis(10);
+	private static final OperationType READ = OperationType.READ;
+	private long nanoTime;
+
+	@Test
+	public void testInit() {
+		AdaptiveConcurrencySettings settings = AdaptiveConcurrencySettings
+				.usingInitialLimitAndMinLimitAndMaxLimit(5, 2, 10);
+
+		AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.usingSettings(settings);
+
+		assertSame(limiter.onlyForTestGetSettings(), settings);
+		assertEquals(limiter.getCurrentLimit(), 5);
+		assertEquals(limiter.getInFlight(), 0);
+	}
+
+	@Test
+	public void testLimitsOutOfOrderAreRejected() {
+		assertSettingsAreRejected(() -> createLimiter(1, 2, 10),
+				"1 <= minLimit <= initialLimit <= maxLimit is required");
+		assertSettingsAreRejected(() -> createLimiter(20, 2, 10),
+				"1 <= minLimit <= initialLimit <= maxLimit is required");
+		assertSettingsAreRejected(() -> createLimiter(5, 0, 10),
+				"1 <= minLimit <= initialLimit <= maxLimit is required");
+	}
+
+	private void assertSettingsAreRejected(Runnable createSettings, String reason) {
+		try {
+			createSettings.run();
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Invalid adaptive concurrency settings, " + reason + ".");
+		}
+	}
+
+	@Test
+	public void testFactorsOutOfRangeAreRejected() {
+		assertSettingsAreRejected(() -> createSettingsUsingFactors(0, 2),
+				"backoffRatio must be between 0 and 1");
+		assertSettingsAreRejected(() -> createSettingsUsingFactors(1, 2),
+				"backoffRatio must be between 0 and 1");
+		assertSettingsAreRejected(() -> createSettingsUsingFactors(0.9, 1),
+				"latencyTolerance must be above 1");
+		assertSettingsAreRejected(() -> createSettingsUsingFactors(Double.NaN, 2),
+				"backoffRatio must be between 0 and 1");
+	}
+
+	private void createSettingsUsingFactors(double backoffRatio, double latencyTolerance) {
+		new AdaptiveConcurrencySettings(5, 1, 10, backoffRatio, latencyTolerance, _ -> {
+		});
+	}
+
+	@Test
+	public void testLimitIsDecreasedByAtLeastOne() {
+		AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.usingSettingsAndNanoClock(
+				new AdaptiveConcurrencySettings(3, 1, 3, 0.9, 2, _ -> {
+				}), () -> nanoTime);
+
+		recordFailedRequestSentNow(limiter);
+		assertEquals(limiter.getCurrentLimit(), 2);
+		recordFailedRequestSentNow(limiter);
+		recordFailedRequestSentNow(limiter);
+		assertEquals(limiter.getCurrentLimit(), 1);
+	}
+
+	private AdaptiveConcurrencyLimiter createLimiter(int initialLimit, int minLimit,
+			int maxLimit) {
+		return AdaptiveConcurrencyLimiter.usingSettings(AdaptiveConcurrencySettings
+				.usingInitialLimitAndMinLimitAndMaxLimit(initialLimit, minLimit, maxLimit));
+	}
+
+	@Test
+	public void testDisabledNeverBlocksOrChangesLimit() {
+		AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter
+				.usingSettings(AdaptiveConcurrencySettings.DISABLED);
+
+		for (int i = 0; i < 1000; i++) {
+			limiter.acquire();
+		}
+		limiter.recordAndRelease(READ, true, FAST);
+		limiter.releaseWithoutRecording();
+
+		assertEquals(limiter.getInFlight(), 0);
+		assertEquals(limiter.getCurrentLimit(), 0);
+	}
+
+	@Test
+	public void testSuccessfulRequestsIncreaseLimitUpToMax() {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(1, 1, 3);
+
+		for (int i = 0; i < 5; i++) {
+			limiter.acquire();
+			limiter.recordAndRelease(READ, false, FAST);
+		}
+
+		assertEquals(limiter.getCurrentLimit(), 3);
+		assertEquals(limiter.getInFlight(), 0);
+	}
+
+	@Test
+	public void testLimitNotIncreasedWhenFarFromLimit() {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(10, 1, 20);
+
+		limiter.acquire();
+		limiter.recordAndRelease(READ, false, FAST);
+
+		assertEquals(limiter.getCurrentLimit(), 10);
+	}
+
+	@Test
+	public void testFailedRequestsDecreaseLimitDownToMin() {
+		AdaptiveConcurrencyLimiter limiter = createLimiterUsingNanoClock(20, 15, 20);
+
+		recordFailedRequestSentNow(limiter);
+		assertEquals(limiter.getCurrentLimit(), 18);
+
+		for (int i = 0; i < 5; i++) {
+			recordFailedRequestSentNow(limiter);
+		}
+		assertEquals(limiter.getCurrentLimit(), 15);
+	}
+
+	private AdaptiveConcurrencyLimiter createLimiterUsingNanoClock(int initialLimit,
+			int minLimit, int maxLimit) {
+		nanoTime = 0;
+		return AdaptiveConcurrencyLimiter.usingSettingsAndNanoClock(
+				AdaptiveConcurrencySettings.usingInitialLimitAndMinLimitAndMaxLimit(initialLimit,
+						minLimit, maxLimit),
+				() -> nanoTime);
+	}
+
+	private void recordFailedRequestSentNow(AdaptiveConcurrencyLimiter limiter) {
+		limiter.acquire();
+		nanoTime += FAST.toNanos();
+		limiter.recordAndRelease(READ, true, FAST);
+	}
+
+	@Test
+	public void testLimitIsDecreasedOncePerRoundTrip() {
+		AdaptiveConcurrencyLimiter limiter = createLimiterUsingNanoClock(20, 1, 20);
+		for (int i = 0; i < 5; i++) {
+			limiter.acquire();
+		}
+		nanoTime += FAST.toNanos();
+
+		for (int i = 0; i < 5; i++) {
+			limiter.recordAndRelease(READ, true, FAST);
+		}
+
+		assertEquals(limiter.getCurrentLimit(), 18);
+		recordFailedRequestSentNow(limiter);
+		assertEquals(limiter.getCurrentLimit(), 16);
+	}
+
+	@Test
+	public void testSlowRequestDecreasesLimit() {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(10, 1, 20);
+		limiter.acquire();
+		limiter.recordAndRelease(READ, false, FAST);
+
+		limiter.acquire();
+		limiter.recordAndRelease(READ, false, FAST.multipliedBy(2));
+		assertEquals(limiter.getCurrentLimit(), 10);
+
+		limiter.acquire();
+		limiter.recordAndRelease(READ, false, FAST.multipliedBy(3));
+		assertEquals(limiter.getCurrentLimit(), 9);
+	}
+
+	@Test
+	public void testReleaseWithoutRecordingKeepsLimit() {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(1, 1, 10);
+
+		limiter.acquire();
+		limiter.releaseWithoutRecording();
+
+		assertEquals(limiter.getCurrentLimit(), 1);
+		assertEquals(limiter.getInFlight(), 0);
+	}
+
+	@Test
+	public void testListenerCalledWhenLimitChanges() {
+		List<Integer> limits = new ArrayList<>();
+		AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter
+				.usingSettings(AdaptiveConcurrencySettings
+						.usingInitialLimitAndMinLimitAndMaxLimit(1, 1, 2)
+						.withLimitListener(limits::add));
+
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire();
+			limiter.recordAndRelease(READ, false, FAST);
+		}
+		limiter.acquire();
+		limiter.recordAndRelease(READ, true, FAST);
+
+		assertEquals(limits, List.of(2, 1));
+	}
+
+	@Test
+	public void testAcquireWaitsUntilBelowLimit() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(1, 1, 1);
+		limiter.acquire();
+		CountDownLatch acquired = new CountDownLatch(1);
+		Thread.ofVirtual().start(() -> {
+			limiter.acquire();
+			acquired.countDown();
+		});
+
+		assertEquals(acquired.await(50, TimeUnit.MILLISECONDS), false);
+		limiter.releaseWithoutRecording();
+
+		assertTrue(acquired.await(1, TimeUnit.SECONDS));
+		assertEquals(limiter.getInFlight(), 1);
+	}
+
+	@Test
+	public void testAcquireInterruptedWhileWaiting() {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(1, 1, 1);
+		limiter.acquire();
+		interruptCurrentThreadAfterMillis(50);
+
+		try {
+			limiter.acquire();
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Interrupted while waiting for the adaptive concurrency "
+					+ "limit, no request was sent.");
+			assertTrue(Thread.interrupted());
+		}
+		assertEquals(limiter.getInFlight(), 1);
+	}
+
+	@Test
+	public void testAcquireWithinWaitsUntilBelowLimit() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(1, 1, 1);
+		limiter.acquire();
+		CountDownLatch acquired = new CountDownLatch(1);
+		Thread.ofVirtual().start(() -> {
+			limiter.acquireWithin(Duration.ofSeconds(10));
+			acquired.countDown();
+		});
+
+		assertEquals(acquired.await(50, TimeUnit.MILLISECONDS), false);
+		limiter.releaseWithoutRecording();
+
+		assertTrue(acquired.await(1, TimeUnit.SECONDS));
+		assertEquals(limiter.getInFlight(), 1);
+	}
+
+	@Test
+	public void testAcquireWithinFailsWhenNotBelowLimitInTime() {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(1, 1, 1);
+		limiter.acquire();
+		long start = System.nanoTime();
+
+		try {
+			limiter.acquireWithin(Duration.ofMillis(50));
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "The deadline was exceeded while waiting for the "
+					+ "adaptive concurrency limit, no request was sent.");
+		}
+		long waitedNanos = System.nanoTime() - start;
+		assertTrue(waitedNanos >= 45_000_000L);
+		assertTrue(waitedNanos < 1_000_000_000L);
+		assertEquals(limiter.getInFlight(), 1);
+	}
+
+	@Test
+	public void testAcquireWithinWhenDisabledNeverBlocks() {
+		AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter
+				.usingSettings(AdaptiveConcurrencySettings.DISABLED);
+
+		limiter.acquireWithin(Duration.ZERO);
+
+		assertEquals(limiter.getInFlight(), 0);
+	}
+
+	private void interruptCurrentThreadAfterMillis(long millis) {
+		Thread currentThread = Thread.currentThread();
+		Thread.ofVirtual().start(() -> {
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException _) {
+				return;
+			}
+			currentThread.interrupt();
+		});
+	}
+
+	@Test
+	public void testAverageRoundTripIsKeptPerOperationType() {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(10, 1, 20);
+		limiter.acquire();
+		limiter.recordAndRelease(READ, false, FAST);
+		limiter.acquire();
+		limiter.recordAndRelease(OperationType.SEARCH, false, FAST.multipliedBy(10));
+
+		limiter.acquire();
+		limiter.recordAndRelease(OperationType.SEARCH, false, FAST.multipliedBy(10));
+
+		assertEquals(limiter.getCurrentLimit(), 10);
+	}
+
+	@Test
+	public void testLastingStepChangeInRoundTripMovesAverage() {
+		AdaptiveConcurrencyLimiter limiter = createLimiterUsingNanoClock(10, 1, 20);
+		for (int i = 0; i < 20; i++) {
+			recordRequestSentNowTaking(limiter, FAST);
+		}
+
+		for (int i = 0; i < 10; i++) {
+			recordRequestSentNowTaking(limiter, FAST.multipliedBy(3));
+		}
+		int limitAfterStepChange = limiter.getCurrentLimit();
+		assertTrue(limitAfterStepChange < 10);
+		for (int i = 0; i < 20; i++) {
+			recordRequestSentNowTaking(limiter, FAST.multipliedBy(3));
+		}
+
+		assertEquals(limiter.getCurrentLimit(), limitAfterStepChange);
+	}
+
+	private void recordRequestSentNowTaking(AdaptiveConcurrencyLimiter limiter,
+			Duration roundTripTime) {
+		limiter.acquire();
+		nanoTime += roundTripTime.toNanos();
+		limiter.recordAndRelease(READ, false, roundTripTime);
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.AsyncRestClient;
+import se.uu.ub.cora.javaclient.rest.RestClientSpy;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
+
+public class AsyncRestClientTest {
+	private static final String SOME_TYPE = "someType";
+	private static final String SOME_ID = "someId";
+	private static final String SOME_JSON = "someJson";
+	private RestClientSpy restClient;
+	private ExecutorSpy executor;
+	private AsyncRestClient asyncRestClient;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		restClient = new RestClientSpy();
+		executor = new ExecutorSpy();
+		asyncRestClient = AsyncRestClientImp.usingRestClientAndExecutor(restClient, executor);
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		AsyncRestClientImp asyncRestClientImp = (AsyncRestClientImp) asyncRestClient;
+
+		assertSame(asyncRestClientImp.onlyForTestGetRestClient(), restClient);
+		assertSame(asyncRestClientImp.onlyForTestGetExecutor(), executor);
+	}
+
+	@Test
+	public void testReadRecordAsJson() {
+		CompletableFuture<RestResponse> future = asyncRestClient.readRecordAsJson(SOME_TYPE,
+				SOME_ID);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "readRecordAsJson");
+		restClient.MCR.assertParameters("readRecordAsJson", 0, SOME_TYPE, SOME_ID);
+	}
+
+	private void assertCallRunOnExecutorAndResponseFromRestClient(
+			CompletableFuture<RestResponse> future, String methodName) {
+		executor.MCR.assertNumberOfCallsToMethod("execute", 1);
+		restClient.MCR.assertReturn(methodName, 0, future.join());
+	}
+
+	@Test
+	public void testCreateRecordFromJson() {
+		CompletableFuture<RestResponse> future = asyncRestClient.createRecordFromJson(SOME_TYPE,
+				SOME_JSON);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "createRecordFromJson");
+		restClient.MCR.assertParameters("createRecordFromJson", 0, SOME_TYPE, SOME_JSON);
+	}
+
+	@Test
+	public void testUpdateRecordFromJson() {
+		CompletableFuture<RestResponse> future = asyncRestClient.updateRecordFromJson(SOME_TYPE,
+				SOME_ID, SOME_JSON);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "updateRecordFromJson");
+		restClient.MCR.assertParameters("updateRecordFromJson", 0, SOME_TYPE, SOME_ID, SOME_JSON);
+	}
+
+	@Test
+	public void testDeleteRecord() {
+		CompletableFuture<RestResponse> future = asyncRestClient.deleteRecord(SOME_TYPE, SOME_ID);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "deleteRecord");
+		restClient.MCR.assertParameters("deleteRecord", 0, SOME_TYPE, SOME_ID);
+	}
+
+	@Test
+	public void testReadRecordListAsJson() {
+		CompletableFuture<RestResponse> future = asyncRestClient.readRecordListAsJson(SOME_TYPE);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "readRecordListAsJson");
+		restClient.MCR.assertParameters("readRecordListAsJson", 0, SOME_TYPE);
+	}
+
+	@Test
+	public void testReadIncomingLinksAsJson() {
+		CompletableFuture<RestResponse> future = asyncRestClient.readIncomingLinksAsJson(SOME_TYPE,
+				SOME_ID);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "readIncomingLinksAsJson");
+		restClient.MCR.assertParameters("readIncomingLinksAsJson", 0, SOME_TYPE, SOME_ID);
+	}
+
+	@Test
+	public void testReadRecordListWithFilterAsJson() {
+		CompletableFuture<RestResponse> future = asyncRestClient
+				.readRecordListWithFilterAsJson(SOME_TYPE, SOME_JSON);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "readRecordListWithFilterAsJson");
+		restClient.MCR.assertParameters("readRecordListWithFilterAsJson", 0, SOME_TYPE, SOME_JSON);
+	}
+
+	@Test
+	public void testBatchIndexWithFilterAsJson() {
+		CompletableFuture<RestResponse> future = asyncRestClient
+				.batchIndexWithFilterAsJson(SOME_TYPE, SOME_JSON);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "batchIndexWithFilterAsJson");
+		restClient.MCR.assertParameters("batchIndexWithFilterAsJson", 0, SOME_TYPE, SOME_JSON);
+	}
+
+	@Test
+	public void testSearchRecordWithSearchCriteriaAsJson() {
+		CompletableFuture<RestResponse> future = asyncRestClient
+				.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future,
+				"searchRecordWithSearchCriteriaAsJson");
+		restClient.MCR.assertParameters("searchRecordWithSearchCriteriaAsJson", 0, "someSearchId",
+				SOME_JSON);
+	}
+
+	@Test
+	public void testValidateRecordAsJson() {
+		CompletableFuture<RestResponse> future = asyncRestClient.validateRecordAsJson(SOME_JSON);
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "validateRecordAsJson");
+		restClient.MCR.assertParameters("validateRecordAsJson", 0, SOME_JSON);
+	}
+
+	@Test
+	public void testDownload() {
+		CompletableFuture<RestResponse> future = asyncRestClient.download(SOME_TYPE, SOME_ID,
+				"someRepresentation");
+
+		assertCallRunOnExecutorAndResponseFromRestClient(future, "download");
+		restClient.MCR.assertParameters("download", 0, SOME_TYPE, SOME_ID, "someRepresentation");
+	}
+
+	@Test
+	public void testExceptionFromRestClientCompletesFutureExceptionally() {
+		DataClientException exception = DataClientException.withMessage("spy message");
+		restClient.MRV.setAlwaysThrowException("readRecordAsJson", exception);
+
+		CompletableFuture<RestResponse> future = asyncRestClient.readRecordAsJson(SOME_TYPE,
+				SOME_ID);
+
+		assertTrue(future.isCompletedExceptionally());
+		try {
+			future.join();
+		} catch (CompletionException e) {
+			assertSame(e.getCause(), exception);
+		}
+	}
+
+	@Test
+	public void testCallIsRunOnVirtualThreadUsingVirtualThreadExecutor() {
+		restClient.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> new RestResponse(200, String.valueOf(Thread.currentThread().isVirtual()),
+						Optional.empty(), Optional.empty()));
+		asyncRestClient = AsyncRestClientImp.usingRestClientAndExecutor(restClient,
+				Executors.newVirtualThreadPerTaskExecutor());
+
+		RestResponse response = asyncRestClient.readRecordAsJson(SOME_TYPE, SOME_ID).join();
+
+		assertEquals(response.responseText(), "true");
+	}
+
+	class ExecutorSpy implements Executor {
+		public MethodCallRecorder MCR = new MethodCallRecorder();
+
+		@Override
+		public void execute(Runnable command) {
+			MCR.addCall("command", command);
+			command.run();
+		}
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.ReadCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestClientSpy;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+public class CachingRestClientTest {
+	private static final String SOME_TYPE = "someType";
+	private static final String SOME_ID = "someId";
+	private static final String SOME_JSON = "someJson";
+	private RestClientSpy restClientSpy;
+	private ReadCache readCache;
+	private RestClient restClient;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		restClientSpy = new RestClientSpy();
+		readCache = ReadCache.usingSettings(
+				ReadCacheSettings.usingMaxEntriesAndTimeToLive(10, Duration.ofMinutes(1)));
+		restClient = CachingRestClient.usingRestClientAndReadCache(restClientSpy, readCache);
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		CachingRestClient cachingRestClient = (CachingRestClient) restClient;
+
+		assertSame(cachingRestClient.onlyForTestGetRestClient(), restClientSpy);
+		assertSame(cachingRestClient.onlyForTestGetReadCache(), readCache);
+	}
+
+	@Test
+	public void testCallsAreDelegated() {
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.createRecordFromJson(SOME_TYPE, SOME_JSON);
+		restClient.updateRecordFromJson(SOME_TYPE, SOME_ID, SOME_JSON);
+		restClient.deleteRecord(SOME_TYPE, SOME_ID);
+		restClient.readRecordListAsJson(SOME_TYPE);
+		restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordListWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.batchIndexWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON);
+		restClient.readRecordListAsJsonStream(SOME_TYPE);
+		restClient.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", SOME_JSON);
+		restClient.validateRecordAsJson(SOME_JSON);
+		restClient.download(SOME_TYPE, SOME_ID, "someRepresentation");
+
+		restClientSpy.MCR.assertReturn("readRecordAsJson", 0, response);
+		restClientSpy.MCR.assertParameters("createRecordFromJson", 0, SOME_TYPE, SOME_JSON);
+		restClientSpy.MCR.assertParameters("updateRecordFromJson", 0, SOME_TYPE, SOME_ID,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("deleteRecord", 0, SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertParameters("readRecordListAsJson", 0, SOME_TYPE);
+		restClientSpy.MCR.assertParameters("readIncomingLinksAsJson", 0, SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertParameters("readRecordListWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("batchIndexWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("searchRecordWithSearchCriteriaAsJson", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy.MCR.assertParameters("readRecordListAsJsonStream", 0, SOME_TYPE);
+		restClientSpy.MCR.assertParameters("searchRecordWithSearchCriteriaAsJsonStream", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy.MCR.assertParameters("validateRecordAsJson", 0, SOME_JSON);
+		restClientSpy.MCR.assertParameters("download", 0, SOME_TYPE, SOME_ID,
+				"someRepresentation");
+	}
+
+	@Test
+	public void testSecondReadIsAnsweredFromCache() {
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		RestResponse secondResponse = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		assertSame(secondResponse, response);
+	}
+
+	@Test
+	public void testOnlyOkResponsesAreCached() {
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> new RestResponse(404, "not found", Optional.empty(), Optional.empty()));
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+	}
+
+	@Test
+	public void testUpdateInvalidatesCachedRecord() {
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClient.updateRecordFromJson(SOME_TYPE, SOME_ID, SOME_JSON);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+	}
+
+	@Test
+	public void testDeleteInvalidatesCachedRecord() {
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClient.deleteRecord(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+	}
+
+	@Test
+	public void testFailingUpdateInvalidatesCachedRecord() {
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClientSpy.MRV.setAlwaysThrowException("updateRecordFromJson",
+				DataClientException.withMessage("spy error"));
+
+		try {
+			restClient.updateRecordFromJson(SOME_TYPE, SOME_ID, SOME_JSON);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "spy error");
+		}
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+	}
+
+	@Test
+	public void testReadInFlightWhenRecordIsUpdatedIsNotCached() {
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson", () -> {
+			restClient.updateRecordFromJson(SOME_TYPE, SOME_ID, SOME_JSON);
+			return new RestResponse(200, "someStaleText", Optional.empty(), Optional.empty());
+		});
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertTrue(readCache.get(SOME_TYPE, SOME_ID).isEmpty());
+	}
+
+	@Test
+	public void testFailingReadIsNoLongerInFlight() {
+		restClientSpy.MRV.setAlwaysThrowException("readRecordAsJson",
+				DataClientException.withMessage("spy error"));
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "spy error");
+		}
+
+		assertEquals(readCache.onlyForTestGetNumberOfRecordsWithReadsInFlight(), 0);
+	}
+
+	@Test
+	public void testReadManyIsCachedPerRead() {
+		restClient.readRecordAsJson(SOME_TYPE, "id1");
+
+		ReadManyResult<RestResponse> result = restClient.readManyAsJson(SOME_TYPE,
+				List.of("id1", "id2"), 2);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+		restClientSpy.MCR.assertMethodNotCalled("readManyAsJson");
+		assertEquals(result.results().size(), 2);
+	}
+
+	@Test
+	public void testWithDeadlineSharesReadCache() {
+		CachingRestClient withDeadline = (CachingRestClient) restClient
+				.withDeadline(Duration.ofSeconds(1));
+
+		assertNotSame(withDeadline, restClient);
+		restClientSpy.MCR.assertParameters("withDeadline", 0, Duration.ofSeconds(1));
+		restClientSpy.MCR.assertReturn("withDeadline", 0, withDeadline.onlyForTestGetRestClient());
+		assertSame(withDeadline.onlyForTestGetReadCache(), readCache);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		assertTrue(readCache.get(SOME_TYPE, SOME_ID).isPresent());
+	}
+
+	@Test
+	public void testErrorResponsesAreCachedWhenTimeToLiveIsSet() {
+		readCache = ReadCache.usingSettings(ReadCacheSettings
+				.usingMaxEntriesAndTimeToLive(10, Duration.ZERO)
+				.withErrorTimeToLive(404, Duration.ofMinutes(1)));
+		restClient = CachingRestClient.usingRestClientAndReadCache(restClientSpy, readCache);
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> new RestResponse(404, "not found", Optional.empty(), Optional.empty()));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		RestResponse secondResponse = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		assertSame(secondResponse, response);
+	}
+
+	@Test
+	public void testCreateInvalidatesCreatedRecord() {
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("createRecordFromJson",
+				() -> new RestResponse(201, "created", Optional.empty(), Optional.of(SOME_ID)));
+
+		restClient.createRecordFromJson(SOME_TYPE, SOME_JSON);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerSettings;
+
+public class CircuitBreakerRegistryTest {
+	private static final String BASE_URL = "http://localhost/rest/";
+
+	@Test
+	public void testOneCircuitBreakerPerBaseUrl() {
+		CircuitBreakerRegistry registry = CircuitBreakerRegistry
+				.usingSettings(CircuitBreakerSettings.DEFAULT);
+
+		CircuitBreaker circuitBreaker = registry.getCircuitBreakerForBaseUrlAndOperation(BASE_URL,
+				"read");
+
+		assertSame(registry.onlyForTestGetSettings(), CircuitBreakerSettings.DEFAULT);
+		assertEquals(circuitBreaker.onlyForTestGetName(), BASE_URL);
+		assertSame(circuitBreaker.onlyForTestGetSettings(), CircuitBreakerSettings.DEFAULT);
+		assertSame(registry.getCircuitBreakerForBaseUrlAndOperation(BASE_URL, "write"),
+				circuitBreaker);
+		assertNotSame(registry.getCircuitBreakerForBaseUrlAndOperation("http://other/", "read"),
+				circuitBreaker);
+	}
+
+	@Test
+	public void testOneCircuitBreakerPerBaseUrlAndOperation() {
+		CircuitBreakerRegistry registry = CircuitBreakerRegistry
+				.usingSettings(CircuitBreakerSettings.DEFAULT.withPerOperation());
+
+		CircuitBreaker circuitBreaker = registry.getCircuitBreakerForBaseUrlAndOperation(BASE_URL,
+				"read");
+
+		assertEquals(circuitBreaker.onlyForTestGetName(), BASE_URL + " (read)");
+		assertSame(registry.getCircuitBreakerForBaseUrlAndOperation(BASE_URL, "read"),
+				circuitBreaker);
+		assertNotSame(registry.getCircuitBreakerForBaseUrlAndOperation(BASE_URL, "write"),
+				circuitBreaker);
+	}
+
+	@Test
+	public void testDisabledSharesOneDisabledCircuitBreaker() {
+		CircuitBreakerRegistry registry = CircuitBreakerRegistry
+				.usingSettings(CircuitBreakerSettings.DISABLED);
+
+		CircuitBreaker circuitBreaker = registry.getCircuitBreakerForBaseUrlAndOperation(BASE_URL,
+				"read");
+
+		assertSame(circuitBreaker.onlyForTestGetSettings(), CircuitBreakerSettings.DISABLED);
+		assertSame(registry.getCircuitBreakerForBaseUrlAndOperation("http://other/", "read"),
+				circuitBreaker);
+	}
+}
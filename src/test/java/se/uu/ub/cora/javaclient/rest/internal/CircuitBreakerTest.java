@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.time.Duration;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerOpenException;
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerSettings;
+import se.uu.ub.cora.javaclient.rest.internal.CircuitBreaker.State;
+
+public class CircuitBreakerTest {
+	private static final Duration FAST = Duration.ofMillis(10);
+	private static final Duration SLOW = Duration.ofSeconds(2);
+	private CircuitBreakerSettings settings;
+	private long nanoTime;
+	private CircuitBreaker circuitBreaker;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		settings = new CircuitBreakerSettings(4, 4, 50, Duration.ofSeconds(1), 75,
+				Duration.ofSeconds(30), 2, false);
+		nanoTime = 0;
+		circuitBreaker = CircuitBreaker.usingNameAndSettingsAndNanoClock("someName", settings,
+				() -> nanoTime);
+	}
+
+	@Test
+	public void testInit() {
+		CircuitBreaker created = CircuitBreaker.usingNameAndSettings("someName", settings);
+
+		assertEquals(created.onlyForTestGetName(), "someName");
+		assertSame(created.onlyForTestGetSettings(), settings);
+		assertEquals(created.onlyForTestGetState(), State.CLOSED);
+	}
+
+	@Test
+	public void testStaysClosedBelowMinimumNumberOfCalls() {
+		recordCalls(3, true, FAST);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.CLOSED);
+		circuitBreaker.ensureCallIsPermitted();
+	}
+
+	private void recordCalls(int numberOfCalls, boolean failed, Duration duration) {
+		for (int i = 0; i < numberOfCalls; i++) {
+			circuitBreaker.ensureCallIsPermitted();
+			circuitBreaker.recordCall(failed, duration);
+		}
+	}
+
+	@Test
+	public void testStaysClosedBelowFailureRate() {
+		recordCalls(3, false, FAST);
+		recordCalls(1, true, FAST);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.CLOSED);
+	}
+
+	@Test
+	public void testOpensWhenFailureRateIsReached() {
+		recordCalls(2, false, FAST);
+		recordCalls(2, true, FAST);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.OPEN);
+		assertCallIsNotPermitted();
+	}
+
+	private void assertCallIsNotPermitted() {
+		try {
+			circuitBreaker.ensureCallIsPermitted();
+			fail("It should throw an exception");
+		} catch (CircuitBreakerOpenException e) {
+			assertEquals(e.getMessage(),
+					"The circuit breaker for: someName is open, no request was sent.");
+		}
+	}
+
+	@Test
+	public void testOpensWhenSlowCallRateIsReached() {
+		recordCalls(1, false, FAST);
+		recordCalls(2, false, SLOW);
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.CLOSED);
+
+		recordCalls(1, false, SLOW);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.OPEN);
+	}
+
+	@Test
+	public void testOldestCallsLeaveTheWindow() {
+		recordCalls(1, true, FAST);
+		recordCalls(4, false, FAST);
+		recordCalls(1, true, FAST);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.CLOSED);
+	}
+
+	@Test
+	public void testHalfOpenAfterOpenDurationLetsTrialCallsThrough() {
+		openCircuitBreaker();
+		nanoTime = Duration.ofSeconds(30).toNanos();
+
+		circuitBreaker.ensureCallIsPermitted();
+		circuitBreaker.ensureCallIsPermitted();
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.HALF_OPEN);
+		assertCallIsNotPermitted();
+	}
+
+	private void openCircuitBreaker() {
+		recordCalls(4, true, FAST);
+		nanoTime = Duration.ofSeconds(1).toNanos();
+		assertCallIsNotPermitted();
+	}
+
+	@Test
+	public void testClosesWhenAllTrialCallsSucceed() {
+		openCircuitBreaker();
+		nanoTime = Duration.ofSeconds(31).toNanos();
+
+		recordCalls(2, false, FAST);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.CLOSED);
+		recordCalls(3, true, FAST);
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.CLOSED);
+	}
+
+	@Test
+	public void testOpensAgainWhenTrialCallFails() {
+		openCircuitBreaker();
+		nanoTime = Duration.ofSeconds(31).toNanos();
+
+		recordCalls(1, true, FAST);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.OPEN);
+		nanoTime = Duration.ofSeconds(60).toNanos();
+		assertCallIsNotPermitted();
+	}
+
+	@Test
+	public void testOpensAgainWhenTrialCallIsSlow() {
+		openCircuitBreaker();
+		nanoTime = Duration.ofSeconds(31).toNanos();
+
+		recordCalls(1, false, SLOW);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.OPEN);
+	}
+
+	@Test
+	public void testCallsEndingWhileOpenAreIgnored() {
+		circuitBreaker.ensureCallIsPermitted();
+		openCircuitBreaker();
+
+		circuitBreaker.recordCall(false, FAST);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.OPEN);
+	}
+
+	@Test
+	public void testCallsReleasedWithoutRecordingDoNotCount() {
+		recordCalls(2, true, FAST);
+		for (int i = 0; i < 4; i++) {
+			circuitBreaker.ensureCallIsPermitted();
+			circuitBreaker.releaseWithoutRecording();
+		}
+		recordCalls(1, false, FAST);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.CLOSED);
+		recordCalls(1, true, FAST);
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.OPEN);
+	}
+
+	@Test
+	public void testTrialCallReleasedWithoutRecordingIsGivenBack() {
+		openCircuitBreaker();
+		nanoTime = Duration.ofSeconds(31).toNanos();
+		circuitBreaker.ensureCallIsPermitted();
+		circuitBreaker.ensureCallIsPermitted();
+
+		circuitBreaker.releaseWithoutRecording();
+
+		circuitBreaker.ensureCallIsPermitted();
+		assertCallIsNotPermitted();
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.HALF_OPEN);
+	}
+
+	@Test
+	public void testDisabledNeverOpens() {
+		circuitBreaker = CircuitBreaker.usingNameAndSettings("someName",
+				CircuitBreakerSettings.DISABLED);
+
+		recordCalls(100, true, SLOW);
+
+		assertEquals(circuitBreaker.onlyForTestGetState(), State.CLOSED);
+	}
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.CoalescingStatistics;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestClientSpy;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+public class CoalescingRestClientTest {
+	private static final String SOME_TYPE = "someType";
+	private static final String SOME_ID = "someId";
+	private static final String SOME_JSON = "someJson";
+	private RestClientSpy restClientSpy;
+	private CoalescingStatistics statistics;
+	private RestClient restClient;
+	private CountDownLatch callStarted;
+	private CountDownLatch releaseCall;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		restClientSpy = new RestClientSpy();
+		statistics = new CoalescingStatistics();
+		restClient = CoalescingRestClient.usingRestClientAndStatistics(restClientSpy, statistics);
+		callStarted = new CountDownLatch(1);
+		releaseCall = new CountDownLatch(1);
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		CoalescingRestClient coalescingRestClient = (CoalescingRestClient) restClient;
+
+		assertSame(coalescingRestClient.onlyForTestGetRestClient(), restClientSpy);
+		assertSame(coalescingRestClient.onlyForTestGetStatistics(), statistics);
+		assertEquals(coalescingRestClient.onlyForTestGetDeadline(), Duration.ZERO);
+	}
+
+	@Test
+	public void testCallsAreDelegated() {
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.createRecordFromJson(SOME_TYPE, SOME_JSON);
+		restClient.updateRecordFromJson(SOME_TYPE, SOME_ID, SOME_JSON);
+		restClient.deleteRecord(SOME_TYPE, SOME_ID);
+		restClient.readRecordListAsJson(SOME_TYPE);
+		restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordListWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.batchIndexWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON);
+		restClient.readRecordListAsJsonStream(SOME_TYPE);
+		restClient.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", SOME_JSON);
+		restClient.validateRecordAsJson(SOME_JSON);
+		restClient.download(SOME_TYPE, SOME_ID, "someRepresentation");
+
+		restClientSpy.MCR.assertReturn("readRecordAsJson", 0, response);
+		restClientSpy.MCR.assertParameters("createRecordFromJson", 0, SOME_TYPE, SOME_JSON);
+		restClientSpy.MCR.assertParameters("updateRecordFromJson", 0, SOME_TYPE, SOME_ID,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("deleteRecord", 0, SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertParameters("readRecordListAsJson", 0, SOME_TYPE);
+		restClientSpy.MCR.assertParameters("readIncomingLinksAsJson", 0, SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertParameters("readRecordListWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("batchIndexWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("searchRecordWithSearchCriteriaAsJson", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy.MCR.assertParameters("readRecordListAsJsonStream", 0, SOME_TYPE);
+		restClientSpy.MCR.assertParameters("searchRecordWithSearchCriteriaAsJsonStream", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy.MCR.assertParameters("validateRecordAsJson", 0, SOME_JSON);
+		restClientSpy.MCR.assertParameters("download", 0, SOME_TYPE, SOME_ID,
+				"someRepresentation");
+		assertEquals(statistics.getSentRequests(), 5);
+		assertEquals(statistics.getCoalescedRequests(), 0);
+	}
+
+	@Test
+	public void testSequentialReadsAreNotCoalesced() {
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+		assertEquals(statistics.getSentRequests(), 2);
+		assertEquals(((CoalescingRestClient) restClient).onlyForTestGetNumberOfReadsInFlight(), 0);
+	}
+
+	@Test
+	public void testConcurrentIdenticalReadsAreCoalesced() throws Exception {
+		assertConcurrentCallsAreCoalesced("readRecordAsJson",
+				client -> client.readRecordAsJson(SOME_TYPE, SOME_ID));
+	}
+
+	@Test
+	public void testConcurrentIdenticalListReadsAreCoalesced() throws Exception {
+		assertConcurrentCallsAreCoalesced("readRecordListAsJson",
+				client -> client.readRecordListAsJson(SOME_TYPE));
+	}
+
+	@Test
+	public void testConcurrentIdenticalIncomingLinksReadsAreCoalesced() throws Exception {
+		assertConcurrentCallsAreCoalesced("readIncomingLinksAsJson",
+				client -> client.readIncomingLinksAsJson(SOME_TYPE, SOME_ID));
+	}
+
+	@Test
+	public void testConcurrentIdenticalFilteredListReadsAreCoalesced() throws Exception {
+		assertConcurrentCallsAreCoalesced("readRecordListWithFilterAsJson",
+				client -> client.readRecordListWithFilterAsJson(SOME_TYPE, SOME_JSON));
+	}
+
+	@Test
+	public void testConcurrentIdenticalSearchesAreCoalesced() throws Exception {
+		assertConcurrentCallsAreCoalesced("searchRecordWithSearchCriteriaAsJson",
+				client -> client.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON));
+	}
+
+	private void assertConcurrentCallsAreCoalesced(String methodName,
+			Function<RestClient, RestResponse> call) throws Exception {
+		RestResponse response = new RestResponse(200, "someText", Optional.empty(),
+				Optional.empty());
+		restClientSpy.MRV.setDefaultReturnValuesSupplier(methodName, () -> {
+			waitUntilReleased();
+			return response;
+		});
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<RestResponse>> calls = startTwoConcurrentCalls(executor, call);
+
+			assertSame(calls.get(0).get(), response);
+			assertSame(calls.get(1).get(), response);
+		}
+		restClientSpy.MCR.assertNumberOfCallsToMethod(methodName, 1);
+		assertEquals(statistics.getSentRequests(), 1);
+		assertEquals(statistics.getCoalescedRequests(), 1);
+		assertEquals(((CoalescingRestClient) restClient).onlyForTestGetNumberOfReadsInFlight(), 0);
+	}
+
+	private void waitUntilReleased() {
+		callStarted.countDown();
+		try {
+			releaseCall.await();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private List<Future<RestResponse>> startTwoConcurrentCalls(ExecutorService executor,
+			Function<RestClient, RestResponse> call) throws InterruptedException {
+		Future<RestResponse> firstCall = executor.submit(() -> call.apply(restClient));
+		callStarted.await();
+		Future<RestResponse> secondCall = executor.submit(() -> call.apply(restClient));
+		while (statistics.getCoalescedRequests() == 0) {
+			Thread.sleep(1);
+		}
+		releaseCall.countDown();
+		return List.of(firstCall, secondCall);
+	}
+
+	@Test
+	public void testDifferentReadsAreNotCoalesced() {
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson", () -> {
+			restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID);
+			restClient.readRecordListWithFilterAsJson(SOME_TYPE, SOME_ID);
+			restClient.searchRecordWithSearchCriteriaAsJson(SOME_TYPE, SOME_ID);
+			return null;
+		});
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readIncomingLinksAsJson", 1);
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordListWithFilterAsJson", 1);
+		restClientSpy.MCR.assertNumberOfCallsToMethod("searchRecordWithSearchCriteriaAsJson", 1);
+		assertEquals(statistics.getSentRequests(), 4);
+	}
+
+	@Test
+	public void testExceptionIsThrownToCoalescedReads() throws Exception {
+		DataClientException exception = DataClientException.withMessage("spy error");
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson", () -> {
+			waitUntilReleased();
+			throw exception;
+		});
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<RestResponse>> calls = startTwoConcurrentCalls(executor,
+					client -> client.readRecordAsJson(SOME_TYPE, SOME_ID));
+
+			assertCallThrowsException(calls.get(0), exception);
+			assertCallThrowsException(calls.get(1), exception);
+		}
+		assertEquals(((CoalescingRestClient) restClient).onlyForTestGetNumberOfReadsInFlight(), 0);
+	}
+
+	private void assertCallThrowsException(Future<RestResponse> call, Exception exception)
+			throws InterruptedException {
+		try {
+			call.get();
+			fail("It should throw an exception");
+		} catch (ExecutionException e) {
+			assertSame(e.getCause(), exception);
+		}
+	}
+
+	@Test
+	public void testReadManyIsCoalescedPerRead() {
+		ReadManyResult<RestResponse> result = restClient.readManyAsJson(SOME_TYPE,
+				List.of("id1", "id2"), 2);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+		restClientSpy.MCR.assertMethodNotCalled("readManyAsJson");
+		assertEquals(result.results().size(), 2);
+	}
+
+	@Test
+	public void testWithDeadlineSharesReadsInFlight() throws Exception {
+		CoalescingRestClient withDeadline = (CoalescingRestClient) restClient
+				.withDeadline(Duration.ofSeconds(1));
+
+		assertNotSame(withDeadline, restClient);
+		restClientSpy.MCR.assertParameters("withDeadline", 0, Duration.ofSeconds(1));
+		restClientSpy.MCR.assertReturn("withDeadline", 0, withDeadline.onlyForTestGetRestClient());
+		assertSame(withDeadline.onlyForTestGetStatistics(), statistics);
+		assertEquals(withDeadline.onlyForTestGetDeadline(), Duration.ofSeconds(1));
+		assertWithDeadlineJoinsReadInFlight(withDeadline);
+	}
+
+	private void assertWithDeadlineJoinsReadInFlight(CoalescingRestClient withDeadline)
+			throws Exception {
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson", () -> {
+			waitUntilReleased();
+			return null;
+		});
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			executor.submit(() -> restClient.readRecordAsJson(SOME_TYPE, SOME_ID));
+			callStarted.await();
+			executor.submit(() -> withDeadline.readRecordAsJson(SOME_TYPE, SOME_ID));
+			while (statistics.getCoalescedRequests() == 0) {
+				Thread.sleep(1);
+			}
+			releaseCall.countDown();
+		}
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+	}
+
+	@Test
+	public void testWaitForReadInFlightIsBoundedByDeadline() throws Exception {
+		RestClient withDeadline = restClient.withDeadline(Duration.ofMillis(50));
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson", () -> {
+			waitUntilReleased();
+			return null;
+		});
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			executor.submit(() -> restClient.readRecordAsJson(SOME_TYPE, SOME_ID));
+			callStarted.await();
+			Future<RestResponse> coalescedCall = executor
+					.submit(() -> withDeadline.readRecordAsJson(SOME_TYPE, SOME_ID));
+
+			assertCallThrowsDeadlineError(coalescedCall);
+			releaseCall.countDown();
+		}
+		assertEquals(statistics.getCoalescedRequests(), 1);
+	}
+
+	private void assertCallThrowsDeadlineError(Future<RestResponse> call)
+			throws InterruptedException {
+		try {
+			call.get(1, TimeUnit.SECONDS);
+			fail("It should throw an exception");
+		} catch (ExecutionException e) {
+			assertEquals(e.getCause().getMessage(), "The deadline was exceeded while waiting for "
+					+ "the response to a coalesced read.");
+		} catch (TimeoutException _) {
+			fail("The coalesced read should not wait longer than its deadline");
+		}
+	}
+}
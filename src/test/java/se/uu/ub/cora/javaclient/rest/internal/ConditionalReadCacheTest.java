@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.rest.ConditionalReadSettings;
+import se.uu.ub.cora.javaclient.rest.DiskCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.javaclient.rest.internal.ConditionalReadCache.ValidatedResponse;
+
+public class ConditionalReadCacheTest {
+	private static final String SOME_DATE = "Wed, 21 Oct 2026 07:28:00 GMT";
+	private static final DiskResponseStore NO_DISK_RESPONSE_STORE = DiskResponseStore
+			.usingSettings(DiskCacheSettings.DISABLED);
+	private ConditionalReadSettings settings;
+	private ConditionalReadCache cache;
+	private RestResponse response;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		settings = ConditionalReadSettings.usingMaxEntries(2);
+		cache = ConditionalReadCache.usingSettingsAndDiskResponseStore(settings,
+				NO_DISK_RESPONSE_STORE);
+		response = new RestResponse(200, "someText", Optional.empty(), Optional.empty());
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		assertSame(cache.onlyForTestGetSettings(), settings);
+		assertSame(cache.onlyForTestGetDiskResponseStore(), NO_DISK_RESPONSE_STORE);
+		assertEquals(cache.onlyForTestGetDiskKeyPrefix(), "");
+	}
+
+	@Test
+	public void testIsEnabled() {
+		assertTrue(cache.isEnabled());
+		assertFalse(ConditionalReadCache.usingSettingsAndDiskResponseStore(
+				ConditionalReadSettings.DISABLED, NO_DISK_RESPONSE_STORE).isEnabled());
+	}
+
+	@Test
+	public void testPutAndGet() {
+		assertTrue(cache.get("url1").isEmpty());
+
+		cache.put("url1", "\"v1\"", SOME_DATE, response);
+
+		assertEquals(cache.get("url1").get(),
+				new ValidatedResponse("\"v1\"", SOME_DATE, response));
+	}
+
+	@Test
+	public void testPutWithoutValidatorsForgetsUrl() {
+		cache.put("url1", "\"v1\"", null, response);
+
+		cache.put("url1", null, null, response);
+
+		assertTrue(cache.get("url1").isEmpty());
+		assertEquals(cache.onlyForTestGetNumberOfEntries(), 0);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedUrlIsForgotten() {
+		cache.put("url1", "\"v1\"", null, response);
+		cache.put("url2", "\"v1\"", null, response);
+		cache.get("url1");
+
+		cache.put("url3", null, SOME_DATE, response);
+
+		assertEquals(cache.onlyForTestGetNumberOfEntries(), 2);
+		assertTrue(cache.get("url1").isPresent());
+		assertTrue(cache.get("url2").isEmpty());
+		assertEquals(settings.statistics().getEvictions(), 1);
+	}
+
+	@Test
+	public void testCountsAreReportedAsHitsAndMisses() {
+		cache.countNotModified();
+		cache.countNotModified();
+		cache.countNotModified();
+		cache.countModified();
+
+		assertEquals(settings.statistics().getHits(), 3);
+		assertEquals(settings.statistics().getMisses(), 1);
+		assertEquals(settings.statistics().getHitRate(), 0.75);
+	}
+
+	@Test
+	public void testKeptResponsesAreReadFromDiskAfterRestart() throws IOException {
+		Path directory = Files.createTempDirectory("conditionalReadCacheTest");
+		try {
+			DiskCacheSettings diskCacheSettings = DiskCacheSettings
+					.usingDirectoryAndDiskBudget(directory, 1024 * 1024);
+			ConditionalReadCache cacheWithDisk = createCacheUsingDiskCacheSettings(
+					diskCacheSettings);
+			cacheWithDisk.put("url1", "\"v1\"", SOME_DATE, response);
+			cacheWithDisk.put("url2", "\"v1\"", null, response);
+			cacheWithDisk.put("url2", null, null, response);
+			cacheWithDisk.onlyForTestGetDiskResponseStore().close();
+
+			ConditionalReadCache restartedCache = createCacheUsingDiskCacheSettings(
+					diskCacheSettings);
+
+			assertEquals(restartedCache.get("url1").get(),
+					new ValidatedResponse("\"v1\"", SOME_DATE, response));
+			assertEquals(restartedCache.onlyForTestGetNumberOfEntries(), 1);
+			assertTrue(restartedCache.get("url2").isEmpty());
+		} finally {
+			DiskResponseStoreTest.deleteDirectory(directory);
+		}
+	}
+
+	private ConditionalReadCache createCacheUsingDiskCacheSettings(
+			DiskCacheSettings diskCacheSettings) {
+		return ConditionalReadCache.usingSettingsAndDiskResponseStore(
+				settings.withDiskCacheSettings(diskCacheSettings),
+				DiskResponseStore.usingSettings(diskCacheSettings));
+	}
+
+	@Test
+	public void testDiskEntriesAreKeptApartPerNamespace() throws IOException {
+		Path directory = Files.createTempDirectory("conditionalReadCacheTest");
+		try {
+			DiskResponseStore diskResponseStore = DiskResponseStore.usingSettings(
+					DiskCacheSettings.usingDirectoryAndDiskBudget(directory, 1024 * 1024));
+			createCacheUsingStoreAndNamespace(diskResponseStore, "authToken someSecretToken")
+					.put("url1", "\"v1\"", null, response);
+
+			ConditionalReadCache sameNamespace = createCacheUsingStoreAndNamespace(
+					diskResponseStore, "authToken someSecretToken");
+			ConditionalReadCache otherNamespace = createCacheUsingStoreAndNamespace(
+					diskResponseStore, "authToken someOtherToken");
+
+			assertTrue(sameNamespace.get("url1").isPresent());
+			assertTrue(otherNamespace.get("url1").isEmpty());
+			assertEquals(sameNamespace.onlyForTestGetDiskKeyPrefix().length(), 65);
+			assertFalse(Files.readString(directory.resolve("segment-0.dat"),
+					StandardCharsets.ISO_8859_1).contains("someSecretToken"));
+		} finally {
+			DiskResponseStoreTest.deleteDirectory(directory);
+		}
+	}
+
+	private ConditionalReadCache createCacheUsingStoreAndNamespace(
+			DiskResponseStore diskResponseStore, String diskCacheNamespace) {
+		return ConditionalReadCache.usingSettingsAndDiskResponseStoreAndNamespace(settings,
+				diskResponseStore, diskCacheNamespace);
+	}
+}
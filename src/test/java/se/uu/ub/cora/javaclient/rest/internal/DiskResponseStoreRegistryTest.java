@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.rest.DiskCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.javaclient.rest.internal.ConditionalReadCache.ValidatedResponse;
+
+public class DiskResponseStoreRegistryTest {
+	private Path directory;
+	private DiskCacheSettings settings;
+	private DiskResponseStoreRegistry registry;
+
+	@BeforeMethod
+	public void beforeMethod() throws IOException {
+		directory = Files.createTempDirectory("diskResponseStoreRegistryTest");
+		settings = DiskCacheSettings.usingDirectoryAndDiskBudget(directory, 1024 * 1024);
+		registry = new DiskResponseStoreRegistry();
+	}
+
+	@AfterMethod
+	public void afterMethod() throws IOException {
+		DiskResponseStoreTest.deleteDirectory(directory);
+	}
+
+	@Test
+	public void testSameSettingsGiveSameStore() {
+		DiskResponseStore store = registry.getOrOpenUsingSettings(settings);
+
+		assertTrue(store.isEnabled());
+		assertSame(registry.getOrOpenUsingSettings(settings), store);
+		assertSame(registry.getOrOpenUsingSettings(
+				DiskCacheSettings.usingDirectoryAndDiskBudget(directory, 1024 * 1024)), store);
+	}
+
+	@Test
+	public void testSameDirectoryWrittenDifferentlyReplacesStoreWithoutFailingToLock() {
+		DiskResponseStore store = registry.getOrOpenUsingSettings(settings);
+
+		DiskCacheSettings otherPath = DiskCacheSettings.usingDirectoryAndDiskBudget(
+				directory.resolve("..").resolve(directory.getFileName()), 1024 * 1024);
+		DiskResponseStore store2 = registry.getOrOpenUsingSettings(otherPath);
+
+		assertNotSame(store2, store);
+		assertTrue(store2.isEnabled());
+	}
+
+	@Test
+	public void testOtherSettingsCloseRegisteredStoreAndOpenNewStore() {
+		DiskResponseStore store = registry.getOrOpenUsingSettings(settings);
+		store.write("url1", createValidatedResponse());
+
+		DiskCacheSettings otherSettings = settings.withSegmentSize(512 * 1024);
+		DiskResponseStore newStore = registry.getOrOpenUsingSettings(otherSettings);
+
+		assertNotSame(newStore, store);
+		assertSame(newStore.onlyForTestGetSettings(), otherSettings);
+		assertTrue(store.read("url1").isEmpty());
+		assertTrue(newStore.read("url1").isPresent());
+		assertSame(registry.getOrOpenUsingSettings(otherSettings), newStore);
+	}
+
+	private ValidatedResponse createValidatedResponse() {
+		return new ValidatedResponse("\"v1\"", "Wed, 21 Oct 2026 07:28:00 GMT",
+				new RestResponse(200, "someText", Optional.empty(), Optional.empty()));
+	}
+
+	@Test
+	public void testDisabledSettingsAreNotRegistered() {
+		DiskResponseStore store = registry.getOrOpenUsingSettings(DiskCacheSettings.DISABLED);
+
+		assertFalse(store.isEnabled());
+		assertNotSame(registry.getOrOpenUsingSettings(DiskCacheSettings.DISABLED), store);
+		assertEquals(registry.getOrOpenUsingSettings(settings).onlyForTestGetSettings(),
+				settings);
+	}
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.DiskCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.javaclient.rest.internal.ConditionalReadCache.ValidatedResponse;
+
+public class DiskResponseStoreTest {
+	private static final String SOME_DATE = "Wed, 21 Oct 2026 07:28:00 GMT";
+	private static final String TEXT_OF_100_CHARS = "a".repeat(100);
+	private Path directory;
+	private DiskCacheSettings settings;
+	private DiskResponseStore store;
+
+	@BeforeMethod
+	public void beforeMethod() throws IOException {
+		directory = Files.createTempDirectory("diskResponseStoreTest");
+		settings = DiskCacheSettings.usingDirectoryAndDiskBudget(directory, 1024)
+				.withSegmentSize(256);
+		store = createStoreCompactingInCallingThread();
+	}
+
+	private DiskResponseStore createStoreCompactingInCallingThread() {
+		DiskResponseStore diskResponseStore = DiskResponseStore.usingSettings(settings);
+		diskResponseStore.onlyForTestSetCompactionExecutor(Runnable::run);
+		return diskResponseStore;
+	}
+
+	@AfterMethod
+	public void afterMethod() throws IOException {
+		deleteDirectory(directory);
+	}
+
+	static void deleteDirectory(Path directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	private ValidatedResponse createValidatedResponse(String eTag, String lastModified,
+			String text) {
+		return new ValidatedResponse(eTag, lastModified,
+				new RestResponse(200, text, Optional.empty(), Optional.empty()));
+	}
+
+	private void restart() throws IOException {
+		store.close();
+		store = createStoreCompactingInCallingThread();
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		assertSame(store.onlyForTestGetSettings(), settings);
+		assertTrue(store.isEnabled());
+	}
+
+	@Test
+	public void testDiskCacheSettings() {
+		DiskCacheSettings defaultSettings = DiskCacheSettings
+				.usingDirectoryAndDiskBudget(directory, 1024L * 1024 * 1024);
+
+		assertEquals(defaultSettings.segmentSize(), 16 * 1024 * 1024);
+		assertEquals(DiskCacheSettings.usingDirectoryAndDiskBudget(directory, 4096).segmentSize(),
+				1024);
+		assertFalse(DiskCacheSettings.DISABLED.isEnabled());
+		assertFalse(settings.withSegmentSize(513).isEnabled());
+	}
+
+	@Test
+	public void testDisabledStoreUsesNoDirectory() {
+		Path missingDirectory = directory.resolve("missing");
+		DiskResponseStore disabledStore = DiskResponseStore
+				.usingSettings(new DiskCacheSettings(missingDirectory, 100, 100));
+
+		assertFalse(disabledStore.isEnabled());
+		assertFalse(Files.exists(missingDirectory));
+	}
+
+	@Test
+	public void testDirectoryThatCanNotBeOpened() throws IOException {
+		Path file = Files.createFile(directory.resolve("someFile"));
+		try {
+			DiskResponseStore.usingSettings(DiskCacheSettings.usingDirectoryAndDiskBudget(file,
+					1024));
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not open the disk cache in: " + file + ".");
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	@Test
+	public void testWriteAndRead() {
+		ValidatedResponse validatedResponse = createValidatedResponse("\"v1\"", SOME_DATE,
+				"someText åäö");
+
+		store.write("url1", validatedResponse);
+
+		assertEquals(store.read("url1").get(), validatedResponse);
+		assertTrue(store.read("url2").isEmpty());
+	}
+
+	@Test
+	public void testWriteReplacesEarlierResponse() {
+		store.write("url1", createValidatedResponse("\"v1\"", null, "text1"));
+		ValidatedResponse newResponse = createValidatedResponse(null, SOME_DATE, "text2");
+
+		store.write("url1", newResponse);
+
+		assertEquals(store.read("url1").get(), newResponse);
+		assertEquals(store.onlyForTestGetNumberOfEntries(), 1);
+	}
+
+	@Test
+	public void testResponsesAreReadAfterRestart() throws IOException {
+		ValidatedResponse response1 = createValidatedResponse("\"v1\"", SOME_DATE, "text1");
+		ValidatedResponse response2 = createValidatedResponse(null, SOME_DATE, "text2");
+		store.write("url1", createValidatedResponse("\"v0\"", null, "text0"));
+		store.write("url1", response1);
+		store.write("url2", response2);
+
+		restart();
+
+		assertEquals(store.read("url1").get(), response1);
+		assertEquals(store.read("url2").get(), response2);
+		assertEquals(store.onlyForTestGetNumberOfEntries(), 2);
+	}
+
+	@Test
+	public void testWritesAfterRestartGoToNewSegment() throws IOException {
+		store.write("url1", createValidatedResponse("\"v1\"", null, "text1"));
+		restart();
+
+		store.write("url2", createValidatedResponse("\"v1\"", null, "text2"));
+		restart();
+
+		assertEquals(store.onlyForTestGetNumberOfEntries(), 2);
+		assertEquals(listSegmentFiles(), List.of("segment-0.dat", "segment-1.dat"));
+	}
+
+	private List<String> listSegmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(path -> path.getFileName().toString())
+					.filter(name -> name.startsWith("segment-")).sorted().toList();
+		}
+	}
+
+	@Test
+	public void testRemovalIsKeptAfterRestart() throws IOException {
+		store.write("url1", createValidatedResponse("\"v1\"", null, "text1"));
+		store.write("url2", createValidatedResponse("\"v1\"", null, "text2"));
+
+		store.remove("url1");
+		store.remove("notKept");
+		restart();
+
+		assertTrue(store.read("url1").isEmpty());
+		assertTrue(store.read("url2").isPresent());
+	}
+
+	@Test
+	public void testDamagedRecordIsIgnoredAfterRestart() throws IOException {
+		store.write("url1", createValidatedResponse("\"v1\"", null, "text1"));
+		store.write("url2", createValidatedResponse("\"v1\"", null, "text2"));
+		store.write("url3", createValidatedResponse("\"v1\"", null, "text3"));
+
+		damageLastByteOfRecordEndingAt(directory.resolve("segment-0.dat"), 2 * 42);
+		restart();
+
+		assertTrue(store.read("url1").isPresent());
+		assertTrue(store.read("url2").isEmpty());
+		assertTrue(store.read("url3").isEmpty());
+	}
+
+	private void damageLastByteOfRecordEndingAt(Path segmentFile, int endOfRecord)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 'X' }), endOfRecord - 1);
+		}
+	}
+
+	@Test
+	public void testResponseLargerThanSegmentIsNotKept() throws IOException {
+		store.write("url1", createValidatedResponse("\"v1\"", null, "text1"));
+
+		store.write("url1", createValidatedResponse("\"v2\"", null, "a".repeat(300)));
+
+		assertTrue(store.read("url1").isEmpty());
+		restart();
+		assertTrue(store.read("url1").isEmpty());
+	}
+
+	@Test
+	public void testCompactionDropsLeastRecentlyUsedWithinBudget() throws IOException {
+		writeResponsesOfOneSegmentEach("url0", "url1", "url2", "url3");
+		assertEquals(store.onlyForTestGetNumberOfSegments(), 4);
+		store.read("url0");
+
+		writeResponsesOfOneSegmentEach("url4");
+
+		assertEquals(store.onlyForTestGetNumberOfSegments(), 4);
+		assertTrue(store.read("url1").isEmpty());
+		assertKeptUrls("url0", "url2", "url3", "url4");
+		assertEquals(listSegmentFiles(),
+				List.of("segment-4.dat", "segment-5.dat", "segment-6.dat", "segment-7.dat"));
+		restart();
+		assertTrue(store.read("url1").isEmpty());
+		assertKeptUrls("url0", "url2", "url3", "url4");
+	}
+
+	private void writeResponsesOfOneSegmentEach(String... urls) {
+		for (String url : urls) {
+			store.write(url, createValidatedResponse("\"v\"", null, TEXT_OF_100_CHARS));
+		}
+	}
+
+	private void assertKeptUrls(String... urls) {
+		for (String url : urls) {
+			assertEquals(store.read(url).get().response().responseText(), TEXT_OF_100_CHARS);
+		}
+		assertEquals(store.onlyForTestGetNumberOfEntries(), urls.length);
+	}
+
+	@Test
+	public void testDirectoryUsedByAnotherStoreCanNotBeOpened() throws IOException {
+		try {
+			DiskResponseStore.usingSettings(settings);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "The disk cache in: " + directory
+					+ " is used by another process or factory.");
+		}
+
+		store.close();
+		assertTrue(DiskResponseStore.usingSettings(settings).isEnabled());
+	}
+
+	@Test
+	public void testClosedStoreKeepsNothingAndReleasesDirectory() {
+		store.write("url1", createValidatedResponse("\"v1\"", SOME_DATE, "someText"));
+
+		store.close();
+		store.write("url2", createValidatedResponse("\"v1\"", SOME_DATE, "someText"));
+
+		assertTrue(store.read("url1").isEmpty());
+		assertTrue(store.read("url2").isEmpty());
+		assertEquals(store.onlyForTestGetNumberOfEntries(), 0);
+		store = createStoreCompactingInCallingThread();
+		assertTrue(store.read("url1").isPresent());
+	}
+
+	@Test
+	public void testResponseThatCanNotBeWrittenIsForgotten() throws IOException {
+		writeResponsesOfOneSegmentEach("url1");
+		deleteDirectory(directory);
+
+		writeResponsesOfOneSegmentEach("url1", "url2");
+
+		assertTrue(store.read("url1").isEmpty());
+		assertTrue(store.read("url2").isEmpty());
+		Files.createDirectories(directory);
+	}
+
+	@Test
+	public void testWritesAreNotBlockedByCompaction() throws IOException {
+		List<Runnable> compactions = new ArrayList<>();
+		writeResponsesOfOneSegmentEach("url0", "url1", "url2", "url3");
+		store.read("url0");
+		store.onlyForTestSetCompactionExecutor(compactions::add);
+
+		writeResponsesOfOneSegmentEach("url4");
+		ValidatedResponse newResponse = createValidatedResponse("\"v2\"", null, "newText");
+		store.write("url2", newResponse);
+
+		assertEquals(compactions.size(), 1);
+		assertEquals(store.onlyForTestGetNumberOfSegments(), 5);
+		assertEquals(store.read("url2").get(), newResponse);
+		assertTrue(store.read("url0").isPresent());
+		compactions.get(0).run();
+		assertEquals(listSegmentFiles(),
+				List.of("segment-4.dat", "segment-5.dat", "segment-6.dat", "segment-8.dat"));
+		assertEquals(store.read("url2").get(), newResponse);
+		assertTrue(store.read("url1").isEmpty());
+		restart();
+		assertEquals(store.read("url2").get(), newResponse);
+		assertTrue(store.read("url1").isEmpty());
+		assertTrue(store.read("url0").isPresent());
+		assertEquals(store.onlyForTestGetNumberOfEntries(), 4);
+	}
+
+	@Test
+	public void testNewSegmentsAreLimitedWhileCompacting() {
+		List<Runnable> compactions = new ArrayList<>();
+		writeResponsesOfOneSegmentEach("url0", "url1", "url2", "url3");
+		store.onlyForTestSetCompactionExecutor(compactions::add);
+
+		writeResponsesOfOneSegmentEach("url4", "url5", "url6");
+
+		assertEquals(store.onlyForTestGetNumberOfSegments(), 6);
+		assertTrue(store.read("url5").isPresent());
+		assertTrue(store.read("url6").isEmpty());
+	}
+
+	@Test
+	public void testEntriesAreKeptWhenCompactionFails() throws IOException {
+		List<Runnable> compactions = new ArrayList<>();
+		writeResponsesOfOneSegmentEach("url0", "url1", "url2", "url3");
+		store.onlyForTestSetCompactionExecutor(compactions::add);
+		writeResponsesOfOneSegmentEach("url4");
+		Files.createFile(directory.resolve("segment-4.dat"));
+
+		compactions.get(0).run();
+
+		assertKeptUrls("url1", "url2", "url3", "url4");
+		assertEquals(store.onlyForTestGetNumberOfSegments(), 5);
+		writeResponsesOfOneSegmentEach("url5");
+		assertEquals(compactions.size(), 2);
+	}
+}
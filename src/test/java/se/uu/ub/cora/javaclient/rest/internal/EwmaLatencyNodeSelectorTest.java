@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+import se.uu.ub.cora.javaclient.rest.NodeSelector;
+
+public class EwmaLatencyNodeSelectorTest {
+
+	@Test
+	public void testFactoredFromNodeSelector() {
+		assertTrue(NodeSelector.ewmaLatency() instanceof EwmaLatencyNodeSelector);
+	}
+
+	@Test
+	public void testNodeWithLowestLatencyIsSelected() {
+		LoadBalancedNodeImp node1 = createNodeUsingLatencyAndOutstandingRequests("node1", 30, 0);
+		LoadBalancedNodeImp node2 = createNodeUsingLatencyAndOutstandingRequests("node2", 10, 0);
+		NodeSelector selector = new EwmaLatencyNodeSelector();
+
+		assertSame(selector.selectNode(List.of(node1, node2)), node2);
+	}
+
+	private LoadBalancedNodeImp createNodeUsingLatencyAndOutstandingRequests(String baseUrl,
+			long latencyInMillis, int outstandingRequests) {
+		LoadBalancedNodeImp node = LoadBalancedNodeImp.usingBaseUrlAndSettings(baseUrl,
+				LoadBalancingSettings.NONE);
+		if (latencyInMillis > 0) {
+			node.recordSuccess(Duration.ofMillis(latencyInMillis));
+		}
+		for (int i = 0; i < outstandingRequests; i++) {
+			node.startRequest();
+		}
+		return node;
+	}
+
+	@Test
+	public void testOutstandingRequestsAddToCost() {
+		LoadBalancedNodeImp node1 = createNodeUsingLatencyAndOutstandingRequests("node1", 30, 0);
+		LoadBalancedNodeImp node2 = createNodeUsingLatencyAndOutstandingRequests("node2", 10, 3);
+		NodeSelector selector = new EwmaLatencyNodeSelector();
+
+		assertSame(selector.selectNode(List.of(node1, node2)), node1);
+	}
+
+	@Test
+	public void testNodeWithoutLatencyIsSelectedFirst() {
+		LoadBalancedNodeImp node1 = createNodeUsingLatencyAndOutstandingRequests("node1", 10, 0);
+		LoadBalancedNodeImp node2 = createNodeUsingLatencyAndOutstandingRequests("node2", 0, 0);
+		NodeSelector selector = new EwmaLatencyNodeSelector();
+
+		assertSame(selector.selectNode(List.of(node1, node2)), node2);
+	}
+}
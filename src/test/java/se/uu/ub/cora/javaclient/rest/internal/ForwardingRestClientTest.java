@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.rest.OperationType;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestClientSpy;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+public class ForwardingRestClientTest {
+	private RestClientSpy restClientSpy;
+	private OnlyForwardingRestClient forwardingRestClient;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		restClientSpy = new RestClientSpy();
+		forwardingRestClient = new OnlyForwardingRestClient(restClientSpy);
+	}
+
+	@Test
+	public void testCallsAreForwardedUsingTheirOperationType() {
+		assertForwarded(OperationType.READ, "readRecordAsJson",
+				client -> client.readRecordAsJson("someType", "someId"));
+		assertForwarded(OperationType.WRITE, "createRecordFromJson",
+				client -> client.createRecordFromJson("someType", "someJson"));
+		assertForwarded(OperationType.WRITE, "updateRecordFromJson",
+				client -> client.updateRecordFromJson("someType", "someId", "someJson"));
+		assertForwarded(OperationType.WRITE, "deleteRecord",
+				client -> client.deleteRecord("someType", "someId"));
+		assertForwarded(OperationType.LIST, "readRecordListAsJson",
+				client -> client.readRecordListAsJson("someType"));
+		assertForwarded(OperationType.READ, "readIncomingLinksAsJson",
+				client -> client.readIncomingLinksAsJson("someType", "someId"));
+		assertForwarded(OperationType.LIST, "readRecordListWithFilterAsJson",
+				client -> client.readRecordListWithFilterAsJson("someType", "someFilter"));
+		assertForwarded(OperationType.WRITE, "batchIndexWithFilterAsJson",
+				client -> client.batchIndexWithFilterAsJson("someType", "someSettings"));
+		assertForwarded(OperationType.SEARCH, "searchRecordWithSearchCriteriaAsJson",
+				client -> client.searchRecordWithSearchCriteriaAsJson("someSearch", "someJson"));
+		assertForwarded(OperationType.LIST, "readRecordListAsJsonStream",
+				client -> client.readRecordListAsJsonStream("someType"));
+		assertForwarded(OperationType.SEARCH, "searchRecordWithSearchCriteriaAsJsonStream",
+				client -> client.searchRecordWithSearchCriteriaAsJsonStream("someSearch",
+						"someJson"));
+		assertForwarded(OperationType.WRITE, "validateRecordAsJson",
+				client -> client.validateRecordAsJson("someJson"));
+		assertForwarded(OperationType.DOWNLOAD, "download",
+				client -> client.download("someType", "someId", "someRepresentation"));
+	}
+
+	private void assertForwarded(OperationType operationType, String methodName,
+			Consumer<RestClient> call) {
+		forwardingRestClient.operationTypes.clear();
+
+		call.accept(forwardingRestClient);
+
+		assertEquals(forwardingRestClient.operationTypes, List.of(operationType));
+		restClientSpy.MCR.assertMethodWasCalled(methodName);
+	}
+
+	@Test
+	public void testReadManyReadsEachRecordThroughTheDecorator() {
+		ReadManyResult<RestResponse> result = forwardingRestClient.readManyAsJson("someType",
+				List.of("id1", "id2"), 2);
+
+		assertEquals(result.results().keySet(), Set.of("id1", "id2"));
+		assertEquals(forwardingRestClient.operationTypes,
+				List.of(OperationType.READ, OperationType.READ));
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+		restClientSpy.MCR.assertMethodNotCalled("readManyAsJson");
+	}
+
+	@Test
+	public void testResponseOfWrappedClientIsReturned() {
+		RestResponse response = forwardingRestClient.readRecordAsJson("someType", "someId");
+
+		restClientSpy.MCR.assertReturn("readRecordAsJson", 0, response);
+	}
+
+	private static class OnlyForwardingRestClient extends ForwardingRestClient {
+		private RestClient restClient;
+		private List<OperationType> operationTypes = Collections
+				.synchronizedList(new ArrayList<>());
+
+		OnlyForwardingRestClient(RestClient restClient) {
+			this.restClient = restClient;
+		}
+
+		@Override
+		protected RestResponse forward(OperationType operationType,
+				Function<RestClient, RestResponse> call) {
+			operationTypes.add(operationType);
+			return call.apply(restClient);
+		}
+
+		@Override
+		public RestClient withDeadline(Duration deadline) {
+			return this;
+		}
+	}
+}
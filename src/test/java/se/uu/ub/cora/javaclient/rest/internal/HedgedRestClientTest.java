@@ -0,0 +1,275 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.HedgingSettings;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestClientSpy;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+public class HedgedRestClientTest {
+	private static final String SOME_TYPE = "someType";
+	private static final String SOME_ID = "someId";
+	private static final String SOME_JSON = "someJson";
+	private static final Duration HEDGE_DELAY = Duration.ofMillis(20);
+	private RestClientSpy restClientSpy;
+	private HedgingPolicy hedgingPolicy;
+	private RestClient restClient;
+	private AtomicInteger reads;
+	private CountDownLatch cancelled;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		restClientSpy = new RestClientSpy();
+		reads = new AtomicInteger();
+		cancelled = new CountDownLatch(1);
+		setUpRestClientUsingMaxHedgePercent(100);
+	}
+
+	private void setUpRestClientUsingMaxHedgePercent(int maxHedgePercent) {
+		hedgingPolicy = HedgingPolicy.usingSettings(HedgingSettings
+				.usingDelayPercentileAndMaxHedgePercent(95, maxHedgePercent)
+				.withMinimumDelay(Duration.ZERO));
+		restClient = HedgedRestClient.usingRestClientAndHedgingPolicy(restClientSpy,
+				hedgingPolicy);
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		HedgedRestClient hedgedRestClient = (HedgedRestClient) restClient;
+
+		assertSame(hedgedRestClient.onlyForTestGetRestClient(), restClientSpy);
+		assertSame(hedgedRestClient.onlyForTestGetHedgingPolicy(), hedgingPolicy);
+	}
+
+	@Test
+	public void testCallsAreDelegated() {
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.createRecordFromJson(SOME_TYPE, SOME_JSON);
+		restClient.updateRecordFromJson(SOME_TYPE, SOME_ID, SOME_JSON);
+		restClient.deleteRecord(SOME_TYPE, SOME_ID);
+		restClient.readRecordListAsJson(SOME_TYPE);
+		restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordListWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.batchIndexWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON);
+		restClient.readRecordListAsJsonStream(SOME_TYPE);
+		restClient.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", SOME_JSON);
+		restClient.validateRecordAsJson(SOME_JSON);
+		restClient.download(SOME_TYPE, SOME_ID, "someRepresentation");
+
+		restClientSpy.MCR.assertReturn("readRecordAsJson", 0, response);
+		restClientSpy.MCR.assertParameters("createRecordFromJson", 0, SOME_TYPE, SOME_JSON);
+		restClientSpy.MCR.assertParameters("updateRecordFromJson", 0, SOME_TYPE, SOME_ID,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("deleteRecord", 0, SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertParameters("readRecordListAsJson", 0, SOME_TYPE);
+		restClientSpy.MCR.assertParameters("readIncomingLinksAsJson", 0, SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertParameters("readRecordListWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("batchIndexWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("searchRecordWithSearchCriteriaAsJson", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy.MCR.assertParameters("readRecordListAsJsonStream", 0, SOME_TYPE);
+		restClientSpy.MCR.assertParameters("searchRecordWithSearchCriteriaAsJsonStream", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy.MCR.assertParameters("validateRecordAsJson", 0, SOME_JSON);
+		restClientSpy.MCR.assertParameters("download", 0, SOME_TYPE, SOME_ID,
+				"someRepresentation");
+	}
+
+	@Test
+	public void testReadManyIsHedgedPerRead() {
+		ReadManyResult<RestResponse> result = restClient.readManyAsJson(SOME_TYPE,
+				List.of("id1", "id2"), 2);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+		restClientSpy.MCR.assertMethodNotCalled("readManyAsJson");
+		assertEquals(result.results().size(), 2);
+	}
+
+	@Test
+	public void testWithDeadlineSharesHedgingPolicy() {
+		HedgedRestClient withDeadline = (HedgedRestClient) restClient
+				.withDeadline(Duration.ofSeconds(1));
+
+		assertNotSame(withDeadline, restClient);
+		restClientSpy.MCR.assertParameters("withDeadline", 0, Duration.ofSeconds(1));
+		restClientSpy.MCR.assertReturn("withDeadline", 0, withDeadline.onlyForTestGetRestClient());
+		assertSame(withDeadline.onlyForTestGetHedgingPolicy(), hedgingPolicy);
+	}
+
+	@Test
+	public void testReadsRecordLatenciesUntilHedgeDelayIsKnown() {
+		for (int i = 0; i < HedgingPolicy.MINIMUM_NUMBER_OF_SAMPLES - 1; i++) {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		}
+		assertEquals(hedgingPolicy.getHedgeDelay(), Optional.empty());
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertTrue(hedgingPolicy.getHedgeDelay().isPresent());
+	}
+
+	@Test
+	public void testFastReadIsNotHedged() {
+		recordLatenciesForHedgeDelay();
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+	}
+
+	private void recordLatenciesForHedgeDelay() {
+		for (int i = 0; i < HedgingPolicy.MINIMUM_NUMBER_OF_SAMPLES; i++) {
+			hedgingPolicy.recordLatency(HEDGE_DELAY);
+		}
+	}
+
+	@Test
+	public void testSlowReadIsHedgedAndCancelled() throws Exception {
+		recordLatenciesForHedgeDelay();
+		setSpyToAnswerReadsUsing(() -> waitUntilCancelled(), () -> createResponse(200, "hedge"));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseText(), "hedge");
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+		assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+	}
+
+	private void setSpyToAnswerReadsUsing(Answer firstRead, Answer secondRead) {
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> reads.getAndIncrement() == 0 ? firstRead.answer() : secondRead.answer());
+	}
+
+	private interface Answer {
+		RestResponse answer();
+	}
+
+	private RestResponse waitUntilCancelled() {
+		try {
+			new CountDownLatch(1).await();
+		} catch (InterruptedException _) {
+			cancelled.countDown();
+		}
+		throw DataClientException.withMessage("cancelled");
+	}
+
+	private RestResponse createResponse(int responseCode, String responseText) {
+		return new RestResponse(responseCode, responseText, Optional.empty(), Optional.empty());
+	}
+
+	@Test
+	public void testSlowReadIsNotHedgedWhenBudgetIsUsed() {
+		setUpRestClientUsingMaxHedgePercent(1);
+		recordLatenciesForHedgeDelay();
+		setSpyToAnswerReadsUsing(() -> sleepAndAnswer(100, 200, "first"),
+				() -> createResponse(200, "hedge"));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseText(), "first");
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+	}
+
+	private RestResponse sleepAndAnswer(long millis, int responseCode, String responseText) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException _) {
+			throw DataClientException.withMessage("interrupted");
+		}
+		return createResponse(responseCode, responseText);
+	}
+
+	@Test
+	public void testServerErrorFromFirstReadWaitsForHedge() {
+		recordLatenciesForHedgeDelay();
+		setSpyToAnswerReadsUsing(() -> sleepAndAnswer(100, 503, "first"),
+				() -> sleepAndAnswer(300, 200, "hedge"));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseText(), "hedge");
+	}
+
+	@Test
+	public void testExceptionFromFirstReadWaitsForHedge() {
+		recordLatenciesForHedgeDelay();
+		setSpyToAnswerReadsUsing(() -> {
+			sleepAndAnswer(100, 200, "first");
+			throw DataClientException.withMessage("first failed");
+		}, () -> sleepAndAnswer(300, 200, "hedge"));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseText(), "hedge");
+	}
+
+	@Test
+	public void testLastOutcomeUsedWhenNoReadIsSuccessful() {
+		recordLatenciesForHedgeDelay();
+		setSpyToAnswerReadsUsing(() -> sleepAndAnswer(100, 503, "first"), () -> {
+			sleepAndAnswer(300, 200, "hedge");
+			throw DataClientException.withMessage("hedge failed");
+		});
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "hedge failed");
+		}
+	}
+
+	@Test
+	public void testInterruptedWhileWaitingCancelsReads() {
+		recordLatenciesForHedgeDelay();
+		setSpyToAnswerReadsUsing(() -> waitUntilCancelled(), () -> waitUntilCancelled());
+		Thread.currentThread().interrupt();
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(),
+					"Interrupted while waiting for the response to a hedged read.");
+			assertTrue(Thread.interrupted());
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.rest.HedgingSettings;
+
+public class HedgingPolicyTest {
+
+	@Test
+	public void testInit() {
+		HedgingSettings settings = HedgingSettings.usingDelayPercentileAndMaxHedgePercent(95, 5);
+
+		HedgingPolicy hedgingPolicy = HedgingPolicy.usingSettings(settings);
+
+		assertSame(hedgingPolicy.onlyForTestGetSettings(), settings);
+		assertEquals(hedgingPolicy.getHedgeDelay(), Optional.empty());
+		assertFalse(hedgingPolicy.tryToStartHedge());
+	}
+
+	@Test
+	public void testDisabledNeverKnowsDelay() {
+		HedgingPolicy hedgingPolicy = HedgingPolicy.usingSettings(HedgingSettings.DISABLED);
+
+		recordLatenciesFromOneToMillis(hedgingPolicy, 100);
+
+		assertEquals(hedgingPolicy.getHedgeDelay(), Optional.empty());
+	}
+
+	private void recordLatenciesFromOneToMillis(HedgingPolicy hedgingPolicy, int millis) {
+		for (int i = 1; i <= millis; i++) {
+			hedgingPolicy.recordLatency(Duration.ofMillis(i));
+		}
+	}
+
+	@Test
+	public void testDelayIsPercentileOfLatencies() {
+		HedgingPolicy hedgingPolicy = createHedgingPolicyUsingMinimumDelay(Duration.ZERO);
+
+		recordLatenciesFromOneToMillis(hedgingPolicy, 100);
+
+		assertEquals(hedgingPolicy.getHedgeDelay(), Optional.of(Duration.ofMillis(95)));
+	}
+
+	private HedgingPolicy createHedgingPolicyUsingMinimumDelay(Duration minimumDelay) {
+		return HedgingPolicy.usingSettings(HedgingSettings
+				.usingDelayPercentileAndMaxHedgePercent(95, 10).withMinimumDelay(minimumDelay));
+	}
+
+	@Test
+	public void testDelayIsUpdatedAfterSamplesBetweenUpdates() {
+		HedgingPolicy hedgingPolicy = createHedgingPolicyUsingMinimumDelay(Duration.ZERO);
+		recordLatenciesFromOneToMillis(hedgingPolicy, HedgingPolicy.MINIMUM_NUMBER_OF_SAMPLES);
+		assertEquals(hedgingPolicy.getHedgeDelay(), Optional.of(Duration.ofMillis(19)));
+
+		for (int i = 0; i < HedgingPolicy.SAMPLES_BETWEEN_UPDATES - 1; i++) {
+			hedgingPolicy.recordLatency(Duration.ofSeconds(1));
+		}
+		assertEquals(hedgingPolicy.getHedgeDelay(), Optional.of(Duration.ofMillis(19)));
+
+		hedgingPolicy.recordLatency(Duration.ofSeconds(1));
+		assertEquals(hedgingPolicy.getHedgeDelay(), Optional.of(Duration.ofSeconds(1)));
+	}
+
+	@Test
+	public void testOnlyLatestSamplesAreUsed() {
+		HedgingPolicy hedgingPolicy = createHedgingPolicyUsingMinimumDelay(Duration.ZERO);
+		for (int i = 0; i < HedgingPolicy.NUMBER_OF_SAMPLES; i++) {
+			hedgingPolicy.recordLatency(Duration.ofSeconds(1));
+		}
+
+		for (int i = 0; i < HedgingPolicy.NUMBER_OF_SAMPLES; i++) {
+			hedgingPolicy.recordLatency(Duration.ofMillis(1));
+		}
+
+		assertEquals(hedgingPolicy.getHedgeDelay(), Optional.of(Duration.ofMillis(1)));
+	}
+
+	@Test
+	public void testDelayIsNeverShorterThanMinimumDelay() {
+		HedgingPolicy hedgingPolicy = createHedgingPolicyUsingMinimumDelay(
+				Duration.ofMillis(500));
+
+		recordLatenciesFromOneToMillis(hedgingPolicy, 100);
+
+		assertEquals(hedgingPolicy.getHedgeDelay(), Optional.of(Duration.ofMillis(500)));
+	}
+
+	@Test
+	public void testHedgesAreLimitedToMaxHedgePercentOfReads() {
+		HedgingPolicy hedgingPolicy = HedgingPolicy
+				.usingSettings(HedgingSettings.usingDelayPercentileAndMaxHedgePercent(95, 25));
+
+		for (int i = 0; i < 3; i++) {
+			hedgingPolicy.countRead();
+		}
+		assertFalse(hedgingPolicy.tryToStartHedge());
+
+		hedgingPolicy.countRead();
+		assertTrue(hedgingPolicy.tryToStartHedge());
+		assertFalse(hedgingPolicy.tryToStartHedge());
+	}
+
+	@Test
+	public void testBudgetIsCapped() {
+		HedgingPolicy hedgingPolicy = HedgingPolicy
+				.usingSettings(HedgingSettings.usingDelayPercentileAndMaxHedgePercent(95, 100));
+
+		for (int i = 0; i < 1000; i++) {
+			hedgingPolicy.countRead();
+		}
+
+		for (int i = 0; i < HedgingPolicy.MAX_BUDGET; i++) {
+			assertTrue(hedgingPolicy.tryToStartHedge());
+		}
+		assertFalse(hedgingPolicy.tryToStartHedge());
+	}
+}
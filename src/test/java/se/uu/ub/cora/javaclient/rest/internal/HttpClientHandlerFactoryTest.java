@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.httphandler.HttpHandlerFactoryImp;
+import se.uu.ub.cora.httphandler.HttpMultiPartUploader;
+import se.uu.ub.cora.httphandler.spies.HttpHandlerFactorySpy;
+import se.uu.ub.cora.javaclient.rest.HttpClientSettings;
+
+public class HttpClientHandlerFactoryTest {
+	private static final String SOME_URL = "https://someServer/rest/record/someType";
+
+	@Test
+	public void testUsingSettingsBuildsHttpClientFromSettings() {
+		HttpClientSettings settings = new HttpClientSettings(Version.HTTP_1_1,
+				Duration.ofSeconds(3), Duration.ofSeconds(7));
+
+		HttpClientHandlerFactory factory = HttpClientHandlerFactory.usingSettings(settings);
+
+		HttpClient httpClient = factory.onlyForTestGetHttpClient();
+		assertEquals(httpClient.version(), Version.HTTP_1_1);
+		assertEquals(httpClient.connectTimeout(), Optional.of(Duration.ofSeconds(3)));
+		assertEquals(httpClient.followRedirects(), Redirect.NEVER);
+		assertTrue(httpClient.executor().isPresent());
+		assertEquals(factory.onlyForTestGetReadTimeout(), Duration.ofSeconds(7));
+		assertTrue(factory
+				.onlyForTestGetMultiPartHttpHandlerFactory() instanceof HttpHandlerFactoryImp);
+	}
+
+	@Test
+	public void testDefaultSettings() {
+		assertEquals(HttpClientSettings.DEFAULT.version(), Version.HTTP_2);
+		assertEquals(HttpClientSettings.DEFAULT.connectTimeout(), Duration.ofSeconds(10));
+		assertEquals(HttpClientSettings.DEFAULT.readTimeout(), Duration.ofMinutes(1));
+	}
+
+	@Test
+	public void testFactoredHttpHandlersShareHttpClient() {
+		HttpClientSpy httpClient = new HttpClientSpy();
+		HttpClientHandlerFactory factory = HttpClientHandlerFactory
+				.usingHttpClientAndReadTimeoutAndMultiPartFactory(httpClient,
+						Duration.ofSeconds(7), new HttpHandlerFactorySpy());
+
+		HttpClientHandler httpHandler = (HttpClientHandler) factory.factor(SOME_URL);
+		HttpClientHandler httpHandler2 = (HttpClientHandler) factory.factor(SOME_URL + "2");
+
+		assertSame(httpHandler.onlyForTestGetHttpClient(), httpClient);
+		assertSame(httpHandler2.onlyForTestGetHttpClient(), httpClient);
+		assertEquals(httpHandler.onlyForTestGetUrl(), SOME_URL);
+		assertEquals(httpHandler2.onlyForTestGetUrl(), SOME_URL + "2");
+	}
+
+	@Test
+	public void testMultiPartUploaderIsFactoredByDelegate() {
+		HttpHandlerFactorySpy multiPartFactory = new HttpHandlerFactorySpy();
+		HttpClientHandlerFactory factory = HttpClientHandlerFactory
+				.usingHttpClientAndReadTimeoutAndMultiPartFactory(new HttpClientSpy(),
+						Duration.ofSeconds(7), multiPartFactory);
+
+		HttpMultiPartUploader uploader = factory.factorHttpMultiPartUploader(SOME_URL);
+
+		multiPartFactory.MCR.assertParameters("factorHttpMultiPartUploader", 0, SOME_URL);
+		multiPartFactory.MCR.assertReturn("factorHttpMultiPartUploader", 0, uploader);
+	}
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+
+public class HttpClientHandlerTest {
+	private static final String SOME_URL = "https://someServer/rest/record/someType";
+	private HttpClientSpy httpClient;
+	private HttpResponseSpy httpResponse;
+	private HttpClientHandler httpHandler;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		httpResponse = new HttpResponseSpy();
+		httpClient = new HttpClientSpy();
+		httpClient.MRV.setDefaultReturnValuesSupplier("send", () -> httpResponse);
+		httpHandler = HttpClientHandler.usingHttpClientAndUrlAndReadTimeout(httpClient, SOME_URL,
+				Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		assertSame(httpHandler.onlyForTestGetHttpClient(), httpClient);
+		assertEquals(httpHandler.onlyForTestGetUrl(), SOME_URL);
+	}
+
+	@Test
+	public void testNoRequestSentBeforeResponseIsRead() {
+		httpHandler.setRequestMethod("POST");
+		httpHandler.setRequestProperty("Accept", "someAccept");
+		httpHandler.setOutput("someJson");
+
+		httpClient.MCR.assertMethodNotCalled("send");
+	}
+
+	@Test
+	public void testRequestSentOnceUsingUrlMethodHeadersAndTimeout() {
+		httpHandler.setRequestMethod("DELETE");
+		httpHandler.setRequestProperty("authToken", "someToken");
+
+		int responseCode = httpHandler.getResponseCode();
+		httpHandler.getResponseText();
+
+		assertEquals(responseCode, 200);
+		httpClient.MCR.assertNumberOfCallsToMethod("send", 1);
+		HttpRequest request = getSentRequest();
+		assertEquals(request.uri().toString(), SOME_URL);
+		assertEquals(request.method(), "DELETE");
+		assertEquals(request.headers().firstValue("authToken"), Optional.of("someToken"));
+		assertEquals(request.timeout(), Optional.of(Duration.ofSeconds(5)));
+		assertEquals(request.bodyPublisher().get().contentLength(), 0);
+	}
+
+	private HttpRequest getSentRequest() {
+		return (HttpRequest) httpClient.MCR.getParameterForMethodAndCallNumberAndParameter("send",
+				0, "request");
+	}
+
+	@Test
+	public void testSetTimeoutReplacesReadTimeout() {
+		httpHandler.setTimeout(Duration.ofMillis(1500));
+		httpHandler.getResponseCode();
+
+		assertEquals(getSentRequest().timeout(), Optional.of(Duration.ofMillis(1500)));
+	}
+
+	@Test
+	public void testDefaultRequestMethodIsGet() {
+		httpHandler.getResponseCode();
+
+		assertEquals(getSentRequest().method(), "GET");
+	}
+
+	@Test
+	public void testOutputIsSentAsBody() {
+		httpHandler.setRequestMethod("POST");
+		httpHandler.setOutput("someJson");
+
+		httpHandler.getResponseCode();
+
+		assertEquals(getSentRequest().bodyPublisher().get().contentLength(),
+				"someJson".getBytes(StandardCharsets.UTF_8).length);
+	}
+
+	@Test
+	public void testStreamOutputIsSentAsBody() {
+		httpHandler.setRequestMethod("POST");
+		httpHandler.setStreamOutput(new ByteArrayInputStream(new byte[3]));
+
+		httpHandler.getResponseCode();
+
+		assertEquals(getSentRequest().bodyPublisher().get().contentLength(), -1);
+	}
+
+	@Test
+	public void testBasicAuthorization() {
+		httpHandler.setBasicAuthorization("someUser", "somePassword");
+
+		httpHandler.getResponseCode();
+
+		assertEquals(getSentRequest().headers().firstValue("Authorization"),
+				Optional.of("Basic c29tZVVzZXI6c29tZVBhc3N3b3Jk"));
+	}
+
+	@Test
+	public void testResponseTextIsReadOnce() {
+		String responseText = httpHandler.getResponseText();
+		String responseText2 = httpHandler.getResponseText();
+
+		assertEquals(responseText, "some response text");
+		assertSame(responseText2, responseText);
+		httpResponse.MCR.assertNumberOfCallsToMethod("body", 1);
+	}
+
+	@Test
+	public void testErrorTextIsResponseBody() {
+		httpResponse.MRV.setDefaultReturnValuesSupplier("statusCode", () -> 500);
+
+		assertEquals(httpHandler.getResponseCode(), 500);
+		assertEquals(httpHandler.getErrorText(), "some response text");
+	}
+
+	@Test
+	public void testResponseBinaryWhenStreamed() {
+		InputStream body = new ByteArrayInputStream(new byte[3]);
+		httpResponse.MRV.setDefaultReturnValuesSupplier("body", () -> body);
+		httpHandler.streamResponseBody();
+
+		assertSame(httpHandler.getResponseBinary(), body);
+	}
+
+	@Test
+	public void testResponseBinaryWhenNotStreamed() throws Exception {
+		InputStream responseBinary = httpHandler.getResponseBinary();
+
+		assertEquals(new String(responseBinary.readAllBytes(), StandardCharsets.UTF_8),
+				"some response text");
+	}
+
+	@Test
+	public void testResponseBodyIsClosedWhenOnlyResponseCodeIsRead() {
+		CloseRecordingInputStream body = new CloseRecordingInputStream();
+		httpResponse.MRV.setDefaultReturnValuesSupplier("body", () -> body);
+
+		httpHandler.getResponseCode();
+
+		assertTrue(body.closed);
+	}
+
+	@Test
+	public void testStreamedResponseBodyIsNotClosedWhenResponseIsOk() {
+		CloseRecordingInputStream body = new CloseRecordingInputStream();
+		httpResponse.MRV.setDefaultReturnValuesSupplier("body", () -> body);
+		httpHandler.streamResponseBody();
+
+		httpHandler.getResponseCode();
+
+		assertFalse(body.closed);
+	}
+
+	@Test
+	public void testStreamedResponseBodyIsClosedWhenResponseIsNotOk() {
+		CloseRecordingInputStream body = new CloseRecordingInputStream();
+		httpResponse.MRV.setDefaultReturnValuesSupplier("body", () -> body);
+		httpResponse.MRV.setDefaultReturnValuesSupplier("statusCode", () -> 401);
+		httpHandler.streamResponseBody();
+
+		httpHandler.getResponseCode();
+
+		assertTrue(body.closed);
+		assertEquals(httpHandler.getErrorText(), "some error text");
+	}
+
+	private static class CloseRecordingInputStream extends ByteArrayInputStream {
+		boolean closed = false;
+
+		CloseRecordingInputStream() {
+			super("some error text".getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+
+	@Test
+	public void testResponseHeaders() {
+		HttpHeaders headers = HttpHeaders.of(
+				Map.of("Location", List.of("someLocation"), "Vary", List.of("a", "b")),
+				(_, _) -> true);
+		httpResponse.MRV.setDefaultReturnValuesSupplier("headers", () -> headers);
+
+		assertEquals(httpHandler.getHeaderField("Location"), "someLocation");
+		assertNull(httpHandler.getHeaderField("NotThere"));
+		Map<String, String> responseHeaders = httpHandler.getResponseHeaders();
+		assertEquals(responseHeaders.get("Location"), "someLocation");
+		assertEquals(responseHeaders.get("Vary"), "a, b");
+		httpClient.MCR.assertNumberOfCallsToMethod("send", 1);
+	}
+
+	@Test
+	public void testIOExceptionWhileSending() {
+		IOException ioException = new IOException("some io error");
+		httpClient.MRV.setDefaultReturnValuesSupplier("send", () -> ioException);
+
+		try {
+			httpHandler.getResponseCode();
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not send request to url: " + SOME_URL);
+			assertSame(e.getCause(), ioException);
+		}
+	}
+
+	@Test
+	public void testInterruptedWhileSendingKeepsInterruptedStatus() {
+		InterruptedException interruptedException = new InterruptedException();
+		httpClient.MRV.setDefaultReturnValuesSupplier("send", () -> interruptedException);
+
+		try {
+			httpHandler.getResponseCode();
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertSame(e.getCause(), interruptedException);
+			assertTrue(Thread.interrupted());
+		}
+	}
+
+	@Test
+	public void testIOExceptionWhileReadingResponse() {
+		IOException ioException = new IOException("some io error");
+		httpResponse.MRV.setDefaultReturnValuesSupplier("body", () -> new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw ioException;
+			}
+		});
+
+		try {
+			httpHandler.getResponseText();
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Could not read response from url: " + SOME_URL);
+			assertSame(e.getCause(), ioException);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.PushPromiseHandler;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
+import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
+
+public class HttpClientSpy extends HttpClient {
+	public MethodCallRecorder MCR = new MethodCallRecorder();
+	public MethodReturnValues MRV = new MethodReturnValues();
+
+	public HttpClientSpy() {
+		MCR.useMRV(MRV);
+		MRV.setDefaultReturnValuesSupplier("send", HttpResponseSpy::new);
+	}
+
+	@Override
+	public Optional<CookieHandler> cookieHandler() {
+		return Optional.empty();
+	}
+
+	@Override
+	public Optional<Duration> connectTimeout() {
+		return Optional.empty();
+	}
+
+	@Override
+	public Redirect followRedirects() {
+		return Redirect.NEVER;
+	}
+
+	@Override
+	public Optional<ProxySelector> proxy() {
+		return Optional.empty();
+	}
+
+	@Override
+	public SSLContext sslContext() {
+		return null;
+	}
+
+	@Override
+	public SSLParameters sslParameters() {
+		return null;
+	}
+
+	@Override
+	public Optional<Authenticator> authenticator() {
+		return Optional.empty();
+	}
+
+	@Override
+	public Version version() {
+		return Version.HTTP_2;
+	}
+
+	@Override
+	public Optional<Executor> executor() {
+		return Optional.empty();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> responseBodyHandler)
+			throws IOException, InterruptedException {
+		Object returnValue = MCR.addCallAndReturnFromMRV("request", request,
+				"responseBodyHandler", responseBodyHandler);
+		if (returnValue instanceof IOException exception) {
+			throw exception;
+		}
+		if (returnValue instanceof InterruptedException exception) {
+			throw exception;
+		}
+		return (HttpResponse<T>) returnValue;
+	}
+
+	@Override
+	public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+			BodyHandler<T> responseBodyHandler) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+			BodyHandler<T> responseBodyHandler, PushPromiseHandler<T> pushPromiseHandler) {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+
+import javax.net.ssl.SSLSession;
+
+import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
+import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
+
+public class HttpResponseSpy implements HttpResponse<InputStream> {
+	public MethodCallRecorder MCR = new MethodCallRecorder();
+	public MethodReturnValues MRV = new MethodReturnValues();
+
+	public HttpResponseSpy() {
+		MCR.useMRV(MRV);
+		MRV.setDefaultReturnValuesSupplier("statusCode", () -> 200);
+		MRV.setDefaultReturnValuesSupplier("body", () -> new ByteArrayInputStream(
+				"some response text".getBytes(StandardCharsets.UTF_8)));
+		MRV.setDefaultReturnValuesSupplier("headers",
+				() -> HttpHeaders.of(Collections.emptyMap(), (_, _) -> true));
+	}
+
+	@Override
+	public int statusCode() {
+		return (int) MCR.addCallAndReturnFromMRV();
+	}
+
+	@Override
+	public HttpRequest request() {
+		return null;
+	}
+
+	@Override
+	public Optional<HttpResponse<InputStream>> previousResponse() {
+		return Optional.empty();
+	}
+
+	@Override
+	public HttpHeaders headers() {
+		return (HttpHeaders) MCR.addCallAndReturnFromMRV();
+	}
+
+	@Override
+	public InputStream body() {
+		return (InputStream) MCR.addCallAndReturnFromMRV();
+	}
+
+	@Override
+	public Optional<SSLSession> sslSession() {
+		return Optional.empty();
+	}
+
+	@Override
+	public URI uri() {
+		return null;
+	}
+
+	@Override
+	public Version version() {
+		return Version.HTTP_2;
+	}
+}
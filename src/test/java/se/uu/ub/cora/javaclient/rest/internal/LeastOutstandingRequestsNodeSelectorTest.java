@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+import se.uu.ub.cora.javaclient.rest.NodeSelector;
+
+public class LeastOutstandingRequestsNodeSelectorTest {
+
+	@Test
+	public void testFactoredFromNodeSelector() {
+		assertTrue(NodeSelector
+				.leastOutstandingRequests() instanceof LeastOutstandingRequestsNodeSelector);
+	}
+
+	@Test
+	public void testNodeWithFewestOutstandingRequestsIsSelected() {
+		LoadBalancedNodeImp node1 = createNodeWithOutstandingRequests("node1", 2);
+		LoadBalancedNodeImp node2 = createNodeWithOutstandingRequests("node2", 1);
+		LoadBalancedNodeImp node3 = createNodeWithOutstandingRequests("node3", 3);
+		NodeSelector selector = new LeastOutstandingRequestsNodeSelector();
+
+		assertSame(selector.selectNode(List.of(node1, node2, node3)), node2);
+		assertSame(selector.selectNode(List.of(node1, node3)), node1);
+	}
+
+	private LoadBalancedNodeImp createNodeWithOutstandingRequests(String baseUrl,
+			int outstandingRequests) {
+		LoadBalancedNodeImp node = LoadBalancedNodeImp.usingBaseUrlAndSettings(baseUrl,
+				LoadBalancingSettings.NONE);
+		for (int i = 0; i < outstandingRequests; i++) {
+			node.startRequest();
+		}
+		return node;
+	}
+}
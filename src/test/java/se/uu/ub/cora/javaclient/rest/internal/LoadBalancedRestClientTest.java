@@ -0,0 +1,372 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.httphandler.spies.HttpHandlerFactorySpy;
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerOpenException;
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+import se.uu.ub.cora.javaclient.rest.NodeSelector;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestClientSpy;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.javaclient.rest.RetryPolicy;
+
+public class LoadBalancedRestClientTest {
+	private static final String SOME_TYPE = "someType";
+	private static final String SOME_ID = "someId";
+	private static final String SOME_JSON = "someJson";
+	private static final String BASE_URL = "someBaseUrl";
+	private LoadBalancer loadBalancer;
+	private LoadBalancedNodeImp node1;
+	private LoadBalancedNodeImp node2;
+	private RestClientSpy restClientSpy1;
+	private RestClientSpy restClientSpy2;
+	private Map<LoadBalancedNodeImp, RestClient> restClients;
+	private RestClient restClient;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		loadBalancer = LoadBalancer.usingSettingsAndHttpHandlerFactory(
+				LoadBalancingSettings.usingNodeSelector(NodeSelector.roundRobin())
+						.withNodes(BASE_URL, List.of("node1", "node2"))
+						.withEjection(1, Duration.ofMinutes(1)),
+				new HttpHandlerFactorySpy());
+		node1 = loadBalancer.getNodesForBaseUrl(BASE_URL).get(0);
+		node2 = loadBalancer.getNodesForBaseUrl(BASE_URL).get(1);
+		restClientSpy1 = new RestClientSpy();
+		restClientSpy2 = new RestClientSpy();
+		restClients = new LinkedHashMap<>();
+		restClients.put(node1, restClientSpy1);
+		restClients.put(node2, restClientSpy2);
+		restClient = LoadBalancedRestClient.usingLoadBalancerAndRestClients(loadBalancer,
+				restClients);
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		LoadBalancedRestClient loadBalancedRestClient = (LoadBalancedRestClient) restClient;
+
+		assertSame(loadBalancedRestClient.onlyForTestGetLoadBalancer(), loadBalancer);
+		assertSame(loadBalancedRestClient.onlyForTestGetRestClients(), restClients);
+		assertSame(loadBalancedRestClient.onlyForTestGetRetryPolicy(), RetryPolicy.NONE);
+		assertEquals(loadBalancedRestClient.onlyForTestGetDeadline(), Duration.ZERO);
+	}
+
+	@Test
+	public void testCallsAreSentToSelectedNodes() {
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.createRecordFromJson(SOME_TYPE, SOME_JSON);
+		restClient.updateRecordFromJson(SOME_TYPE, SOME_ID, SOME_JSON);
+		restClient.deleteRecord(SOME_TYPE, SOME_ID);
+		restClient.readRecordListAsJson(SOME_TYPE);
+		restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordListWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.batchIndexWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON);
+		restClient.readRecordListAsJsonStream(SOME_TYPE);
+		restClient.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", SOME_JSON);
+		restClient.validateRecordAsJson(SOME_JSON);
+		restClient.download(SOME_TYPE, SOME_ID, "someRepresentation");
+
+		restClientSpy1.MCR.assertReturn("readRecordAsJson", 0, response);
+		restClientSpy2.MCR.assertParameters("createRecordFromJson", 0, SOME_TYPE, SOME_JSON);
+		restClientSpy1.MCR.assertParameters("updateRecordFromJson", 0, SOME_TYPE, SOME_ID,
+				SOME_JSON);
+		restClientSpy2.MCR.assertParameters("deleteRecord", 0, SOME_TYPE, SOME_ID);
+		restClientSpy1.MCR.assertParameters("readRecordListAsJson", 0, SOME_TYPE);
+		restClientSpy2.MCR.assertParameters("readIncomingLinksAsJson", 0, SOME_TYPE, SOME_ID);
+		restClientSpy1.MCR.assertParameters("readRecordListWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy2.MCR.assertParameters("batchIndexWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy1.MCR.assertParameters("searchRecordWithSearchCriteriaAsJson", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy2.MCR.assertParameters("readRecordListAsJsonStream", 0, SOME_TYPE);
+		restClientSpy1.MCR.assertParameters("searchRecordWithSearchCriteriaAsJsonStream", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy2.MCR.assertParameters("validateRecordAsJson", 0, SOME_JSON);
+		restClientSpy1.MCR.assertParameters("download", 0, SOME_TYPE, SOME_ID,
+				"someRepresentation");
+		assertEquals(node1.getOutstandingRequests(), 0);
+		assertEquals(node2.getOutstandingRequests(), 0);
+	}
+
+	@Test
+	public void testReadManyIsBalancedPerRead() {
+		ReadManyResult<RestResponse> result = restClient.readManyAsJson(SOME_TYPE,
+				List.of("id1", "id2"), 1);
+
+		restClientSpy1.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		restClientSpy2.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		assertEquals(result.results().size(), 2);
+	}
+
+	@Test
+	public void testWithDeadlineSharesNodes() {
+		LoadBalancedRestClient withDeadline = (LoadBalancedRestClient) restClient
+				.withDeadline(Duration.ofSeconds(1));
+
+		assertNotSame(withDeadline, restClient);
+		assertSame(withDeadline.onlyForTestGetLoadBalancer(), loadBalancer);
+		assertSame(withDeadline.onlyForTestGetRestClients(), restClients);
+		assertSame(withDeadline.onlyForTestGetRetryPolicy(), RetryPolicy.NONE);
+		assertEquals(withDeadline.onlyForTestGetDeadline(), Duration.ofSeconds(1));
+		restClientSpy1.MCR.assertMethodNotCalled("withDeadline");
+	}
+
+	@Test
+	public void testCallWithDeadlineGivesNodeRemainingTime() {
+		RestClient withDeadline = restClient.withDeadline(Duration.ofSeconds(1));
+
+		RestResponse response = withDeadline.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		Duration remaining = (Duration) restClientSpy1.MCR
+				.getParameterForMethodAndCallNumberAndParameter("withDeadline", 0, "deadline");
+		assertTrue(remaining.isPositive());
+		assertTrue(remaining.compareTo(Duration.ofSeconds(1)) <= 0);
+		RestClientSpy nodeClientWithDeadline = (RestClientSpy) restClientSpy1.MCR
+				.getReturnValue("withDeadline", 0);
+		nodeClientWithDeadline.MCR.assertReturn("readRecordAsJson", 0, response);
+		restClientSpy1.MCR.assertMethodNotCalled("readRecordAsJson");
+	}
+
+	@Test
+	public void testSuccessfulResponseRecordsLatency() {
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertTrue(node1.getAverageLatency().toNanos() > 0);
+	}
+
+	@Test
+	public void testServerErrorEjectsNode() {
+		restClientSpy1.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> new RestResponse(503, "", Optional.empty(), Optional.empty()));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 503);
+		assertTrue(node1.isEjected());
+		assertEquals(node1.getOutstandingRequests(), 0);
+	}
+
+	@Test
+	public void testClientErrorDoesNotEjectNode() {
+		restClientSpy1.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> new RestResponse(404, "", Optional.empty(), Optional.empty()));
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(node1.isEjected(), false);
+	}
+
+	@Test
+	public void testConnectionErrorEjectsNode() {
+		assertExceptionEjectsNode(DataClientException
+				.withMessageAndException("Could not send request", new IOException()), true);
+	}
+
+	private void assertExceptionEjectsNode(RuntimeException exception, boolean expectedEjected) {
+		restClientSpy1.MRV.setAlwaysThrowException("readRecordAsJson", exception);
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (RuntimeException e) {
+			assertSame(e, exception);
+		}
+
+		assertEquals(node1.isEjected(), expectedEjected);
+		assertEquals(node1.getOutstandingRequests(), 0);
+	}
+
+	@Test
+	public void testOpenCircuitBreakerEjectsNode() {
+		assertExceptionEjectsNode(CircuitBreakerOpenException.withMessage("open"), true);
+	}
+
+	@Test
+	public void testOtherExceptionsDoNotEjectNode() {
+		assertExceptionEjectsNode(DataClientException.withMessage("some error"), false);
+	}
+
+	@Test
+	public void testEjectedNodeIsNotSelected() {
+		restClientSpy1.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> new RestResponse(503, "", Optional.empty(), Optional.empty()));
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy1.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		restClientSpy2.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+	}
+
+	@Test
+	public void testServerErrorIsRetriedOnOtherNode() {
+		List<Duration> sleeps = setUpRetryingRestClientUsingMaxAttempts(3);
+		restClientSpy1.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+				() -> new RestResponse(503, "", Optional.empty(), Optional.empty()));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy1.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		restClientSpy2.MCR.assertReturn("readRecordAsJson", 0, response);
+		assertEquals(response.responseCode(), 200);
+		assertTrue(sleeps.isEmpty());
+		assertEquals(node1.getOutstandingRequests(), 0);
+		assertEquals(node2.getOutstandingRequests(), 0);
+	}
+
+	private List<Duration> setUpRetryingRestClientUsingMaxAttempts(int maxAttempts) {
+		return setUpRestClientUsingRetryPolicy(RetryPolicy.usingMaxAttemptsAndBackoff(maxAttempts,
+				Duration.ofMillis(100), Duration.ofSeconds(1)));
+	}
+
+	private List<Duration> setUpRestClientUsingRetryPolicy(RetryPolicy retryPolicy) {
+		LoadBalancedRestClient retryingRestClient = LoadBalancedRestClient
+				.usingLoadBalancerAndRetryPolicyAndRestClients(loadBalancer, retryPolicy,
+						restClients);
+		List<Duration> sleeps = new ArrayList<>();
+		retryingRestClient.onlyForTestSetSleeper(sleeps::add);
+		restClient = retryingRestClient;
+		return sleeps;
+	}
+
+	@Test
+	public void testConnectionErrorIsRetriedOnOtherNode() {
+		setUpRetryingRestClientUsingMaxAttempts(3);
+		restClientSpy1.MRV.setAlwaysThrowException("readRecordAsJson", DataClientException
+				.withMessageAndException("Could not send request", new IOException()));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy1.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		restClientSpy2.MCR.assertReturn("readRecordAsJson", 0, response);
+	}
+
+	@Test
+	public void testOtherExceptionIsNotRetried() {
+		setUpRetryingRestClientUsingMaxAttempts(3);
+		DataClientException exception = DataClientException.withMessage("some error");
+		restClientSpy1.MRV.setAlwaysThrowException("readRecordAsJson", exception);
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (RuntimeException e) {
+			assertSame(e, exception);
+		}
+
+		restClientSpy2.MCR.assertMethodNotCalled("readRecordAsJson");
+	}
+
+	@Test
+	public void testRetryWaitsBackoffOnceAllNodesAreTried() {
+		List<Duration> sleeps = setUpRetryingRestClientUsingMaxAttempts(3);
+		setUpServiceUnavailableOnBothNodes();
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 503);
+		restClientSpy1.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+		restClientSpy2.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		assertEquals(sleeps.size(), 1);
+		assertTrue(sleeps.get(0).compareTo(Duration.ofMillis(200)) <= 0);
+	}
+
+	private void setUpServiceUnavailableOnBothNodes() {
+		for (RestClientSpy restClientSpy : List.of(restClientSpy1, restClientSpy2)) {
+			restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson",
+					() -> new RestResponse(503, "", Optional.empty(), Optional.empty()));
+			restClientSpy.MRV.setDefaultReturnValuesSupplier("createRecordFromJson",
+					() -> new RestResponse(503, "", Optional.empty(), Optional.empty()));
+		}
+	}
+
+	@Test
+	public void testNoRetryWithoutRetryPolicy() {
+		setUpServiceUnavailableOnBothNodes();
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy1.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		restClientSpy2.MCR.assertMethodNotCalled("readRecordAsJson");
+	}
+
+	@Test
+	public void testWriteIsNotRetried() {
+		setUpRetryingRestClientUsingMaxAttempts(3);
+		setUpServiceUnavailableOnBothNodes();
+
+		restClient.createRecordFromJson(SOME_TYPE, SOME_JSON);
+
+		restClientSpy1.MCR.assertNumberOfCallsToMethod("createRecordFromJson", 1);
+		restClientSpy2.MCR.assertMethodNotCalled("createRecordFromJson");
+	}
+
+	@Test
+	public void testWriteIsRetriedIfPolicyRetriesCreateAndUpdate() {
+		setUpRestClientUsingRetryPolicy(RetryPolicy
+				.usingMaxAttemptsAndBackoff(3, Duration.ofMillis(100), Duration.ofSeconds(1))
+				.withRetryOfCreateAndUpdate());
+		setUpServiceUnavailableOnBothNodes();
+
+		restClient.createRecordFromJson(SOME_TYPE, SOME_JSON);
+
+		restClientSpy1.MCR.assertNumberOfCallsToMethod("createRecordFromJson", 2);
+		restClientSpy2.MCR.assertNumberOfCallsToMethod("createRecordFromJson", 1);
+	}
+
+	@Test
+	public void testNoRetryIfDeadlinePassesDuringBackoff() {
+		List<Duration> sleeps = setUpRestClientUsingRetryPolicy(RetryPolicy
+				.usingMaxAttemptsAndBackoff(3, Duration.ofSeconds(10), Duration.ofSeconds(10)));
+		setUpServiceUnavailableOnBothNodes();
+		for (RestClientSpy restClientSpy : List.of(restClientSpy1, restClientSpy2)) {
+			restClientSpy.MRV.setDefaultReturnValuesSupplier("withDeadline", () -> restClientSpy);
+		}
+		RestClient withDeadline = restClient.withDeadline(Duration.ofNanos(1));
+
+		withDeadline.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy1.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		restClientSpy2.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		assertTrue(sleeps.isEmpty());
+	}
+}
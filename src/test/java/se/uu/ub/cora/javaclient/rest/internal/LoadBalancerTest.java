@@ -0,0 +1,297 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.httphandler.spies.HttpHandlerFactorySpy;
+import se.uu.ub.cora.httphandler.spies.HttpHandlerSpy;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+import se.uu.ub.cora.javaclient.rest.NodeSelector;
+
+public class LoadBalancerTest {
+	private static final String BASE_URL = "someBaseUrl";
+	private static final Duration EJECTION_DURATION = Duration.ofSeconds(10);
+	private HttpHandlerFactorySpy httpHandlerFactory;
+	private HttpHandlerSpy httpHandler;
+	private AtomicLong nanoClock;
+	private LoadBalancingSettings settings;
+	private LoadBalancer loadBalancer;
+	private List<LoadBalancedNodeImp> nodes;
+	private CountDownLatch healthCheckReleased;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		httpHandler = new HttpHandlerSpy();
+		httpHandlerFactory = new HttpHandlerFactorySpy();
+		httpHandlerFactory.MRV.setDefaultReturnValuesSupplier("factor", () -> httpHandler);
+		nanoClock = new AtomicLong();
+		healthCheckReleased = new CountDownLatch(1);
+		setUpLoadBalancerUsingSettings(LoadBalancingSettings
+				.usingNodeSelector(NodeSelector.leastOutstandingRequests())
+				.withNodes(BASE_URL, List.of("node1", "node2"))
+				.withEjection(2, EJECTION_DURATION));
+	}
+
+	private void setUpLoadBalancerUsingSettings(LoadBalancingSettings settings) {
+		this.settings = settings;
+		loadBalancer = LoadBalancer.usingSettingsAndHttpHandlerFactoryAndNanoClock(settings,
+				httpHandlerFactory, nanoClock::get);
+		loadBalancer.onlyForTestSetHealthCheckExecutor(Runnable::run);
+		nodes = loadBalancer.getNodesForBaseUrl(BASE_URL);
+	}
+
+	@Test
+	public void testInit() {
+		loadBalancer = LoadBalancer.usingSettingsAndHttpHandlerFactory(settings,
+				httpHandlerFactory);
+
+		assertSame(loadBalancer.onlyForTestGetSettings(), settings);
+		assertSame(loadBalancer.onlyForTestGetHttpHandlerFactory(), httpHandlerFactory);
+	}
+
+	@Test
+	public void testNodesForBaseUrl() {
+		assertTrue(loadBalancer.hasNodesForBaseUrl(BASE_URL));
+		assertFalse(loadBalancer.hasNodesForBaseUrl("someOtherBaseUrl"));
+		assertEquals(nodes.size(), 2);
+		assertEquals(nodes.get(0).getBaseUrl(), "node1");
+		assertEquals(nodes.get(1).getBaseUrl(), "node2");
+	}
+
+	@Test
+	public void testNodesAreSharedForBaseUrl() {
+		assertSame(loadBalancer.getNodesForBaseUrl(BASE_URL), nodes);
+	}
+
+	@Test
+	public void testStartAndEndRequest() {
+		LoadBalancedNodeImp node = loadBalancer.startRequestOnNodeAmong(nodes);
+		assertSame(node, nodes.get(0));
+		assertEquals(node.getOutstandingRequests(), 1);
+
+		assertSame(loadBalancer.startRequestOnNodeAmong(nodes), nodes.get(1));
+
+		loadBalancer.endSuccessfulRequestOnNode(node, Duration.ofMillis(10));
+		assertEquals(node.getOutstandingRequests(), 0);
+		assertEquals(node.getAverageLatency(), Duration.ofMillis(10));
+	}
+
+	@Test
+	public void testAverageLatencyIsMovingAverage() {
+		LoadBalancedNodeImp node = nodes.get(0);
+
+		loadBalancer.endSuccessfulRequestOnNode(loadBalancer.startRequestOnNodeAmong(nodes),
+				Duration.ofMillis(10));
+		loadBalancer.endSuccessfulRequestOnNode(loadBalancer.startRequestOnNodeAmong(nodes),
+				Duration.ofMillis(20));
+
+		assertEquals(node.getAverageLatency(), Duration.ofMillis(13));
+	}
+
+	@Test
+	public void testEndRequestWithoutRecording() {
+		LoadBalancedNodeImp node = loadBalancer.startRequestOnNodeAmong(nodes);
+
+		loadBalancer.endRequestOnNode(node);
+
+		assertEquals(node.getOutstandingRequests(), 0);
+		assertEquals(node.getAverageLatency(), Duration.ZERO);
+	}
+
+	@Test
+	public void testNodeEjectedAfterFailuresInARow() {
+		LoadBalancedNodeImp node = nodes.get(0);
+		failRequestOnNode(node);
+		assertFalse(node.isEjected());
+
+		failRequestOnNode(node);
+
+		assertTrue(node.isEjected());
+		assertNodeSelected(nodes.get(1));
+		assertNodeSelected(nodes.get(1));
+	}
+
+	private void failRequestOnNode(LoadBalancedNodeImp node) {
+		node.startRequest();
+		loadBalancer.endFailedRequestOnNode(node);
+	}
+
+	private void assertNodeSelected(LoadBalancedNodeImp expectedNode) {
+		LoadBalancedNodeImp node = loadBalancer.startRequestOnNodeAmong(nodes);
+		loadBalancer.endRequestOnNode(node);
+		assertSame(node, expectedNode);
+	}
+
+	@Test
+	public void testSuccessResetsFailuresInARow() {
+		LoadBalancedNodeImp node = nodes.get(0);
+		failRequestOnNode(node);
+		node.startRequest();
+		loadBalancer.endSuccessfulRequestOnNode(node, Duration.ofMillis(1));
+
+		failRequestOnNode(node);
+
+		assertFalse(node.isEjected());
+	}
+
+	@Test
+	public void testAllNodesEjectedSelectsAmongAll() {
+		ejectNode(nodes.get(0));
+		ejectNode(nodes.get(1));
+
+		assertNodeSelected(nodes.get(0));
+	}
+
+	private void ejectNode(LoadBalancedNodeImp node) {
+		failRequestOnNode(node);
+		failRequestOnNode(node);
+	}
+
+	@Test
+	public void testEjectedNodeReadmittedAfterEjectionDuration() {
+		LoadBalancedNodeImp node = nodes.get(0);
+		ejectNode(node);
+		nanoClock.addAndGet(EJECTION_DURATION.toNanos() - 1);
+		assertNodeSelected(nodes.get(1));
+
+		nanoClock.incrementAndGet();
+
+		assertNodeSelected(node);
+		assertFalse(node.isEjected());
+		httpHandlerFactory.MCR.assertMethodNotCalled("factor");
+	}
+
+	@Test
+	public void testReadmittedNodeEjectedAgainOnNextFailure() {
+		LoadBalancedNodeImp node = nodes.get(0);
+		ejectNode(node);
+		nanoClock.addAndGet(EJECTION_DURATION.toNanos());
+		assertNodeSelected(node);
+
+		failRequestOnNode(node);
+
+		assertTrue(node.isEjected());
+	}
+
+	@Test
+	public void testActiveHealthCheckReadmitsHealthyNode() {
+		setUpLoadBalancerUsingSettings(settings.withActiveHealthChecks());
+		httpHandler.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 200);
+		LoadBalancedNodeImp node = nodes.get(0);
+		ejectNode(node);
+		nanoClock.addAndGet(EJECTION_DURATION.toNanos());
+
+		assertNodeSelected(nodes.get(1));
+
+		httpHandlerFactory.MCR.assertParameters("factor", 0, "node1");
+		httpHandler.MCR.assertParameters("setRequestMethod", 0, "GET");
+		httpHandler.MCR.assertMethodWasCalled("getResponseText");
+		assertFalse(node.isEjected());
+		assertNodeSelected(node);
+	}
+
+	@Test
+	public void testActiveHealthCheckEjectsUnhealthyNodeAgain() {
+		setUpLoadBalancerUsingSettings(settings.withActiveHealthChecks());
+		httpHandler.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+		LoadBalancedNodeImp node = nodes.get(0);
+		ejectNode(node);
+		nanoClock.addAndGet(EJECTION_DURATION.toNanos());
+
+		assertNodeSelected(nodes.get(1));
+
+		assertTrue(node.isEjected());
+		httpHandler.MCR.assertMethodWasCalled("getErrorText");
+		nanoClock.addAndGet(EJECTION_DURATION.toNanos() - 1);
+		assertNodeSelected(nodes.get(1));
+		httpHandlerFactory.MCR.assertNumberOfCallsToMethod("factor", 1);
+	}
+
+	@Test
+	public void testActiveHealthCheckFailingWithExceptionEjectsNodeAgain() {
+		setUpLoadBalancerUsingSettings(settings.withActiveHealthChecks());
+		httpHandler.MRV.setAlwaysThrowException("getResponseCode",
+				DataClientException.withMessage("Could not connect"));
+		LoadBalancedNodeImp node = nodes.get(0);
+		ejectNode(node);
+		nanoClock.addAndGet(EJECTION_DURATION.toNanos());
+
+		assertNodeSelected(nodes.get(1));
+
+		assertTrue(node.isEjected());
+	}
+
+	@Test
+	public void testNoNewHealthCheckWhileOneIsInProgress() {
+		setUpLoadBalancerUsingSettings(settings.withActiveHealthChecks());
+		loadBalancer.onlyForTestSetHealthCheckExecutor(_ -> {
+		});
+		LoadBalancedNodeImp node = nodes.get(0);
+		ejectNode(node);
+		nanoClock.addAndGet(EJECTION_DURATION.toNanos());
+
+		assertNodeSelected(nodes.get(1));
+		assertNodeSelected(nodes.get(1));
+
+		assertTrue(node.isEjected());
+	}
+
+	@Test
+	public void testActiveHealthCheckNotAnsweringWithinTimeoutEjectsNodeAgain() {
+		setUpLoadBalancerUsingSettings(settings.withActiveHealthChecks());
+		loadBalancer.onlyForTestSetHealthCheckTimeout(Duration.ofMillis(50));
+		httpHandler.MRV.setDefaultReturnValuesSupplier("getResponseCode",
+				this::waitUntilReleasedAndReturnOk);
+		LoadBalancedNodeImp node = nodes.get(0);
+		ejectNode(node);
+		nanoClock.addAndGet(EJECTION_DURATION.toNanos());
+		long start = System.nanoTime();
+
+		assertNodeSelected(nodes.get(1));
+
+		assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+		assertTrue(node.isEjected());
+		nanoClock.addAndGet(EJECTION_DURATION.toNanos());
+		assertNodeSelected(nodes.get(1));
+		httpHandlerFactory.MCR.assertNumberOfCallsToMethod("factor", 2);
+		healthCheckReleased.countDown();
+	}
+
+	private int waitUntilReleasedAndReturnOk() {
+		try {
+			healthCheckReleased.await();
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+		}
+		return 200;
+	}
+}
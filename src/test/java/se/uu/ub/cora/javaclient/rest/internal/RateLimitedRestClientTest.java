@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.ReadManyResult;
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.OperationType;
+import se.uu.ub.cora.javaclient.rest.RateLimit;
+import se.uu.ub.cora.javaclient.rest.RateLimitSettings;
+import se.uu.ub.cora.javaclient.rest.RestClient;
+import se.uu.ub.cora.javaclient.rest.RestClientSpy;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+public class RateLimitedRestClientTest {
+	private static final String SOME_TYPE = "someType";
+	private static final String SOME_ID = "someId";
+	private static final String SOME_JSON = "someJson";
+	private RestClientSpy restClientSpy;
+	private RateLimiters rateLimiters;
+	private RestClient restClient;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		restClientSpy = new RestClientSpy();
+		setUpRestClientUsingSettings(RateLimitSettings.NONE);
+	}
+
+	private void setUpRestClientUsingSettings(RateLimitSettings settings) {
+		rateLimiters = RateLimiters.usingSettings(settings);
+		restClient = RateLimitedRestClient.usingRestClientAndRateLimiters(restClientSpy,
+				rateLimiters);
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		RateLimitedRestClient rateLimitedRestClient = (RateLimitedRestClient) restClient;
+
+		assertSame(rateLimitedRestClient.onlyForTestGetRestClient(), restClientSpy);
+		assertSame(rateLimitedRestClient.onlyForTestGetRateLimiters(), rateLimiters);
+		assertSame(rateLimiters.onlyForTestGetSettings(), RateLimitSettings.NONE);
+	}
+
+	@Test
+	public void testCallsAreDelegated() {
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.createRecordFromJson(SOME_TYPE, SOME_JSON);
+		restClient.updateRecordFromJson(SOME_TYPE, SOME_ID, SOME_JSON);
+		restClient.deleteRecord(SOME_TYPE, SOME_ID);
+		restClient.readRecordListAsJson(SOME_TYPE);
+		restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordListWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.batchIndexWithFilterAsJson(SOME_TYPE, SOME_JSON);
+		restClient.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON);
+		restClient.readRecordListAsJsonStream(SOME_TYPE);
+		restClient.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", SOME_JSON);
+		restClient.validateRecordAsJson(SOME_JSON);
+		restClient.download(SOME_TYPE, SOME_ID, "someRepresentation");
+
+		restClientSpy.MCR.assertReturn("readRecordAsJson", 0, response);
+		restClientSpy.MCR.assertParameters("createRecordFromJson", 0, SOME_TYPE, SOME_JSON);
+		restClientSpy.MCR.assertParameters("updateRecordFromJson", 0, SOME_TYPE, SOME_ID,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("deleteRecord", 0, SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertParameters("readRecordListAsJson", 0, SOME_TYPE);
+		restClientSpy.MCR.assertParameters("readIncomingLinksAsJson", 0, SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertParameters("readRecordListWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("batchIndexWithFilterAsJson", 0, SOME_TYPE,
+				SOME_JSON);
+		restClientSpy.MCR.assertParameters("searchRecordWithSearchCriteriaAsJson", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy.MCR.assertParameters("readRecordListAsJsonStream", 0, SOME_TYPE);
+		restClientSpy.MCR.assertParameters("searchRecordWithSearchCriteriaAsJsonStream", 0,
+				"someSearchId", SOME_JSON);
+		restClientSpy.MCR.assertParameters("validateRecordAsJson", 0, SOME_JSON);
+		restClientSpy.MCR.assertParameters("download", 0, SOME_TYPE, SOME_ID,
+				"someRepresentation");
+	}
+
+	@Test
+	public void testReadManyIsLimitedPerRead() {
+		ReadManyResult<RestResponse> result = restClient.readManyAsJson(SOME_TYPE,
+				List.of("id1", "id2"), 2);
+
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 2);
+		restClientSpy.MCR.assertMethodNotCalled("readManyAsJson");
+		assertEquals(result.results().size(), 2);
+	}
+
+	@Test
+	public void testWithDeadlineSharesRateLimiters() {
+		RateLimitedRestClient withDeadline = (RateLimitedRestClient) restClient
+				.withDeadline(Duration.ofSeconds(1));
+
+		assertNotSame(withDeadline, restClient);
+		assertSame(withDeadline.onlyForTestGetRestClient(), restClientSpy);
+		assertSame(withDeadline.onlyForTestGetRateLimiters(), rateLimiters);
+		assertEquals(withDeadline.onlyForTestGetDeadline(), Duration.ofSeconds(1));
+		assertEquals(((RateLimitedRestClient) restClient).onlyForTestGetDeadline(),
+				Duration.ZERO);
+	}
+
+	@Test
+	public void testCallWithDeadlineUsesWrappedClientWithRemainingDeadline() {
+		RestResponse response = restClient.withDeadline(Duration.ofSeconds(1))
+				.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		Duration remaining = (Duration) restClientSpy.MCR
+				.getParameterForMethodAndCallNumberAndParameter("withDeadline", 0, "deadline");
+		assertTrue(remaining.compareTo(Duration.ofSeconds(1)) <= 0);
+		assertTrue(remaining.isPositive());
+		RestClientSpy restClientWithDeadline = (RestClientSpy) restClientSpy.MCR
+				.getReturnValue("withDeadline", 0);
+		restClientWithDeadline.MCR.assertReturn("readRecordAsJson", 0, response);
+		restClientSpy.MCR.assertMethodNotCalled("readRecordAsJson");
+	}
+
+	@Test
+	public void testWaitForLimitIsBoundedByDeadline() {
+		setUpRestClientUsingSettings(RateLimitSettings.usingGlobalLimit(new RateLimit(0, 0, 1)));
+		RestClient restClientWithDeadline = restClient.withDeadline(Duration.ofMillis(50));
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson", () -> {
+			long start = System.nanoTime();
+			try {
+				restClientWithDeadline.download(SOME_TYPE, SOME_ID, "master");
+				fail("It should throw an exception");
+			} catch (DataClientException e) {
+				assertEquals(e.getMessage(), "The deadline was exceeded while waiting for the "
+						+ "limit for: all operations, no request was sent.");
+			}
+			assertTrue(System.nanoTime() - start < 1_000_000_000L);
+			return null;
+		});
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertMethodNotCalled("withDeadline");
+	}
+
+	@Test
+	public void testGlobalConcurrencyLimitFailFast() {
+		setUpRestClientUsingSettings(
+				RateLimitSettings.usingGlobalLimit(new RateLimit(0, 0, 1)).withFailFast());
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("readRecordAsJson", () -> {
+			assertCallFailsWithMessage(client -> client.download(SOME_TYPE, SOME_ID, "master"),
+					"The concurrency limit for: all operations was reached, no request was sent.");
+			return null;
+		});
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClientSpy.MCR.assertMethodNotCalled("download");
+		restClient.download(SOME_TYPE, SOME_ID, "master");
+		restClientSpy.MCR.assertNumberOfCallsToMethod("download", 1);
+	}
+
+	private void assertCallFailsWithMessage(Consumer<RestClient> call, String message) {
+		try {
+			call.accept(restClient);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), message);
+		}
+	}
+
+	@Test
+	public void testOperationLimitOnlyLimitsItsOperationType() {
+		setUpRestClientUsingSettings(RateLimitSettings.NONE
+				.withOperationLimit(OperationType.SEARCH, new RateLimit(0.001, 1, 0))
+				.withFailFast());
+		restClient.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON);
+
+		assertCallFailsWithMessage(
+				client -> client.searchRecordWithSearchCriteriaAsJsonStream("someSearchId",
+						SOME_JSON),
+				"The rate limit for: search operations was exceeded, no request was sent.");
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+	}
+
+	@Test
+	public void testWaitingForSaturatedSearchLimitDoesNotBlockReads() throws Exception {
+		setUpRestClientUsingSettings(RateLimitSettings.usingGlobalLimit(new RateLimit(0, 0, 2))
+				.withOperationLimit(OperationType.SEARCH, new RateLimit(0, 0, 1)));
+		AtomicReference<Thread> secondSearch = new AtomicReference<>();
+		restClientSpy.MRV.setDefaultReturnValuesSupplier("searchRecordWithSearchCriteriaAsJson",
+				() -> {
+					if (secondSearch.get() == null) {
+						secondSearch.set(startSearchInOtherThread());
+						readWhileThreadWaitsForSearchLimit(secondSearch.get());
+					}
+					return null;
+				});
+
+		restClient.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON);
+
+		secondSearch.get().join();
+		RestClientSpy restClientWithDeadline = (RestClientSpy) restClientSpy.MCR
+				.getReturnValue("withDeadline", 0);
+		restClientWithDeadline.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+		restClientSpy.MCR.assertNumberOfCallsToMethod("searchRecordWithSearchCriteriaAsJson", 2);
+	}
+
+	private Thread startSearchInOtherThread() {
+		return Thread.ofVirtual().start(
+				() -> restClient.searchRecordWithSearchCriteriaAsJson("someSearchId", SOME_JSON));
+	}
+
+	private void readWhileThreadWaitsForSearchLimit(Thread searchThread) {
+		try {
+			while (searchThread.getState() != Thread.State.WAITING) {
+				Thread.sleep(1);
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		restClient.withDeadline(Duration.ofSeconds(1)).readRecordAsJson(SOME_TYPE, SOME_ID);
+	}
+
+	@Test
+	public void testFailingOperationLimitReleasesGlobalLimit() {
+		setUpRestClientUsingSettings(RateLimitSettings.usingGlobalLimit(new RateLimit(0, 0, 1))
+				.withOperationLimit(OperationType.WRITE, new RateLimit(0.001, 1, 0))
+				.withFailFast());
+		restClient.createRecordFromJson(SOME_TYPE, SOME_JSON);
+
+		assertCallFailsWithMessage(client -> client.deleteRecord(SOME_TYPE, SOME_ID),
+				"The rate limit for: write operations was exceeded, no request was sent.");
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClientSpy.MCR.assertNumberOfCallsToMethod("readRecordAsJson", 1);
+	}
+
+	@Test
+	public void testLimitsAreReleasedWhenCallThrows() {
+		setUpRestClientUsingSettings(
+				RateLimitSettings.usingGlobalLimit(new RateLimit(0, 0, 1)).withFailFast());
+		restClientSpy.MRV.setAlwaysThrowException("deleteRecord",
+				DataClientException.withMessage("spy error"));
+
+		assertCallFailsWithMessage(client -> client.deleteRecord(SOME_TYPE, SOME_ID),
+				"spy error");
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+	}
+
+	@Test
+	public void testBlockingModeWaitsForRate() {
+		setUpRestClientUsingSettings(RateLimitSettings.NONE
+				.withOperationLimit(OperationType.READ, new RateLimit(20, 1, 0)));
+		long start = System.nanoTime();
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertTrue(System.nanoTime() - start >= 90_000_000L);
+	}
+
+	@Test
+	public void testOperationLimitersAreNamedByType() {
+		setUpRestClientUsingSettings(RateLimitSettings.NONE.withOperationLimit(OperationType.LIST,
+				new RateLimit(1, 1, 1)));
+
+		assertEquals(rateLimiters.onlyForTestGetGlobalLimiter().onlyForTestGetName(),
+				"all operations");
+		assertEquals(rateLimiters.onlyForTestGetLimiterForOperationType(OperationType.LIST)
+				.onlyForTestGetName(), "list operations");
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.time.Duration;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.RateLimit;
+
+public class RateLimiterTest {
+
+	@Test
+	public void testInit() {
+		RateLimit rateLimit = new RateLimit(10, 1, 2);
+
+		RateLimiter rateLimiter = RateLimiter.usingNameAndRateLimit("someName", rateLimit);
+
+		assertEquals(rateLimiter.onlyForTestGetName(), "someName");
+		assertSame(rateLimiter.onlyForTestGetRateLimit(), rateLimit);
+	}
+
+	@Test
+	public void testUnlimitedNeverFails() {
+		RateLimiter rateLimiter = RateLimiter.usingNameAndRateLimit("someName",
+				RateLimit.UNLIMITED);
+
+		for (int i = 0; i < 1000; i++) {
+			rateLimiter.tryAcquire();
+			rateLimiter.acquire();
+		}
+	}
+
+	@Test
+	public void testTryAcquireFailsWhenConcurrencyLimitReached() {
+		RateLimiter rateLimiter = RateLimiter.usingNameAndRateLimit("someName",
+				new RateLimit(0, 0, 2));
+		rateLimiter.tryAcquire();
+		rateLimiter.tryAcquire();
+
+		assertTryAcquireFailsWithMessage(rateLimiter,
+				"The concurrency limit for: someName was reached, no request was sent.");
+		rateLimiter.release();
+		rateLimiter.tryAcquire();
+	}
+
+	private void assertTryAcquireFailsWithMessage(RateLimiter rateLimiter, String message) {
+		try {
+			rateLimiter.tryAcquire();
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), message);
+		}
+	}
+
+	@Test
+	public void testTryAcquireFailsWhenRateExceededAndReleasesConcurrencyPermit() {
+		RateLimiter rateLimiter = RateLimiter.usingNameAndRateLimit("someName",
+				new RateLimit(0.001, 1, 1));
+		rateLimiter.tryAcquire();
+		rateLimiter.release();
+
+		assertTryAcquireFailsWithMessage(rateLimiter,
+				"The rate limit for: someName was exceeded, no request was sent.");
+		assertTryAcquireFailsWithMessage(rateLimiter,
+				"The rate limit for: someName was exceeded, no request was sent.");
+	}
+
+	@Test
+	public void testAcquireWaitsForToken() {
+		RateLimiter rateLimiter = RateLimiter.usingNameAndRateLimit("someName",
+				new RateLimit(20, 1, 0));
+		long start = System.nanoTime();
+
+		rateLimiter.acquire();
+		rateLimiter.acquire();
+		rateLimiter.acquire();
+
+		assertTrue(System.nanoTime() - start >= 90_000_000L);
+	}
+
+	@Test
+	public void testAcquireInterruptedWhileWaitingReleasesPermit() {
+		RateLimiter rateLimiter = RateLimiter.usingNameAndRateLimit("someName",
+				new RateLimit(0.001, 1, 1));
+		rateLimiter.acquire();
+		rateLimiter.release();
+		interruptCurrentThreadAfterMillis(50);
+
+		try {
+			rateLimiter.acquire();
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "Interrupted while waiting for the limit for: someName, "
+					+ "no request was sent.");
+			assertTrue(Thread.interrupted());
+		}
+		assertTryAcquireFailsWithMessage(rateLimiter,
+				"The rate limit for: someName was exceeded, no request was sent.");
+	}
+
+	@Test
+	public void testAcquireWithinWaitsForToken() {
+		RateLimiter rateLimiter = RateLimiter.usingNameAndRateLimit("someName",
+				new RateLimit(20, 1, 0));
+		long start = System.nanoTime();
+
+		rateLimiter.acquireWithin(Duration.ofSeconds(1));
+		rateLimiter.acquireWithin(Duration.ofSeconds(1));
+
+		assertTrue(System.nanoTime() - start >= 45_000_000L);
+	}
+
+	@Test
+	public void testAcquireWithinFailsWhenTokenIsNotAvailableInTimeAndReleasesPermit() {
+		RateLimiter rateLimiter = RateLimiter.usingNameAndRateLimit("someName",
+				new RateLimit(0.001, 1, 1));
+		rateLimiter.acquireWithin(Duration.ofSeconds(1));
+		rateLimiter.release();
+		long start = System.nanoTime();
+
+		assertAcquireWithinFailsWithDeadlineExceeded(rateLimiter, Duration.ofSeconds(10));
+
+		assertTrue(System.nanoTime() - start < 1_000_000_000L);
+		assertTryAcquireFailsWithMessage(rateLimiter,
+				"The rate limit for: someName was exceeded, no request was sent.");
+	}
+
+	private void assertAcquireWithinFailsWithDeadlineExceeded(RateLimiter rateLimiter,
+			Duration maxWait) {
+		try {
+			rateLimiter.acquireWithin(maxWait);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "The deadline was exceeded while waiting for the limit "
+					+ "for: someName, no request was sent.");
+		}
+	}
+
+	@Test
+	public void testAcquireWithinWaitsForConcurrencyPermitAtMostMaxWait() {
+		RateLimiter rateLimiter = RateLimiter.usingNameAndRateLimit("someName",
+				new RateLimit(0, 0, 1));
+		rateLimiter.acquire();
+		long start = System.nanoTime();
+
+		assertAcquireWithinFailsWithDeadlineExceeded(rateLimiter, Duration.ofMillis(50));
+
+		long waitedNanos = System.nanoTime() - start;
+		assertTrue(waitedNanos >= 45_000_000L);
+		assertTrue(waitedNanos < 1_000_000_000L);
+	}
+
+	private void interruptCurrentThreadAfterMillis(long millis) {
+		Thread currentThread = Thread.currentThread();
+		Thread.ofVirtual().start(() -> {
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException _) {
+				return;
+			}
+			currentThread.interrupt();
+		});
+	}
+}
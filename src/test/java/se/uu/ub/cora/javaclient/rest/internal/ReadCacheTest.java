@@ -0,0 +1,287 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.rest.CacheStatistics;
+import se.uu.ub.cora.javaclient.rest.ReadCacheSettings;
+import se.uu.ub.cora.javaclient.rest.RestResponse;
+
+public class ReadCacheTest {
+	private static final String SOME_TYPE = "someType";
+	private static final long ONE_SECOND = 1_000_000_000L;
+	private AtomicLong nanoTime;
+	private ReadCacheSettings settings;
+	private CacheStatistics statistics;
+	private ReadCache readCache;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		nanoTime = new AtomicLong(0);
+		setUpReadCacheUsingSettings(
+				ReadCacheSettings.usingMaxEntriesAndTimeToLive(2, Duration.ofSeconds(10)));
+	}
+
+	private void setUpReadCacheUsingSettings(ReadCacheSettings readCacheSettings) {
+		settings = readCacheSettings;
+		statistics = settings.statistics();
+		readCache = ReadCache.usingSettingsAndNanoClock(settings, nanoTime::get);
+	}
+
+	private RestResponse createResponse(String responseText) {
+		return new RestResponse(200, responseText, Optional.empty(), Optional.empty());
+	}
+
+	@Test
+	public void testOnlyForTest() {
+		assertSame(readCache.onlyForTestGetSettings(), settings);
+		assertSame(ReadCache.usingSettings(settings).onlyForTestGetSettings(), settings);
+	}
+
+	@Test
+	public void testDisabledSettings() {
+		assertEquals(ReadCacheSettings.DISABLED.isEnabled(), false);
+		assertEquals(settings.isEnabled(), true);
+		assertEquals(ReadCacheSettings.usingMaxEntriesAndTimeToLive(2, Duration.ZERO).isEnabled(),
+				false);
+		assertEquals(ReadCacheSettings.usingMaxBytesAndTimeToLive(0, Duration.ofSeconds(1))
+				.isEnabled(), false);
+	}
+
+	@Test
+	public void testMissThenHit() {
+		RestResponse response = createResponse("someText");
+
+		assertTrue(readCache.get(SOME_TYPE, "id1").isEmpty());
+		readCache.put(SOME_TYPE, "id1", response);
+
+		assertSame(readCache.get(SOME_TYPE, "id1").get(), response);
+		assertTrue(readCache.get("otherType", "id1").isEmpty());
+		assertEquals(statistics.getHits(), 1);
+		assertEquals(statistics.getMisses(), 2);
+		assertEquals(statistics.getHitRate(), 1.0 / 3);
+	}
+
+	@Test
+	public void testEntryExpiresAfterTimeToLive() {
+		readCache.put(SOME_TYPE, "id1", createResponse("someText"));
+		nanoTime.set(10 * ONE_SECOND - 1);
+		assertTrue(readCache.get(SOME_TYPE, "id1").isPresent());
+
+		nanoTime.set(10 * ONE_SECOND);
+
+		assertTrue(readCache.get(SOME_TYPE, "id1").isEmpty());
+		assertEquals(readCache.onlyForTestGetNumberOfEntries(), 0);
+		assertEquals(readCache.onlyForTestGetSizeInBytes(), 0);
+		assertEquals(statistics.getEvictions(), 1);
+		assertEquals(statistics.getMisses(), 1);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvictedByNumberOfEntries() {
+		readCache.put(SOME_TYPE, "id1", createResponse("text1"));
+		readCache.put(SOME_TYPE, "id2", createResponse("text2"));
+		readCache.get(SOME_TYPE, "id1");
+
+		readCache.put(SOME_TYPE, "id3", createResponse("text3"));
+
+		assertEquals(readCache.onlyForTestGetNumberOfEntries(), 2);
+		assertTrue(readCache.get(SOME_TYPE, "id1").isPresent());
+		assertTrue(readCache.get(SOME_TYPE, "id2").isEmpty());
+		assertTrue(readCache.get(SOME_TYPE, "id3").isPresent());
+		assertEquals(statistics.getEvictions(), 1);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvictedBySize() {
+		setUpReadCacheUsingSettings(
+				ReadCacheSettings.usingMaxBytesAndTimeToLive(20, Duration.ofSeconds(10)));
+		readCache.put(SOME_TYPE, "id1", createResponse("12345"));
+		readCache.put(SOME_TYPE, "id2", createResponse("1234"));
+		assertEquals(readCache.onlyForTestGetSizeInBytes(), 18);
+
+		readCache.put(SOME_TYPE, "id3", createResponse("123"));
+
+		assertEquals(readCache.onlyForTestGetSizeInBytes(), 14);
+		assertTrue(readCache.get(SOME_TYPE, "id1").isEmpty());
+		assertTrue(readCache.get(SOME_TYPE, "id2").isPresent());
+	}
+
+	@Test
+	public void testResponseLargerThanCacheIsNotCached() {
+		setUpReadCacheUsingSettings(
+				ReadCacheSettings.usingMaxBytesAndTimeToLive(10, Duration.ofSeconds(10)));
+		readCache.put(SOME_TYPE, "id1", createResponse("12345"));
+
+		readCache.put(SOME_TYPE, "id1", createResponse("123456"));
+
+		assertEquals(readCache.onlyForTestGetNumberOfEntries(), 0);
+		assertEquals(readCache.onlyForTestGetSizeInBytes(), 0);
+	}
+
+	@Test
+	public void testPutReplacesEntry() {
+		readCache.put(SOME_TYPE, "id1", createResponse("12345"));
+		RestResponse newResponse = createResponse("123");
+
+		readCache.put(SOME_TYPE, "id1", newResponse);
+
+		assertEquals(readCache.onlyForTestGetNumberOfEntries(), 1);
+		assertEquals(readCache.onlyForTestGetSizeInBytes(), 6);
+		assertSame(readCache.get(SOME_TYPE, "id1").get(), newResponse);
+	}
+
+	@Test
+	public void testInvalidate() {
+		readCache.put(SOME_TYPE, "id1", createResponse("someText"));
+
+		readCache.invalidate(SOME_TYPE, "id1");
+		readCache.invalidate(SOME_TYPE, "notCached");
+
+		assertTrue(readCache.get(SOME_TYPE, "id1").isEmpty());
+		assertEquals(readCache.onlyForTestGetSizeInBytes(), 0);
+	}
+
+	@Test
+	public void testStatisticsAreSharedByCachesUsingSameSettings() {
+		ReadCache otherCache = ReadCache.usingSettingsAndNanoClock(settings, nanoTime::get);
+		readCache.put(SOME_TYPE, "id1", createResponse("someText"));
+
+		readCache.get(SOME_TYPE, "id1");
+		otherCache.get(SOME_TYPE, "id1");
+
+		assertEquals(statistics.getHits(), 1);
+		assertEquals(statistics.getMisses(), 1);
+		assertEquals(statistics.getHitRate(), 0.5);
+	}
+
+	@Test
+	public void testHitRateWithoutReads() {
+		assertEquals(statistics.getHitRate(), 0.0);
+	}
+
+	@Test
+	public void testErrorTimesToLive() {
+		ReadCacheSettings errorSettings = settings
+				.withErrorTimeToLive(404, Duration.ofSeconds(2))
+				.withErrorTimeToLive(403, Duration.ofSeconds(1));
+
+		assertSame(errorSettings.statistics(), settings.statistics());
+		assertEquals(settings.errorTimesToLive(), Map.of());
+		assertEquals(errorSettings.getTimeToLiveForResponseCode(200), Duration.ofSeconds(10));
+		assertEquals(errorSettings.getTimeToLiveForResponseCode(404), Duration.ofSeconds(2));
+		assertEquals(errorSettings.getTimeToLiveForResponseCode(403), Duration.ofSeconds(1));
+		assertEquals(errorSettings.getTimeToLiveForResponseCode(500), Duration.ZERO);
+	}
+
+	@Test
+	public void testOnlyErrorTimeToLiveEnablesCache() {
+		ReadCacheSettings onlyErrors = ReadCacheSettings
+				.usingMaxEntriesAndTimeToLive(10, Duration.ZERO)
+				.withErrorTimeToLive(404, Duration.ofSeconds(1));
+
+		assertTrue(onlyErrors.isEnabled());
+		assertEquals(onlyErrors.withErrorTimeToLive(404, Duration.ZERO).isEnabled(), false);
+	}
+
+	@Test
+	public void testErrorResponseIsCachedForItsTimeToLive() {
+		setUpReadCacheUsingSettings(settings.withErrorTimeToLive(404, Duration.ofSeconds(1)));
+		RestResponse notFound = new RestResponse(404, "not found", Optional.empty(),
+				Optional.empty());
+		readCache.put(SOME_TYPE, "id1", notFound);
+		nanoTime.set(ONE_SECOND - 1);
+		assertSame(readCache.get(SOME_TYPE, "id1").get(), notFound);
+
+		nanoTime.set(ONE_SECOND);
+
+		assertTrue(readCache.get(SOME_TYPE, "id1").isEmpty());
+	}
+
+	@Test
+	public void testResponseWithoutTimeToLiveIsNotCached() {
+		setUpReadCacheUsingSettings(ReadCacheSettings
+				.usingMaxEntriesAndTimeToLive(10, Duration.ZERO)
+				.withErrorTimeToLive(404, Duration.ofSeconds(1)));
+		readCache.put(SOME_TYPE, "id1", new RestResponse(403, "forbidden", Optional.empty(),
+				Optional.empty()));
+		readCache.put(SOME_TYPE, "id2", createResponse("someText"));
+
+		assertEquals(readCache.onlyForTestGetNumberOfEntries(), 0);
+	}
+
+	@Test
+	public void testResponseOfReadIsPutWhenNotInvalidatedSinceReadStarted() {
+		RestResponse response = createResponse("someText");
+
+		long generation = readCache.startRead(SOME_TYPE, "id1");
+		readCache.putIfNotInvalidatedSince(SOME_TYPE, "id1", generation, response);
+		readCache.endRead(SOME_TYPE, "id1");
+
+		assertSame(readCache.get(SOME_TYPE, "id1").get(), response);
+		assertEquals(readCache.onlyForTestGetNumberOfRecordsWithReadsInFlight(), 0);
+	}
+
+	@Test
+	public void testResponseOfReadIsDroppedWhenInvalidatedSinceReadStarted() {
+		long generation = readCache.startRead(SOME_TYPE, "id1");
+		readCache.invalidate(SOME_TYPE, "id1");
+
+		readCache.putIfNotInvalidatedSince(SOME_TYPE, "id1", generation,
+				createResponse("someStaleText"));
+		readCache.endRead(SOME_TYPE, "id1");
+
+		assertTrue(readCache.get(SOME_TYPE, "id1").isEmpty());
+	}
+
+	@Test
+	public void testReadStartedAfterInvalidationIsPut() {
+		long firstGeneration = readCache.startRead(SOME_TYPE, "id1");
+		readCache.invalidate(SOME_TYPE, "id1");
+		long secondGeneration = readCache.startRead(SOME_TYPE, "id1");
+		RestResponse response = createResponse("someText");
+
+		readCache.putIfNotInvalidatedSince(SOME_TYPE, "id1", firstGeneration,
+				createResponse("someStaleText"));
+		readCache.endRead(SOME_TYPE, "id1");
+		readCache.putIfNotInvalidatedSince(SOME_TYPE, "id1", secondGeneration, response);
+		readCache.endRead(SOME_TYPE, "id1");
+
+		assertSame(readCache.get(SOME_TYPE, "id1").get(), response);
+		assertEquals(readCache.onlyForTestGetNumberOfRecordsWithReadsInFlight(), 0);
+	}
+
+	@Test
+	public void testInvalidationWithoutReadsInFlightIsNotRemembered() {
+		readCache.invalidate(SOME_TYPE, "id1");
+
+		assertEquals(readCache.onlyForTestGetNumberOfRecordsWithReadsInFlight(), 0);
+	}
+}
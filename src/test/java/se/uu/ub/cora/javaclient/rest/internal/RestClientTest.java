@@ -20,12 +20,21 @@
 package se.uu.ub.cora.javaclient.rest.internal;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.testng.annotations.BeforeMethod;
@@ -33,10 +42,18 @@ import org.testng.annotations.Test;
 
 import se.uu.ub.cora.httphandler.spies.HttpHandlerFactorySpy;
 import se.uu.ub.cora.httphandler.spies.HttpHandlerSpy;
+import se.uu.ub.cora.javaclient.ReadManyResult;
 import se.uu.ub.cora.javaclient.TokenClientSpy;
 import se.uu.ub.cora.javaclient.data.DataClientException;
+import se.uu.ub.cora.javaclient.rest.AdaptiveConcurrencySettings;
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerOpenException;
+import se.uu.ub.cora.javaclient.rest.CircuitBreakerSettings;
+import se.uu.ub.cora.javaclient.rest.ConditionalReadSettings;
+import se.uu.ub.cora.javaclient.rest.DiskCacheSettings;
+import se.uu.ub.cora.javaclient.rest.OperationTimeouts;
 import se.uu.ub.cora.javaclient.rest.RestClient;
 import se.uu.ub.cora.javaclient.rest.RestResponse;
+import se.uu.ub.cora.javaclient.rest.RetryPolicy;
 
 public class RestClientTest {
 	private static final String APPLICATION_VND_CORA_RECORDGROUP_JSON = "application/vnd.cora.recordgroup+json";
@@ -50,6 +67,12 @@ public class RestClientTest {
 	private static final int OK_CODE = 200;
 	private static final String SOME_ID = "someId";
 	private static final String SOME_TYPE = "someType";
+	private static final String SOME_DATE = "Wed, 21 Oct 2026 07:28:00 GMT";
+	private static final OperationTimeouts TIMEOUTS = new OperationTimeouts(Duration.ofSeconds(1),
+			Duration.ofSeconds(2), Duration.ofSeconds(3), Duration.ofSeconds(4),
+			Duration.ofSeconds(5));
+	private static final DiskResponseStore NO_DISK_RESPONSE_STORE = DiskResponseStore
+			.usingSettings(DiskCacheSettings.DISABLED);
 	private HttpHandlerFactorySpy httpHandlerFactorySpy;
 	private String baseUrl;
 	private TokenClientSpy tokenClient;
@@ -106,6 +129,31 @@ public class RestClientTest {
 		assertSame(restClientImp.onlyForTestGetTokenClient(), tokenClient);
 	}
 
+	@Test
+	public void testReadManyAsJson() {
+		ReadManyResult<RestResponse> result = restClient.readManyAsJson(SOME_TYPE,
+				List.of("id1", "id2"), 1);
+
+		httpHandlerFactorySpy.MCR.assertParameters("factor", 0,
+				baseUrl + "record/" + SOME_TYPE + "/id1");
+		httpHandlerFactorySpy.MCR.assertParameters("factor", 1,
+				baseUrl + "record/" + SOME_TYPE + "/id2");
+		assertEquals(new ArrayList<>(result.results().keySet()), List.of("id1", "id2"));
+		assertEquals(result.failures(), Map.of());
+	}
+
+	@Test
+	public void testReadManyAsJsonExceptionIsCollectedAsFailure() {
+		tokenClient.MRV.setAlwaysThrowException("getAuthToken",
+				DataClientException.withMessage("someTokenError"));
+
+		ReadManyResult<RestResponse> result = restClient.readManyAsJson(SOME_TYPE,
+				List.of("id1"), 1);
+
+		assertEquals(result.results(), Map.of());
+		assertEquals(result.failures().get("id1").getMessage(), "someTokenError");
+	}
+
 	@Test
 	public void testReadRecordHttpHandlerSetupCorrectly() {
 		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
@@ -208,6 +256,48 @@ public class RestClientTest {
 		assertResponseOnError(response);
 	}
 
+	@Test
+	public void testReadRecordListWithFilterRetriedWithFilterWhenUnauthorized() {
+		String readListWithFilterUrl = setUpHttpHandlerForReadListWithFilterUrl();
+		setUnauthorizedToFirstHttpHandler();
+
+		RestResponse response = restClient.readRecordListWithFilterAsJson(SOME_TYPE, FILTER);
+
+		assertRequestNewAuthTokenWhenUnauthorized(response);
+		httpHandlerFactorySpy.MCR.assertParameters("factor", 1, readListWithFilterUrl);
+	}
+
+	@Test
+	public void testReadRecordListAsJsonStreamHttpHandlerSetupCorrectly() {
+		restClient.readRecordListAsJsonStream(SOME_TYPE);
+
+		httpHandlerFactorySpy.MCR.assertParameters("factor", 0,
+				"http://localhost:8080/therest/rest/record/someType");
+		httpHandlerSpy_first.MCR.assertParameters("setRequestMethod", 0, "GET");
+		httpHandlerSpy_first.MCR.assertCalledParameters("setRequestProperty", "authToken",
+				tokenClient.getAuthToken());
+		httpHandlerSpy_first.MCR.assertCalledParameters("setRequestProperty", "Accept",
+				"application/vnd.cora.recordList+json");
+		httpHandlerSpy_first.MCR.assertNumberOfCallsToMethod("setRequestProperty", 2);
+	}
+
+	@Test
+	public void testReadRecordListAsJsonStreamOk() {
+		RestResponse response = restClient.readRecordListAsJsonStream(SOME_TYPE);
+
+		assertResponseBinaryOK(response);
+		httpHandlerSpy_first.MCR.assertMethodNotCalled("getResponseText");
+	}
+
+	@Test
+	public void testReadRecordListAsJsonStreamNotOk() {
+		setHttpHandlerToReturnErrorResponseCode();
+
+		RestResponse response = restClient.readRecordListAsJsonStream(SOME_TYPE);
+
+		assertResponseOnError(response);
+	}
+
 	@Test
 	public void testCreateRecordHttpHandlerSetupCorrectly() throws Exception {
 		setHttpHandlerToReturnCreatedResponseCodeAndLocation();
@@ -446,6 +536,31 @@ public class RestClientTest {
 		assertResponseOnError(response);
 	}
 
+	@Test
+	public void testSearchRecordAsJsonStreamOk() {
+		String searchUrl = setUpHttpHandlerForSearchUrl("someSearchId", FILTER);
+
+		RestResponse response = restClient
+				.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", FILTER);
+
+		httpHandlerFactorySpy.MCR.assertParameters("factor", 0, searchUrl);
+		httpHandlerSpy_first.MCR.assertParameters("setRequestMethod", 0, "GET");
+		httpHandlerSpy_first.MCR.assertCalledParameters("setRequestProperty", "Accept",
+				"application/vnd.cora.recordList+json");
+		assertResponseBinaryOK(response);
+	}
+
+	@Test
+	public void testSearchRecordAsJsonStreamNotOk() {
+		setUpHttpHandlerForSearchUrl("someSearchId", FILTER);
+		setHttpHandlerToReturnErrorResponseCode();
+
+		RestResponse response = restClient
+				.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", FILTER);
+
+		assertResponseOnError(response);
+	}
+
 	private String setUpHttpHandlerForSearchUrl(String searchId, String json) {
 		String encodedSearchData = URLEncoder.encode(json, StandardCharsets.UTF_8);
 		String searchUrl = baseUrl + "record/searchResult/" + searchId + "?searchData="
@@ -506,6 +621,33 @@ public class RestClientTest {
 		assertTrue(response.createdId().isEmpty());
 	}
 
+	@Test
+	public void testResponseBodyIsStreamedOnlyForStreamingCalls() {
+		assertResponseBodyStreamedForCall(true,
+				client -> client.download(SOME_TYPE, SOME_ID, SOME_REPRESENTATION));
+		assertResponseBodyStreamedForCall(true,
+				client -> client.readRecordListAsJsonStream(SOME_TYPE));
+		assertResponseBodyStreamedForCall(true,
+				client -> client.searchRecordWithSearchCriteriaAsJsonStream("someSearch", "{}"));
+		assertResponseBodyStreamedForCall(false,
+				client -> client.readRecordAsJson(SOME_TYPE, SOME_ID));
+		assertResponseBodyStreamedForCall(false,
+				client -> client.readRecordListAsJson(SOME_TYPE));
+	}
+
+	private void assertResponseBodyStreamedForCall(boolean streamed, Consumer<RestClient> call) {
+		HttpHandlerWithTimeoutSpy httpHandler = new HttpHandlerWithTimeoutSpy();
+		HttpHandlerFactorySpy httpHandlerFactory = new HttpHandlerFactorySpy();
+		httpHandlerFactory.MRV.setDefaultReturnValuesSupplier("factor", () -> httpHandler);
+		RestClient restClientUsingHandler = RestClientImp
+				.usingHttpHandlerFactoryAndBaseUrlAndTokenClient(httpHandlerFactory, baseUrl,
+						tokenClient);
+
+		call.accept(restClientUsingHandler);
+
+		httpHandler.MCR.assertNumberOfCallsToMethod("streamResponseBody", streamed ? 1 : 0);
+	}
+
 	@Test
 	public void testDownloadNotOk() throws Exception {
 		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 500);
@@ -537,6 +679,10 @@ public class RestClientTest {
 				() -> restClient.batchIndexWithFilterAsJson("recordTypeToIndex", FILTER));
 		genericTestRequestNewAuthTokenIsCalledByMethod(
 				() -> restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID));
+		genericTestRequestNewAuthTokenIsCalledByMethod(
+				() -> restClient.readRecordListAsJsonStream(SOME_TYPE));
+		genericTestRequestNewAuthTokenIsCalledByMethod(
+				() -> restClient.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", "{}"));
 	}
 
 	private void genericTestRequestNewAuthTokenIsCalledByMethod(Supplier<RestResponse> method) {
@@ -555,7 +701,8 @@ public class RestClientTest {
 	}
 
 	private void assertRequestNewAuthTokenWhenUnauthorized(RestResponse restResponse) {
-		tokenClient.MCR.assertMethodWasCalled("requestNewAuthToken");
+		tokenClient.MCR.assertParameters("requestNewAuthTokenReplacingAuthToken", 0,
+				"someToken");
 		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 2);
 		httpHandlerSpy_second.MCR.assertMethodWasCalled("getResponseCode");
 		assertEquals(restResponse.responseCode(), 200);
@@ -583,12 +730,16 @@ public class RestClientTest {
 				() -> restClient.batchIndexWithFilterAsJson("recordTypeToIndex", FILTER));
 		genericTestRequestNewAuthTokenThrowExceptionIsCalledByMethod(
 				() -> restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID));
+		genericTestRequestNewAuthTokenThrowExceptionIsCalledByMethod(
+				() -> restClient.readRecordListAsJsonStream(SOME_TYPE));
+		genericTestRequestNewAuthTokenThrowExceptionIsCalledByMethod(
+				() -> restClient.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", "{}"));
 	}
 
 	private void genericTestRequestNewAuthTokenThrowExceptionIsCalledByMethod(
 			Supplier<RestResponse> method) {
 		setUnauthorizedToFirstHttpHandler();
-		tokenClient.MRV.setAlwaysThrowException("requestNewAuthToken",
+		tokenClient.MRV.setAlwaysThrowException("requestNewAuthTokenReplacingAuthToken",
 				DataClientException.withMessage("spy message"));
 
 		RestResponse restResponse = method.get();
@@ -599,9 +750,988 @@ public class RestClientTest {
 
 	private void assertUnauthorizedAsResponseWhenInitilaizedWithAuthToken(
 			RestResponse restResponse) {
-		tokenClient.MCR.assertMethodWasCalled("requestNewAuthToken");
+		tokenClient.MCR.assertMethodWasCalled("requestNewAuthTokenReplacingAuthToken");
 		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
 		assertEquals(restResponse.responseCode(), 401);
 	}
 
+	@Test
+	public void testInitWithTimeouts() {
+		RestClientImp restClientImp = RestClientImp
+				.usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndTimeouts(httpHandlerFactorySpy,
+						baseUrl, tokenClient, TIMEOUTS);
+
+		assertSame(restClientImp.onlyForTestGetTimeouts(), TIMEOUTS);
+		assertEquals(restClientImp.onlyForTestGetDeadline(), Duration.ZERO);
+	}
+
+	@Test
+	public void testNoTimeoutOrDeadlineByDefault() {
+		RestClientImp restClientImp = (RestClientImp) restClient;
+
+		assertSame(restClientImp.onlyForTestGetTimeouts(), OperationTimeouts.NONE);
+		assertEquals(restClientImp.onlyForTestGetDeadline(), Duration.ZERO);
+	}
+
+	@Test
+	public void testTimeoutSetOnHttpHandlerForEachTypeOfOperation() {
+		assertTimeoutUsedForCall(Duration.ofSeconds(1),
+				client -> client.readRecordAsJson(SOME_TYPE, SOME_ID));
+		assertTimeoutUsedForCall(Duration.ofSeconds(1),
+				client -> client.readIncomingLinksAsJson(SOME_TYPE, SOME_ID));
+		assertTimeoutUsedForCall(Duration.ofSeconds(2),
+				client -> client.readRecordListAsJson(SOME_TYPE));
+		assertTimeoutUsedForCall(Duration.ofSeconds(2),
+				client -> client.readRecordListWithFilterAsJson(SOME_TYPE, FILTER));
+		assertTimeoutUsedForCall(Duration.ofSeconds(2),
+				client -> client.readRecordListAsJsonStream(SOME_TYPE));
+		assertTimeoutUsedForCall(Duration.ofSeconds(3),
+				client -> client.searchRecordWithSearchCriteriaAsJson("someSearchId", "{}"));
+		assertTimeoutUsedForCall(Duration.ofSeconds(3),
+				client -> client.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", "{}"));
+		assertTimeoutUsedForCall(Duration.ofSeconds(4),
+				client -> client.createRecordFromJson(SOME_TYPE, JSON_RECORD));
+		assertTimeoutUsedForCall(Duration.ofSeconds(4),
+				client -> client.updateRecordFromJson(SOME_TYPE, SOME_ID, JSON_RECORD));
+		assertTimeoutUsedForCall(Duration.ofSeconds(4),
+				client -> client.deleteRecord(SOME_TYPE, SOME_ID));
+		assertTimeoutUsedForCall(Duration.ofSeconds(4),
+				client -> client.validateRecordAsJson(JSON_RECORD));
+		assertTimeoutUsedForCall(Duration.ofSeconds(4),
+				client -> client.batchIndexWithFilterAsJson("recordTypeToIndex", FILTER));
+		assertTimeoutUsedForCall(Duration.ofSeconds(5),
+				client -> client.download(SOME_TYPE, SOME_ID, SOME_REPRESENTATION));
+	}
+
+	private void assertTimeoutUsedForCall(Duration expectedTimeout, Consumer<RestClient> call) {
+		HttpHandlerWithTimeoutSpy httpHandler = new HttpHandlerWithTimeoutSpy();
+		HttpHandlerFactorySpy httpHandlerFactory = new HttpHandlerFactorySpy();
+		httpHandlerFactory.MRV.setDefaultReturnValuesSupplier("factor", () -> httpHandler);
+		RestClient restClientWithTimeouts = RestClientImp
+				.usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndTimeouts(httpHandlerFactory,
+						baseUrl, tokenClient, TIMEOUTS);
+
+		call.accept(restClientWithTimeouts);
+
+		httpHandler.MCR.assertParameters("setTimeout", 0, expectedTimeout);
+	}
+
+	@Test
+	public void testNoTimeoutSetWhenTimeoutIsZero() {
+		HttpHandlerWithTimeoutSpy httpHandler = setUpHttpHandlersWithTimeoutSupport(
+				OperationTimeouts.NONE).get(0);
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		httpHandler.MCR.assertMethodNotCalled("setTimeout");
+	}
+
+	private List<HttpHandlerWithTimeoutSpy> setUpHttpHandlersWithTimeoutSupport(
+			OperationTimeouts timeouts) {
+		List<HttpHandlerWithTimeoutSpy> httpHandlers = List.of(new HttpHandlerWithTimeoutSpy(),
+				new HttpHandlerWithTimeoutSpy());
+		httpHandlerFactorySpy = new HttpHandlerFactorySpy();
+		httpHandlerFactorySpy.MRV.setReturnValues("factor", httpHandlers,
+				baseUrl + "record/" + SOME_TYPE + "/" + SOME_ID);
+		restClient = RestClientImp.usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndTimeouts(
+				httpHandlerFactorySpy, baseUrl, tokenClient, timeouts);
+		return httpHandlers;
+	}
+
+	@Test
+	public void testWithDeadline() {
+		RestClientImp restClientImp = RestClientImp
+				.usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndTimeouts(httpHandlerFactorySpy,
+						baseUrl, tokenClient, TIMEOUTS);
+
+		RestClientImp restClientWithDeadline = (RestClientImp) restClientImp
+				.withDeadline(Duration.ofSeconds(30));
+
+		assertNotSame(restClientWithDeadline, restClientImp);
+		assertEquals(restClientWithDeadline.onlyForTestGetDeadline(), Duration.ofSeconds(30));
+		assertEquals(restClientImp.onlyForTestGetDeadline(), Duration.ZERO);
+		assertSame(restClientWithDeadline.onlyForTestGetHttpHandlerFactory(),
+				httpHandlerFactorySpy);
+		assertSame(restClientWithDeadline.onlyForTestGetBaseUrl(), baseUrl);
+		assertSame(restClientWithDeadline.onlyForTestGetTokenClient(), tokenClient);
+		assertSame(restClientWithDeadline.onlyForTestGetTimeouts(), TIMEOUTS);
+	}
+
+	@Test
+	public void testDeadlineShorterThanTimeoutIsUsedAsTimeout() {
+		HttpHandlerWithTimeoutSpy httpHandler = setUpHttpHandlersWithTimeoutSupport(TIMEOUTS)
+				.get(0);
+
+		restClient.withDeadline(Duration.ofMillis(500)).readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		Duration timeout = getTimeoutSetOnHttpHandler(httpHandler);
+		assertTrue(timeout.compareTo(Duration.ofMillis(500)) <= 0);
+		assertTrue(timeout.compareTo(Duration.ZERO) > 0);
+	}
+
+	private Duration getTimeoutSetOnHttpHandler(HttpHandlerWithTimeoutSpy httpHandler) {
+		return (Duration) httpHandler.MCR.getParameterForMethodAndCallNumberAndParameter(
+				"setTimeout", 0, "timeout");
+	}
+
+	@Test
+	public void testDeadlineLongerThanTimeoutKeepsTimeout() {
+		HttpHandlerWithTimeoutSpy httpHandler = setUpHttpHandlersWithTimeoutSupport(TIMEOUTS)
+				.get(0);
+
+		restClient.withDeadline(Duration.ofMinutes(1)).readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		httpHandler.MCR.assertParameters("setTimeout", 0, Duration.ofSeconds(1));
+	}
+
+	@Test
+	public void testDeadlineWithoutTimeoutIsUsedAsTimeout() {
+		HttpHandlerWithTimeoutSpy httpHandler = setUpHttpHandlersWithTimeoutSupport(
+				OperationTimeouts.NONE).get(0);
+
+		restClient.withDeadline(Duration.ofMinutes(1)).readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		Duration timeout = getTimeoutSetOnHttpHandler(httpHandler);
+		assertTrue(timeout.compareTo(Duration.ofMinutes(1)) <= 0);
+		assertTrue(timeout.compareTo(Duration.ofSeconds(50)) > 0);
+	}
+
+	@Test
+	public void testDeadlinePassedBeforeRequestIsSent() {
+		RestClient restClientWithDeadline = restClient.withDeadline(Duration.ofNanos(1));
+
+		try {
+			restClientWithDeadline.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "The deadline of 0 ms was exceeded before a request to: "
+					+ baseUrl + "record/" + SOME_TYPE + "/" + SOME_ID + " could be sent.");
+			httpHandlerFactorySpy.MCR.assertMethodNotCalled("factor");
+		}
+	}
+
+	@Test
+	public void testDeadlineIsCarriedThroughRetryAfterUnauthorized() {
+		List<HttpHandlerWithTimeoutSpy> httpHandlers = setUpHttpHandlersWithTimeoutSupport(
+				OperationTimeouts.NONE);
+		httpHandlers.get(0).MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 401);
+		tokenClient.MRV.setDefaultReturnValuesSupplier("getAuthToken",
+				this::sleepAndReturnToken);
+
+		RestResponse response = restClient.withDeadline(Duration.ofSeconds(10))
+				.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 200);
+		tokenClient.MCR.assertMethodWasCalled("requestNewAuthTokenReplacingAuthToken");
+		Duration firstTimeout = getTimeoutSetOnHttpHandler(httpHandlers.get(0));
+		Duration retryTimeout = getTimeoutSetOnHttpHandler(httpHandlers.get(1));
+		assertTrue(retryTimeout.compareTo(Duration.ofSeconds(10).minusMillis(100)) <= 0);
+		assertTrue(retryTimeout.compareTo(firstTimeout) < 0);
+	}
+
+	private String sleepAndReturnToken() {
+		return sleepAndReturnToken(Duration.ofMillis(100));
+	}
+
+	private String sleepAndReturnToken(Duration duration) {
+		try {
+			Thread.sleep(duration);
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+		}
+		return "someToken";
+	}
+
+	@Test
+	public void testNoLoginOrRetryWhenDeadlinePassedBeforeRetry() {
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 401);
+		tokenClient.MRV.setDefaultReturnValuesSupplier("getAuthToken",
+				this::sleepAndReturnToken);
+
+		RestResponse response = restClient.withDeadline(Duration.ofMillis(50))
+				.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 401);
+		tokenClient.MCR.assertMethodNotCalled("requestNewAuthTokenReplacingAuthToken");
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+	}
+
+	@Test
+	public void testLoginIsOnlyWaitedForUntilDeadlinePasses() {
+		tokenClient = new TokenClientSpy() {
+			@Override
+			public void requestNewAuthTokenReplacingAuthToken(String rejectedAuthToken) {
+				super.requestNewAuthTokenReplacingAuthToken(rejectedAuthToken);
+				sleepAndReturnToken(Duration.ofSeconds(5));
+			}
+		};
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 401);
+		restClient = RestClientImp.usingHttpHandlerFactoryAndBaseUrlAndTokenClient(
+				httpHandlerFactorySpy, baseUrl, tokenClient);
+		long startInNanos = System.nanoTime();
+
+		RestResponse response = restClient.withDeadline(Duration.ofMillis(200))
+				.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertTrue(System.nanoTime() - startInNanos < Duration.ofSeconds(2).toNanos());
+		assertEquals(response.responseCode(), 401);
+		tokenClient.MCR.assertMethodWasCalled("requestNewAuthTokenReplacingAuthToken");
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+	}
+
+	@Test
+	public void testFailedLoginWithinDeadlineReturnsUnauthorizedResponse() {
+		tokenClient = new TokenClientSpy() {
+			@Override
+			public void requestNewAuthTokenReplacingAuthToken(String rejectedAuthToken) {
+				throw DataClientException.withMessage("some login error");
+			}
+		};
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 401);
+		restClient = RestClientImp.usingHttpHandlerFactoryAndBaseUrlAndTokenClient(
+				httpHandlerFactorySpy, baseUrl, tokenClient);
+
+		RestResponse response = restClient.withDeadline(Duration.ofSeconds(10))
+				.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 401);
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+	}
+
+	@Test
+	public void testInitWithRetryPolicy() {
+		RetryPolicy retryPolicy = RetryPolicy.usingMaxAttemptsAndBackoff(3,
+				Duration.ofMillis(100), Duration.ofSeconds(1));
+
+		CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry
+				.usingSettings(CircuitBreakerSettings.DEFAULT);
+		RestClientSettings settings = new RestClientSettings(TIMEOUTS, retryPolicy,
+				circuitBreakerRegistry, AdaptiveConcurrencyLimiter
+						.usingSettings(AdaptiveConcurrencySettings.DISABLED),
+				ConditionalReadSettings.DISABLED, NO_DISK_RESPONSE_STORE);
+
+		RestClientImp restClientImp = RestClientImp
+				.usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndSettings(httpHandlerFactorySpy,
+						baseUrl, tokenClient, settings);
+
+		assertSame(restClientImp.onlyForTestGetTimeouts(), TIMEOUTS);
+		assertSame(restClientImp.onlyForTestGetRetryPolicy(), retryPolicy);
+		assertSame(restClientImp.onlyForTestGetCircuitBreakerRegistry(), circuitBreakerRegistry);
+		RestClientImp restClientWithDeadline = (RestClientImp) restClientImp
+				.withDeadline(Duration.ofSeconds(1));
+		assertSame(restClientWithDeadline.onlyForTestGetRetryPolicy(), retryPolicy);
+		assertSame(restClientWithDeadline.onlyForTestGetCircuitBreakerRegistry(),
+				circuitBreakerRegistry);
+	}
+
+	@Test
+	public void testNoRetriesByDefault() {
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 503);
+		assertSame(((RestClientImp) restClient).onlyForTestGetRetryPolicy(), RetryPolicy.NONE);
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+		httpHandlerSpy_first.MCR.assertMethodNotCalled("getHeaderField");
+	}
+
+	@Test
+	public void testRetryOnTransientStatusCode() {
+		List<Duration> sleeps = setUpRestClientUsingRetryPolicy(createRetryPolicy());
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 200);
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 2);
+		assertEquals(sleeps.size(), 1);
+		assertTrue(sleeps.get(0).compareTo(Duration.ofMillis(100)) <= 0);
+	}
+
+	private RetryPolicy createRetryPolicy() {
+		return RetryPolicy.usingMaxAttemptsAndBackoff(3, Duration.ofMillis(100),
+				Duration.ofMillis(150));
+	}
+
+	private List<Duration> setUpRestClientUsingRetryPolicy(RetryPolicy retryPolicy) {
+		return setUpRestClientUsingRetryPolicyAndCircuitBreakerSettings(retryPolicy,
+				CircuitBreakerSettings.DISABLED);
+	}
+
+	private List<Duration> setUpRestClientUsingRetryPolicyAndCircuitBreakerSettings(
+			RetryPolicy retryPolicy, CircuitBreakerSettings circuitBreakerSettings) {
+		return setUpRestClientUsingSettings(new RestClientSettings(OperationTimeouts.NONE,
+				retryPolicy, CircuitBreakerRegistry.usingSettings(circuitBreakerSettings),
+				AdaptiveConcurrencyLimiter.usingSettings(AdaptiveConcurrencySettings.DISABLED),
+				ConditionalReadSettings.DISABLED, NO_DISK_RESPONSE_STORE));
+	}
+
+	private List<Duration> setUpRestClientUsingSettings(RestClientSettings settings) {
+		List<Duration> sleeps = new ArrayList<>();
+		RestClientImp restClientImp = RestClientImp
+				.usingHttpHandlerFactoryAndBaseUrlAndTokenClientAndSettings(httpHandlerFactorySpy,
+						baseUrl, tokenClient, settings);
+		restClientImp.onlyForTestSetSleeper(sleeps::add);
+		restClient = restClientImp;
+		return sleeps;
+	}
+
+	@Test
+	public void testIdempotentCallsAreRetried() {
+		assertCallIsRetried(true, client -> client.readRecordAsJson(SOME_TYPE, SOME_ID));
+		assertCallIsRetried(true, client -> client.readIncomingLinksAsJson(SOME_TYPE, SOME_ID));
+		assertCallIsRetried(true, client -> client.readRecordListAsJson(SOME_TYPE));
+		assertCallIsRetried(true,
+				client -> client.readRecordListWithFilterAsJson(SOME_TYPE, FILTER));
+		assertCallIsRetried(true, client -> client.readRecordListAsJsonStream(SOME_TYPE));
+		assertCallIsRetried(true,
+				client -> client.searchRecordWithSearchCriteriaAsJson("someSearchId", "{}"));
+		assertCallIsRetried(true,
+				client -> client.searchRecordWithSearchCriteriaAsJsonStream("someSearchId", "{}"));
+		assertCallIsRetried(true, client -> client.deleteRecord(SOME_TYPE, SOME_ID));
+		assertCallIsRetried(true,
+				client -> client.download(SOME_TYPE, SOME_ID, SOME_REPRESENTATION));
+	}
+
+	@Test
+	public void testCreateAndUpdateAreNotRetriedByDefault() {
+		assertCallIsRetried(false, client -> client.createRecordFromJson(SOME_TYPE, JSON_RECORD));
+		assertCallIsRetried(false,
+				client -> client.updateRecordFromJson(SOME_TYPE, SOME_ID, JSON_RECORD));
+		assertCallIsRetried(false, client -> client.validateRecordAsJson(JSON_RECORD));
+		assertCallIsRetried(false,
+				client -> client.batchIndexWithFilterAsJson("recordTypeToIndex", FILTER));
+	}
+
+	private void assertCallIsRetried(boolean expectedRetry, Consumer<RestClient> call) {
+		assertCallIsRetriedUsingRetryPolicy(expectedRetry, createRetryPolicy(), call);
+	}
+
+	private void assertCallIsRetriedUsingRetryPolicy(boolean expectedRetry,
+			RetryPolicy retryPolicy, Consumer<RestClient> call) {
+		HttpHandlerSpy httpHandler = new HttpHandlerSpy();
+		httpHandler.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 502);
+		httpHandlerFactorySpy = new HttpHandlerFactorySpy();
+		httpHandlerFactorySpy.MRV.setDefaultReturnValuesSupplier("factor", () -> httpHandler);
+		setUpRestClientUsingRetryPolicy(retryPolicy);
+
+		call.accept(restClient);
+
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", expectedRetry ? 3 : 1);
+	}
+
+	@Test
+	public void testCreateAndUpdateAreRetriedWhenOptedIn() {
+		RetryPolicy retryPolicy = createRetryPolicy().withRetryOfCreateAndUpdate();
+
+		assertCallIsRetriedUsingRetryPolicy(true, retryPolicy,
+				client -> client.createRecordFromJson(SOME_TYPE, JSON_RECORD));
+		assertCallIsRetriedUsingRetryPolicy(true, retryPolicy,
+				client -> client.updateRecordFromJson(SOME_TYPE, SOME_ID, JSON_RECORD));
+		assertCallIsRetriedUsingRetryPolicy(true, retryPolicy,
+				client -> client.validateRecordAsJson(JSON_RECORD));
+		assertCallIsRetriedUsingRetryPolicy(true, retryPolicy,
+				client -> client.batchIndexWithFilterAsJson("recordTypeToIndex", FILTER));
+	}
+
+	@Test
+	public void testNoRetryOnOtherErrors() {
+		setUpRestClientUsingRetryPolicy(createRetryPolicy());
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode",
+				() -> ERROR_CODE);
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), ERROR_CODE);
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+	}
+
+	@Test
+	public void testBackoffGrowsUpToMaxBackoffUntilMaxAttempts() {
+		httpHandlerFactorySpy = new HttpHandlerFactorySpy();
+		httpHandlerFactorySpy.MRV.setDefaultReturnValuesSupplier("factor",
+				() -> httpHandlerSpy_first);
+		List<Duration> sleeps = setUpRestClientUsingRetryPolicy(RetryPolicy
+				.usingMaxAttemptsAndBackoff(4, Duration.ofMillis(100), Duration.ofMillis(150)));
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 504);
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 504);
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 4);
+		assertEquals(sleeps.size(), 3);
+		assertTrue(sleeps.get(0).compareTo(Duration.ofMillis(100)) <= 0);
+		assertTrue(sleeps.get(1).compareTo(Duration.ofMillis(150)) <= 0);
+		assertTrue(sleeps.get(2).compareTo(Duration.ofMillis(150)) <= 0);
+	}
+
+	@Test
+	public void testRetryAfterInSecondsIsHonored() {
+		List<Duration> sleeps = setUpRestClientUsingRetryPolicy(
+				createRetryPolicyWithMaxBackoffOfTwoMinutes());
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getHeaderField", () -> "7");
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 200);
+		httpHandlerSpy_first.MCR.assertParameters("getHeaderField", 0, "Retry-After");
+		assertEquals(sleeps, List.of(Duration.ofSeconds(7)));
+	}
+
+	@Test
+	public void testRetryAfterAsHttpDateIsHonored() {
+		List<Duration> sleeps = setUpRestClientUsingRetryPolicy(
+				createRetryPolicyWithMaxBackoffOfTwoMinutes());
+		String inOneMinute = ZonedDateTime.now().plusMinutes(1)
+				.format(DateTimeFormatter.RFC_1123_DATE_TIME);
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getHeaderField",
+				() -> inOneMinute);
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertTrue(sleeps.get(0).compareTo(Duration.ofMinutes(1)) <= 0);
+		assertTrue(sleeps.get(0).compareTo(Duration.ofSeconds(55)) > 0);
+	}
+
+	private RetryPolicy createRetryPolicyWithMaxBackoffOfTwoMinutes() {
+		return RetryPolicy.usingMaxAttemptsAndBackoff(3, Duration.ofMillis(100),
+				Duration.ofMinutes(2));
+	}
+
+	@Test
+	public void testRetryAfterLongerThanMaxBackoffIsNotRetried() {
+		List<Duration> sleeps = setUpRestClientUsingRetryPolicy(createRetryPolicy());
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getHeaderField", () -> "3600");
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 503);
+		assertTrue(sleeps.isEmpty());
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+	}
+
+	@Test
+	public void testRetryAfterTooLargeForALongIsNotRetried() {
+		List<Duration> sleeps = setUpRestClientUsingRetryPolicy(
+				createRetryPolicyWithMaxBackoffOfTwoMinutes());
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getHeaderField",
+				() -> "99999999999999999999999");
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 503);
+		assertTrue(sleeps.isEmpty());
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+	}
+
+	@Test
+	public void testUnparsableRetryAfterUsesBackoff() {
+		List<Duration> sleeps = setUpRestClientUsingRetryPolicy(createRetryPolicy());
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getHeaderField",
+				() -> "notADate");
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertTrue(sleeps.get(0).compareTo(Duration.ofMillis(100)) <= 0);
+	}
+
+	@Test
+	public void testNoRetryWhenWaitingWouldPassDeadline() {
+		List<Duration> sleeps = setUpRestClientUsingRetryPolicy(createRetryPolicy());
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getHeaderField", () -> "60");
+
+		RestResponse response = restClient.withDeadline(Duration.ofSeconds(10))
+				.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 503);
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+		assertEquals(sleeps, List.of());
+	}
+
+	@Test
+	public void testRetryOnConnectionError() {
+		setUpRestClientUsingRetryPolicy(createRetryPolicy());
+		httpHandlerSpy_first.MRV.setAlwaysThrowException("getResponseCode",
+				DataClientException.withMessageAndException("Could not send request",
+						new IOException("Connection reset")));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 200);
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 2);
+	}
+
+	@Test
+	public void testConnectionErrorThrownWhenNoAttemptsLeft() {
+		setUpRestClientUsingRetryPolicy(RetryPolicy.usingMaxAttemptsAndBackoff(2,
+				Duration.ofMillis(1), Duration.ofMillis(1)));
+		DataClientException exception = DataClientException.withMessageAndException(
+				"Could not send request", new IOException("Connection reset"));
+		httpHandlerSpy_first.MRV.setAlwaysThrowException("getResponseCode", exception);
+		httpHandlerSpy_second.MRV.setAlwaysThrowException("getResponseCode", exception);
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertSame(e, exception);
+			httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 2);
+		}
+	}
+
+	@Test
+	public void testNoRetryOnOtherExceptions() {
+		setUpRestClientUsingRetryPolicy(createRetryPolicy());
+		DataClientException exception = DataClientException.withMessage("some error");
+		httpHandlerSpy_first.MRV.setAlwaysThrowException("getResponseCode", exception);
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertSame(e, exception);
+			httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+		}
+	}
+
+	@Test
+	public void testInterruptedWhileWaitingStopsRetrying() {
+		setUpRestClientUsingRetryPolicy(createRetryPolicy());
+		RestClientImp restClientImp = (RestClientImp) restClient;
+		restClientImp.onlyForTestSetSleeper(_ -> {
+			throw new InterruptedException();
+		});
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 503);
+
+		RestResponse response = restClientImp.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 503);
+		assertTrue(Thread.interrupted());
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 1);
+	}
+
+	@Test
+	public void testNoCircuitBreakerByDefault() {
+		CircuitBreakerRegistry circuitBreakerRegistry = ((RestClientImp) restClient)
+				.onlyForTestGetCircuitBreakerRegistry();
+
+		assertSame(circuitBreakerRegistry.onlyForTestGetSettings(),
+				CircuitBreakerSettings.DISABLED);
+	}
+
+	@Test
+	public void testCircuitBreakerOpensOnServerErrorsAndFailsFast() {
+		HttpHandlerSpy httpHandler = setUpHttpHandlerFactoryToAlwaysReturnResponseCode(503);
+		setUpRestClientUsingRetryPolicyAndCircuitBreakerSettings(RetryPolicy.NONE,
+				createCircuitBreakerSettings());
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		try {
+			restClient.readRecordListAsJson(SOME_TYPE);
+			fail("It should throw an exception");
+		} catch (CircuitBreakerOpenException e) {
+			assertEquals(e.getMessage(), "The circuit breaker for: " + baseUrl
+					+ " is open, no request was sent.");
+			httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 2);
+			httpHandler.MCR.assertNumberOfCallsToMethod("getErrorText", 2);
+		}
+	}
+
+	private HttpHandlerSpy setUpHttpHandlerFactoryToAlwaysReturnResponseCode(int responseCode) {
+		HttpHandlerSpy httpHandler = new HttpHandlerSpy();
+		httpHandler.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> responseCode);
+		httpHandlerFactorySpy = new HttpHandlerFactorySpy();
+		httpHandlerFactorySpy.MRV.setDefaultReturnValuesSupplier("factor", () -> httpHandler);
+		return httpHandler;
+	}
+
+	private CircuitBreakerSettings createCircuitBreakerSettings() {
+		return new CircuitBreakerSettings(10, 2, 50, Duration.ZERO, 0, Duration.ofMinutes(1), 1,
+				false);
+	}
+
+	@Test
+	public void testCircuitBreakerNotOpenedByClientErrors() {
+		setUpHttpHandlerFactoryToAlwaysReturnResponseCode(404);
+		setUpRestClientUsingRetryPolicyAndCircuitBreakerSettings(RetryPolicy.NONE,
+				createCircuitBreakerSettings());
+
+		for (int i = 0; i < 5; i++) {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		}
+
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 5);
+	}
+
+	@Test
+	public void testCircuitBreakerOpensOnConnectionErrors() {
+		HttpHandlerSpy httpHandler = setUpHttpHandlerFactoryToAlwaysReturnResponseCode(200);
+		httpHandler.MRV.setAlwaysThrowException("getResponseCode", DataClientException
+				.withMessageAndException("Could not send request", new IOException()));
+		setUpRestClientUsingRetryPolicyAndCircuitBreakerSettings(RetryPolicy.NONE,
+				createCircuitBreakerSettings());
+
+		callAndIgnoreException(() -> restClient.readRecordAsJson(SOME_TYPE, SOME_ID));
+		callAndIgnoreException(() -> restClient.readRecordAsJson(SOME_TYPE, SOME_ID));
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (CircuitBreakerOpenException _) {
+			httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 2);
+		}
+	}
+
+	@Test
+	public void testOtherExceptionsAreNotRecordedByCircuitBreaker() {
+		List<HttpHandlerSpy> httpHandlers = new ArrayList<>();
+		httpHandlers.add(createHttpHandlerReturningResponseCode(503));
+		for (int i = 0; i < 5; i++) {
+			HttpHandlerSpy httpHandler = new HttpHandlerSpy();
+			httpHandler.MRV.setAlwaysThrowException("getResponseCode",
+					DataClientException.withMessage("some error"));
+			httpHandlers.add(httpHandler);
+		}
+		httpHandlers.add(createHttpHandlerReturningResponseCode(503));
+		httpHandlerFactorySpy = new HttpHandlerFactorySpy();
+		httpHandlerFactorySpy.MRV.setReturnValues("factor", httpHandlers,
+				baseUrl + "record/" + SOME_TYPE + "/" + SOME_ID);
+		setUpRestClientUsingRetryPolicyAndCircuitBreakerSettings(RetryPolicy.NONE,
+				createCircuitBreakerSettings());
+
+		for (int i = 0; i < 7; i++) {
+			callAndIgnoreException(() -> restClient.readRecordAsJson(SOME_TYPE, SOME_ID));
+		}
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (CircuitBreakerOpenException _) {
+			httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 7);
+		}
+	}
+
+	private HttpHandlerSpy createHttpHandlerReturningResponseCode(int responseCode) {
+		HttpHandlerSpy httpHandler = new HttpHandlerSpy();
+		httpHandler.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> responseCode);
+		return httpHandler;
+	}
+
+	private void callAndIgnoreException(Runnable call) {
+		try {
+			call.run();
+		} catch (DataClientException _) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCircuitBreakerOpenStopsRetries() {
+		setUpHttpHandlerFactoryToAlwaysReturnResponseCode(503);
+		setUpRestClientUsingRetryPolicyAndCircuitBreakerSettings(
+				RetryPolicy.usingMaxAttemptsAndBackoff(5, Duration.ZERO, Duration.ZERO),
+				createCircuitBreakerSettings());
+
+		try {
+			restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (CircuitBreakerOpenException _) {
+			httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 2);
+		}
+	}
+
+	@Test
+	public void testCircuitBreakerPerOperation() {
+		setUpHttpHandlerFactoryToAlwaysReturnResponseCode(503);
+		setUpRestClientUsingRetryPolicyAndCircuitBreakerSettings(RetryPolicy.NONE,
+				createCircuitBreakerSettings().withPerOperation());
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		restClient.readRecordListAsJson(SOME_TYPE);
+
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 3);
+		try {
+			restClient.readIncomingLinksAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (CircuitBreakerOpenException e) {
+			assertEquals(e.getMessage(), "The circuit breaker for: " + baseUrl
+					+ " (read) is open, no request was sent.");
+		}
+	}
+
+	@Test
+	public void testNoAdaptiveConcurrencyLimitByDefault() {
+		AdaptiveConcurrencyLimiter concurrencyLimiter = ((RestClientImp) restClient)
+				.onlyForTestGetConcurrencyLimiter();
+
+		assertSame(concurrencyLimiter.onlyForTestGetSettings(),
+				AdaptiveConcurrencySettings.DISABLED);
+	}
+
+	@Test
+	public void testAdaptiveConcurrencyLimitIncreasedBySuccessfulAttempts() {
+		setUpHttpHandlerFactoryToAlwaysReturnResponseCode(200);
+		AdaptiveConcurrencyLimiter concurrencyLimiter = setUpRestClientUsingConcurrencyLimiter(
+				RetryPolicy.NONE);
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(concurrencyLimiter.getCurrentLimit(), 2);
+		assertEquals(concurrencyLimiter.getInFlight(), 0);
+	}
+
+	private AdaptiveConcurrencyLimiter setUpRestClientUsingConcurrencyLimiter(
+			RetryPolicy retryPolicy) {
+		AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.usingSettings(
+				AdaptiveConcurrencySettings.usingInitialLimitAndMinLimitAndMaxLimit(1, 1, 10));
+		setUpRestClientUsingSettings(new RestClientSettings(OperationTimeouts.NONE, retryPolicy,
+				CircuitBreakerRegistry.usingSettings(CircuitBreakerSettings.DISABLED),
+				concurrencyLimiter, ConditionalReadSettings.DISABLED, NO_DISK_RESPONSE_STORE));
+		return concurrencyLimiter;
+	}
+
+	@Test
+	public void testAdaptiveConcurrencyLimitDecreasedByEachFailedAttempt() {
+		setUpHttpHandlerFactoryToAlwaysReturnResponseCode(503);
+		AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.usingSettings(
+				AdaptiveConcurrencySettings.usingInitialLimitAndMinLimitAndMaxLimit(100, 1, 100));
+		setUpRestClientUsingSettings(new RestClientSettings(OperationTimeouts.NONE,
+				RetryPolicy.usingMaxAttemptsAndBackoff(2, Duration.ZERO, Duration.ZERO),
+				CircuitBreakerRegistry.usingSettings(CircuitBreakerSettings.DISABLED),
+				concurrencyLimiter, ConditionalReadSettings.DISABLED, NO_DISK_RESPONSE_STORE));
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 2);
+		assertEquals(concurrencyLimiter.getCurrentLimit(), 81);
+		assertEquals(concurrencyLimiter.getInFlight(), 0);
+	}
+
+	@Test
+	public void testAdaptiveConcurrencyLimitDecreasedByConnectionErrors() {
+		HttpHandlerSpy httpHandler = setUpHttpHandlerFactoryToAlwaysReturnResponseCode(200);
+		httpHandler.MRV.setAlwaysThrowException("getResponseCode", DataClientException
+				.withMessageAndException("Could not send request", new IOException()));
+		AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.usingSettings(
+				AdaptiveConcurrencySettings.usingInitialLimitAndMinLimitAndMaxLimit(10, 1, 10));
+		setUpRestClientUsingSettings(new RestClientSettings(OperationTimeouts.NONE,
+				RetryPolicy.NONE,
+				CircuitBreakerRegistry.usingSettings(CircuitBreakerSettings.DISABLED),
+				concurrencyLimiter, ConditionalReadSettings.DISABLED, NO_DISK_RESPONSE_STORE));
+
+		callAndIgnoreException(() -> restClient.readRecordAsJson(SOME_TYPE, SOME_ID));
+
+		assertEquals(concurrencyLimiter.getCurrentLimit(), 9);
+		assertEquals(concurrencyLimiter.getInFlight(), 0);
+	}
+
+	@Test
+	public void testAdaptiveConcurrencyLimitNotChangedByOtherExceptions() {
+		HttpHandlerSpy httpHandler = setUpHttpHandlerFactoryToAlwaysReturnResponseCode(200);
+		httpHandler.MRV.setAlwaysThrowException("getResponseCode",
+				DataClientException.withMessage("some error"));
+		AdaptiveConcurrencyLimiter concurrencyLimiter = setUpRestClientUsingConcurrencyLimiter(
+				RetryPolicy.NONE);
+
+		callAndIgnoreException(() -> restClient.readRecordAsJson(SOME_TYPE, SOME_ID));
+
+		assertEquals(concurrencyLimiter.getCurrentLimit(), 1);
+		assertEquals(concurrencyLimiter.getInFlight(), 0);
+	}
+
+	@Test
+	public void testAdaptiveConcurrencyLimitReleasedWhenCircuitBreakerIsOpen() {
+		setUpHttpHandlerFactoryToAlwaysReturnResponseCode(503);
+		AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.usingSettings(
+				AdaptiveConcurrencySettings.usingInitialLimitAndMinLimitAndMaxLimit(10, 1, 10));
+		setUpRestClientUsingSettings(new RestClientSettings(OperationTimeouts.NONE,
+				RetryPolicy.NONE,
+				CircuitBreakerRegistry.usingSettings(createCircuitBreakerSettings()),
+				concurrencyLimiter, ConditionalReadSettings.DISABLED, NO_DISK_RESPONSE_STORE));
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		callAndIgnoreException(() -> restClient.readRecordAsJson(SOME_TYPE, SOME_ID));
+
+		httpHandlerFactorySpy.MCR.assertNumberOfCallsToMethod("factor", 2);
+		assertEquals(concurrencyLimiter.getCurrentLimit(), 8);
+		assertEquals(concurrencyLimiter.getInFlight(), 0);
+	}
+
+	@Test
+	public void testWaitForAdaptiveConcurrencyLimitIsBoundedByDeadline() {
+		AdaptiveConcurrencyLimiter concurrencyLimiter = setUpRestClientUsingConcurrencyLimiter(
+				RetryPolicy.NONE);
+		concurrencyLimiter.acquire();
+		long start = System.nanoTime();
+
+		try {
+			restClient.withDeadline(Duration.ofMillis(50)).readRecordAsJson(SOME_TYPE, SOME_ID);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(), "The deadline was exceeded while waiting for the "
+					+ "adaptive concurrency limit, no request was sent.");
+		}
+		assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+		httpHandlerFactorySpy.MCR.assertMethodNotCalled("factor");
+		assertEquals(concurrencyLimiter.getInFlight(), 1);
+	}
+
+	@Test
+	public void testReloginTimeIsNotCountedAsRoundTripTime() {
+		tokenClient = new TokenClientSpy() {
+			@Override
+			public void requestNewAuthTokenReplacingAuthToken(String rejectedAuthToken) {
+				super.requestNewAuthTokenReplacingAuthToken(rejectedAuthToken);
+				sleepAndReturnToken(Duration.ofMillis(300));
+			}
+		};
+		httpHandlerSpy_first.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 401);
+		setUpRestClientUsingRetryPolicyAndCircuitBreakerSettings(RetryPolicy.NONE,
+				new CircuitBreakerSettings(10, 1, 0, Duration.ofMillis(200), 50,
+						Duration.ofMinutes(1), 1, false));
+
+		RestResponse response = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertEquals(response.responseCode(), 200);
+		CircuitBreaker circuitBreaker = ((RestClientImp) restClient)
+				.onlyForTestGetCircuitBreakerRegistry()
+				.getCircuitBreakerForBaseUrlAndOperation(baseUrl, "read");
+		assertEquals(circuitBreaker.onlyForTestGetState(), CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	public void testConditionalReadsDisabledByDefault() {
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertSame(((RestClientImp) restClient).onlyForTestGetConditionalReadCache()
+				.onlyForTestGetSettings(), ConditionalReadSettings.DISABLED);
+		httpHandlerSpy_first.MCR.assertMethodNotCalled("getHeaderField");
+		httpHandlerSpy_second.MCR.assertNumberOfCallsToMethod("setRequestProperty", 2);
+	}
+
+	@Test
+	public void testFirstReadIsNotConditional() {
+		ConditionalReadSettings conditionalReadSettings = setUpRestClientUsingConditionalReads();
+		setHttpHandlerToReturnValidators(httpHandlerSpy_first, "\"v1\"", SOME_DATE);
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		httpHandlerSpy_first.MCR.assertNumberOfCallsToMethod("setRequestProperty", 2);
+		httpHandlerSpy_first.MCR.assertCalledParameters("getHeaderField", "ETag");
+		httpHandlerSpy_first.MCR.assertCalledParameters("getHeaderField", "Last-Modified");
+		assertEquals(conditionalReadSettings.statistics().getMisses(), 0);
+	}
+
+	private ConditionalReadSettings setUpRestClientUsingConditionalReads() {
+		ConditionalReadSettings conditionalReadSettings = ConditionalReadSettings
+				.usingMaxEntries(10);
+		setUpRestClientUsingSettings(new RestClientSettings(OperationTimeouts.NONE,
+				RetryPolicy.NONE,
+				CircuitBreakerRegistry.usingSettings(CircuitBreakerSettings.DISABLED),
+				AdaptiveConcurrencyLimiter.usingSettings(AdaptiveConcurrencySettings.DISABLED),
+				conditionalReadSettings, NO_DISK_RESPONSE_STORE));
+		return conditionalReadSettings;
+	}
+
+	private void setHttpHandlerToReturnValidators(HttpHandlerSpy httpHandler, String eTag,
+			String lastModified) {
+		httpHandler.MRV.setSpecificReturnValuesSupplier("getHeaderField", () -> eTag, "ETag");
+		httpHandler.MRV.setSpecificReturnValuesSupplier("getHeaderField", () -> lastModified,
+				"Last-Modified");
+	}
+
+	@Test
+	public void testNotModifiedReturnsKeptResponse() {
+		ConditionalReadSettings conditionalReadSettings = setUpRestClientUsingConditionalReads();
+		setHttpHandlerToReturnValidators(httpHandlerSpy_first, "\"v1\"", SOME_DATE);
+		httpHandlerSpy_second.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 304);
+
+		RestResponse firstResponse = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		RestResponse secondResponse = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertSame(secondResponse, firstResponse);
+		httpHandlerSpy_second.MCR.assertCalledParameters("setRequestProperty", "If-None-Match",
+				"\"v1\"");
+		httpHandlerSpy_second.MCR.assertCalledParameters("setRequestProperty",
+				"If-Modified-Since", SOME_DATE);
+		httpHandlerSpy_second.MCR.assertMethodNotCalled("getResponseText");
+		assertEquals(conditionalReadSettings.statistics().getHits(), 1);
+		assertEquals(conditionalReadSettings.statistics().getMisses(), 0);
+	}
+
+	@Test
+	public void testModifiedResponseReplacesKeptResponse() {
+		HttpHandlerSpy httpHandlerSpy_third = new HttpHandlerSpy();
+		httpHandlerFactorySpy.MRV.setReturnValues("factor",
+				List.of(httpHandlerSpy_first, httpHandlerSpy_second, httpHandlerSpy_third),
+				baseUrl + "record/" + SOME_TYPE + "/" + SOME_ID);
+		ConditionalReadSettings conditionalReadSettings = setUpRestClientUsingConditionalReads();
+		setHttpHandlerToReturnValidators(httpHandlerSpy_first, "\"v1\"", null);
+		setHttpHandlerToReturnValidators(httpHandlerSpy_second, "\"v2\"", null);
+		httpHandlerSpy_third.MRV.setDefaultReturnValuesSupplier("getResponseCode", () -> 304);
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		RestResponse secondResponse = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		RestResponse thirdResponse = restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		httpHandlerSpy_second.MCR.assertReturn("getResponseText", 0,
+				secondResponse.responseText());
+		assertSame(thirdResponse, secondResponse);
+		httpHandlerSpy_third.MCR.assertCalledParameters("setRequestProperty", "If-None-Match",
+				"\"v2\"");
+		httpHandlerSpy_third.MCR.assertNumberOfCallsToMethod("setRequestProperty", 3);
+		assertEquals(conditionalReadSettings.statistics().getHits(), 1);
+		assertEquals(conditionalReadSettings.statistics().getMisses(), 1);
+	}
+
+	@Test
+	public void testResponseWithoutValidatorsIsNotKept() {
+		setUpRestClientUsingConditionalReads();
+		setHttpHandlerToReturnValidators(httpHandlerSpy_first, null, null);
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		httpHandlerSpy_second.MCR.assertNumberOfCallsToMethod("setRequestProperty", 2);
+	}
+
+	@Test
+	public void testErrorResponseIsNotKept() {
+		setUpRestClientUsingConditionalReads();
+		setHttpHandlerToReturnErrorResponseCode();
+
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		httpHandlerSpy_first.MCR.assertMethodNotCalled("getHeaderField");
+		httpHandlerSpy_second.MCR.assertNumberOfCallsToMethod("setRequestProperty", 2);
+	}
+
+	@Test
+	public void testWithDeadlineSharesConditionalReadCache() {
+		setUpRestClientUsingConditionalReads();
+		setHttpHandlerToReturnValidators(httpHandlerSpy_first, "\"v1\"", null);
+		restClient.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		RestClientImp withDeadline = (RestClientImp) restClient
+				.withDeadline(Duration.ofSeconds(10));
+		withDeadline.readRecordAsJson(SOME_TYPE, SOME_ID);
+
+		assertSame(withDeadline.onlyForTestGetConditionalReadCache(),
+				((RestClientImp) restClient).onlyForTestGetConditionalReadCache());
+		httpHandlerSpy_second.MCR.assertCalledParameters("setRequestProperty", "If-None-Match",
+				"\"v1\"");
+	}
 }
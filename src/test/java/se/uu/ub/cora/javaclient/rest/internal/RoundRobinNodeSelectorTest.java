@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.rest.LoadBalancingSettings;
+import se.uu.ub.cora.javaclient.rest.NodeSelector;
+
+public class RoundRobinNodeSelectorTest {
+
+	@Test
+	public void testFactoredFromNodeSelector() {
+		assertTrue(NodeSelector.roundRobin() instanceof RoundRobinNodeSelector);
+	}
+
+	@Test
+	public void testNodesAreSelectedInTurn() {
+		LoadBalancedNodeImp node1 = createNode("node1");
+		LoadBalancedNodeImp node2 = createNode("node2");
+		List<LoadBalancedNodeImp> nodes = List.of(node1, node2);
+		NodeSelector selector = new RoundRobinNodeSelector();
+
+		assertSame(selector.selectNode(nodes), node1);
+		assertSame(selector.selectNode(nodes), node2);
+		assertSame(selector.selectNode(nodes), node1);
+		assertSame(selector.selectNode(List.of(node2)), node2);
+	}
+
+	private LoadBalancedNodeImp createNode(String baseUrl) {
+		return LoadBalancedNodeImp.usingBaseUrlAndSettings(baseUrl, LoadBalancingSettings.NONE);
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TokenBucketTest {
+	private static final long INTERVAL = 100_000_000L;
+	private long nanoTime;
+	private TokenBucket tokenBucket;
+
+	@BeforeMethod
+	public void beforeMethod() {
+		nanoTime = 1_000_000_000L;
+		tokenBucket = TokenBucket.usingRequestsPerSecondAndBurstAndNanoClock(10, 3,
+				() -> nanoTime);
+	}
+
+	@Test
+	public void testInterval() {
+		assertEquals(tokenBucket.onlyForTestGetIntervalNanos(), INTERVAL);
+	}
+
+	@Test
+	public void testBurstIsAvailableAtOnce() {
+		assertTrue(tokenBucket.tryAcquire());
+		assertTrue(tokenBucket.tryAcquire());
+		assertTrue(tokenBucket.tryAcquire());
+
+		assertFalse(tokenBucket.tryAcquire());
+	}
+
+	@Test
+	public void testTokensAreRefilledAtRate() {
+		takeBurst();
+
+		nanoTime += INTERVAL;
+
+		assertTrue(tokenBucket.tryAcquire());
+		assertFalse(tokenBucket.tryAcquire());
+	}
+
+	private void takeBurst() {
+		for (int i = 0; i < 3; i++) {
+			tokenBucket.tryAcquire();
+		}
+	}
+
+	@Test
+	public void testBucketDoesNotFillAboveBurst() {
+		nanoTime += 100 * INTERVAL;
+
+		takeBurst();
+
+		assertFalse(tokenBucket.tryAcquire());
+	}
+
+	@Test
+	public void testFailedTryAcquireTakesNoToken() {
+		takeBurst();
+		tokenBucket.tryAcquire();
+		tokenBucket.tryAcquire();
+
+		nanoTime += INTERVAL;
+
+		assertTrue(tokenBucket.tryAcquire());
+	}
+
+	@Test
+	public void testReserveReturnsTimeToWait() {
+		takeBurst();
+
+		assertEquals(tokenBucket.reserve(), INTERVAL);
+		assertEquals(tokenBucket.reserve(), 2 * INTERVAL);
+		assertFalse(tokenBucket.tryAcquire());
+	}
+
+	@Test
+	public void testReserveWithAvailableTokenReturnsZero() {
+		assertEquals(tokenBucket.reserve(), 0);
+	}
+
+	@Test
+	public void testTryReserveWithinReturnsTimeToWaitWhenInTime() {
+		takeBurst();
+
+		assertEquals(tokenBucket.tryReserveWithin(INTERVAL), INTERVAL);
+		assertEquals(tokenBucket.tryReserveWithin(3 * INTERVAL), 2 * INTERVAL);
+	}
+
+	@Test
+	public void testTryReserveWithinTakesNoTokenWhenNotInTime() {
+		takeBurst();
+
+		assertEquals(tokenBucket.tryReserveWithin(INTERVAL - 1), -1);
+		assertEquals(tokenBucket.reserve(), INTERVAL);
+	}
+
+	@Test
+	public void testConcurrentTryAcquireHandsOutBurstOnly() throws Exception {
+		tokenBucket = TokenBucket.usingRequestsPerSecondAndBurst(0.001, 50);
+		AtomicInteger acquired = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(200);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 200; i++) {
+				executor.execute(() -> {
+					if (tokenBucket.tryAcquire()) {
+						acquired.incrementAndGet();
+					}
+					done.countDown();
+				});
+			}
+			done.await();
+		}
+
+		assertEquals(acquired.get(), 50);
+	}
+}
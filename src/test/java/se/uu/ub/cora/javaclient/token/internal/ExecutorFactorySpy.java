@@ -32,21 +32,21 @@ public class ExecutorFactorySpy implements ExecutorFactory {
 
 	public ExecutorFactorySpy() {
 		MCR.useMRV(MRV);
-		MRV.setDefaultReturnValuesSupplier("createVirtualThreadPerTaskExecutor",
-				ExecutorServiceSpy::new);
-		MRV.setDefaultReturnValuesSupplier("createSingleThreadScheduledExecutor",
-				ScheduledExecutorServiceSpy::new);
+		ExecutorServiceSpy taskExecutor = new ExecutorServiceSpy();
+		ScheduledExecutorServiceSpy scheduledExecutor = new ScheduledExecutorServiceSpy();
+		MRV.setDefaultReturnValuesSupplier("getSharedTaskExecutor", () -> taskExecutor);
+		MRV.setDefaultReturnValuesSupplier("getSharedScheduledExecutor", () -> scheduledExecutor);
 		MRV.setDefaultReturnValuesSupplier("createWeakReferenceFromRunnable",
 				() -> new WeakReferenceSpy<Runnable>());
 	}
 
 	@Override
-	public ExecutorService createVirtualThreadPerTaskExecutor() {
+	public ExecutorService getSharedTaskExecutor() {
 		return (ExecutorService) MCR.addCallAndReturnFromMRV();
 	}
 
 	@Override
-	public ScheduledExecutorService createSingleThreadScheduledExecutor() {
+	public ScheduledExecutorService getSharedScheduledExecutor() {
 		return (ScheduledExecutorService) MCR.addCallAndReturnFromMRV();
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2025 Uppsala University Library
+ * Copyright 2025, 2026 Uppsala University Library
  *
  * This file is part of Cora.
  *
@@ -19,6 +19,8 @@
 package se.uu.ub.cora.javaclient.token.internal;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 import java.lang.ref.WeakReference;
@@ -27,6 +29,8 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -43,8 +47,8 @@ public class ExecutorFactoryTest {
 	}
 
 	@Test
-	public void testCreateVirtualThreadPerTaskExecutor() throws Exception {
-		ExecutorService executor = executorFactory.createVirtualThreadPerTaskExecutor();
+	public void testSharedTaskExecutorRunsTasksOnVirtualThreads() throws Exception {
+		ExecutorService executor = executorFactory.getSharedTaskExecutor();
 
 		assertEquals(executor.getClass().getCanonicalName(),
 				"java.util.concurrent.ThreadPerTaskExecutor");
@@ -66,13 +70,31 @@ public class ExecutorFactoryTest {
 	}
 
 	@Test
-	public void testCreateSingleThreadScheduleExecutor() {
-		ScheduledExecutorService executor = executorFactory.createSingleThreadScheduledExecutor();
+	public void testSharedTaskExecutorIsSameForAllFactories() {
+		ExecutorService executor = executorFactory.getSharedTaskExecutor();
 
-		assertEquals(executor.getClass().getCanonicalName(),
-				"java.util.concurrent.Executors.DelegatedScheduledExecutorService");
-		// ThreadPoolExecutor poolExecutor = (ThreadPoolExecutor) executor;
-		// assertEquals(poolExecutor.getMaximumPoolSize(), 1);
+		assertSame(new ExecutorFactoryImp().getSharedTaskExecutor(), executor);
+	}
+
+	@Test
+	public void testSharedScheduledExecutorUsesOneDaemonThread() throws Exception {
+		ScheduledExecutorService executor = executorFactory.getSharedScheduledExecutor();
+
+		ScheduledThreadPoolExecutor poolExecutor = (ScheduledThreadPoolExecutor) executor;
+		assertEquals(poolExecutor.getCorePoolSize(), 1);
+		assertTrue(poolExecutor.getRemoveOnCancelPolicy());
+		Thread timerThread = executor.schedule(Thread::currentThread, 0, TimeUnit.MILLISECONDS)
+				.get();
+		assertTrue(timerThread.isDaemon());
+		assertFalse(timerThread.isVirtual());
+		assertEquals(timerThread.getName(), "cora-javaclient-token-renewal");
+	}
+
+	@Test
+	public void testSharedScheduledExecutorIsSameForAllFactories() {
+		ScheduledExecutorService executor = executorFactory.getSharedScheduledExecutor();
+
+		assertSame(new ExecutorFactoryImp().getSharedScheduledExecutor(), executor);
 	}
 
 	@Test
@@ -1,5 +1,5 @@
 /*
- * Copyright 2025 Uppsala University Library
+ * Copyright 2025, 2026 Uppsala University Library
  *
  * This file is part of Cora.
  *
@@ -18,10 +18,13 @@
  */
 package se.uu.ub.cora.javaclient.token.internal;
 
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
+import java.lang.reflect.Field;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -60,138 +63,135 @@ public class OneAtATimeSchedulerTest {
 	}
 
 	@Test
-	public void testVirtualThreadExecutorCreatedAndSubmitCalledWithRunnable() {
+	public void testTaskScheduledOnSharedScheduledExecutor() {
 		scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
 
-		var scheduleCode = getSchedulerCodeFromScheduler();
-
-		assertTrue(scheduleCode instanceof Runnable);
+		ScheduledExecutorServiceSpy scheduledExecutor = getSharedScheduledExecutor();
+		scheduledExecutor.MCR.assertNumberOfCallsToMethod("schedule", 1);
+		scheduledExecutor.MCR.assertParameter("schedule", 0, "delay", DELAY_10MS);
+		scheduledExecutor.MCR.assertParameter("schedule", 0, "unit", TimeUnit.MILLISECONDS);
+		scheduledExecutor.MCR.assertMethodNotCalled("shutdown");
 	}
 
-	private Runnable getSchedulerCodeFromScheduler() {
-		ExecutorServiceSpy virtualExecutorSpy = (ExecutorServiceSpy) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createVirtualThreadPerTaskExecutor");
-		return (Runnable) virtualExecutorSpy.MCR
-				.getParameterForMethodAndCallNumberAndParameter("submit", 0, "task");
+	private ScheduledExecutorServiceSpy getSharedScheduledExecutor() {
+		return (ScheduledExecutorServiceSpy) executorFactorySpy.MCR
+				.getReturnValue("getSharedScheduledExecutor", 0);
 	}
 
 	@Test
-	public void testVirtualThreadExecutorShutdownIsCalled() {
+	public void testScheduledCommandHandsTaskOverToSharedTaskExecutor() {
 		scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
 
-		ExecutorServiceSpy virtualExecutorSpy = (ExecutorServiceSpy) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createVirtualThreadPerTaskExecutor");
-		virtualExecutorSpy.MCR.assertMethodWasCalled("shutdown");
-	}
-
-	@Test
-	public void testVirtualThreadExecutorShutdownOnFinally() {
-		ExecutorServiceSpy executorServiceSpy = new ExecutorServiceSpy();
-		executorFactorySpy.MRV.setDefaultReturnValuesSupplier("createVirtualThreadPerTaskExecutor",
-				() -> executorServiceSpy);
-		executorServiceSpy.MRV.setAlwaysThrowException("submit", new RuntimeException());
+		getScheduledCommand(0).run();
 
-		try {
+		ExecutorServiceSpy taskExecutor = getSharedTaskExecutor();
+		taskExecutor.MCR.assertNumberOfCallsToMethod("submit", 1);
+		task1.MCR.assertMethodNotCalled("run");
+	}
 
-			scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
-		} catch (Exception e) {
-			// TODO: handle exception
-		}
+	private Runnable getScheduledCommand(int callNumber) {
+		return (Runnable) getSharedScheduledExecutor().MCR
+				.getParameterForMethodAndCallNumberAndParameter("schedule", callNumber, "command");
+	}
 
-		ExecutorServiceSpy virtualExecutorSpy = (ExecutorServiceSpy) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createVirtualThreadPerTaskExecutor");
-		virtualExecutorSpy.MCR.assertMethodWasCalled("shutdown");
+	private ExecutorServiceSpy getSharedTaskExecutor() {
+		return (ExecutorServiceSpy) executorFactorySpy.MCR
+				.getReturnValue("getSharedTaskExecutor", 0);
 	}
 
 	@Test
-	public void testSingleScheduleExecutor() {
+	public void testRunWeakReferenceTask() {
 		scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
-		var scheduleCode = getSchedulerCodeFromScheduler();
-		scheduleCode.run();
 
-		ScheduledExecutorServiceSpy singleScheduleExecutorSpy = (ScheduledExecutorServiceSpy) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createSingleThreadScheduledExecutor");
-		singleScheduleExecutorSpy.MCR.assertParameters("schedule", 0);
-		singleScheduleExecutorSpy.MCR.assertParameter("schedule", 0, "delay", DELAY_10MS);
-		singleScheduleExecutorSpy.MCR.assertParameter("schedule", 0, "unit", TimeUnit.MILLISECONDS);
+		runScheduledCommandAndSubmittedTask();
 
+		WeakReferenceSpy<?> weakReferenceSpy = (WeakReferenceSpy<?>) executorFactorySpy.MCR
+				.assertCalledParametersReturn("createWeakReferenceFromRunnable", task1);
+		RunnableTaskSpy taskSpy = (RunnableTaskSpy) weakReferenceSpy.MCR
+				.assertCalledParametersReturn("get");
+		taskSpy.MCR.assertMethodWasCalled("run");
+	}
+
+	private void runScheduledCommandAndSubmittedTask() {
+		getScheduledCommand(0).run();
+		Runnable submittedTask = (Runnable) getSharedTaskExecutor().MCR
+				.getParameterForMethodAndCallNumberAndParameter("submit", 0, "task");
+		submittedTask.run();
 	}
 
 	@Test
-	public void testSingleScheduleExecutorShutdownIsCalled() {
+	public void testTaskNotRunWhenNoLongerReferenced() {
+		WeakReferenceSpy<Runnable> weakReferenceSpy = new WeakReferenceSpy<>();
+		weakReferenceSpy.MRV.setDefaultReturnValuesSupplier("get", () -> null);
+		executorFactorySpy.MRV.setDefaultReturnValuesSupplier("createWeakReferenceFromRunnable",
+				() -> weakReferenceSpy);
 		scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
-		var scheduleCode = getSchedulerCodeFromScheduler();
-		scheduleCode.run();
 
-		ScheduledExecutorServiceSpy singleScheduleExecutorSpy = (ScheduledExecutorServiceSpy) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createSingleThreadScheduledExecutor");
-		singleScheduleExecutorSpy.MCR.assertMethodWasCalled("shutdown");
+		runScheduledCommandAndSubmittedTask();
+
+		weakReferenceSpy.MCR.assertMethodWasCalled("get");
+		task1.MCR.assertMethodNotCalled("run");
 	}
 
 	@Test
-	public void testSingleScheduleExecutorShutdownIsCalledOnFinally() {
-		ScheduledExecutorServiceSpy executorServiceSpy = new ScheduledExecutorServiceSpy();
-		executorServiceSpy.MRV.setAlwaysThrowException("schedule", new RuntimeException());
-		executorFactorySpy.MRV.setDefaultReturnValuesSupplier("createSingleThreadScheduledExecutor",
-				() -> executorServiceSpy);
+	public void testSchedulerHoldsScheduledTask() {
+		OneAtATimeScheduler schedulerImp = (OneAtATimeScheduler) scheduler;
 
 		scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
-		var scheduleCode = getSchedulerCodeFromScheduler();
-		try {
-			scheduleCode.run();
-		} catch (Exception e) {
-			// TODO: handle exception
-		}
+		assertSame(schedulerImp.onlyForTestGetScheduledTask(), task1);
 
-		ScheduledExecutorServiceSpy singleScheduleExecutorSpy = (ScheduledExecutorServiceSpy) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createSingleThreadScheduledExecutor");
-		singleScheduleExecutorSpy.MCR.assertMethodWasCalled("shutdown");
+		scheduler.scheduleTaskWithDelayInMillis(task2, DELAY_10MS);
+		assertSame(schedulerImp.onlyForTestGetScheduledTask(), task2);
 	}
 
 	@Test
-	public void testRunWeakReferenceTask() {
+	public void testOnlyOneSchedulerAtATime_OneTask() {
 		scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
-		var scheduleCode = getSchedulerCodeFromScheduler();
-		scheduleCode.run();
-
-		var runnableSurroundingWeakReferenceForTask = getRunnableSurroundingWeakReference();
 
-		WeakReferenceSpy<?> weakReferenceSpy = (WeakReferenceSpy<?>) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createWeakReferenceFromRunnable", task1);
-
-		runnableSurroundingWeakReferenceForTask.run();
+		ScheduledFutureSpy<?> future = getScheduledFuture(0);
+		future.MCR.assertMethodNotCalled("cancel");
+	}
 
-		RunnableTaskSpy taskSpy = (RunnableTaskSpy) weakReferenceSpy.MCR
-				.assertCalledParametersReturn("get");
-		taskSpy.MCR.assertMethodWasCalled("run");
+	private ScheduledFutureSpy<?> getScheduledFuture(int callNumber) {
+		return (ScheduledFutureSpy<?>) getSharedScheduledExecutor().MCR.getReturnValue("schedule",
+				callNumber);
 	}
 
-	private Runnable getRunnableSurroundingWeakReference() {
-		ScheduledExecutorServiceSpy singleScheduleExecutorSpy = (ScheduledExecutorServiceSpy) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createSingleThreadScheduledExecutor");
-		return (Runnable) singleScheduleExecutorSpy.MCR
-				.getParameterForMethodAndCallNumberAndParameter("schedule", 0, "command");
+	@Test
+	public void testOnlyOneSchedulerAtATime_twoTasks() {
+		scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
+		scheduler.scheduleTaskWithDelayInMillis(task2, DELAY_10MS);
+
+		getScheduledFuture(0).MCR.assertParameters("cancel", 0, false);
+		getScheduledFuture(1).MCR.assertMethodNotCalled("cancel");
 	}
 
 	@Test
-	public void testOnlyOneSchedulerAtATime_OneTask() {
+	public void testCancelScheduledTaskCancelsCurrentFuture() {
 		scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
+		ScheduledFutureSpy<?> future = getScheduledFuture(0);
 
-		ExecutorServiceSpy virtualExecutorSpy = (ExecutorServiceSpy) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createVirtualThreadPerTaskExecutor");
-		FutureSpy<?> future = (FutureSpy<?>) virtualExecutorSpy.MCR.getReturnValue("submit", 0);
-		future.MCR.assertMethodNotCalled("cancel");
+		new OneAtATimeScheduler.CancelScheduledTask(new AtomicReference<>(future)).run();
+
+		future.MCR.assertParameters("cancel", 0, false);
 	}
 
 	@Test
-	public void testOnlyOneSchedulerAtATime_twoTasks() {
+	public void testCancelScheduledTaskWhenNothingScheduled() {
+		new OneAtATimeScheduler.CancelScheduledTask(new AtomicReference<>()).run();
+	}
+
+	@Test
+	public void testScheduledCommandDoesNotReferenceScheduler() throws Exception {
 		scheduler.scheduleTaskWithDelayInMillis(task1, DELAY_10MS);
-		scheduler.scheduleTaskWithDelayInMillis(task2, DELAY_10MS);
 
-		ExecutorServiceSpy virtualExecutorSpy = (ExecutorServiceSpy) executorFactorySpy.MCR
-				.assertCalledParametersReturn("createVirtualThreadPerTaskExecutor");
-		FutureSpy<?> future = (FutureSpy<?>) virtualExecutorSpy.MCR.getReturnValue("submit", 0);
-		future.MCR.assertMethodWasCalled("cancel");
+		Runnable command = getScheduledCommand(0);
+
+		for (Field field : command.getClass().getDeclaredFields()) {
+			field.setAccessible(true);
+			assertFalse(field.get(command) instanceof Scheduler);
+			assertFalse(field.get(command) instanceof RunnableTaskSpy);
+		}
 	}
 
 	@Test(enabled = false)
@@ -24,8 +24,19 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import se.uu.ub.cora.testutils.mcr.MethodCallRecorder;
+import se.uu.ub.cora.testutils.mrv.MethodReturnValues;
+
 public class ScheduledFutureSpy<V> implements ScheduledFuture<V> {
 
+	public MethodCallRecorder MCR = new MethodCallRecorder();
+	public MethodReturnValues MRV = new MethodReturnValues();
+
+	public ScheduledFutureSpy() {
+		MCR.useMRV(MRV);
+		MRV.setDefaultReturnValuesSupplier("cancel", () -> false);
+	}
+
 	@Override
 	public long getDelay(TimeUnit unit) {
 		// TODO Auto-generated method stub
@@ -40,8 +51,8 @@ public class ScheduledFutureSpy<V> implements ScheduledFuture<V> {
 
 	@Override
 	public boolean cancel(boolean mayInterruptIfRunning) {
-		// TODO Auto-generated method stub
-		return false;
+		return (boolean) MCR.addCallAndReturnFromMRV("mayInterruptIfRunning",
+				mayInterruptIfRunning);
 	}
 
 	@Override
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Uppsala University Library
+ *
+ * This file is part of Cora.
+ *
+ *     Cora is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     Cora is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with Cora.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package se.uu.ub.cora.javaclient.token.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import se.uu.ub.cora.javaclient.AppTokenCredentials;
+import se.uu.ub.cora.javaclient.AuthTokenCredentials;
+import se.uu.ub.cora.javaclient.TokenClientSpy;
+import se.uu.ub.cora.javaclient.token.TokenClient;
+
+public class TokenClientRegistryTest {
+	private TokenClientRegistry registry;
+	private AppTokenCredentials appTokenCredentials = new AppTokenCredentials("someLoginUrl",
+			"someLoginId", "someAppToken");
+
+	@BeforeMethod
+	public void beforeMethod() {
+		registry = new TokenClientRegistry();
+	}
+
+	@Test
+	public void testCreatesTokenClientUsingSupplier() {
+		TokenClientSpy tokenClientSpy = new TokenClientSpy();
+
+		TokenClient tokenClient = registry.getOrCreateUsingCredentials(appTokenCredentials,
+				() -> tokenClientSpy);
+
+		assertEquals(registry.getNumberOfRegisteredTokenClients(), 1);
+		assertSame(tokenClient, tokenClientSpy);
+	}
+
+	@Test
+	public void testEqualCredentialsReturnsSameTokenClient() {
+		TokenClient tokenClient = registry.getOrCreateUsingCredentials(appTokenCredentials,
+				TokenClientSpy::new);
+
+		TokenClient tokenClient2 = registry.getOrCreateUsingCredentials(
+				new AppTokenCredentials("someLoginUrl", "someLoginId", "someAppToken"),
+				TokenClientSpy::new);
+
+		assertEquals(registry.getNumberOfRegisteredTokenClients(), 1);
+		assertSame(tokenClient2, tokenClient);
+	}
+
+	@Test
+	public void testDifferentCredentialsReturnsDifferentTokenClients() {
+		TokenClient tokenClient = registry.getOrCreateUsingCredentials(appTokenCredentials,
+				TokenClientSpy::new);
+
+		TokenClient tokenClient2 = registry.getOrCreateUsingCredentials(
+				new AppTokenCredentials("someLoginUrl", "someOtherLoginId", "someAppToken"),
+				TokenClientSpy::new);
+		TokenClient tokenClient3 = registry.getOrCreateUsingCredentials(
+				new AuthTokenCredentials("someRenewUrl", "someAuthToken"), TokenClientSpy::new);
+
+		assertEquals(registry.getNumberOfRegisteredTokenClients(), 3);
+		assertNotSame(tokenClient2, tokenClient);
+		assertNotSame(tokenClient3, tokenClient);
+	}
+
+	@Test
+	public void testTokenClientNoLongerReferencedIsRemoved() throws Exception {
+		registry.getOrCreateUsingCredentials(appTokenCredentials, TokenClientSpy::new);
+
+		waitUntilNoRegisteredTokenClients();
+
+		assertEquals(registry.getNumberOfRegisteredTokenClients(), 0);
+	}
+
+	private void waitUntilNoRegisteredTokenClients() throws InterruptedException {
+		int tries = 0;
+		while (registry.getNumberOfRegisteredTokenClients() > 0 && tries < 100) {
+			System.gc();
+			Thread.sleep(10);
+			tries++;
+		}
+	}
+
+	@Test
+	public void testNewTokenClientIsCreatedWhenPreviousIsNoLongerReferenced() throws Exception {
+		registry.getOrCreateUsingCredentials(appTokenCredentials, TokenClientSpy::new);
+		waitUntilNoRegisteredTokenClients();
+		TokenClientSpy tokenClientSpy = new TokenClientSpy();
+
+		TokenClient tokenClient = registry.getOrCreateUsingCredentials(appTokenCredentials,
+				() -> tokenClientSpy);
+
+		assertEquals(registry.getNumberOfRegisteredTokenClients(), 1);
+		assertSame(tokenClient, tokenClientSpy);
+	}
+}
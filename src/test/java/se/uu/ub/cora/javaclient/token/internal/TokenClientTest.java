@@ -19,14 +19,19 @@
 package se.uu.ub.cora.javaclient.token.internal;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -43,6 +48,7 @@ import se.uu.ub.cora.javaclient.AppTokenCredentials;
 import se.uu.ub.cora.javaclient.AuthTokenCredentials;
 import se.uu.ub.cora.javaclient.data.DataClientException;
 import se.uu.ub.cora.javaclient.token.TokenClient;
+import se.uu.ub.cora.javaclient.token.TokenRenewalSettings;
 
 public class TokenClientTest {
 	private static final String AUTHTOKEN_RENEW_URL = "someAuthTokenRenewUrl";
@@ -196,15 +202,31 @@ public class TokenClientTest {
 	}
 
 	@Test
-	public void testGetAuthTokenIsSynchronized() throws Exception {
+	public void testGetAuthTokenTakesNoLock() throws Exception {
 		Method getAuthToken = TokenClientImp.class.getMethod("getAuthToken");
-		assertTrue(Modifier.isSynchronized(getAuthToken.getModifiers()));
+		assertFalse(Modifier.isSynchronized(getAuthToken.getModifiers()));
 	}
 
 	@Test
-	public void testRequestNewAuthTokenIsSynchronized() throws Exception {
+	public void testGetAuthTokenIsNotBlockedByOngoingLogin() throws Exception {
+		createClientUsingApptoken();
+		tokenClient.getAuthToken();
+
+		String authToken;
+		synchronized (tokenClient) {
+			authToken = CompletableFuture
+					.supplyAsync(tokenClient::getAuthToken,
+							task -> Thread.ofPlatform().start(task))
+					.get(5, TimeUnit.SECONDS);
+		}
+
+		clientDataAuthenticationSpyFirst.MCR.assertReturn("getToken", 1, authToken);
+	}
+
+	@Test
+	public void testRequestNewAuthTokenOnlyLocksWhileLoggingIn() throws Exception {
 		Method requestNewAuthToken = TokenClientImp.class.getMethod("requestNewAuthToken");
-		assertTrue(Modifier.isSynchronized(requestNewAuthToken.getModifiers()));
+		assertFalse(Modifier.isSynchronized(requestNewAuthToken.getModifiers()));
 	}
 
 	@Test
@@ -417,16 +439,21 @@ public class TokenClientTest {
 
 	}
 
-	@Test(expectedExceptions = DataClientException.class, expectedExceptionsMessageRegExp = ""
-			+ "The authToken renewal could not be scheduled because it has reached the permitted "
-			+ "renewal limit. The current token will remain active for a while but will "
-			+ "eventually become unauthorized. Please re-login to continue using this client.")
-	public void testDoNotScheduleRenewAuthIfTimeToRenewHasPassedRenewUntil__withAppTokenInit() {
+	@Test
+	public void testScheduleLoginIfTimeToRenewHasPassedRenewUntil__withAppTokenInit() {
 		setRenewUntilToBeBeforeTimeToRenew();
 		createClientUsingApptoken();
 
 		triggerRenewOfInitialAuthTokenOnServerUsingGetAuthTokenMethod();
 
+		assertDelayForRenewScheduler();
+		runScheduledTaskNumber(0);
+
+		httpHandlerFactory.MCR.assertNumberOfCallsToMethod("factor", 2);
+		httpHandlerFactory.MCR.assertParameters("factor", 1, LOGIN_URL + CORA_REST_APPTOKEN_ENDPOINT);
+		String authToken = tokenClient.getAuthToken();
+		clientDataAuthenticationSpySecond.MCR.assertReturn("getToken", 0, authToken);
+		scheduler.MCR.assertNumberOfCallsToMethod("scheduleTaskWithDelayInMillis", 2);
 	}
 
 	private void setRenewUntilToBeBeforeTimeToRenew() {
@@ -437,6 +464,80 @@ public class TokenClientTest {
 				() -> renewUntil);
 	}
 
+	@Test
+	public void testScheduleRenewUsingMarginFromRenewalSettings() {
+		TokenRenewalSettings renewalSettings = new TokenRenewalSettings(Duration.ofSeconds(20),
+				Duration.ZERO);
+		tokenClient = TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAppTokenAndRenewalSettings(
+				httpHandlerFactory, scheduler, appTokenCredentials, renewalSettings);
+
+		triggerRenewOfInitialAuthTokenOnServerUsingGetAuthTokenMethod();
+
+		long delay = getScheduledDelayUsingCallNumber(0);
+		assertTrue(delay <= 50000 - 20000);
+		assertTrue(delay > 49500 - 20000);
+	}
+
+	@Test
+	public void testScheduleRenewUsingJitterFromRenewalSettings() {
+		TokenRenewalSettings renewalSettings = new TokenRenewalSettings(Duration.ofSeconds(10),
+				Duration.ofSeconds(5));
+		tokenClient = TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAuthTokenAndRenewalSettings(
+				httpHandlerFactory, scheduler, authTokenCredentials, renewalSettings);
+
+		triggerRenewOfInitialAuthTokenOnServerUsingGetAuthTokenMethod();
+
+		long delay = getScheduledDelayUsingCallNumber(0);
+		assertTrue(delay <= 50000 - 10000);
+		assertTrue(delay > 49500 - 10000 - 5000);
+	}
+
+	@Test
+	public void testScheduleRenewAtHalfOfLifetimeIfMarginIsLongerThanValidTime() {
+		TokenRenewalSettings renewalSettings = new TokenRenewalSettings(Duration.ofMinutes(2),
+				Duration.ZERO);
+		tokenClient = TokenClientImp.usingHttpHandlerFactoryAndSchedulerAndAppTokenAndRenewalSettings(
+				httpHandlerFactory, scheduler, appTokenCredentials, renewalSettings);
+
+		triggerRenewOfInitialAuthTokenOnServerUsingGetAuthTokenMethod();
+
+		long delay = getScheduledDelayUsingCallNumber(0);
+		assertTrue(delay <= 50000 / 2);
+		assertTrue(delay > 49500 / 2);
+	}
+
+	@Test
+	public void testScheduleRenewNoSoonerThanOneSecond() {
+		clientDataAuthenticationSpyFirst.MRV.setDefaultReturnValuesSupplier("getValidUntil",
+				() -> String.valueOf(System.currentTimeMillis()));
+		createClientUsingApptoken();
+
+		triggerRenewOfInitialAuthTokenOnServerUsingGetAuthTokenMethod();
+
+		assertEquals(getScheduledDelayUsingCallNumber(0), 1000L);
+	}
+
+	@Test
+	public void testNegativeRenewalSettingsAreRejected() {
+		assertInvalidRenewalSettings(Duration.ofSeconds(-1), Duration.ZERO);
+		assertInvalidRenewalSettings(Duration.ZERO, Duration.ofSeconds(-1));
+	}
+
+	private void assertInvalidRenewalSettings(Duration margin, Duration maxJitter) {
+		try {
+			new TokenRenewalSettings(margin, maxJitter);
+			fail("It should throw an exception");
+		} catch (DataClientException e) {
+			assertEquals(e.getMessage(),
+					"Invalid token renewal settings, margin and maxJitter must not be negative.");
+		}
+	}
+
+	private long getScheduledDelayUsingCallNumber(int callNumber) {
+		return (long) scheduler.MCR.getParameterForMethodAndCallNumberAndParameter(
+				"scheduleTaskWithDelayInMillis", callNumber, "delayInMillis");
+	}
+
 	@Test
 	public void testSceduledRenewTaskAfterInitialRenewOfProvidedAuthTokenByRunningIt_withAuthTokenInit() {
 		HttpHandlerSpy hhs1 = createHttpHandlerSpyForResponse(200, TOKEN_FIRST);
@@ -517,32 +618,93 @@ public class TokenClientTest {
 		scheduler.MCR.assertMethodWasCalled("scheduleTaskWithDelayInMillis");
 	}
 
-	@Test(expectedExceptions = DataClientException.class, expectedExceptionsMessageRegExp = ""
-			+ "Could not renew authToken due to error. Response code: 500")
-	public void testTrySceduledNewRenewAuthTokenAfterFirstRenewAuthTokenIsNotOK() {
+	@Test
+	public void testFailedRenewKeepsAuthTokenAndIsRetried() {
 		HttpHandlerSpy hhs1 = createHttpHandlerSpyForResponse(200, TOKEN_FIRST);
 		HttpHandlerSpy hhs2 = createHttpHandlerSpyForResponse(500, TOKEN_SECOND);
 		httpHandlerFactory.MRV.setDefaultReturnValuesSupplier("factor",
-				ListSupplier.of(hhs1, hhs2));
+				ListSupplier.of(hhs1, hhs2, hhs2));
 
 		createClientUsingAuthToken();
 
 		triggerRenewOfInitialAuthTokenOnServerUsingGetAuthTokenMethod();
 
 		runScheduledTaskNumber(0);
+
+		assertEquals(tokenClient.getAuthToken(), TOKEN_FIRST);
+		assertEquals(getScheduledDelayUsingCallNumber(1), 1000L);
+		runScheduledTaskNumber(1);
+		httpHandlerFactory.MCR.assertParameters("factor", 2, renewActionFirst.getURL());
+		assertEquals(getScheduledDelayUsingCallNumber(2), 2000L);
 	}
 
-	@Test(expectedExceptions = DataClientException.class, expectedExceptionsMessageRegExp = ""
-			+ "Could not renew authToken due to error. Response code: 500")
-	public void testTrySceduledNewRenewAuthTokenAfterFirstRenewAuthTokenIsNotOK_withApptokenInit() {
+	@Test
+	public void testFailedRenewIsRetriedUntilItSucceeds_withApptokenInit() {
 		HttpHandlerSpy hhs1 = createHttpHandlerSpyForResponse(500, TOKEN_FIRST);
-		httpHandlerFactory.MRV.setDefaultReturnValuesSupplier("factor", () -> hhs1);
+		HttpHandlerSpy hhs2 = createHttpHandlerSpyForResponse(200, TOKEN_SECOND);
+		httpHandlerFactory.MRV.setDefaultReturnValuesSupplier("factor",
+				ListSupplier.of(hhs1, hhs2));
+		clientDataAuthenticationSpySecond.MRV.setDefaultReturnValuesSupplier("getToken",
+				() -> TOKEN_SECOND);
 
 		createClientUsingApptoken();
 
 		triggerRenewOfInitialAuthTokenOnServerUsingGetAuthTokenMethod();
 
 		runScheduledTaskNumber(0);
+		assertEquals(tokenClient.getAuthToken(), TOKEN_FIRST);
+		runScheduledTaskNumber(1);
+
+		assertEquals(tokenClient.getAuthToken(), TOKEN_SECOND);
+		hhs2.MCR.assertParameters("setRequestProperty", 1, "authToken", TOKEN_FIRST);
+		scheduler.MCR.assertNumberOfCallsToMethod("scheduleTaskWithDelayInMillis", 3);
+		assertTrue(getScheduledDelayUsingCallNumber(2) > 1000L);
+	}
+
+	@Test
+	public void testFailedRenewIsNotRetriedAfterValidUntil() {
+		clientDataAuthenticationSpyFirst.MRV.setDefaultReturnValuesSupplier("getValidUntil",
+				() -> String.valueOf(System.currentTimeMillis() + 1500));
+		HttpHandlerSpy hhs1 = createHttpHandlerSpyForResponse(500, TOKEN_FIRST);
+		httpHandlerFactory.MRV.setDefaultReturnValuesSupplier("factor", () -> hhs1);
+		createClientUsingApptoken();
+
+		triggerRenewOfInitialAuthTokenOnServerUsingGetAuthTokenMethod();
+
+		runScheduledTaskNumber(0);
+		runScheduledTaskNumber(1);
+
+		scheduler.MCR.assertNumberOfCallsToMethod("scheduleTaskWithDelayInMillis", 2);
+		assertEquals(tokenClient.getAuthToken(), TOKEN_FIRST);
+	}
+
+	@Test
+	public void testRenewDoesNotReplaceAuthTokenReplacedWhileRenewing() {
+		HttpHandlerSpy hhs1 = createHttpHandlerSpyForResponse(200, TOKEN_SECOND);
+		httpHandlerFactory.MRV.setDefaultReturnValuesSupplier("factor", () -> hhs1);
+		clientDataAuthenticationSpySecond.MRV.setDefaultReturnValuesSupplier("getToken",
+				() -> TOKEN_SECOND);
+		setUpConverterOfRenewAnswerAfterTwoLogins();
+		createClientUsingApptoken();
+		triggerRenewOfInitialAuthTokenOnServerUsingGetAuthTokenMethod();
+		tokenClient.requestNewAuthTokenReplacingAuthToken(TOKEN_FIRST);
+
+		runScheduledTaskNumber(0);
+
+		assertEquals(tokenClient.getAuthToken(), TOKEN_SECOND);
+		scheduler.MCR.assertNumberOfCallsToMethod("scheduleTaskWithDelayInMillis", 2);
+	}
+
+	private void setUpConverterOfRenewAnswerAfterTwoLogins() {
+		ClientDataAuthenticationSpy renewedAuthentication = new ClientDataAuthenticationSpy();
+		renewedAuthentication.MRV.setDefaultReturnValuesSupplier("getToken",
+				() -> "someRenewedToken");
+		JsonToClientDataConverterSpy renewConverter = new JsonToClientDataConverterSpy();
+		renewConverter.MRV.setDefaultReturnValuesSupplier("toInstance",
+				() -> renewedAuthentication);
+		jsonToDataConverterFactory.MRV.setDefaultReturnValuesSupplier("factorUsingString",
+				ListSupplier.of(jsonToClientDataConverterSpyFirst,
+						jsonToClientDataConverterSpySecond, renewConverter));
 	}
 
 	private void runScheduledTaskNumber(int callNumber) {
@@ -593,6 +755,99 @@ public class TokenClientTest {
 				authenticationResponseSecond);
 	}
 
+	@Test
+	public void testRequestNewAuthTokenSchedulesRenewOfNewAuthToken() {
+		createClientUsingApptoken();
+		tokenClient.getAuthToken();
+
+		tokenClient.requestNewAuthToken();
+
+		scheduler.MCR.assertNumberOfCallsToMethod("scheduleTaskWithDelayInMillis", 2);
+		clientDataAuthenticationSpySecond.MCR.assertParameters("getActionLink", 0,
+				ClientAction.RENEW);
+	}
+
+	@Test
+	public void testNoCoalescedLoginsForSequentialRequests() {
+		createClientUsingApptoken();
+		tokenClient.getAuthToken();
+
+		tokenClient.requestNewAuthToken();
+
+		assertEquals(getNumberOfCoalescedLogins(), 0L);
+	}
+
+	@Test
+	public void testRequestNewAuthTokenWaitingForConcurrentLoginUsesItsResult() throws Exception {
+		createClientUsingApptoken();
+		tokenClient.getAuthToken();
+
+		Thread waitingCaller;
+		synchronized (tokenClient) {
+			waitingCaller = Thread.ofPlatform().start(tokenClient::requestNewAuthToken);
+			waitUntilBlocked(waitingCaller);
+			tokenClient.requestNewAuthToken();
+		}
+		waitingCaller.join();
+
+		httpHandlerFactory.MCR.assertNumberOfCallsToMethod("factor", 2);
+		String authToken = tokenClient.getAuthToken();
+		clientDataAuthenticationSpySecond.MCR.assertReturn("getToken", 0, authToken);
+		assertEquals(getNumberOfCoalescedLogins(), 1L);
+	}
+
+	private long getNumberOfCoalescedLogins() {
+		return ((TokenClientImp) tokenClient).getNumberOfCoalescedLogins();
+	}
+
+	@Test(expectedExceptions = DataClientException.class, expectedExceptionsMessageRegExp = ""
+			+ "Could not request a new authToken due to being initialized without appToken.")
+	public void testRequestNewAuthTokenReplacingAuthToken_withAuthTokenSetUp() {
+		createClientUsingAuthToken();
+
+		tokenClient.requestNewAuthTokenReplacingAuthToken("someRejectedToken");
+	}
+
+	@Test
+	public void testRequestNewAuthTokenReplacingCurrentAuthTokenLogsIn() {
+		createClientUsingApptoken();
+		tokenClient.getAuthToken();
+
+		tokenClient.requestNewAuthTokenReplacingAuthToken(TOKEN_FIRST);
+
+		httpHandlerFactory.MCR.assertNumberOfCallsToMethod("factor", 2);
+		scheduler.MCR.assertNumberOfCallsToMethod("scheduleTaskWithDelayInMillis", 2);
+		assertEquals(getNumberOfCoalescedLogins(), 0L);
+	}
+
+	@Test
+	public void testRequestNewAuthTokenReplacingAlreadyReplacedAuthTokenDoesNotLogIn() {
+		createClientUsingApptoken();
+		clientDataAuthenticationSpySecond.MRV.setDefaultReturnValuesSupplier("getToken",
+				() -> "someSecondToken");
+		tokenClient.getAuthToken();
+		tokenClient.requestNewAuthTokenReplacingAuthToken(TOKEN_FIRST);
+
+		tokenClient.requestNewAuthTokenReplacingAuthToken(TOKEN_FIRST);
+
+		httpHandlerFactory.MCR.assertNumberOfCallsToMethod("factor", 2);
+		assertEquals(tokenClient.getAuthToken(), "someSecondToken");
+		assertEquals(getNumberOfCoalescedLogins(), 1L);
+	}
+
+	private void waitUntilBlocked(Thread thread) throws InterruptedException {
+		while (thread.getState() != Thread.State.BLOCKED) {
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	public void testNumberOfCoalescedLoginsForAuthTokenClient() {
+		createClientUsingAuthToken();
+
+		assertEquals(getNumberOfCoalescedLogins(), 0L);
+	}
+
 	@Test
 	public void testHttpHandlerSetupCorrectlyUsingAuthToken() {
 		createClientUsingAuthToken();
@@ -611,5 +866,6 @@ public class TokenClientTest {
 		assertSame(tokenClientImp.onlyForTestGetHttpHandlerFactory(), httpHandlerFactory);
 		assertSame(tokenClientImp.onlyForTestGetScheduler(), scheduler);
 		assertSame(tokenClientImp.onlyForTestGetAppTokenCredentials(), appTokenCredentials);
+		assertSame(tokenClientImp.onlyForTestGetRenewalSettings(), TokenRenewalSettings.DEFAULT);
 	}
 }